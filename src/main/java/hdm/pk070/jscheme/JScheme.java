@@ -1,7 +1,9 @@
 package hdm.pk070.jscheme;
 
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
 import hdm.pk070.jscheme.error.SchemeError;
-import hdm.pk070.jscheme.eval.SchemeEval;
+import hdm.pk070.jscheme.ir.pass.PassManager;
 import hdm.pk070.jscheme.obj.SchemeObject;
 import hdm.pk070.jscheme.print.SchemePrint;
 import hdm.pk070.jscheme.reader.SchemeReader;
@@ -21,11 +23,21 @@ class JScheme {
         JSchemeSetup.init();
 
         SchemeReader schemeReader = SchemeReader.withStdin();
+        SchemeExecutor schemeExecutor = SchemeExecutor.withEngine(ExecutionEngine.byName(System.getProperty
+                (SchemeConstants.ENGINE_PROPERTY, SchemeConstants.DEFAULT_ENGINE)));
+        schemeExecutor.setFuel(Long.getLong(SchemeConstants.FUEL_PROPERTY, SchemeConstants.DEFAULT_FUEL));
+        schemeExecutor.setTimeout(Long.getLong(SchemeConstants.TIMEOUT_PROPERTY, SchemeConstants.DEFAULT_TIMEOUT));
+        PassManager passManager = PassManager.forSpecification(System.getProperty(SchemeConstants.PASSES_PROPERTY,
+                SchemeConstants.DEFAULT_PASSES));
+        if (passManager.hasEnabledPasses()) {
+            schemeExecutor.setPassManager(passManager);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(passManager.report())));
+        }
         for (; ; ) {
             SchemePrint.showPrompt();
             try {
                 SchemeObject readResult = schemeReader.read();
-                SchemeObject evalResult = SchemeEval.getInstance().eval(readResult, GlobalEnvironment.getInstance());
+                SchemeObject evalResult = schemeExecutor.execute(readResult, GlobalEnvironment.getInstance());
                 SchemePrint.printEvalResult(evalResult);
             } catch (SchemeError schemeError) {
                 schemeReader.clear();
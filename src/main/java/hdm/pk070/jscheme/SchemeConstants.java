@@ -13,4 +13,24 @@ public class SchemeConstants {
     public static final String BOOL_FALSE_VAL = "#f";
     public static final String NIL_VAL = "nil";
 
+    public static final String ENGINE_PROPERTY = "jscheme.engine";
+    public static final String DEFAULT_ENGINE = "analyzed";
+
+    public static final String JIT_THRESHOLD_PROPERTY = "jscheme.jit.threshold";
+    public static final int DEFAULT_JIT_THRESHOLD = 1000;
+
+    public static final String MAX_FRAMES_PROPERTY = "jscheme.vm.maxFrames";
+    public static final int DEFAULT_MAX_FRAMES = 1000000;
+
+    public static final String FUEL_PROPERTY = "jscheme.fuel";
+    public static final long DEFAULT_FUEL = -1;
+
+    public static final String TIMEOUT_PROPERTY = "jscheme.timeout";
+    public static final long DEFAULT_TIMEOUT = 0;
+
+    public static final String PASSES_PROPERTY = "jscheme.passes";
+    public static final String DEFAULT_PASSES = "none";
+
+    public static final String DEBUG_PROPERTY = "jscheme.debug";
+
 }
@@ -0,0 +1,347 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Keeps track of the symbols which are bound by the lambdas enclosing the expression currently analyzed. Every
+ * function scope corresponds to the {@link LocalEnvironment} created when calling the function, and every symbol
+ * bound by it gets a fixed slot in that environment. The outermost scope refers to the {@link Environment} the
+ * analyzed expression will be executed in and does not assign any slots.
+ * <br/><br/>
+ * Functions created by the analyzer are flat closures: instead of keeping the whole environment they are created
+ * in, they copy the entries of the variables they actually reference from enclosing functions into a closure
+ * environment of their own. Resolving such a variable registers it as captured by every scope between the
+ * reference and the binding scope, so a local variable is always found at depth 0 (the function's own
+ * environment) or depth 1 (its closure environment).
+ * <br/><br/>
+ * Only variables which are assigned (by 'set!' or by defining them once more) have to be shared with the closures
+ * capturing them, since everyone referring to them has to see the assignment. These variables are boxed, i.e. the
+ * closure environment refers to the very entry the variable is stored in. The value of any other variable is
+ * copied into an entry of the closure environment, so the entries of a function's own environment belong to that
+ * environment alone and can be rebound in place.
+ */
+public final class AnalysisScope {
+
+    private final AnalysisScope parentScope;
+    private final AnalysisScope frameScope;
+    private final Environment<SchemeSymbol, EnvironmentEntry> rootEnvironment;
+    private final Map<SchemeSymbol, Integer> slots;
+    private final boolean flatClosure;
+    private final Map<SchemeSymbol, Integer> captures;
+    private final List<LexicalAddress> captureSources;
+    private final List<Boolean> sharedCaptures;
+    private final Set<SchemeSymbol> definedSymbols;
+    private final Set<SchemeSymbol> assignedSymbols;
+    private boolean localsCaptured;
+    private SchemeSymbol selfName;
+    private SchemeCustomUserFunction selfFunction;
+    private int slotCount;
+
+    /**
+     * Create the outermost scope.
+     *
+     * @param rootEnvironment
+     *         The environment the analyzed expression will be executed in.
+     * @return The new scope.
+     */
+    public static AnalysisScope withRootEnvironment(Environment<SchemeSymbol, EnvironmentEntry> rootEnvironment) {
+        return new AnalysisScope(null, null, rootEnvironment, false);
+    }
+
+    private AnalysisScope(AnalysisScope parentScope, AnalysisScope frameScope, Environment<SchemeSymbol,
+            EnvironmentEntry> rootEnvironment, boolean flatClosure) {
+        this.parentScope = parentScope;
+        this.frameScope = Objects.isNull(frameScope) ? this : frameScope;
+        this.rootEnvironment = rootEnvironment;
+        this.flatClosure = flatClosure;
+        this.slots = new HashMap<>();
+        this.captures = new LinkedHashMap<>();
+        this.captureSources = new ArrayList<>();
+        this.sharedCaptures = new ArrayList<>();
+        this.definedSymbols = new HashSet<>();
+        this.assignedSymbols = new HashSet<>();
+        this.localsCaptured = false;
+        this.slotCount = 0;
+    }
+
+    /**
+     * Open a nested function scope for the body of a flat closure, i.e. a function whose home environment is a
+     * closure environment holding its captured variables.
+     *
+     * @return The new scope whose parent is the calling scope.
+     */
+    public AnalysisScope createClosureScope() {
+        return new AnalysisScope(this, null, rootEnvironment, true);
+    }
+
+    /**
+     * Open a nested function scope for the body of a function whose home environment is the root environment
+     * itself. Such a function can't capture anything since the calling scope must be the outermost one.
+     *
+     * @return The new scope whose parent is the calling scope.
+     */
+    public AnalysisScope createChildScope() {
+        return new AnalysisScope(this, null, rootEnvironment, false);
+    }
+
+    /**
+     * Open a scope for the body of a function which is inlined into the function of this scope. The inlined
+     * function's parameters are stored in additional slots of this scope's environments, but they are not visible
+     * to the code of this scope. Since the inlined function has been defined globally, all other symbols refer to
+     * the root environment rather than to the variables of this scope.
+     *
+     * @return The new scope.
+     */
+    public AnalysisScope createInlineScope() {
+        return new AnalysisScope(withRootEnvironment(rootEnvironment), this, rootEnvironment, false);
+    }
+
+    /**
+     * Bind a parameter to the next free slot. If a parameter name appears twice, the last one wins.
+     *
+     * @param parameter
+     *         The parameter's name.
+     */
+    public void bindParameter(SchemeSymbol parameter) {
+        slots.put(parameter, frameScope.slotCount++);
+    }
+
+    /**
+     * Declare a variable defined within this scope. Defining a symbol that's already bound reuses its slot.
+     *
+     * @param symbol
+     *         The name of the variable.
+     * @return The slot the variable is stored in or an empty {@link Optional} if this is the outermost scope.
+     */
+    public Optional<Integer> declare(SchemeSymbol symbol) {
+        if (isOutermostScope()) {
+            return Optional.empty();
+        }
+        if (!slots.containsKey(symbol)) {
+            slots.put(symbol, frameScope.slotCount++);
+        }
+        definedSymbols.add(symbol);
+        return Optional.of(slots.get(symbol));
+    }
+
+    /**
+     * Record the variables assigned within the body of this scope's function. Must be called before the body is
+     * analyzed, since it decides how nested closures capture the variables bound by this scope.
+     *
+     * @param symbols
+     *         The assigned variables, possibly including variables not bound by this scope.
+     */
+    public void declareAssignments(Collection<SchemeSymbol> symbols) {
+        assignedSymbols.addAll(symbols);
+    }
+
+    /**
+     * Check if a variable bound by this scope has to be boxed, i.e. its entry has to be shared by the closures
+     * capturing it. That's the case for assigned variables and internal definitions, which may even be captured
+     * before they have been defined.
+     */
+    private boolean isBoxed(SchemeSymbol symbol) {
+        return assignedSymbols.contains(symbol) || definedSymbols.contains(symbol);
+    }
+
+    /**
+     * Check if a symbol is bound by this scope or any of its parents.
+     *
+     * @param symbol
+     *         The symbol to search for.
+     * @return True if bound, false otherwise.
+     */
+    public boolean isBound(SchemeSymbol symbol) {
+        return slots.containsKey(symbol) || captures.containsKey(symbol) || (Objects.nonNull(parentScope) &&
+                parentScope.isBound(symbol));
+    }
+
+    /**
+     * Resolve a symbol to the position it will be found at during execution. Variables bound by an enclosing
+     * function are captured by this scope (and, transitively, by all scopes in between) on first reference.
+     *
+     * @param symbol
+     *         The symbol to resolve.
+     * @return An {@link Optional} containing the symbol's address or an empty {@link Optional} if the symbol is not
+     * bound by any enclosing function scope.
+     */
+    public Optional<LexicalAddress> resolve(SchemeSymbol symbol) {
+        if (isOutermostScope()) {
+            return Optional.empty();
+        }
+
+        Integer slot = slots.get(symbol);
+        if (Objects.nonNull(slot)) {
+            return Optional.of(new LexicalAddress(0, slot));
+        }
+
+        Integer captureSlot = captures.get(symbol);
+        if (Objects.isNull(captureSlot)) {
+            Optional<LexicalAddress> captureSource = parentScope.resolve(symbol);
+            if (!captureSource.isPresent()) {
+                return Optional.empty();
+            }
+            // Entries of closure environments are never rebound, so they can be shared in any case
+            boolean shared = captureSource.get().getDepth() != 0 || parentScope.isBoxed(symbol);
+            if (captureSource.get().getDepth() == 0 && shared) {
+                parentScope.localsCaptured = true;
+            }
+            captureSlot = captureSources.size();
+            captures.put(symbol, captureSlot);
+            captureSources.add(captureSource.get());
+            sharedCaptures.add(shared);
+        }
+        return Optional.of(new LexicalAddress(1, captureSlot));
+    }
+
+    /**
+     * Declare the function whose body is analyzed in this scope. Calls in tail position whose function slot is
+     * {@code name} are candidates for being executed as a loop (see {@link #getSelfFunction(SchemeSymbol)}).
+     *
+     * @param name
+     *         The name the function refers to itself by.
+     * @param function
+     *         The prepared function.
+     */
+    public void bindSelf(SchemeSymbol name, SchemeCustomUserFunction function) {
+        this.selfName = name;
+        this.selfFunction = function;
+    }
+
+    /**
+     * Bind {@code name} to the closure created for this scope, i.e. the first captured variable of this scope is
+     * the closure itself. This is how a named let refers to its loop.
+     *
+     * @param name
+     *         The name the function refers to itself by.
+     * @param function
+     *         The prepared function.
+     */
+    public void bindSelfReference(SchemeSymbol name, SchemeCustomUserFunction function) {
+        bindSelf(name, function);
+        captures.put(name, captureSources.size());
+        // There's no address to copy the closure from, LambdaNode fills the entry in
+        captureSources.add(null);
+        sharedCaptures.add(true);
+    }
+
+    /**
+     * Get the function a call probably refers to itself by. Whether a call actually is a self call can only be
+     * decided when executing it, since the name might be rebound in the meantime.
+     *
+     * @param name
+     *         The function slot of a call.
+     * @return An {@link Optional} containing the function whose body is analyzed in this scope if it is called
+     * {@code name}, an empty {@link Optional} otherwise.
+     */
+    public Optional<SchemeCustomUserFunction> getSelfFunction(SchemeSymbol name) {
+        if (Objects.nonNull(selfName) && selfName == name) {
+            return Optional.of(selfFunction);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return True if a closure nested in this scope shares the entry of a variable bound by this scope, i.e.
+     * environments of this scope must not be rebound in place.
+     */
+    public boolean areLocalsCaptured() {
+        return localsCaptured;
+    }
+
+    /**
+     * @return The symbols captured by this scope, ordered by the slot they occupy in the closure environment.
+     */
+    public SchemeSymbol[] getCapturedSymbols() {
+        return captures.keySet().toArray(new SchemeSymbol[captures.size()]);
+    }
+
+    /**
+     * @return The addresses of the captured variables, relative to the environment the closure is created in. The
+     * address of a self reference (see {@link #bindSelfReference(SchemeSymbol, SchemeCustomUserFunction)}) is null.
+     */
+    public LexicalAddress[] getCaptureSources() {
+        return captureSources.toArray(new LexicalAddress[captureSources.size()]);
+    }
+
+    /**
+     * @return For each captured variable, whether the closure shares the variable's entry rather than copying its
+     * value.
+     */
+    public boolean[] getSharedCaptures() {
+        boolean[] shared = new boolean[sharedCaptures.size()];
+        for (int i = 0; i < shared.length; i++) {
+            shared[i] = sharedCaptures.get(i);
+        }
+        return shared;
+    }
+
+    /**
+     * Get the number of environments to walk up from an environment of this scope to reach the root environment.
+     * Executing a flat closure involves its own environment and its closure environment, whereas other functions
+     * have the root environment as their parent.
+     *
+     * @return The distance between this scope's environments and the root environment.
+     */
+    public int getRootDepth() {
+        if (isOutermostScope()) {
+            return 0;
+        }
+        return flatClosure ? 2 : 1;
+    }
+
+    /**
+     * Resolve a symbol to built-in syntax. This is only possible if the symbol is not shadowed by any enclosing
+     * lambda and the root environment binds it to a {@link SchemeBuiltinSyntax}.
+     *
+     * @param symbol
+     *         The symbol to resolve.
+     * @return An {@link Optional} containing the syntax or an empty {@link Optional} if the symbol is no keyword.
+     */
+    public Optional<SchemeBuiltinSyntax> lookupSyntax(SchemeSymbol symbol) {
+        if (isBound(symbol)) {
+            return Optional.empty();
+        }
+        Optional<EnvironmentEntry> entryOptional = rootEnvironment.get(symbol);
+        if (entryOptional.isPresent()) {
+            SchemeObject value = entryOptional.get().getValue();
+            if (Objects.nonNull(value) && value.hasType(SchemeType.BUILTIN_SYNTAX)) {
+                return Optional.of((SchemeBuiltinSyntax) value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean isOutermostScope() {
+        return Objects.isNull(parentScope);
+    }
+
+    /**
+     * @return The number of slots a {@link LocalEnvironment} needs for this scope.
+     */
+    public int getSlotCount() {
+        return frameScope.slotCount;
+    }
+
+    public Environment<SchemeSymbol, EnvironmentEntry> getRootEnvironment() {
+        return rootEnvironment;
+    }
+}
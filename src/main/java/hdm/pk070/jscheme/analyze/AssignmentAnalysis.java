@@ -0,0 +1,71 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinQuote;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSet;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds the variables a function body assigns by 'set!' before the body is analyzed. Whether a variable is ever
+ * assigned decides how closures capture it (see {@link AnalysisScope}): the entry of an assigned variable has to be
+ * shared by everyone referring to it, whereas the value of any other variable can be copied freely.
+ * <br/><br/>
+ * The search doesn't keep track of which variable an assignment actually refers to, so an assignment of a
+ * variable shadowing a parameter within a nested lambda counts for the parameter as well. This only costs a shared
+ * entry where a copy would do.
+ */
+final class AssignmentAnalysis {
+
+    static AssignmentAnalysis create() {
+        return new AssignmentAnalysis();
+    }
+
+    private AssignmentAnalysis() {
+    }
+
+    /**
+     * Collect the variables assigned anywhere within a form, including the bodies of nested lambdas.
+     *
+     * @param form
+     *         The source of a function body.
+     * @param scope
+     *         The scope of the function, deciding which symbols refer to built-in syntax.
+     * @return The assigned variables.
+     */
+    Set<SchemeSymbol> findAssignedSymbols(SchemeObject form, AnalysisScope scope) {
+        Set<SchemeSymbol> assignedSymbols = new HashSet<>();
+        collectAssignedSymbols(form, scope, assignedSymbols);
+        return assignedSymbols;
+    }
+
+    private void collectAssignedSymbols(SchemeObject form, AnalysisScope scope, Set<SchemeSymbol>
+            assignedSymbols) {
+        SchemeObject restForm = form;
+        while (restForm.hasType(SchemeType.CONS)) {
+            SchemeObject element = ((SchemeCons) restForm).getCar();
+            if (restForm == form && element.hasType(SchemeType.SYMBOL)) {
+                Optional<SchemeBuiltinSyntax> syntax = scope.lookupSyntax((SchemeSymbol) element);
+                if (syntax.isPresent() && syntax.get() instanceof SchemeBuiltinQuote) {
+                    return;
+                } else if (syntax.isPresent() && syntax.get() instanceof SchemeBuiltinSet) {
+                    SchemeSymbol assignedSymbol = SchemeBuiltinSet.getAssignedVariable(((SchemeCons) form)
+                            .getCdr());
+                    if (Objects.nonNull(assignedSymbol)) {
+                        assignedSymbols.add(assignedSymbol);
+                    }
+                }
+            } else {
+                collectAssignedSymbols(element, scope, assignedSymbols);
+            }
+            restForm = ((SchemeCons) restForm).getCdr();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.analyze.node.ApplicationNode;
+import hdm.pk070.jscheme.analyze.node.ConstantGlobalNode;
+import hdm.pk070.jscheme.analyze.node.ConstantNode;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.FoldedCallNode;
+import hdm.pk070.jscheme.analyze.node.GlobalVariableNode;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Evaluates expressions of function bodies whose value is known in advance while the body is analyzed, i.e. when
+ * the function is defined:
+ * <br/><br/>
+ * - Calls of pure built-in functions (see {@link SchemeBuiltinFunction#isPure()}) whose arguments are literals,
+ * quoted expressions or folded calls themselves are replaced by their result, e.g. (* 60 60 24) by 86400.<br/>
+ * - An 'if' whose condition is a literal or a quoted expression is replaced by the branch it chooses according to
+ * {@link SchemeBuiltinIf#isConditionMet(SchemeObject)}.<br/>
+ * - References of stable global variables (see {@link EnvironmentEntry#isStable()}) are replaced by their value,
+ * which in turn can be folded into calls, e.g. (* 2 pi).
+ * <br/><br/>
+ * Only calls of stable global variables currently bound to a pure built-in function are folded, so functions
+ * shadowed by a local binding or redefined by the user are left alone. Folded calls watch the global variables they
+ * depend on and fall back to executing the call if one of them gets redefined later on. Calls failing during
+ * folding, e.g. (car '()) or (/ 1 0), are left alone as well so the error is reported when the call is executed.
+ */
+final class ConstantFolder {
+
+    static ConstantFolder create() {
+        return new ConstantFolder();
+    }
+
+    private ConstantFolder() {
+    }
+
+    /**
+     * Fold a call if its function is a pure built-in function and all of its arguments are constant.
+     *
+     * @param callNode
+     *         The analyzed call.
+     * @return The folded call, or {@code callNode} itself if the call can't be folded.
+     */
+    ExecutionNode foldCall(ApplicationNode callNode) {
+        if (!(callNode.getFunctionNode() instanceof GlobalVariableNode)) {
+            return callNode;
+        }
+
+        Optional<EnvironmentEntry> functionEntry = lookupEntry((GlobalVariableNode) callNode.getFunctionNode());
+        if (!functionEntry.isPresent() || !functionEntry.get().isStable() || !isPureFunction(functionEntry.get()
+                .getValue())) {
+            return callNode;
+        }
+
+        List<EnvironmentEntry> dependencies = new ArrayList<>();
+        dependencies.add(functionEntry.get());
+        ExecutionNode[] argumentNodes = callNode.getArgumentNodes();
+        SchemeObject[] arguments = new SchemeObject[argumentNodes.length];
+        for (int i = 0; i < argumentNodes.length; i++) {
+            if (argumentNodes[i] instanceof ConstantNode) {
+                arguments[i] = ((ConstantNode) argumentNodes[i]).getValue();
+            } else if (argumentNodes[i] instanceof FoldedCallNode) {
+                FoldedCallNode foldedArgument = (FoldedCallNode) argumentNodes[i];
+                arguments[i] = foldedArgument.getValue();
+                Collections.addAll(dependencies, foldedArgument.getDependencies());
+            } else if (argumentNodes[i] instanceof ConstantGlobalNode) {
+                arguments[i] = ((ConstantGlobalNode) argumentNodes[i]).getValue();
+                dependencies.add(((ConstantGlobalNode) argumentNodes[i]).getGlobalEntry());
+            } else {
+                return callNode;
+            }
+        }
+
+        try {
+            SchemeObject value = ((SchemeBuiltinFunction) functionEntry.get().getValue()).invoke(arguments);
+            return FoldedCallNode.create(value, callNode, dependencies.toArray(new
+                    EnvironmentEntry[dependencies.size()]));
+        } catch (SchemeError schemeError) {
+            // Leave the error to the call's execution
+            return callNode;
+        }
+    }
+
+    /**
+     * Treat a reference of a global variable as constant if the variable is stable.
+     *
+     * @param variableNode
+     *         The analyzed reference.
+     * @return A {@link ConstantGlobalNode}, or {@code variableNode} itself if the variable is undefined or has
+     * been reassigned.
+     */
+    ExecutionNode foldVariable(GlobalVariableNode variableNode) {
+        Optional<EnvironmentEntry> variableEntry = lookupEntry(variableNode);
+        if (!variableEntry.isPresent() || Objects.isNull(variableEntry.get().getValue()) || !variableEntry.get()
+                .isStable()) {
+            return variableNode;
+        }
+        return ConstantGlobalNode.create(variableNode, variableEntry.get());
+    }
+
+    /**
+     * Choose the branch of an 'if' in advance.
+     *
+     * @param conditionNode
+     *         The analyzed condition.
+     * @return True if the first branch is always chosen, false if the 'else' branch is always chosen, or nothing if
+     * the condition is not constant.
+     */
+    Optional<Boolean> evaluateCondition(ExecutionNode conditionNode) {
+        // Folded calls and constant global variables may become invalid later on, so they can't decide on a branch
+        // once and for all
+        if (conditionNode instanceof ConstantNode) {
+            return Optional.of(SchemeBuiltinIf.isConditionMet(((ConstantNode) conditionNode).getValue()));
+        }
+        return Optional.empty();
+    }
+
+    private Optional<EnvironmentEntry> lookupEntry(GlobalVariableNode variableNode) {
+        try {
+            return Optional.of(variableNode.getEntry());
+        } catch (SchemeError schemeError) {
+            // Not defined yet, nothing to fold
+            return Optional.empty();
+        }
+    }
+
+    private boolean isPureFunction(SchemeObject function) {
+        return function instanceof SchemeBuiltinFunction && ((SchemeBuiltinFunction) function).isPure();
+    }
+}
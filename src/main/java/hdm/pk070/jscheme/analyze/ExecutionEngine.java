@@ -0,0 +1,59 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.SchemeConstants;
+import hdm.pk070.jscheme.eval.SchemeEval;
+import hdm.pk070.jscheme.vm.SchemeVirtualMachine;
+
+import java.util.Arrays;
+
+/**
+ * The ways a {@link SchemeExecutor} can run expressions.
+ */
+public enum ExecutionEngine {
+
+    /**
+     * Evaluate the reader's output directly by means of {@link SchemeEval}.
+     */
+    TREE_WALKER("tree-walker"),
+
+    /**
+     * Analyze expressions into execution trees and execute those.
+     */
+    ANALYZED("analyzed"),
+
+    /**
+     * Analyze expressions, compile them to bytecode and run it on {@link SchemeVirtualMachine}.
+     */
+    BYTECODE("bytecode"),
+
+    /**
+     * Like {@link #BYTECODE}, but the frames of function calls are kept on the heap instead of the Java stack. The
+     * recursion depth is limited by the system property {@value SchemeConstants#MAX_FRAMES_PROPERTY} only.
+     */
+    STACKLESS("stackless");
+
+    private final String engineName;
+
+    ExecutionEngine(String engineName) {
+        this.engineName = engineName;
+    }
+
+    /**
+     * Find an engine by its name.
+     *
+     * @param engineName
+     *         The engine's name, e.g. "bytecode".
+     * @return The engine with the given name.
+     * @throws IllegalArgumentException
+     *         If there's no engine with the given name.
+     */
+    public static ExecutionEngine byName(String engineName) {
+        return Arrays.stream(values()).filter(engine -> engine.engineName.equals(engineName)).findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Unknown execution engine '%s'",
+                        engineName)));
+    }
+
+    public String getEngineName() {
+        return engineName;
+    }
+}
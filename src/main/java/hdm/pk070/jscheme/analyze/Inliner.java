@@ -0,0 +1,208 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.analyze.node.ApplicationNode;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.GlobalVariableNode;
+import hdm.pk070.jscheme.analyze.node.InlinedCallNode;
+import hdm.pk070.jscheme.analyze.node.LocalDefineNode;
+import hdm.pk070.jscheme.analyze.node.SequenceNode;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinQuote;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Substitutes the bodies of small global functions into the functions calling them, e.g. the call of
+ * (define (second l) (car (cdr l))) in (define (f x) (second x)). The arguments are stored in additional slots of
+ * the caller's environment and the callee's body is analyzed once more, referring to these slots.
+ * <br/><br/>
+ * A function is inlined if
+ * <br/><br/>
+ * - it's bound to a stable global variable (see {@link EnvironmentEntry#isStable()}) and has been defined
+ * globally, so its free variables are global ones,<br/>
+ * - its body is a single expression of at most {@link #MAX_BODY_SIZE} symbols and literals, consisting of 'if',
+ * 'quote' and calls of stable global variables bound to built-in functions only (which also rules out
+ * recursion),<br/>
+ * - it's called with the number of arguments it expects.
+ * <br/><br/>
+ * The inlined call watches the callee's global variable as well as those of the functions called by its body and
+ * falls back to the original call as soon as one of them gets redefined.
+ */
+final class Inliner {
+
+    /**
+     * The maximum number of symbols and literals in the body of an inlined function.
+     */
+    static final int MAX_BODY_SIZE = 12;
+
+    private final SchemeAnalyzer analyzer;
+
+    static Inliner create(SchemeAnalyzer analyzer) {
+        return new Inliner(analyzer);
+    }
+
+    private Inliner(SchemeAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * Inline a call if it calls a small global function.
+     *
+     * @param callNode
+     *         The analyzed call.
+     * @param scope
+     *         The scope of the calling function.
+     * @return The inlined call, or {@code callNode} itself if the callee can't be inlined.
+     * @throws SchemeError
+     *         If analyzing the callee's body fails.
+     */
+    ExecutionNode inlineCall(ApplicationNode callNode, AnalysisScope scope) throws SchemeError {
+        if (!(callNode.getFunctionNode() instanceof GlobalVariableNode)) {
+            return callNode;
+        }
+
+        EnvironmentEntry calleeEntry;
+        try {
+            calleeEntry = ((GlobalVariableNode) callNode.getFunctionNode()).getEntry();
+        } catch (SchemeError schemeError) {
+            // Not defined yet, nothing to inline
+            return callNode;
+        }
+        if (!calleeEntry.isStable() || !calleeEntry.getValue().hasType(SchemeType.CUSTOM_FUNCTION)) {
+            return callNode;
+        }
+
+        SchemeCustomUserFunction callee = (SchemeCustomUserFunction) calleeEntry.getValue();
+        Optional<List<SchemeSymbol>> parameters = getParameters(callee);
+        if (!parameters.isPresent() || parameters.get().size() != callNode.getArgumentNodes().length || !callee
+                .getFunctionBodyList().getCdr().hasType(SchemeType.NIL)) {
+            return callNode;
+        }
+
+        SchemeObject bodyExpression = callee.getFunctionBodyList().getCar();
+        List<EnvironmentEntry> dependencies = new ArrayList<>();
+        dependencies.add(calleeEntry);
+        if (!isInlinable(bodyExpression, parameters.get(), callee.getHomeEnvironment(), dependencies, new int[1])) {
+            return callNode;
+        }
+
+        return InlinedCallNode.create(analyzeInlinedBody(bodyExpression, parameters.get(), callNode
+                .getArgumentNodes(), scope), callNode, dependencies.toArray(new EnvironmentEntry[dependencies.size()]));
+    }
+
+    private ExecutionNode analyzeInlinedBody(SchemeObject bodyExpression, List<SchemeSymbol> parameters,
+                                             ExecutionNode[] argumentNodes, AnalysisScope scope) throws SchemeError {
+        AnalysisScope inlineScope = scope.createInlineScope();
+        ExecutionNode[] inlinedNodes = new ExecutionNode[parameters.size() + 1];
+        for (int i = 0; i < parameters.size(); i++) {
+            inlineScope.bindParameter(parameters.get(i));
+            int slot = inlineScope.resolve(parameters.get(i)).get().getSlot();
+            inlinedNodes[i] = LocalDefineNode.create(parameters.get(i), slot, argumentNodes[i]);
+        }
+        inlinedNodes[parameters.size()] = analyzer.analyze(bodyExpression, inlineScope);
+
+        if (inlinedNodes.length == 1) {
+            return inlinedNodes[0];
+        }
+        return SequenceNode.create(inlinedNodes);
+    }
+
+    /**
+     * Get the parameters of a function with a fixed number of distinct parameters.
+     */
+    private Optional<List<SchemeSymbol>> getParameters(SchemeCustomUserFunction function) {
+        List<SchemeSymbol> parameters = new ArrayList<>();
+        Set<SchemeSymbol> distinctParameters = new HashSet<>();
+        SchemeObject restParameters = function.getParameterList();
+        while (restParameters.hasType(SchemeType.CONS)) {
+            SchemeObject parameter = ((SchemeCons) restParameters).getCar();
+            if (!parameter.hasType(SchemeType.SYMBOL) || !distinctParameters.add((SchemeSymbol) parameter)) {
+                return Optional.empty();
+            }
+            parameters.add((SchemeSymbol) parameter);
+            restParameters = ((SchemeCons) restParameters).getCdr();
+        }
+        return restParameters.hasType(SchemeType.NIL) ? Optional.of(parameters) : Optional.empty();
+    }
+
+    /**
+     * Check an expression of the callee's body and collect the entries of the functions it calls.
+     *
+     * @param size
+     *         The number of symbols and literals seen so far, updated while walking the expression.
+     */
+    private boolean isInlinable(SchemeObject expression, List<SchemeSymbol> parameters, Environment<SchemeSymbol,
+            EnvironmentEntry> homeEnvironment, List<EnvironmentEntry> dependencies, int[] size) {
+        if (!expression.hasType(SchemeType.CONS)) {
+            if (++size[0] > MAX_BODY_SIZE) {
+                return false;
+            }
+            return !expression.hasType(SchemeType.SYMBOL) || parameters.contains(expression) || lookupGlobal(
+                    (SchemeSymbol) expression, homeEnvironment).isPresent();
+        }
+
+        SchemeObject functionSlot = ((SchemeCons) expression).getCar();
+        if (!functionSlot.hasType(SchemeType.SYMBOL) || parameters.contains(functionSlot)) {
+            return false;
+        }
+        Optional<EnvironmentEntry> functionEntry = lookupGlobal((SchemeSymbol) functionSlot, homeEnvironment);
+        if (!functionEntry.isPresent() || !functionEntry.get().isStable()) {
+            return false;
+        }
+
+        SchemeObject function = functionEntry.get().getValue();
+        if (function instanceof SchemeBuiltinQuote) {
+            return ++size[0] <= MAX_BODY_SIZE;
+        } else if (!(function instanceof SchemeBuiltinIf) && !function.hasType(SchemeType.BUILTIN_FUNCTION)) {
+            return false;
+        }
+        dependencies.add(functionEntry.get());
+        size[0]++;
+
+        SchemeObject restArguments = ((SchemeCons) expression).getCdr();
+        while (restArguments.hasType(SchemeType.CONS)) {
+            if (!isInlinable(((SchemeCons) restArguments).getCar(), parameters, homeEnvironment, dependencies,
+                    size)) {
+                return false;
+            }
+            restArguments = ((SchemeCons) restArguments).getCdr();
+        }
+        return restArguments.hasType(SchemeType.NIL);
+    }
+
+    /**
+     * Look up a free variable of the callee, making sure it refers to a global variable rather than to a variable
+     * the callee has captured.
+     */
+    private Optional<EnvironmentEntry> lookupGlobal(SchemeSymbol symbol, Environment<SchemeSymbol,
+            EnvironmentEntry> homeEnvironment) {
+        Optional<EnvironmentEntry> globalEntry = GlobalEnvironment.getInstance().get(symbol);
+        if (!globalEntry.isPresent() || Objects.isNull(globalEntry.get().getValue())) {
+            return Optional.empty();
+        }
+        if (homeEnvironment == GlobalEnvironment.getInstance()) {
+            return globalEntry;
+        }
+        if (homeEnvironment instanceof LocalEnvironment && ((LocalEnvironment) homeEnvironment)
+                .getParentEnvironment() == GlobalEnvironment.getInstance() && homeEnvironment.get(symbol).orElse(null)
+                == globalEntry.get()) {
+            return globalEntry;
+        }
+        return Optional.empty();
+    }
+}
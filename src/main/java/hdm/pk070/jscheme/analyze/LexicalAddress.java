@@ -0,0 +1,29 @@
+package hdm.pk070.jscheme.analyze;
+
+/**
+ * The position of a local variable: the number of environments to walk up from the current one, and the slot
+ * within the environment reached that way.
+ */
+public final class LexicalAddress {
+
+    private final int depth;
+    private final int slot;
+
+    LexicalAddress(int depth, int slot) {
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%d, %d)", depth, slot);
+    }
+}
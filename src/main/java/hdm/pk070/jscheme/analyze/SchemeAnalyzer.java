@@ -0,0 +1,494 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.analyze.node.*;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinDefine;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.reader.SchemeReader;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Turns the {@link SchemeObject}s returned by {@link SchemeReader} into a tree of {@link ExecutionNode}s. Each
+ * expression is analyzed once: the type of every sub-expression is checked and the syntax of special forms is
+ * validated before anything gets executed.
+ */
+public class SchemeAnalyzer {
+
+    private static final SchemeSymbol LET_SYMBOL = new SchemeSymbol("let");
+    private static final String CONS_NAME = "cons";
+
+    /**
+     * Analyzes a function body once parameters have been bound. Used by syntax whose body is not an ordinary body
+     * list, e.g. do loops.
+     */
+    @FunctionalInterface
+    public interface BodyAnalyzer {
+
+        ExecutionNode analyzeBody(AnalysisScope bodyScope) throws SchemeError;
+    }
+
+    private final ConstantFolder constantFolder;
+    private final Inliner inliner;
+    private final AssignmentAnalysis assignmentAnalysis;
+
+    public static SchemeAnalyzer getInstance() {
+        return new SchemeAnalyzer();
+    }
+
+    private SchemeAnalyzer() {
+        this.constantFolder = ConstantFolder.create();
+        this.inliner = Inliner.create(this);
+        this.assignmentAnalysis = AssignmentAnalysis.create();
+    }
+
+    /**
+     * Analyze a top-level expression.
+     *
+     * @param expression
+     *         The expression as returned by {@link SchemeReader}.
+     * @param environment
+     *         The environment the expression will be executed in.
+     * @return The root node of the execution tree.
+     * @throws SchemeError
+     *         If the expression contains invalid syntax.
+     */
+    public ExecutionNode analyze(SchemeObject expression, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        return analyze(expression, AnalysisScope.withRootEnvironment(environment));
+    }
+
+    /**
+     * Analyze an expression within a certain {@link AnalysisScope}.
+     *
+     * @param expression
+     *         The expression to analyze.
+     * @param scope
+     *         The scope the expression appears in.
+     * @return The root node of the execution tree.
+     * @throws SchemeError
+     *         If the expression contains invalid syntax.
+     */
+    public ExecutionNode analyze(SchemeObject expression, AnalysisScope scope) throws SchemeError {
+        if (expression.hasType(SchemeType.SYMBOL)) {
+            ExecutionNode variableNode = analyzeVariable((SchemeSymbol) expression, scope);
+            // Function bodies are optimized when the function is defined, top-level expressions run only once anyway
+            if (scope.isOutermostScope() || !(variableNode instanceof GlobalVariableNode)) {
+                return variableNode;
+            }
+            return constantFolder.foldVariable((GlobalVariableNode) variableNode);
+        } else if (expression.hasType(SchemeType.CONS)) {
+            return analyzeList((SchemeCons) expression, scope);
+        } else {
+            // All the other objects evaluate to themselves
+            return ConstantNode.create(expression);
+        }
+    }
+
+    private ExecutionNode analyzeVariable(SchemeSymbol symbol, AnalysisScope scope) {
+        Optional<LexicalAddress> lexicalAddress = scope.resolve(symbol);
+        if (lexicalAddress.isPresent()) {
+            return LocalVariableNode.create(symbol, lexicalAddress.get().getDepth(), lexicalAddress.get().getSlot());
+        } else if (scope.getRootEnvironment() == GlobalEnvironment.getInstance()) {
+            return GlobalVariableNode.create(symbol);
+        }
+        // Free variable of a function whose home environment is not known in advance
+        return VariableNode.create(symbol);
+    }
+
+    /**
+     * Analyze a definition. Within a function body, the defined variable is assigned a slot of the function's
+     * {@link hdm.pk070.jscheme.table.environment.LocalEnvironment}. The name is declared before the value is
+     * analyzed, so recursive functions refer to themselves.
+     *
+     * @param symbol
+     *         The name of the variable.
+     * @param valueExpression
+     *         The expression whose value gets bound to {@code symbol}.
+     * @param scope
+     *         The scope the definition appears in.
+     * @return A node performing the definition.
+     * @throws SchemeError
+     *         If the value expression contains invalid syntax.
+     */
+    public ExecutionNode analyzeDefinition(SchemeSymbol symbol, SchemeObject valueExpression, AnalysisScope scope)
+            throws SchemeError {
+        Optional<Integer> slot = scope.declare(symbol);
+        ExecutionNode valueNode = analyze(valueExpression, scope);
+        return wrapDefinition(symbol, slot, valueNode);
+    }
+
+    /**
+     * Analyze a function definition, i.e. (define (name params...) body...).
+     *
+     * @param functionName
+     *         The name of the function.
+     * @param parameterList
+     *         The function's parameter list.
+     * @param functionBodyList
+     *         The function's body list.
+     * @param scope
+     *         The scope the definition appears in.
+     * @return A node performing the definition.
+     * @throws SchemeError
+     *         If parameter list or function body are invalid.
+     */
+    public ExecutionNode analyzeFunctionDefinition(SchemeSymbol functionName, SchemeObject parameterList,
+                                                   SchemeCons functionBodyList, AnalysisScope scope) throws
+            SchemeError {
+        Optional<Integer> slot = scope.declare(functionName);
+        SchemeCustomUserFunction preparedFunction = SchemeCustomUserFunction.create(functionName.getValue(),
+                parameterList, functionBodyList, null).prepare();
+        AnalysisScope bodyScope = scope.createClosureScope();
+        // Calls of the function by its own name in tail position are candidates for loops
+        bodyScope.bindSelf(functionName, preparedFunction);
+        ExecutionNode valueNode = createLambdaNode(preparedFunction, bodyScope, scope, functionScope ->
+                analyzeBody(functionBodyList, functionScope));
+        return wrapDefinition(functionName, slot, valueNode);
+    }
+
+    private ExecutionNode wrapDefinition(SchemeSymbol symbol, Optional<Integer> slot, ExecutionNode valueNode) {
+        if (slot.isPresent()) {
+            return LocalDefineNode.create(symbol, slot.get(), valueNode);
+        }
+        return DefineNode.create(symbol, valueNode);
+    }
+
+    /**
+     * Analyze an assignment, i.e. (set! symbol value).
+     *
+     * @param symbol
+     *         The assigned variable.
+     * @param valueExpression
+     *         The expression whose value gets assigned to {@code symbol}.
+     * @param scope
+     *         The scope the assignment appears in.
+     * @return A node performing the assignment.
+     * @throws SchemeError
+     *         If the value expression contains invalid syntax.
+     */
+    public ExecutionNode analyzeAssignment(SchemeSymbol symbol, SchemeObject valueExpression, AnalysisScope scope)
+            throws SchemeError {
+        Optional<LexicalAddress> lexicalAddress = scope.resolve(symbol);
+        ExecutionNode valueNode = analyze(valueExpression, scope);
+        if (lexicalAddress.isPresent()) {
+            return LocalSetNode.create(symbol, lexicalAddress.get().getDepth(), lexicalAddress.get().getSlot(),
+                    valueNode);
+        }
+        return SetNode.create(symbol, valueNode);
+    }
+
+    private ExecutionNode analyzeList(SchemeCons expression, AnalysisScope scope) throws SchemeError {
+        SchemeObject functionSlot = expression.getCar();
+        SchemeObject argumentList = expression.getCdr();
+
+        if (functionSlot.hasType(SchemeType.SYMBOL)) {
+            Optional<SchemeBuiltinSyntax> builtinSyntax = scope.lookupSyntax((SchemeSymbol) functionSlot);
+            if (builtinSyntax.isPresent()) {
+                return builtinSyntax.get().analyze(argumentList, this, scope);
+            }
+        }
+
+        // Function slots stay variable references, calls of global variables are linked by GlobalCallSite instead
+        ExecutionNode functionNode = functionSlot.hasType(SchemeType.SYMBOL) ? analyzeVariable((SchemeSymbol)
+                functionSlot, scope) : analyze(functionSlot, scope);
+        List<ExecutionNode> argumentNodes = new ArrayList<>();
+        SchemeObject restArguments = argumentList;
+
+        while (restArguments.hasType(SchemeType.CONS)) {
+            argumentNodes.add(analyze(((SchemeCons) restArguments).getCar(), scope));
+            restArguments = ((SchemeCons) restArguments).getCdr();
+        }
+
+        SchemeCustomUserFunction selfFunction = functionSlot.hasType(SchemeType.SYMBOL) ? scope.getSelfFunction(
+                (SchemeSymbol) functionSlot).orElse(null) : null;
+        Optional<ArithmeticNode.Operation> operation = ArithmeticNode.Operation.forFunctionSlot(functionSlot);
+        ApplicationNode applicationNode;
+        if (operation.isPresent() && argumentNodes.size() == 2 && Objects.isNull(selfFunction)) {
+            applicationNode = ArithmeticNode.create(operation.get(), functionSlot, argumentList, functionNode,
+                    argumentNodes.get(0), argumentNodes.get(1));
+        } else {
+            applicationNode = ApplicationNode.create(functionSlot, argumentList, functionNode, argumentNodes
+                    .toArray(new ExecutionNode[argumentNodes.size()]), selfFunction);
+        }
+
+        if (isModuloConsCall(functionNode, argumentNodes)) {
+            return ModuloConsCallNode.create(applicationNode);
+        }
+
+        // Function bodies are optimized when the function is defined, top-level expressions run only once anyway
+        if (scope.isOutermostScope() || Objects.nonNull(selfFunction)) {
+            return applicationNode;
+        }
+        ExecutionNode foldedNode = constantFolder.foldCall(applicationNode);
+        if (foldedNode != applicationNode) {
+            return foldedNode;
+        }
+        return inliner.inlineCall(applicationNode, scope);
+    }
+
+    /**
+     * Check if a call conses something onto the result of a call of the function it appears in, so it can build
+     * its list in a loop when in tail position (see {@link ModuloConsCallNode}).
+     */
+    private boolean isModuloConsCall(ExecutionNode functionNode, List<ExecutionNode> argumentNodes) {
+        return functionNode instanceof GlobalVariableNode && CONS_NAME.equals(((GlobalVariableNode) functionNode)
+                .getSymbol().getValue()) && argumentNodes.size() == 2 && argumentNodes.get(1) instanceof
+                ApplicationNode && Objects.nonNull(((ApplicationNode) argumentNodes.get(1)).getSelfFunction());
+    }
+
+    /**
+     * Analyze an 'if' expression. Within a function body, an 'if' whose condition is constant is replaced by the
+     * branch it chooses. Both branches are analyzed regardless, so syntax errors are reported either way.
+     *
+     * @param conditionExpression
+     *         The condition.
+     * @param conditionMetExpression
+     *         The expression chosen if the condition is met.
+     * @param elseExpression
+     *         The expression chosen otherwise.
+     * @param scope
+     *         The scope the 'if' expression appears in.
+     * @return A node executing the 'if' expression.
+     * @throws SchemeError
+     *         If one of the expressions contains invalid syntax.
+     */
+    public ExecutionNode analyzeIf(SchemeObject conditionExpression, SchemeObject conditionMetExpression,
+                                   SchemeObject elseExpression, AnalysisScope scope) throws SchemeError {
+        ExecutionNode conditionNode = analyze(conditionExpression, scope);
+        ExecutionNode conditionMetNode = analyze(conditionMetExpression, scope);
+        ExecutionNode elseNode = analyze(elseExpression, scope);
+
+        Optional<Boolean> conditionMet = scope.isOutermostScope() ? Optional.empty() : constantFolder
+                .evaluateCondition(conditionNode);
+        if (conditionMet.isPresent()) {
+            return conditionMet.get() ? conditionMetNode : elseNode;
+        }
+        return IfNode.create(conditionNode, conditionMetNode, elseNode);
+    }
+
+    /**
+     * Analyze a lambda expression. The parameter list is validated and the function body is analyzed in a new
+     * scope binding the parameters as well as all internal definitions. The resulting node creates a flat closure
+     * which only captures the variables of enclosing functions its body refers to.
+     *
+     * @param internalName
+     *         The name of the function.
+     * @param parameterList
+     *         The function's parameter list.
+     * @param functionBodyList
+     *         The function's body list.
+     * @param scope
+     *         The scope the lambda expression appears in.
+     * @return A node creating a closure when executed.
+     * @throws SchemeError
+     *         If parameter list or function body are invalid.
+     */
+    public LambdaNode analyzeLambda(String internalName, SchemeObject parameterList, SchemeCons functionBodyList,
+                                    AnalysisScope scope) throws SchemeError {
+        SchemeCustomUserFunction preparedFunction = SchemeCustomUserFunction.create(internalName, parameterList,
+                functionBodyList, null).prepare();
+        return createLambdaNode(preparedFunction, scope.createClosureScope(), scope, bodyScope -> analyzeBody
+                (functionBodyList, bodyScope));
+    }
+
+    /**
+     * Analyze a let expression, i.e. a lambda expression which is applied to the initial values right away.
+     *
+     * @param parameterList
+     *         The variables bound by the let expression.
+     * @param functionBodyList
+     *         The let expression's body list.
+     * @param initialValueList
+     *         The unevaluated initial values of the variables, in order.
+     * @param scope
+     *         The scope the let expression appears in.
+     * @return A node executing the let expression.
+     * @throws SchemeError
+     *         If the body or the initial values contain invalid syntax.
+     */
+    public ExecutionNode analyzeLet(SchemeObject parameterList, SchemeCons functionBodyList, SchemeObject
+            initialValueList, AnalysisScope scope) throws SchemeError {
+        LambdaNode lambdaNode = analyzeLambda("let", parameterList, functionBodyList, scope);
+        return applyToInitialValues(LET_SYMBOL, lambdaNode, initialValueList, scope);
+    }
+
+    /**
+     * Analyze a loop, i.e. a function which is bound to {@code loopName} within its own body and applied to the
+     * initial values right away. Calls of {@code loopName} in tail position of the body start the body over
+     * instead of creating a new environment.
+     *
+     * @param loopName
+     *         The name the body refers to the loop by.
+     * @param parameterList
+     *         The loop variables.
+     * @param functionBodyList
+     *         The source of the loop's body.
+     * @param bodyAnalyzer
+     *         Analyzes the loop's body.
+     * @param initialValueList
+     *         The unevaluated initial values of the loop variables, in order.
+     * @param scope
+     *         The scope the loop appears in.
+     * @return A node executing the loop.
+     * @throws SchemeError
+     *         If the body or the initial values contain invalid syntax.
+     */
+    public ExecutionNode analyzeLoop(SchemeSymbol loopName, SchemeObject parameterList, SchemeCons
+            functionBodyList, BodyAnalyzer bodyAnalyzer, SchemeObject initialValueList, AnalysisScope scope) throws
+            SchemeError {
+        SchemeCustomUserFunction preparedFunction = SchemeCustomUserFunction.create(loopName.getValue(),
+                parameterList, functionBodyList, null).prepare();
+        AnalysisScope bodyScope = scope.createClosureScope();
+        bodyScope.bindSelfReference(loopName, preparedFunction);
+        LambdaNode lambdaNode = createLambdaNode(preparedFunction, bodyScope, scope, bodyAnalyzer);
+        return applyToInitialValues(loopName, lambdaNode, initialValueList, scope);
+    }
+
+    /**
+     * Analyze a body list, i.e. a sequence of expressions possibly starting with internal definitions.
+     *
+     * @param functionBodyList
+     *         The body list.
+     * @param bodyScope
+     *         The function scope the body belongs to.
+     * @return The analyzed body.
+     * @throws SchemeError
+     *         If the body contains invalid syntax.
+     */
+    public ExecutionNode analyzeBody(SchemeCons functionBodyList, AnalysisScope bodyScope) throws SchemeError {
+        bindInternalDefinitions(functionBodyList, bodyScope);
+        return analyzeSequence(functionBodyList, bodyScope);
+    }
+
+    private LambdaNode createLambdaNode(SchemeCustomUserFunction preparedFunction, AnalysisScope bodyScope,
+                                        AnalysisScope scope, BodyAnalyzer bodyAnalyzer) throws SchemeError {
+        AnalyzedBody analyzedBody = analyzeFunctionBody(preparedFunction.getParameterList(), preparedFunction
+                .getFunctionBodyList(), bodyScope, bodyAnalyzer);
+
+        // The captured variables are known as soon as the whole body has been analyzed
+        return LambdaNode.create(preparedFunction.withAnalyzedBody(analyzedBody), bodyScope.getCapturedSymbols(),
+                bodyScope.getCaptureSources(), bodyScope.getSharedCaptures(), scope.getRootDepth());
+    }
+
+    private ExecutionNode applyToInitialValues(SchemeObject functionSlot, LambdaNode lambdaNode, SchemeObject
+            initialValueList, AnalysisScope scope) throws SchemeError {
+        List<ExecutionNode> initialValueNodes = new ArrayList<>();
+        SchemeObject restInitialValues = initialValueList;
+        while (restInitialValues.hasType(SchemeType.CONS)) {
+            initialValueNodes.add(analyze(((SchemeCons) restInitialValues).getCar(), scope));
+            restInitialValues = ((SchemeCons) restInitialValues).getCdr();
+        }
+
+        return ApplicationNode.create(functionSlot, initialValueList, lambdaNode, initialValueNodes.toArray(new
+                ExecutionNode[initialValueNodes.size()]));
+    }
+
+    /**
+     * Analyze the body of a function which has been created without prior analysis (e.g. by
+     * {@link hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinLambda}).
+     *
+     * @param customFunction
+     *         The function whose body shall be analyzed.
+     * @return The analyzed function body.
+     * @throws SchemeError
+     *         If the function body contains invalid syntax.
+     */
+    public AnalyzedBody analyzeFunctionBody(SchemeCustomUserFunction customFunction) throws SchemeError {
+        SchemeCons functionBodyList = customFunction.getFunctionBodyList();
+        return analyzeFunctionBody(customFunction.getParameterList(), functionBodyList, AnalysisScope
+                .withRootEnvironment(customFunction.getHomeEnvironment()).createChildScope(), bodyScope ->
+                analyzeBody(functionBodyList, bodyScope));
+    }
+
+    /**
+     * @param bodySource
+     *         The source of everything analyzed by {@code bodyAnalyzer}, searched for assignments.
+     */
+    private AnalyzedBody analyzeFunctionBody(SchemeObject parameterList, SchemeObject bodySource, AnalysisScope
+            bodyScope, BodyAnalyzer bodyAnalyzer) throws SchemeError {
+        List<SchemeSymbol> parameters = new ArrayList<>();
+
+        SchemeObject restParameters = parameterList;
+        while (restParameters.hasType(SchemeType.CONS)) {
+            SchemeSymbol parameter = (SchemeSymbol) ((SchemeCons) restParameters).getCar();
+            bodyScope.bindParameter(parameter);
+            parameters.add(parameter);
+            restParameters = ((SchemeCons) restParameters).getCdr();
+        }
+
+        bodyScope.declareAssignments(assignmentAnalysis.findAssignedSymbols(bodySource, bodyScope));
+        ExecutionNode bodyNode = bodyAnalyzer.analyzeBody(bodyScope);
+        bodyNode.markTailPosition();
+
+        // Slot count is read after analyzing the body since definitions may appear at arbitrary positions
+        return AnalyzedBody.create(parameters.toArray(new SchemeSymbol[parameters.size()]), bodyScope
+                .getSlotCount(), bodyNode, bodyScope.areLocalsCaptured());
+    }
+
+    /**
+     * Declare the names of all definitions found in a body list, so they shadow outer bindings of the same name.
+     */
+    private void bindInternalDefinitions(SchemeCons functionBodyList, AnalysisScope bodyScope) {
+        SchemeObject restBody = functionBodyList;
+        while (restBody.hasType(SchemeType.CONS)) {
+            SchemeObject bodyPart = ((SchemeCons) restBody).getCar();
+            if (isDefinition(bodyPart, bodyScope)) {
+                SchemeObject definitionTarget = ((SchemeCons) ((SchemeCons) bodyPart).getCdr()).getCar();
+                if (definitionTarget.hasType(SchemeType.CONS)) {
+                    definitionTarget = ((SchemeCons) definitionTarget).getCar();
+                }
+                if (definitionTarget.hasType(SchemeType.SYMBOL)) {
+                    bodyScope.declare((SchemeSymbol) definitionTarget);
+                }
+            }
+            restBody = ((SchemeCons) restBody).getCdr();
+        }
+    }
+
+    private boolean isDefinition(SchemeObject bodyPart, AnalysisScope scope) {
+        if (!bodyPart.hasType(SchemeType.CONS) || !((SchemeCons) bodyPart).getCdr().hasType(SchemeType.CONS)) {
+            return false;
+        }
+        SchemeObject keyword = ((SchemeCons) bodyPart).getCar();
+        return keyword.hasType(SchemeType.SYMBOL) && scope.lookupSyntax((SchemeSymbol) keyword)
+                .filter(syntax -> syntax instanceof SchemeBuiltinDefine).isPresent();
+    }
+
+    /**
+     * Analyze a non-empty list of expressions which are executed one after another.
+     *
+     * @param bodyList
+     *         The expressions.
+     * @param scope
+     *         The scope the expressions appear in.
+     * @return A node executing the expressions and returning the value of the last one.
+     * @throws SchemeError
+     *         If one of the expressions contains invalid syntax.
+     */
+    public ExecutionNode analyzeSequence(SchemeCons bodyList, AnalysisScope scope) throws SchemeError {
+        List<ExecutionNode> bodyNodes = new ArrayList<>();
+        SchemeObject restBody = bodyList;
+
+        while (restBody.hasType(SchemeType.CONS)) {
+            bodyNodes.add(analyze(((SchemeCons) restBody).getCar(), scope));
+            restBody = ((SchemeCons) restBody).getCdr();
+        }
+
+        if (bodyNodes.size() == 1) {
+            return bodyNodes.get(0);
+        }
+        return SequenceNode.create(bodyNodes.toArray(new ExecutionNode[bodyNodes.size()]));
+    }
+}
@@ -0,0 +1,198 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.SchemeConstants;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.budget.CancellationToken;
+import hdm.pk070.jscheme.budget.ExecutionBudget;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.eval.SchemeEval;
+import hdm.pk070.jscheme.ir.pass.PassManager;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.reader.SchemeReader;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.vm.SchemeVirtualMachine;
+
+import java.util.Objects;
+
+/**
+ * An alternative to {@link SchemeEval}. Instead of walking the reader's output directly, the expression is turned
+ * into a tree of {@link ExecutionNode}s by {@link SchemeAnalyzer} first, which is executed afterwards. Function
+ * bodies are analyzed once when the function is defined, so calling a function does not re-check its syntax.
+ * <br/><br/>
+ * Each executor uses a certain {@link ExecutionEngine}, which allows running the same program on different engines
+ * side by side. Evaluations may be limited to a certain number of steps by setting a fuel budget (see
+ * {@link ExecutionBudget}), and to a certain time by setting a timeout or passing a {@link CancellationToken}.
+ * Expressions may be optimized by a {@link PassManager} before they're executed.
+ */
+public class SchemeExecutor {
+
+    /**
+     * The timeout of executions which may run for any time.
+     */
+    public static final long NO_TIMEOUT = 0;
+
+    private final ExecutionEngine executionEngine;
+    private final SchemeVirtualMachine virtualMachine;
+    private long fuel;
+    private long consumedFuel;
+    private long timeoutMillis;
+    private PassManager passManager;
+
+    public static SchemeExecutor getInstance() {
+        return withEngine(ExecutionEngine.ANALYZED);
+    }
+
+    public static SchemeExecutor withEngine(ExecutionEngine executionEngine) {
+        return new SchemeExecutor(Objects.requireNonNull(executionEngine));
+    }
+
+    private SchemeExecutor(ExecutionEngine executionEngine) {
+        this.executionEngine = executionEngine;
+        this.virtualMachine = createVirtualMachine(executionEngine);
+        this.fuel = ExecutionBudget.UNLIMITED;
+        this.consumedFuel = 0;
+        this.timeoutMillis = NO_TIMEOUT;
+        this.passManager = null;
+    }
+
+    private static SchemeVirtualMachine createVirtualMachine(ExecutionEngine executionEngine) {
+        switch (executionEngine) {
+            case BYTECODE:
+                return SchemeVirtualMachine.create();
+            case STACKLESS:
+                return SchemeVirtualMachine.withHeapFrames(Integer.getInteger(SchemeConstants
+                        .MAX_FRAMES_PROPERTY, SchemeConstants.DEFAULT_MAX_FRAMES));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Analyze and execute an expression.
+     *
+     * @param expression
+     *         The expression to execute as passed by {@link SchemeReader}.
+     * @param environment
+     *         The execution context.
+     * @return A {@link SchemeObject} as execution result.
+     * @throws SchemeError
+     *         If analysis or execution fails, e.g. with a {@link hdm.pk070.jscheme.error.FuelExhaustedError} if
+     *         the execution exceeds the fuel budget or with an
+     *         {@link hdm.pk070.jscheme.error.EvaluationCancelledError} if it exceeds the timeout.
+     */
+    public SchemeObject execute(SchemeObject expression, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        return execute(expression, environment, timeoutMillis == NO_TIMEOUT ? null : CancellationToken
+                .withTimeout(timeoutMillis));
+    }
+
+    /**
+     * Analyze and execute an expression which may be cancelled from another thread. The timeout of this executor
+     * doesn't apply, the token is expected to carry the deadline if there is one.
+     *
+     * @param expression
+     *         The expression to execute as passed by {@link SchemeReader}.
+     * @param environment
+     *         The execution context.
+     * @param cancellationToken
+     *         The token cancelling the execution, or null if it can't be cancelled.
+     * @return A {@link SchemeObject} as execution result.
+     * @throws SchemeError
+     *         If analysis or execution fails, e.g. with a {@link hdm.pk070.jscheme.error.EvaluationCancelledError}
+     *         if the execution has been cancelled.
+     */
+    public SchemeObject execute(SchemeObject expression, Environment<SchemeSymbol, EnvironmentEntry> environment,
+                                CancellationToken cancellationToken) throws SchemeError {
+        ExecutionBudget executionBudget = ExecutionBudget.begin(fuel, cancellationToken);
+        try {
+            return executeWithinBudget(expression, environment);
+        } finally {
+            consumedFuel = executionBudget.end();
+        }
+    }
+
+    private SchemeObject executeWithinBudget(SchemeObject expression, Environment<SchemeSymbol, EnvironmentEntry>
+            environment) throws SchemeError {
+        SchemeObject optimizedExpression = Objects.isNull(passManager) ? expression : passManager.optimize
+                (expression, environment);
+        switch (executionEngine) {
+            case TREE_WALKER:
+                return SchemeEval.getInstance().eval(optimizedExpression, environment);
+            case BYTECODE:
+            case STACKLESS:
+                return virtualMachine.execute(SchemeAnalyzer.getInstance().analyze(optimizedExpression, environment),
+                        environment);
+            default:
+                ExecutionNode executionNode = SchemeAnalyzer.getInstance().analyze(optimizedExpression, environment);
+                return executionNode.execute(environment);
+        }
+    }
+
+    /**
+     * Limit the number of steps each subsequent call of {@link #execute(SchemeObject, Environment)} may take. A step
+     * is a call of a user-defined function or an iteration of a loop.
+     *
+     * @param fuel
+     *         The number of steps per execution, or {@link ExecutionBudget#UNLIMITED}.
+     * @throws IllegalArgumentException
+     *         If {@code fuel} is negative but not {@link ExecutionBudget#UNLIMITED}.
+     */
+    public void setFuel(long fuel) {
+        if (fuel < 0 && fuel != ExecutionBudget.UNLIMITED) {
+            throw new IllegalArgumentException(String.format("Fuel must not be negative, given: %d", fuel));
+        }
+        this.fuel = fuel;
+    }
+
+    public long getFuel() {
+        return fuel;
+    }
+
+    /**
+     * Limit the time each subsequent call of {@link #execute(SchemeObject, Environment)} may take.
+     *
+     * @param timeoutMillis
+     *         The time in milliseconds per execution, or {@link #NO_TIMEOUT}.
+     * @throws IllegalArgumentException
+     *         If {@code timeoutMillis} is negative.
+     */
+    public void setTimeout(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException(String.format("Timeout must not be negative, given: %d",
+                    timeoutMillis));
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public long getTimeout() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Optimize the expressions passed to {@link #execute(SchemeObject, Environment)} before executing them.
+     *
+     * @param passManager
+     *         The manager running the optimization passes, or null to execute expressions as read.
+     */
+    public void setPassManager(PassManager passManager) {
+        this.passManager = passManager;
+    }
+
+    public PassManager getPassManager() {
+        return passManager;
+    }
+
+    /**
+     * @return The number of steps taken by the last call of {@link #execute(SchemeObject, Environment)}, including
+     * a call which has been aborted because of an error.
+     */
+    public long getConsumedFuel() {
+        return consumedFuel;
+    }
+
+    public ExecutionEngine getExecutionEngine() {
+        return executionEngine;
+    }
+}
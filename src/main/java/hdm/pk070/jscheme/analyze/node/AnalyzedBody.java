@@ -0,0 +1,227 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.budget.ExecutionBudget;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.JitCompiler;
+import hdm.pk070.jscheme.jit.NativeCode;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.vm.BytecodeCompiler;
+import hdm.pk070.jscheme.vm.CompiledCode;
+
+import java.util.Objects;
+
+/**
+ * The analyzed form of a {@link SchemeCustomUserFunction}'s body. Besides the body itself, it knows the function's
+ * parameters and how many slots the {@link LocalEnvironment} of a call needs.
+ * <br/><br/>
+ * A call of the function in tail position of its own body is executed as a loop: the arguments are stored in the
+ * current environment and the body starts over, so neither a new environment nor a {@link TailCall} is needed.
+ */
+public final class AnalyzedBody {
+
+    private final SchemeSymbol[] parameters;
+    private final int frameSize;
+    private final ExecutionNode bodyNode;
+    private final boolean localsCaptured;
+    private CompiledCode compiledCode;
+    private volatile NativeCode nativeCode;
+    private int invocationCount;
+
+    /**
+     * Create an analyzed function body.
+     *
+     * @param parameters
+     *         The function's parameters, in order. Parameter i is stored in slot i.
+     * @param frameSize
+     *         The number of slots needed for parameters and internal definitions.
+     * @param bodyNode
+     *         The analyzed body.
+     * @return The new {@link AnalyzedBody}.
+     */
+    public static AnalyzedBody create(SchemeSymbol[] parameters, int frameSize, ExecutionNode bodyNode) {
+        return new AnalyzedBody(parameters, frameSize, bodyNode, true);
+    }
+
+    /**
+     * Create an analyzed function body.
+     *
+     * @param parameters
+     *         The function's parameters, in order. Parameter i is stored in slot i.
+     * @param frameSize
+     *         The number of slots needed for parameters and internal definitions.
+     * @param bodyNode
+     *         The analyzed body.
+     * @param localsCaptured
+     *         Whether closures created by the body share the entries of its parameters or internal definitions,
+     *         i.e. capture variables which are assigned.
+     * @return The new {@link AnalyzedBody}.
+     */
+    public static AnalyzedBody create(SchemeSymbol[] parameters, int frameSize, ExecutionNode bodyNode, boolean
+            localsCaptured) {
+        return new AnalyzedBody(parameters, frameSize, bodyNode, localsCaptured);
+    }
+
+    private AnalyzedBody(SchemeSymbol[] parameters, int frameSize, ExecutionNode bodyNode, boolean
+            localsCaptured) {
+        this.parameters = parameters;
+        this.frameSize = frameSize;
+        this.bodyNode = bodyNode;
+        this.localsCaptured = localsCaptured;
+    }
+
+    /**
+     * Execute the function body within a prepared environment.
+     *
+     * @param functionEnvironment
+     *         The environment holding the call's arguments.
+     * @return The value of the last body expression.
+     * @throws SchemeError
+     *         If executing the body fails.
+     */
+    public SchemeObject execute(LocalEnvironment functionEnvironment) throws SchemeError {
+        ExecutionBudget.consumeFuel();
+        NativeCode currentNativeCode = recordInvocation();
+        if (Objects.nonNull(currentNativeCode)) {
+            return currentNativeCode.invoke(functionEnvironment);
+        }
+
+        SchemeObject result = bodyNode.execute(functionEnvironment);
+        while (result == SelfTailCall.RESTART) {
+            // Every iteration counts as a call, so a hot loop continues in compiled code right away
+            ExecutionBudget.consumeFuel();
+            currentNativeCode = recordInvocation();
+            if (Objects.nonNull(currentNativeCode)) {
+                return currentNativeCode.invoke(functionEnvironment);
+            }
+            result = bodyNode.execute(functionEnvironment);
+        }
+        return result;
+    }
+
+    /**
+     * Check if a call in tail position of this body can be executed by starting the body over. This is the case if
+     * the callee has this body and shares the current call's home environment, i.e. it's the very same closure.
+     *
+     * @param callee
+     *         The function called.
+     * @param functionEnvironment
+     *         The environment of the current call.
+     * @param argumentCount
+     *         The number of arguments. If it doesn't match, the call is left to the regular path which reports
+     *         the arity mismatch.
+     * @return True if the call can be executed as a loop.
+     * @throws SchemeError
+     *         If analyzing the callee's body fails.
+     */
+    public boolean isSelfCall(SchemeCustomUserFunction callee, LocalEnvironment functionEnvironment, int
+            argumentCount) throws SchemeError {
+        return callee.getHomeEnvironment() == functionEnvironment.getParentEnvironment() && callee
+                .getAnalyzedBody() == this && argumentCount == parameters.length;
+    }
+
+    /**
+     * Bind the parameters of the current call to the arguments of a self call and forget the internal definitions,
+     * so the body can start over.
+     *
+     * @param functionEnvironment
+     *         The environment of the current call.
+     * @param arguments
+     *         The evaluated arguments, one for each parameter.
+     */
+    public void rebindParameters(LocalEnvironment functionEnvironment, SchemeObject[] arguments) {
+        for (int i = 0; i < arguments.length; i++) {
+            rebindParameter(functionEnvironment, i, arguments[i]);
+        }
+        clearDefinitions(functionEnvironment);
+    }
+
+    /**
+     * Bind a parameter of the current call to the argument of a self call. If closures may have captured the
+     * parameter's entry, a new entry is stored, so they keep seeing the value of the iteration they have been
+     * created in.
+     *
+     * @param functionEnvironment
+     *         The environment of the current call.
+     * @param slot
+     *         The parameter's slot.
+     * @param value
+     *         The argument.
+     */
+    public void rebindParameter(LocalEnvironment functionEnvironment, int slot, SchemeObject value) {
+        EnvironmentEntry environmentEntry = functionEnvironment.getEntryAt(slot);
+        if (localsCaptured || Objects.isNull(environmentEntry) || environmentEntry.getKey() != parameters[slot]) {
+            functionEnvironment.setEntryAt(slot, EnvironmentEntry.create(parameters[slot], value));
+        } else {
+            environmentEntry.setValue(value);
+        }
+    }
+
+    /**
+     * Forget the internal definitions of the current call before the body starts over, just like a new
+     * environment would.
+     *
+     * @param functionEnvironment
+     *         The environment of the current call.
+     */
+    public void clearDefinitions(LocalEnvironment functionEnvironment) {
+        for (int slot = parameters.length; slot < frameSize; slot++) {
+            functionEnvironment.setEntryAt(slot, null);
+        }
+    }
+
+    /**
+     * Count a call of the function body. The body is compiled by {@link JitCompiler} as soon as the number of calls
+     * reaches {@link JitCompiler#getCompileThreshold()}.
+     *
+     * @return The compiled body or null if the body is still interpreted.
+     */
+    public NativeCode recordInvocation() {
+        NativeCode currentNativeCode = nativeCode;
+        if (Objects.isNull(currentNativeCode) && ++invocationCount == JitCompiler.getCompileThreshold()) {
+            currentNativeCode = JitCompiler.getInstance().compile(this).orElse(null);
+            nativeCode = currentNativeCode;
+        }
+        return currentNativeCode;
+    }
+
+    public SchemeSymbol[] getParameters() {
+        return parameters;
+    }
+
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    public boolean areLocalsCaptured() {
+        return localsCaptured;
+    }
+
+    public ExecutionNode getBodyNode() {
+        return bodyNode;
+    }
+
+    /**
+     * Get the bytecode the body has been compiled to by {@link BytecodeCompiler}.
+     *
+     * @return The compiled body or null if the body has not been compiled so far.
+     */
+    public CompiledCode getCompiledCode() {
+        return compiledCode;
+    }
+
+    public void setCompiledCode(CompiledCode compiledCode) {
+        this.compiledCode = compiledCode;
+    }
+
+    public NativeCode getNativeCode() {
+        return nativeCode;
+    }
+
+    public int getInvocationCount() {
+        return invocationCount;
+    }
+}
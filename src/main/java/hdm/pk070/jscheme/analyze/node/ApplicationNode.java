@@ -0,0 +1,210 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * A function call. The function slot as well as each argument have been analyzed in advance.
+ * <br/><br/>
+ * The kind of callee seen is remembered in an {@link InlineCache}. If the function slot refers to a global variable,
+ * the call is linked to the callee's entry point by a {@link GlobalCallSite}, and the variable is not read again
+ * until it gets redefined.
+ * <br/><br/>
+ * A call in tail position which refers to the function it appears in by name is executed as a loop if it turns
+ * out to call the very same closure (see {@link AnalyzedBody#isSelfCall}).
+ */
+public class ApplicationNode extends ExecutionNode {
+
+    private final SchemeObject functionSlot;
+    private final SchemeObject argumentList;
+    private final ExecutionNode functionNode;
+    private final ExecutionNode[] argumentNodes;
+    private final InlineCache inlineCache;
+    private final SchemeCustomUserFunction selfFunction;
+    private volatile GlobalCallSite globalCallSite;
+    private boolean tailPosition;
+
+    /**
+     * Create a new function call node.
+     *
+     * @param functionSlot
+     *         The unevaluated function slot, only used for error messages.
+     * @param argumentList
+     *         The unevaluated argument list. It's needed in case the function slot evaluates to a built-in syntax.
+     * @param functionNode
+     *         The analyzed function slot.
+     * @param argumentNodes
+     *         The analyzed arguments.
+     * @return The new {@link ApplicationNode}.
+     */
+    public static ApplicationNode create(SchemeObject functionSlot, SchemeObject argumentList, ExecutionNode
+            functionNode, ExecutionNode[] argumentNodes) {
+        return new ApplicationNode(functionSlot, argumentList, functionNode, argumentNodes, null);
+    }
+
+    /**
+     * Create a new function call node for a call which probably refers to the function it appears in.
+     *
+     * @param functionSlot
+     *         The unevaluated function slot, only used for error messages.
+     * @param argumentList
+     *         The unevaluated argument list. It's needed in case the function slot evaluates to a built-in syntax.
+     * @param functionNode
+     *         The analyzed function slot.
+     * @param argumentNodes
+     *         The analyzed arguments.
+     * @param selfFunction
+     *         The prepared function the call appears in or null if it's not a self call candidate.
+     * @return The new {@link ApplicationNode}.
+     */
+    public static ApplicationNode create(SchemeObject functionSlot, SchemeObject argumentList, ExecutionNode
+            functionNode, ExecutionNode[] argumentNodes, SchemeCustomUserFunction selfFunction) {
+        return new ApplicationNode(functionSlot, argumentList, functionNode, argumentNodes, selfFunction);
+    }
+
+    protected ApplicationNode(SchemeObject functionSlot, SchemeObject argumentList, ExecutionNode functionNode,
+                              ExecutionNode[] argumentNodes, SchemeCustomUserFunction selfFunction) {
+        this.functionSlot = functionSlot;
+        this.argumentList = argumentList;
+        this.functionNode = functionNode;
+        this.argumentNodes = argumentNodes;
+        this.inlineCache = InlineCache.forFunctionSlot(functionSlot);
+        this.selfFunction = selfFunction;
+        this.tailPosition = false;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        GlobalCallSite callSite = globalCallSite;
+        if (Objects.nonNull(callSite)) {
+            SchemeObject linkedCallee = callSite.getLinkedCallee();
+            if (Objects.nonNull(linkedCallee)) {
+                SchemeObject[] arguments = evaluateArguments(environment);
+                if (tailPosition && rebindSelfCall(linkedCallee, arguments, environment)) {
+                    return SelfTailCall.RESTART;
+                }
+                return callSite.invoke(arguments);
+            }
+        }
+
+        SchemeObject function = functionNode.execute(environment);
+        int kind = inlineCache.kindOf(function);
+        if (Objects.isNull(callSite) && functionNode instanceof GlobalVariableNode) {
+            globalCallSite = GlobalCallSite.create(((GlobalVariableNode) functionNode).getEntry(), argumentNodes
+                    .length, tailPosition);
+        }
+
+        switch (kind) {
+            case InlineCache.BUILTIN_FUNCTION:
+                return FunctionInvoker.invokeBuiltinFunction((SchemeBuiltinFunction) function, evaluateArguments
+                        (environment));
+            case InlineCache.BUILTIN_SYNTAX:
+                // Syntax which is not known during analysis (e.g. bound to another name) is applied the old way
+                return ((SchemeBuiltinSyntax) function).apply(argumentList, environment);
+            default:
+                if (tailPosition) {
+                    SchemeObject[] arguments = evaluateArguments(environment);
+                    if (rebindSelfCall(function, arguments, environment)) {
+                        return SelfTailCall.RESTART;
+                    }
+                    // Let the invoker of the current function perform the call after this frame has been left
+                    return new TailCall((SchemeCustomUserFunction) function, arguments);
+                }
+                return FunctionInvoker.invokeCustomUserFunction((SchemeCustomUserFunction) function,
+                        evaluateArguments(environment));
+        }
+    }
+
+    /**
+     * If this is a self call candidate in tail position and {@code function} turns out to be the function the call
+     * appears in, store the arguments in the current environment, so the body can start over.
+     *
+     * @param function
+     *         The evaluated function slot.
+     * @param arguments
+     *         The evaluated arguments.
+     * @param environment
+     *         The environment of the current call.
+     * @return True if the arguments have been stored and the body has to start over, false if the call has to be
+     * performed the regular way.
+     * @throws SchemeError
+     *         If analyzing the callee's body fails.
+     */
+    public boolean rebindSelfCall(SchemeObject function, SchemeObject[] arguments, Environment<SchemeSymbol,
+            EnvironmentEntry> environment) throws SchemeError {
+        if (Objects.isNull(selfFunction) || !tailPosition || !function.hasType(SchemeType.CUSTOM_FUNCTION)) {
+            return false;
+        }
+
+        AnalyzedBody analyzedBody = selfFunction.getAnalyzedBody();
+        LocalEnvironment functionEnvironment = (LocalEnvironment) environment;
+        if (!analyzedBody.isSelfCall((SchemeCustomUserFunction) function, functionEnvironment, arguments.length)) {
+            return false;
+        }
+        analyzedBody.rebindParameters(functionEnvironment, arguments);
+        return true;
+    }
+
+    private SchemeObject[] evaluateArguments(Environment<SchemeSymbol, EnvironmentEntry> environment) throws
+            SchemeError {
+        SchemeObject[] arguments = new SchemeObject[argumentNodes.length];
+        for (int i = 0; i < argumentNodes.length; i++) {
+            arguments[i] = argumentNodes[i].execute(environment);
+        }
+        return arguments;
+    }
+
+    @Override
+    public void markTailPosition() {
+        this.tailPosition = true;
+    }
+
+    public boolean isTailPosition() {
+        return tailPosition;
+    }
+
+    public boolean isSelfCallCandidate() {
+        return Objects.nonNull(selfFunction) && tailPosition;
+    }
+
+    /**
+     * @return The prepared function the call appears in if the call refers to it by name, otherwise null.
+     */
+    public SchemeCustomUserFunction getSelfFunction() {
+        return selfFunction;
+    }
+
+    /**
+     * @return The site linking this call to the procedure its global function slot is bound to or null if the
+     * function slot doesn't refer to a global variable or the call hasn't been executed so far.
+     */
+    public GlobalCallSite getGlobalCallSite() {
+        return globalCallSite;
+    }
+
+    public SchemeObject getFunctionSlot() {
+        return functionSlot;
+    }
+
+    public SchemeObject getArgumentList() {
+        return argumentList;
+    }
+
+    public ExecutionNode getFunctionNode() {
+        return functionNode;
+    }
+
+    public ExecutionNode[] getArgumentNodes() {
+        return argumentNodes;
+    }
+}
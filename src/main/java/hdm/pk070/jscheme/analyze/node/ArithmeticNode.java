@@ -0,0 +1,219 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinMinus;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinPlus;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinTimes;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex.SchemeFloat;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A call of "+", "-" or "*" with two arguments which specializes itself on the operand types it sees. The first
+ * execution records whether both operands are integers or both are floats and switches the node to a fast path
+ * computing the result directly, without going through {@link SchemeBuiltinFunction#call2} and the numeric tower.
+ * As soon as other operand types show up, the node deoptimizes for good and calls the built-in function. If the
+ * function slot doesn't evaluate to the built-in function anymore (e.g. because "+" has been redefined), the call is
+ * performed like any other {@link ApplicationNode}.
+ */
+public final class ArithmeticNode extends ApplicationNode {
+
+    /**
+     * The operations a node can be specialized for.
+     */
+    public enum Operation {
+        PLUS("+", SchemeBuiltinPlus.class) {
+            @Override
+            int applyToIntegers(int operand1, int operand2) {
+                return operand1 + operand2;
+            }
+
+            @Override
+            float applyToFloats(float operand1, float operand2) {
+                return operand1 + operand2;
+            }
+        },
+        MINUS("-", SchemeBuiltinMinus.class) {
+            @Override
+            int applyToIntegers(int operand1, int operand2) {
+                return operand1 - operand2;
+            }
+
+            @Override
+            float applyToFloats(float operand1, float operand2) {
+                return operand1 - operand2;
+            }
+        },
+        TIMES("*", SchemeBuiltinTimes.class) {
+            @Override
+            int applyToIntegers(int operand1, int operand2) {
+                return operand1 * operand2;
+            }
+
+            @Override
+            float applyToFloats(float operand1, float operand2) {
+                return operand1 * operand2;
+            }
+        };
+
+        private final String name;
+        private final Class<? extends SchemeBuiltinFunction> builtinClass;
+
+        Operation(String name, Class<? extends SchemeBuiltinFunction> builtinClass) {
+            this.name = name;
+            this.builtinClass = builtinClass;
+        }
+
+        /**
+         * Find the operation a function slot probably refers to.
+         *
+         * @param functionSlot
+         *         The unevaluated function slot.
+         * @return An {@link Optional} containing the operation or an empty {@link Optional} if the function slot
+         * is no name of an arithmetic built-in function.
+         */
+        public static Optional<Operation> forFunctionSlot(SchemeObject functionSlot) {
+            if (!functionSlot.hasType(SchemeType.SYMBOL)) {
+                return Optional.empty();
+            }
+            String symbolName = ((SchemeSymbol) functionSlot).getValue();
+            return Arrays.stream(values()).filter(operation -> operation.name.equals(symbolName)).findFirst();
+        }
+
+        abstract int applyToIntegers(int operand1, int operand2);
+
+        abstract float applyToFloats(float operand1, float operand2);
+    }
+
+    /**
+     * The operand types a node has been specialized for.
+     */
+    public enum Specialization {
+        UNINITIALIZED, INTEGER, FLOAT, GENERIC
+    }
+
+    private final Operation operation;
+    private final ExecutionNode operandNode1;
+    private final ExecutionNode operandNode2;
+    private volatile Specialization specialization;
+
+    /**
+     * Create a new arithmetic call node.
+     *
+     * @param operation
+     *         The operation the function slot probably refers to.
+     * @param functionSlot
+     *         The unevaluated function slot.
+     * @param argumentList
+     *         The unevaluated argument list.
+     * @param functionNode
+     *         The analyzed function slot.
+     * @param operandNode1
+     *         The analyzed first argument.
+     * @param operandNode2
+     *         The analyzed second argument.
+     * @return The new {@link ArithmeticNode}.
+     */
+    public static ArithmeticNode create(Operation operation, SchemeObject functionSlot, SchemeObject argumentList,
+                                        ExecutionNode functionNode, ExecutionNode operandNode1, ExecutionNode
+                                                operandNode2) {
+        return new ArithmeticNode(operation, functionSlot, argumentList, functionNode, operandNode1, operandNode2);
+    }
+
+    private ArithmeticNode(Operation operation, SchemeObject functionSlot, SchemeObject argumentList, ExecutionNode
+            functionNode, ExecutionNode operandNode1, ExecutionNode operandNode2) {
+        super(functionSlot, argumentList, functionNode, new ExecutionNode[]{operandNode1, operandNode2}, null);
+        this.operation = operation;
+        this.operandNode1 = operandNode1;
+        this.operandNode2 = operandNode2;
+        this.specialization = Specialization.UNINITIALIZED;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        SchemeObject function = getFunctionNode().execute(environment);
+        if (!isOperation(function)) {
+            return super.execute(environment);
+        }
+        return apply(function, operandNode1.execute(environment), operandNode2.execute(environment));
+    }
+
+    /**
+     * Check if a function is the built-in function this node has been created for.
+     *
+     * @param function
+     *         The evaluated function slot.
+     * @return True if {@link #apply(SchemeObject, SchemeObject, SchemeObject)} may be called with {@code function}.
+     */
+    public boolean isOperation(SchemeObject function) {
+        return function.getClass() == operation.builtinClass;
+    }
+
+    /**
+     * Apply the operation to evaluated operands, taking the fast path the node has been specialized for if the
+     * operands match it.
+     *
+     * @param function
+     *         The evaluated function slot, which must have been checked by {@link #isOperation(SchemeObject)}.
+     * @param operand1
+     *         The evaluated first argument.
+     * @param operand2
+     *         The evaluated second argument.
+     * @return The result of the operation.
+     * @throws SchemeError
+     *         If the operands are no numbers.
+     */
+    public SchemeObject apply(SchemeObject function, SchemeObject operand1, SchemeObject operand2) throws
+            SchemeError {
+        switch (specialization) {
+            case INTEGER:
+                if (operand1.hasType(SchemeType.INTEGER) && operand2.hasType(SchemeType.INTEGER)) {
+                    return new SchemeInteger(operation.applyToIntegers(((SchemeInteger) operand1).intValue(),
+                            ((SchemeInteger) operand2).intValue()));
+                }
+                specialization = Specialization.GENERIC;
+                break;
+            case FLOAT:
+                if (operand1.hasType(SchemeType.FLOAT) && operand2.hasType(SchemeType.FLOAT)) {
+                    return new SchemeFloat(operation.applyToFloats(((SchemeFloat) operand1).floatValue(),
+                            ((SchemeFloat) operand2).floatValue()));
+                }
+                specialization = Specialization.GENERIC;
+                break;
+            case UNINITIALIZED:
+                specialization = specializationFor(operand1, operand2);
+                if (specialization != Specialization.GENERIC) {
+                    return apply(function, operand1, operand2);
+                }
+                break;
+            default:
+                break;
+        }
+        return ((SchemeBuiltinFunction) function).call2(operand1, operand2);
+    }
+
+    private static Specialization specializationFor(SchemeObject operand1, SchemeObject operand2) {
+        if (operand1.hasType(SchemeType.INTEGER) && operand2.hasType(SchemeType.INTEGER)) {
+            return Specialization.INTEGER;
+        } else if (operand1.hasType(SchemeType.FLOAT) && operand2.hasType(SchemeType.FLOAT)) {
+            return Specialization.FLOAT;
+        }
+        return Specialization.GENERIC;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public Specialization getSpecialization() {
+        return specialization;
+    }
+}
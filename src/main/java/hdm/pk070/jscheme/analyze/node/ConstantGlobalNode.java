@@ -0,0 +1,78 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.table.environment.entry.RedefinitionListener;
+
+/**
+ * A reference to a stable global variable (see {@link EnvironmentEntry#isStable()}) whose value is treated as a
+ * constant. The value read during analysis is returned as long as the variable isn't redefined or assigned. As
+ * soon as it is, the variable is read again on each execution.
+ * <br/><br/>
+ * Being a constant, the value can be folded into calls using it, and compiled code embeds it instead of reading
+ * the variable.
+ */
+public final class ConstantGlobalNode extends ExecutionNode implements RedefinitionListener, Speculation {
+
+    private final SchemeObject value;
+    private final GlobalVariableNode variableNode;
+    private final EnvironmentEntry globalEntry;
+    private volatile boolean valid;
+
+    /**
+     * Create a reference to a stable global variable.
+     *
+     * @param variableNode
+     *         The original reference, executed once the value has become invalid.
+     * @param globalEntry
+     *         The variable's entry.
+     * @return The new {@link ConstantGlobalNode}.
+     */
+    public static ConstantGlobalNode create(GlobalVariableNode variableNode, EnvironmentEntry globalEntry) {
+        ConstantGlobalNode constantGlobalNode = new ConstantGlobalNode(globalEntry.getValue(), variableNode,
+                globalEntry);
+        globalEntry.addRedefinitionListener(constantGlobalNode);
+        return constantGlobalNode;
+    }
+
+    private ConstantGlobalNode(SchemeObject value, GlobalVariableNode variableNode, EnvironmentEntry
+            globalEntry) {
+        this.value = value;
+        this.variableNode = variableNode;
+        this.globalEntry = globalEntry;
+        this.valid = true;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        if (valid) {
+            return value;
+        }
+        return variableNode.getValue();
+    }
+
+    @Override
+    public void entryRedefined(EnvironmentEntry environmentEntry) {
+        valid = false;
+    }
+
+    @Override
+    public boolean isValid() {
+        return valid;
+    }
+
+    public SchemeObject getValue() {
+        return value;
+    }
+
+    public GlobalVariableNode getVariableNode() {
+        return variableNode;
+    }
+
+    public EnvironmentEntry getGlobalEntry() {
+        return globalEntry;
+    }
+}
@@ -0,0 +1,31 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * A node which always yields the same object, e.g. a number, a string or a quoted expression.
+ */
+public final class ConstantNode extends ExecutionNode {
+
+    private final SchemeObject value;
+
+    public static ConstantNode create(SchemeObject value) {
+        return new ConstantNode(value);
+    }
+
+    private ConstantNode(SchemeObject value) {
+        this.value = value;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) {
+        return value;
+    }
+
+    public SchemeObject getValue() {
+        return value;
+    }
+}
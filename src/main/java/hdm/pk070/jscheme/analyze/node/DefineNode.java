@@ -0,0 +1,41 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinDefine;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * Analyzed form of {@link SchemeBuiltinDefine}. Binds the result of the value node to a symbol.
+ */
+public final class DefineNode extends ExecutionNode {
+
+    private final SchemeSymbol symbol;
+    private final ExecutionNode valueNode;
+
+    public static DefineNode create(SchemeSymbol symbol, ExecutionNode valueNode) {
+        return new DefineNode(symbol, valueNode);
+    }
+
+    private DefineNode(SchemeSymbol symbol, ExecutionNode valueNode) {
+        this.symbol = symbol;
+        this.valueNode = valueNode;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        environment.add(EnvironmentEntry.create(symbol, valueNode.execute(environment)));
+        return new SchemeVoid();
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+
+    public ExecutionNode getValueNode() {
+        return valueNode;
+    }
+}
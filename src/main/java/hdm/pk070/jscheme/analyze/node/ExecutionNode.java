@@ -0,0 +1,36 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * Base class for all nodes of an execution tree. An execution tree is built once by {@link SchemeAnalyzer} out of
+ * the reader's output. Syntax checks and dispatching on the type of an expression are done during analysis, so
+ * executing a node only has to do the actual work.
+ */
+public abstract class ExecutionNode {
+
+    /**
+     * Execute this node in the context of a certain {@link Environment}.
+     *
+     * @param environment
+     *         The environment within which the node shall be executed.
+     * @return The result of executing this node.
+     * @throws SchemeError
+     *         In case anything goes wrong during execution.
+     */
+    public abstract SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError;
+
+    /**
+     * Notify this node that its value is the result of the function body it belongs to. Nodes which contain
+     * sub-nodes in tail position pass the notification on. Called once by {@link SchemeAnalyzer} after a function
+     * body has been analyzed.
+     */
+    public void markTailPosition() {
+    }
+
+}
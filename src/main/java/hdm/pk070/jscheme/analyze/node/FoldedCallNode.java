@@ -0,0 +1,81 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.table.environment.entry.RedefinitionListener;
+
+/**
+ * A call of a pure built-in function with constant arguments, which has been evaluated once during analysis. The
+ * folded value is returned as long as none of the global variables the call depends on is redefined. As soon as one
+ * of them is, the original call is executed instead.
+ */
+public final class FoldedCallNode extends ExecutionNode implements RedefinitionListener, Speculation {
+
+    private final SchemeObject value;
+    private final ApplicationNode callNode;
+    private final EnvironmentEntry[] dependencies;
+    private volatile boolean valid;
+
+    /**
+     * Create a node returning a folded value.
+     *
+     * @param value
+     *         The result of the call.
+     * @param callNode
+     *         The original call, executed once the value has become invalid.
+     * @param dependencies
+     *         The entries of all functions the value has been computed with, including those of folded arguments.
+     * @return The folded call.
+     */
+    public static FoldedCallNode create(SchemeObject value, ApplicationNode callNode, EnvironmentEntry[]
+            dependencies) {
+        FoldedCallNode foldedCallNode = new FoldedCallNode(value, callNode, dependencies);
+        for (EnvironmentEntry dependency : dependencies) {
+            dependency.addRedefinitionListener(foldedCallNode);
+        }
+        return foldedCallNode;
+    }
+
+    private FoldedCallNode(SchemeObject value, ApplicationNode callNode, EnvironmentEntry[] dependencies) {
+        this.value = value;
+        this.callNode = callNode;
+        this.dependencies = dependencies;
+        this.valid = true;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        if (valid) {
+            return value;
+        }
+        return callNode.execute(environment);
+    }
+
+    // The original call is not notified about tail position: it's executed rarely and must return a value, not a
+    // tail call, wherever the folded node is compiled to.
+
+    @Override
+    public void entryRedefined(EnvironmentEntry environmentEntry) {
+        valid = false;
+    }
+
+    @Override
+    public boolean isValid() {
+        return valid;
+    }
+
+    public SchemeObject getValue() {
+        return value;
+    }
+
+    public ApplicationNode getCallNode() {
+        return callNode;
+    }
+
+    public EnvironmentEntry[] getDependencies() {
+        return dependencies;
+    }
+}
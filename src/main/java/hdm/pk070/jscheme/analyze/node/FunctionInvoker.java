@@ -0,0 +1,155 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * Calls functions with arguments that have already been evaluated.
+ */
+public final class FunctionInvoker {
+
+    private FunctionInvoker() {
+    }
+
+    /**
+     * Call any function with arguments that have already been evaluated, e.g. a function passed to a built-in
+     * function as argument.
+     *
+     * @param function
+     *         The function to call.
+     * @param arguments
+     *         The evaluated arguments.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If {@code function} is not a function or the function call fails.
+     */
+    public static SchemeObject invokeFunction(SchemeObject function, SchemeObject[] arguments) throws SchemeError {
+        switch (function.getType()) {
+            case BUILTIN_FUNCTION:
+                return invokeBuiltinFunction((SchemeBuiltinFunction) function, arguments);
+            case CUSTOM_FUNCTION:
+                return invokeCustomUserFunction((SchemeCustomUserFunction) function, arguments);
+            default:
+                throw new SchemeError("application: not a procedure [expected: procedure that can be " +
+                        "applied to arguments, given: %s]", function);
+        }
+    }
+
+    /**
+     * Call a built-in function through the entry point matching the number of arguments. Only functions which do
+     * not provide such an entry point fall back to {@link SchemeCallStack}.
+     *
+     * @param builtinFunction
+     *         The function to call.
+     * @param arguments
+     *         The evaluated arguments.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If the function call fails.
+     */
+    public static SchemeObject invokeBuiltinFunction(SchemeBuiltinFunction builtinFunction, SchemeObject[]
+            arguments) throws SchemeError {
+        return builtinFunction.invoke(arguments);
+    }
+
+    /**
+     * Call a {@link SchemeCustomUserFunction} by storing the arguments in the parameter slots of a fresh
+     * {@link LocalEnvironment} and executing the analyzed function body. Calls in tail position of the body are
+     * performed by this method's loop instead of recursively, so tail-recursive functions run in constant Java
+     * stack space.
+     *
+     * @param customFunction
+     *         The function to call.
+     * @param arguments
+     *         The evaluated arguments.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If the number of arguments does not match or the function body fails.
+     */
+    public static SchemeObject invokeCustomUserFunction(SchemeCustomUserFunction customFunction, SchemeObject[]
+            arguments) throws SchemeError {
+        return resolveTailCalls(executeFunctionBody(customFunction, arguments));
+    }
+
+    /**
+     * Perform pending calls returned by a node in tail position until a proper result is available. Callers which
+     * execute nodes outside of {@link #invokeCustomUserFunction(SchemeCustomUserFunction, SchemeObject[])} must
+     * pass the result through this method.
+     *
+     * @param result
+     *         The result of executing a node.
+     * @return The final result.
+     * @throws SchemeError
+     *         If one of the pending calls fails.
+     */
+    public static SchemeObject resolveTailCalls(SchemeObject result) throws SchemeError {
+        SchemeObject finalResult = result;
+        while (finalResult.hasType(SchemeType.TAIL_CALL)) {
+            TailCall tailCall = (TailCall) finalResult;
+            finalResult = executeFunctionBody(tailCall.getFunction(), tailCall.getArguments());
+        }
+        return finalResult;
+    }
+
+    /**
+     * Create a pending call to be returned from a function body instead of calling {@code customFunction} directly.
+     * The call is performed by {@link #resolveTailCalls(SchemeObject)}.
+     *
+     * @param customFunction
+     *         The function to call.
+     * @param arguments
+     *         The evaluated arguments.
+     * @return The pending call.
+     */
+    public static SchemeObject createTailCall(SchemeCustomUserFunction customFunction, SchemeObject[] arguments) {
+        return new TailCall(customFunction, arguments);
+    }
+
+    /**
+     * Make sure a function is called with exactly as many arguments as it has parameters.
+     *
+     * @param customFunction
+     *         The function to call.
+     * @param parameterCount
+     *         The number of parameters.
+     * @param argumentCount
+     *         The number of arguments given.
+     * @throws SchemeError
+     *         If the numbers do not match.
+     */
+    public static void ensureArityMatches(SchemeCustomUserFunction customFunction, int parameterCount, int
+            argumentCount) throws SchemeError {
+        if (argumentCount < parameterCount) {
+            throw new SchemeError("(eval): arity mismatch, expected number of " +
+                    "arguments does not match the given number [expected: %d, given: %d]", customFunction
+                    .getParamCount(), argumentCount);
+        } else if (argumentCount > parameterCount) {
+            throw new SchemeError("(eval): arity mismatch, expected number of " +
+                    "arguments does not match the given number [expected: %d, more given!]", customFunction
+                    .getParamCount());
+        }
+    }
+
+    private static SchemeObject executeFunctionBody(SchemeCustomUserFunction customFunction, SchemeObject[]
+            arguments) throws SchemeError {
+        AnalyzedBody analyzedBody = customFunction.getAnalyzedBody();
+        SchemeSymbol[] parameters = analyzedBody.getParameters();
+
+        ensureArityMatches(customFunction, parameters.length, arguments.length);
+
+        LocalEnvironment functionBodyEvalEnvironment = LocalEnvironment.withSizeAndParent(analyzedBody
+                .getFrameSize(), customFunction.getHomeEnvironment());
+        for (int i = 0; i < parameters.length; i++) {
+            functionBodyEvalEnvironment.setEntryAt(i, EnvironmentEntry.create(parameters[i], arguments[i]));
+        }
+
+        return analyzedBody.execute(functionBodyEvalEnvironment);
+    }
+}
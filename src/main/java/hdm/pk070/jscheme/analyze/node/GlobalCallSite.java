@@ -0,0 +1,143 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeFunction;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.table.environment.entry.RedefinitionListener;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.MutableCallSite;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Objects;
+
+/**
+ * The linkage of a call whose callee is a global variable. The site's target is the entry point of the procedure
+ * the variable is bound to (see {@link SchemeFunction#getEntryPoint(int)}), so invoking the site calls the
+ * procedure directly, without checking what kind of callee it is. Since the target of a {@link MutableCallSite} is
+ * treated as constant by HotSpot, the callee can be inlined into its caller.
+ * <br/><br/>
+ * The site gets relinked as soon as {@link GlobalEnvironment} binds the variable to another value. If the variable
+ * isn't bound to a procedure (e.g. to syntax), the site is unlinked and its target calls whatever the variable is
+ * bound to the generic way.
+ */
+public final class GlobalCallSite extends MutableCallSite implements RedefinitionListener {
+
+    private static final MethodHandle INVOKE_UNLINKED;
+    private static final MethodHandle CREATE_TAIL_CALL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            INVOKE_UNLINKED = lookup.findVirtual(GlobalCallSite.class, "invokeUnlinked", SchemeFunction
+                    .ENTRY_POINT_TYPE);
+            CREATE_TAIL_CALL = lookup.findStatic(FunctionInvoker.class, "createTailCall", MethodType.methodType
+                    (SchemeObject.class, SchemeCustomUserFunction.class, SchemeObject[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final EnvironmentEntry globalEntry;
+    private final int argumentCount;
+    private final boolean tailCall;
+    private final MethodHandle invoker;
+    private volatile SchemeObject linkedCallee;
+
+    /**
+     * Create a call site and link it to the current value of a global variable.
+     *
+     * @param globalEntry
+     *         The entry of the global variable referenced by the call's function slot.
+     * @param argumentCount
+     *         The number of arguments passed by the call.
+     * @param tailCall
+     *         Whether the call is in tail position. If so, user-defined functions aren't called but returned as
+     *         pending {@link TailCall}.
+     * @return The new call site.
+     */
+    public static GlobalCallSite create(EnvironmentEntry globalEntry, int argumentCount, boolean tailCall) {
+        GlobalCallSite globalCallSite = new GlobalCallSite(globalEntry, argumentCount, tailCall);
+        globalCallSite.relink();
+        return globalCallSite;
+    }
+
+    private GlobalCallSite(EnvironmentEntry globalEntry, int argumentCount, boolean tailCall) {
+        super(SchemeFunction.ENTRY_POINT_TYPE);
+        this.globalEntry = globalEntry;
+        this.argumentCount = argumentCount;
+        this.tailCall = tailCall;
+        this.invoker = dynamicInvoker();
+    }
+
+    /**
+     * Call the site's target.
+     *
+     * @param arguments
+     *         The evaluated arguments.
+     * @return The result of the call, a pending {@link TailCall} if the site is in tail position.
+     * @throws SchemeError
+     *         If the call fails.
+     */
+    public SchemeObject invoke(SchemeObject[] arguments) throws SchemeError {
+        try {
+            return (SchemeObject) invoker.invokeExact(arguments);
+        } catch (SchemeError | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            throw new UndeclaredThrowableException(throwable);
+        }
+    }
+
+    /**
+     * @return The procedure the site is linked to or null if the site is unlinked.
+     */
+    public SchemeObject getLinkedCallee() {
+        return linkedCallee;
+    }
+
+    public boolean isLinked() {
+        return Objects.nonNull(linkedCallee);
+    }
+
+    @Override
+    public void entryRedefined(EnvironmentEntry environmentEntry) {
+        relink();
+    }
+
+    private synchronized void relink() {
+        // Listen before reading the value, so a redefinition happening in between isn't missed
+        globalEntry.addRedefinitionListener(this);
+        SchemeObject callee = globalEntry.getValue();
+
+        if (callee.hasType(SchemeType.BUILTIN_FUNCTION) || callee.hasType(SchemeType.CUSTOM_FUNCTION)) {
+            setTarget(entryPointOf((SchemeFunction) callee));
+            linkedCallee = callee;
+        } else {
+            setTarget(INVOKE_UNLINKED.bindTo(this));
+            linkedCallee = null;
+        }
+        // Make threads running code which has inlined the old target see the new one
+        MutableCallSite.syncAll(new MutableCallSite[]{this});
+    }
+
+    private MethodHandle entryPointOf(SchemeFunction callee) {
+        if (tailCall && callee.hasType(SchemeType.CUSTOM_FUNCTION)) {
+            return CREATE_TAIL_CALL.bindTo(callee);
+        }
+        return callee.getEntryPoint(argumentCount);
+    }
+
+    private SchemeObject invokeUnlinked(SchemeObject[] arguments) throws SchemeError {
+        SchemeObject callee = globalEntry.getValue();
+        if (tailCall && callee.hasType(SchemeType.CUSTOM_FUNCTION)) {
+            return FunctionInvoker.createTailCall((SchemeCustomUserFunction) callee, arguments);
+        }
+        return FunctionInvoker.invokeFunction(callee, arguments);
+    }
+}
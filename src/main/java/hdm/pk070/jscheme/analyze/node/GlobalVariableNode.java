@@ -0,0 +1,76 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A reference to a variable which is not bound by any enclosing function and therefore is looked up in
+ * {@link GlobalEnvironment} directly, without walking through the local environments in between.
+ * <br/><br/>
+ * {@link GlobalEnvironment} keeps a single {@link EnvironmentEntry} per symbol and updates its value when the
+ * symbol is defined again. The entry is therefore looked up only once and read directly afterwards.
+ */
+public final class GlobalVariableNode extends ExecutionNode {
+
+    private final SchemeSymbol symbol;
+    private EnvironmentEntry globalEntry;
+
+    public static GlobalVariableNode create(SchemeSymbol symbol) {
+        return new GlobalVariableNode(symbol);
+    }
+
+    private GlobalVariableNode(SchemeSymbol symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        return getValue();
+    }
+
+    /**
+     * Get the current value of the global variable.
+     *
+     * @return The variable's value.
+     * @throws SchemeError
+     *         If the variable has not been defined so far.
+     */
+    public SchemeObject getValue() throws SchemeError {
+        return getEntry().getValue();
+    }
+
+    /**
+     * Get the entry holding the global variable.
+     *
+     * @return The variable's entry.
+     * @throws SchemeError
+     *         If the variable has not been defined so far.
+     */
+    public EnvironmentEntry getEntry() throws SchemeError {
+        EnvironmentEntry currentEntry = globalEntry;
+        if (Objects.isNull(currentEntry)) {
+            currentEntry = lookupEntry();
+            globalEntry = currentEntry;
+        }
+        return currentEntry;
+    }
+
+    private EnvironmentEntry lookupEntry() throws SchemeError {
+        Optional<EnvironmentEntry> entryOptional = GlobalEnvironment.getInstance().get(symbol);
+        if (!entryOptional.isPresent()) {
+            throw new SchemeError("undefined variable %s", symbol.getValue());
+        }
+        return entryOptional.get();
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+}
@@ -0,0 +1,57 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * Analyzed form of {@link SchemeBuiltinIf}. The syntax has already been checked, so only the condition and the
+ * chosen branch are left to execute.
+ */
+public final class IfNode extends ExecutionNode {
+
+    private final ExecutionNode conditionNode;
+    private final ExecutionNode conditionMetNode;
+    private final ExecutionNode elseNode;
+
+    public static IfNode create(ExecutionNode conditionNode, ExecutionNode conditionMetNode, ExecutionNode
+            elseNode) {
+        return new IfNode(conditionNode, conditionMetNode, elseNode);
+    }
+
+    private IfNode(ExecutionNode conditionNode, ExecutionNode conditionMetNode, ExecutionNode elseNode) {
+        this.conditionNode = conditionNode;
+        this.conditionMetNode = conditionMetNode;
+        this.elseNode = elseNode;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        if (SchemeBuiltinIf.isConditionMet(conditionNode.execute(environment))) {
+            return conditionMetNode.execute(environment);
+        } else {
+            return elseNode.execute(environment);
+        }
+    }
+
+    @Override
+    public void markTailPosition() {
+        conditionMetNode.markTailPosition();
+        elseNode.markTailPosition();
+    }
+
+    public ExecutionNode getConditionNode() {
+        return conditionNode;
+    }
+
+    public ExecutionNode getConditionMetNode() {
+        return conditionMetNode;
+    }
+
+    public ExecutionNode getElseNode() {
+        return elseNode;
+    }
+}
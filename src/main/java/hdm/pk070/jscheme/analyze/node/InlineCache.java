@@ -0,0 +1,99 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+
+import java.util.Objects;
+
+/**
+ * Remembers how the callees seen at a certain call site have to be invoked. The kind of invocation only depends on
+ * the callee's class, so the cache is keyed by class and never needs to be invalidated. It holds up to
+ * {@value #MAX_ENTRIES} classes; call sites seeing more classes fall back to checking the callee's type on every
+ * call.
+ */
+public final class InlineCache {
+
+    public static final int BUILTIN_FUNCTION = 0;
+    public static final int BUILTIN_SYNTAX = 1;
+    public static final int CUSTOM_FUNCTION = 2;
+
+    private static final int MAX_ENTRIES = 4;
+
+    private final SchemeObject functionSlot;
+    private final Entry[] entries;
+    private int entryCount;
+
+    /**
+     * Create an empty cache for a call site.
+     *
+     * @param functionSlot
+     *         The call site's unevaluated function slot, used for error messages.
+     * @return The new cache.
+     */
+    public static InlineCache forFunctionSlot(SchemeObject functionSlot) {
+        return new InlineCache(functionSlot);
+    }
+
+    private InlineCache(SchemeObject functionSlot) {
+        this.functionSlot = functionSlot;
+        this.entries = new Entry[MAX_ENTRIES];
+        this.entryCount = 0;
+    }
+
+    /**
+     * Determine how a callee has to be invoked.
+     *
+     * @param function
+     *         The evaluated function slot.
+     * @return One of {@link #BUILTIN_FUNCTION}, {@link #BUILTIN_SYNTAX} and {@link #CUSTOM_FUNCTION}.
+     * @throws SchemeError
+     *         If {@code function} can't be applied at all.
+     */
+    public int kindOf(SchemeObject function) throws SchemeError {
+        Class<?> functionClass = function.getClass();
+        for (Entry entry : entries) {
+            if (Objects.isNull(entry)) {
+                break;
+            } else if (entry.functionClass == functionClass) {
+                return entry.kind;
+            }
+        }
+
+        int kind = classify(function);
+        if (entryCount < MAX_ENTRIES) {
+            entries[entryCount++] = new Entry(functionClass, kind);
+        }
+        return kind;
+    }
+
+    public SchemeObject getFunctionSlot() {
+        return functionSlot;
+    }
+
+    private int classify(SchemeObject function) throws SchemeError {
+        if (function.hasType(SchemeType.BUILTIN_FUNCTION)) {
+            return BUILTIN_FUNCTION;
+        } else if (function.hasType(SchemeType.BUILTIN_SYNTAX)) {
+            return BUILTIN_SYNTAX;
+        } else if (function.hasType(SchemeType.CUSTOM_FUNCTION)) {
+            return CUSTOM_FUNCTION;
+        }
+        throw new SchemeError("application: not a procedure [expected: procedure that can be applied to" +
+                " arguments, given: %s]", functionSlot);
+    }
+
+    /**
+     * Entries are immutable, so other threads never see a class paired with the wrong kind.
+     */
+    private static final class Entry {
+
+        private final Class<?> functionClass;
+        private final int kind;
+
+        private Entry(Class<?> functionClass, int kind) {
+            this.functionClass = functionClass;
+            this.kind = kind;
+        }
+    }
+}
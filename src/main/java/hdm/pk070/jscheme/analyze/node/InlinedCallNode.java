@@ -0,0 +1,83 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.table.environment.entry.RedefinitionListener;
+
+/**
+ * A call of a small global function whose body has been inlined into the calling function. The inlined body stores
+ * the arguments in slots of the caller's environment and runs the callee's body right there, so neither an
+ * environment nor an argument array is created for the call.
+ * <br/><br/>
+ * The inlined body is only valid as long as the callee and the functions it calls are bound to the global
+ * variables they have been found in during analysis. As soon as one of them is redefined, the original call is
+ * executed instead.
+ */
+public final class InlinedCallNode extends ExecutionNode implements RedefinitionListener, Speculation {
+
+    private final ExecutionNode inlinedNode;
+    private final ApplicationNode callNode;
+    private volatile boolean valid;
+
+    /**
+     * Create an inlined call.
+     *
+     * @param inlinedNode
+     *         Binds the arguments and executes the callee's body within the caller's environment.
+     * @param callNode
+     *         The original call, executed once the inlined body has become invalid.
+     * @param dependencies
+     *         The entries of the callee and of all functions called by its body.
+     * @return The inlined call.
+     */
+    public static InlinedCallNode create(ExecutionNode inlinedNode, ApplicationNode callNode, EnvironmentEntry[]
+            dependencies) {
+        InlinedCallNode inlinedCallNode = new InlinedCallNode(inlinedNode, callNode);
+        for (EnvironmentEntry dependency : dependencies) {
+            dependency.addRedefinitionListener(inlinedCallNode);
+        }
+        return inlinedCallNode;
+    }
+
+    private InlinedCallNode(ExecutionNode inlinedNode, ApplicationNode callNode) {
+        this.inlinedNode = inlinedNode;
+        this.callNode = callNode;
+        this.valid = true;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        if (valid) {
+            return inlinedNode.execute(environment);
+        }
+        return callNode.execute(environment);
+    }
+
+    @Override
+    public void markTailPosition() {
+        // While it's valid, the inlined body only calls built-in functions, which never result in a tail call
+        inlinedNode.markTailPosition();
+        callNode.markTailPosition();
+    }
+
+    @Override
+    public void entryRedefined(EnvironmentEntry environmentEntry) {
+        valid = false;
+    }
+
+    @Override
+    public boolean isValid() {
+        return valid;
+    }
+
+    public ExecutionNode getInlinedNode() {
+        return inlinedNode;
+    }
+
+    public ApplicationNode getCallNode() {
+        return callNode;
+    }
+}
@@ -0,0 +1,129 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.LexicalAddress;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * Creates a closure out of a function whose parameter list and body have been analyzed in advance. The closure does
+ * not keep the {@link Environment} it is created in. Instead, the entries of the variables its body refers to are
+ * copied into a small closure environment whose parent is the root environment, so environments of enclosing
+ * function calls can be garbage collected as soon as these calls have returned. The entries of variables which are
+ * assigned or defined within their function are shared, so later assignments and (re-)definitions are seen by the
+ * closure. The values of all other variables are copied, so the environment they are copied from may rebind its
+ * entries in place (see {@link AnalyzedBody#rebindParameter(LocalEnvironment, int, SchemeObject)}).
+ * @see AnalysisScope
+ */
+public final class LambdaNode extends ExecutionNode {
+
+    private final SchemeCustomUserFunction preparedFunction;
+    private final SchemeSymbol[] capturedSymbols;
+    private final LexicalAddress[] captureSources;
+    private final boolean[] sharedCaptures;
+    private final int rootDepth;
+
+    /**
+     * Create a node creating closures.
+     *
+     * @param preparedFunction
+     *         The function with analyzed body.
+     * @param capturedSymbols
+     *         The variables captured by the function, in the order of their slots in the closure environment.
+     * @param captureSources
+     *         The addresses of the captured variables relative to the environment the closure is created in. A
+     *         null address makes the variable refer to the closure itself.
+     * @param sharedCaptures
+     *         For each captured variable, whether its entry is shared rather than its value copied.
+     * @param rootDepth
+     *         The number of environments to walk up from the environment the closure is created in to reach the
+     *         root environment.
+     * @return The new {@link LambdaNode}.
+     */
+    public static LambdaNode create(SchemeCustomUserFunction preparedFunction, SchemeSymbol[] capturedSymbols,
+                                    LexicalAddress[] captureSources, boolean[] sharedCaptures, int rootDepth) {
+        return new LambdaNode(preparedFunction, capturedSymbols, captureSources, sharedCaptures, rootDepth);
+    }
+
+    private LambdaNode(SchemeCustomUserFunction preparedFunction, SchemeSymbol[] capturedSymbols, LexicalAddress[]
+            captureSources, boolean[] sharedCaptures, int rootDepth) {
+        this.preparedFunction = preparedFunction;
+        this.capturedSymbols = capturedSymbols;
+        this.captureSources = captureSources;
+        this.sharedCaptures = sharedCaptures;
+        this.rootDepth = rootDepth;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) {
+        return createClosure(environment);
+    }
+
+    /**
+     * Create a closure of the prepared function.
+     *
+     * @param environment
+     *         The environment the lambda expression is executed in.
+     * @return The new closure.
+     */
+    public SchemeCustomUserFunction createClosure(Environment<SchemeSymbol, EnvironmentEntry> environment) {
+        Environment<SchemeSymbol, EnvironmentEntry> rootEnvironment = environment;
+        for (int i = 0; i < rootDepth; i++) {
+            rootEnvironment = ((LocalEnvironment) rootEnvironment).getParentEnvironment();
+        }
+
+        LocalEnvironment closureEnvironment = LocalEnvironment.withSizeAndParent(capturedSymbols.length,
+                rootEnvironment);
+        int selfReferenceSlot = -1;
+        for (int i = 0; i < capturedSymbols.length; i++) {
+            if (Objects.isNull(captureSources[i])) {
+                selfReferenceSlot = i;
+            } else {
+                EnvironmentEntry environmentEntry = captureEntry(environment, captureSources[i], capturedSymbols[i]);
+                closureEnvironment.setEntryAt(i, sharedCaptures[i] ? environmentEntry : EnvironmentEntry.create
+                        (capturedSymbols[i], environmentEntry.getValue()));
+            }
+        }
+
+        SchemeCustomUserFunction closure = preparedFunction.bindTo(closureEnvironment);
+        if (selfReferenceSlot != -1) {
+            closureEnvironment.setEntryAt(selfReferenceSlot, EnvironmentEntry.create(capturedSymbols
+                    [selfReferenceSlot], closure));
+        }
+        return closure;
+    }
+
+    private EnvironmentEntry captureEntry(Environment<SchemeSymbol, EnvironmentEntry> environment, LexicalAddress
+            captureSource, SchemeSymbol symbol) {
+        LocalEnvironment sourceEnvironment = (LocalEnvironment) environment;
+        for (int i = 0; i < captureSource.getDepth(); i++) {
+            sourceEnvironment = (LocalEnvironment) sourceEnvironment.getParentEnvironment();
+        }
+
+        EnvironmentEntry environmentEntry = sourceEnvironment.getEntryAt(captureSource.getSlot());
+        if (Objects.isNull(environmentEntry) || environmentEntry.getKey() != symbol) {
+            // Internal definition which has not been executed so far, its value is filled in by LocalDefineNode
+            environmentEntry = EnvironmentEntry.create(symbol, null);
+            sourceEnvironment.setEntryAt(captureSource.getSlot(), environmentEntry);
+        }
+        return environmentEntry;
+    }
+
+    public SchemeCustomUserFunction getPreparedFunction() {
+        return preparedFunction;
+    }
+
+    public SchemeSymbol[] getCapturedSymbols() {
+        return capturedSymbols;
+    }
+
+    public boolean[] getSharedCaptures() {
+        return sharedCaptures;
+    }
+}
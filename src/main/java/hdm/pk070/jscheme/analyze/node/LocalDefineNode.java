@@ -0,0 +1,72 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * An internal definition within a function body. The defined variable is stored at the slot that has been assigned
+ * to it during analysis.
+ */
+public final class LocalDefineNode extends ExecutionNode {
+
+    private final SchemeSymbol symbol;
+    private final int slot;
+    private final ExecutionNode valueNode;
+
+    public static LocalDefineNode create(SchemeSymbol symbol, int slot, ExecutionNode valueNode) {
+        return new LocalDefineNode(symbol, slot, valueNode);
+    }
+
+    private LocalDefineNode(SchemeSymbol symbol, int slot, ExecutionNode valueNode) {
+        this.symbol = symbol;
+        this.slot = slot;
+        this.valueNode = valueNode;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        define((LocalEnvironment) environment, slot, symbol, valueNode.execute(environment));
+        return new SchemeVoid();
+    }
+
+    /**
+     * Bind a value to a symbol at a certain slot. If the slot already holds an entry for the symbol, the entry is
+     * updated, so closures sharing it see the new value.
+     *
+     * @param environment
+     *         The function's environment.
+     * @param slot
+     *         The slot assigned to the symbol.
+     * @param symbol
+     *         The variable's name.
+     * @param value
+     *         The value to bind.
+     */
+    public static void define(LocalEnvironment environment, int slot, SchemeSymbol symbol, SchemeObject value) {
+        EnvironmentEntry environmentEntry = environment.getEntryAt(slot);
+        if (Objects.nonNull(environmentEntry) && environmentEntry.getKey() == symbol) {
+            environmentEntry.setValue(value);
+        } else {
+            environment.setEntryAt(slot, EnvironmentEntry.create(symbol, value));
+        }
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public ExecutionNode getValueNode() {
+        return valueNode;
+    }
+}
@@ -0,0 +1,103 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * An assignment of a variable bound by an enclosing function. Closures capturing an assigned variable share its
+ * entry (see {@link LambdaNode}), so they see the new value.
+ */
+public final class LocalSetNode extends ExecutionNode {
+
+    private final SchemeSymbol symbol;
+    private final int depth;
+    private final int slot;
+    private final ExecutionNode valueNode;
+
+    /**
+     * Create a local variable assignment.
+     *
+     * @param symbol
+     *         The variable's name.
+     * @param depth
+     *         The number of parent environments to walk up.
+     * @param slot
+     *         The slot index within the environment reached.
+     * @param valueNode
+     *         The node computing the new value.
+     * @return The new {@link LocalSetNode}.
+     */
+    public static LocalSetNode create(SchemeSymbol symbol, int depth, int slot, ExecutionNode valueNode) {
+        return new LocalSetNode(symbol, depth, slot, valueNode);
+    }
+
+    private LocalSetNode(SchemeSymbol symbol, int depth, int slot, ExecutionNode valueNode) {
+        this.symbol = symbol;
+        this.depth = depth;
+        this.slot = slot;
+        this.valueNode = valueNode;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        assign(environment, depth, slot, symbol, valueNode.execute(environment));
+        return new SchemeVoid();
+    }
+
+    /**
+     * Assign a value to a local variable by its lexical address.
+     *
+     * @param environment
+     *         The environment to start from.
+     * @param depth
+     *         The number of parent environments to walk up.
+     * @param slot
+     *         The slot index within the environment reached.
+     * @param symbol
+     *         The variable's name, used if the slot has not been filled yet.
+     * @param value
+     *         The new value.
+     * @throws SchemeError
+     *         If the variable is not defined.
+     */
+    public static void assign(Environment<SchemeSymbol, EnvironmentEntry> environment, int depth, int slot,
+                              SchemeSymbol symbol, SchemeObject value) throws SchemeError {
+        Environment<SchemeSymbol, EnvironmentEntry> targetEnvironment = environment;
+        for (int i = 0; i < depth; i++) {
+            targetEnvironment = ((LocalEnvironment) targetEnvironment).getParentEnvironment();
+        }
+
+        EnvironmentEntry environmentEntry = ((LocalEnvironment) targetEnvironment).getEntryAt(slot);
+        if (Objects.nonNull(environmentEntry) && environmentEntry.getKey() == symbol && Objects.nonNull
+                (environmentEntry.getValue())) {
+            environmentEntry.setValue(value);
+            return;
+        }
+
+        // The slot has not been filled yet (e.g. internal definition not executed so far)
+        SetNode.assign(environment, symbol, value);
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public ExecutionNode getValueNode() {
+        return valueNode;
+    }
+}
@@ -0,0 +1,91 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * A reference to a variable bound by an enclosing function. The variable has been resolved to a fixed position
+ * during analysis, so looking it up doesn't require any search.
+ */
+public final class LocalVariableNode extends ExecutionNode {
+
+    private final SchemeSymbol symbol;
+    private final int depth;
+    private final int slot;
+
+    /**
+     * Create a local variable reference.
+     *
+     * @param symbol
+     *         The variable's name.
+     * @param depth
+     *         The number of parent environments to walk up.
+     * @param slot
+     *         The slot index within the environment reached.
+     * @return The new {@link LocalVariableNode}.
+     */
+    public static LocalVariableNode create(SchemeSymbol symbol, int depth, int slot) {
+        return new LocalVariableNode(symbol, depth, slot);
+    }
+
+    private LocalVariableNode(SchemeSymbol symbol, int depth, int slot) {
+        this.symbol = symbol;
+        this.depth = depth;
+        this.slot = slot;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        return lookup(environment, depth, slot, symbol);
+    }
+
+    /**
+     * Look up a local variable by its lexical address.
+     *
+     * @param environment
+     *         The environment to start from.
+     * @param depth
+     *         The number of parent environments to walk up.
+     * @param slot
+     *         The slot index within the environment reached.
+     * @param symbol
+     *         The variable's name, used if the slot has not been filled yet.
+     * @return The variable's value.
+     * @throws SchemeError
+     *         If the variable is not defined.
+     */
+    public static SchemeObject lookup(Environment<SchemeSymbol, EnvironmentEntry> environment, int depth, int slot,
+                                      SchemeSymbol symbol) throws SchemeError {
+        Environment<SchemeSymbol, EnvironmentEntry> targetEnvironment = environment;
+        for (int i = 0; i < depth; i++) {
+            targetEnvironment = ((LocalEnvironment) targetEnvironment).getParentEnvironment();
+        }
+
+        EnvironmentEntry environmentEntry = ((LocalEnvironment) targetEnvironment).getEntryAt(slot);
+        if (Objects.nonNull(environmentEntry) && environmentEntry.getKey() == symbol && Objects.nonNull
+                (environmentEntry.getValue())) {
+            return environmentEntry.getValue();
+        }
+
+        // The slot has not been filled yet (e.g. internal definition not executed so far)
+        return VariableNode.lookup(environment, symbol);
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+}
@@ -0,0 +1,144 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.budget.ExecutionBudget;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinCons;
+import hdm.pk070.jscheme.obj.builtin.simple.ListBuilder;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * A call of "cons" whose second argument calls the function the call appears in by name, e.g.
+ * (cons (f (car l)) (map f (cdr l))). In tail position, such a call builds the resulting list front to back in a
+ * loop instead of recursing: the car is appended to a {@link ListBuilder}, the arguments of the self call are stored
+ * in the current environment and the body starts over. The value the body finally returns becomes the cdr of the
+ * last cell.
+ * <br/><br/>
+ * The first such call of a function call runs the loop, the list under construction is remembered by the
+ * environment (see {@link LocalEnvironment#getListBuilder()}). Calls within the loop just append their car and
+ * return {@link SelfTailCall#RESTART}, so mapping over a list takes constant Java stack space.
+ * <br/><br/>
+ * If "cons" doesn't evaluate to the built-in function anymore or the second argument doesn't call the very same
+ * closure, the original call is performed.
+ * <br/><br/>
+ * Only the literal shape (cons x (f ...)) is recognized. Other list-building recursion, e.g. consing two elements
+ * at once as in (cons a (cons b (f ...))) or consing within a 'let' body, still recurses on the Java stack.
+ */
+public final class ModuloConsCallNode extends ExecutionNode {
+
+    private final ApplicationNode callNode;
+    private final ExecutionNode carNode;
+    private final ApplicationNode selfCallNode;
+    private boolean tailPosition;
+
+    /**
+     * Create a node for a call of "cons" whose second argument is a self call candidate.
+     *
+     * @param callNode
+     *         The original call of "cons".
+     * @return The new {@link ModuloConsCallNode}.
+     */
+    public static ModuloConsCallNode create(ApplicationNode callNode) {
+        ExecutionNode[] argumentNodes = callNode.getArgumentNodes();
+        return new ModuloConsCallNode(callNode, argumentNodes[0], (ApplicationNode) argumentNodes[1]);
+    }
+
+    private ModuloConsCallNode(ApplicationNode callNode, ExecutionNode carNode, ApplicationNode selfCallNode) {
+        this.callNode = callNode;
+        this.carNode = carNode;
+        this.selfCallNode = selfCallNode;
+        this.tailPosition = false;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        if (!tailPosition || !(environment instanceof LocalEnvironment) || !isBuiltinCons(callNode.getFunctionNode()
+                .execute(environment))) {
+            return callNode.execute(environment);
+        }
+
+        SchemeObject car = carNode.execute(environment);
+        SchemeObject callee = selfCallNode.getFunctionNode().execute(environment);
+        LocalEnvironment functionEnvironment = (LocalEnvironment) environment;
+        AnalyzedBody analyzedBody = selfCallNode.getSelfFunction().getAnalyzedBody();
+        ExecutionNode[] argumentNodes = selfCallNode.getArgumentNodes();
+        if (!callee.hasType(SchemeType.CUSTOM_FUNCTION) || !analyzedBody.isSelfCall((SchemeCustomUserFunction)
+                callee, functionEnvironment, argumentNodes.length)) {
+            return new SchemeCons(car, selfCallNode.execute(environment));
+        }
+
+        SchemeObject[] arguments = new SchemeObject[argumentNodes.length];
+        for (int i = 0; i < argumentNodes.length; i++) {
+            arguments[i] = argumentNodes[i].execute(environment);
+        }
+        analyzedBody.rebindParameters(functionEnvironment, arguments);
+
+        ListBuilder listBuilder = functionEnvironment.getListBuilder();
+        if (Objects.nonNull(listBuilder)) {
+            // Within the loop of an enclosing execution: append the car and let the loop start over
+            listBuilder.append(car);
+            return SelfTailCall.RESTART;
+        }
+        listBuilder = ListBuilder.create();
+        listBuilder.append(car);
+        return buildList(analyzedBody, functionEnvironment, listBuilder);
+    }
+
+    private SchemeObject buildList(AnalyzedBody analyzedBody, LocalEnvironment functionEnvironment, ListBuilder
+            listBuilder) throws SchemeError {
+        functionEnvironment.setListBuilder(listBuilder);
+        try {
+            SchemeObject result;
+            do {
+                // Every iteration counts as a call
+                ExecutionBudget.consumeFuel();
+                result = analyzedBody.getBodyNode().execute(functionEnvironment);
+            } while (result == SelfTailCall.RESTART);
+
+            return listBuilder.complete(FunctionInvoker.resolveTailCalls(result));
+        } finally {
+            functionEnvironment.setListBuilder(null);
+        }
+    }
+
+    /**
+     * Check whether a function is the built-in "cons".
+     *
+     * @param function
+     *         The evaluated function of a call.
+     * @return True if {@code function} is the built-in "cons", false otherwise.
+     */
+    public static boolean isBuiltinCons(SchemeObject function) {
+        return function instanceof SchemeBuiltinCons;
+    }
+
+    @Override
+    public void markTailPosition() {
+        this.tailPosition = true;
+        callNode.markTailPosition();
+    }
+
+    public boolean isTailPosition() {
+        return tailPosition;
+    }
+
+    public ApplicationNode getCallNode() {
+        return callNode;
+    }
+
+    public ExecutionNode getCarNode() {
+        return carNode;
+    }
+
+    public ApplicationNode getSelfCallNode() {
+        return selfCallNode;
+    }
+}
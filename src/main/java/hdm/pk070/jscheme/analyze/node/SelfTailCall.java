@@ -0,0 +1,23 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+
+/**
+ * Returned by an {@link ApplicationNode} in tail position which has called the function it belongs to. The call's
+ * arguments have already been stored in the current environment, so {@link AnalyzedBody} just has to execute the
+ * body once more. It never escapes {@link AnalyzedBody#execute} or the loop of a {@link ModuloConsCallNode}.
+ */
+final class SelfTailCall extends SchemeObject {
+
+    static final SelfTailCall RESTART = new SelfTailCall();
+
+    private SelfTailCall() {
+        super(SchemeType.INTERNAL);
+    }
+
+    @Override
+    public Object getValue() {
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * Executes a list of nodes one after another and returns the value of the last one, e.g. a function body.
+ */
+public final class SequenceNode extends ExecutionNode {
+
+    private final ExecutionNode[] nodes;
+
+    public static SequenceNode create(ExecutionNode[] nodes) {
+        return new SequenceNode(nodes);
+    }
+
+    private SequenceNode(ExecutionNode[] nodes) {
+        this.nodes = nodes;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        int lastIndex = nodes.length - 1;
+        for (int i = 0; i < lastIndex; i++) {
+            nodes[i].execute(environment);
+        }
+        return nodes[lastIndex].execute(environment);
+    }
+
+    @Override
+    public void markTailPosition() {
+        nodes[nodes.length - 1].markTailPosition();
+    }
+
+    public ExecutionNode[] getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,68 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSet;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Analyzed form of {@link SchemeBuiltinSet} for variables which are not bound by an enclosing function. The
+ * variable is looked up by its name, and its entry gets the result of the value node.
+ */
+public final class SetNode extends ExecutionNode {
+
+    private final SchemeSymbol symbol;
+    private final ExecutionNode valueNode;
+
+    public static SetNode create(SchemeSymbol symbol, ExecutionNode valueNode) {
+        return new SetNode(symbol, valueNode);
+    }
+
+    private SetNode(SchemeSymbol symbol, ExecutionNode valueNode) {
+        this.symbol = symbol;
+        this.valueNode = valueNode;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        assign(environment, symbol, valueNode.execute(environment));
+        return new SchemeVoid();
+    }
+
+    /**
+     * Assign a value to a variable found by searching the environment hierarchy. Code depending on the old value
+     * of a global variable is notified just like on redefinition.
+     *
+     * @param environment
+     *         The environment to start from.
+     * @param symbol
+     *         The variable's name.
+     * @param value
+     *         The new value.
+     * @throws SchemeError
+     *         If the variable is not defined.
+     */
+    public static void assign(Environment<SchemeSymbol, EnvironmentEntry> environment, SchemeSymbol symbol,
+                              SchemeObject value) throws SchemeError {
+        Optional<EnvironmentEntry> entryOptional = environment.get(symbol);
+        // Entries without value have been captured by a closure before being defined
+        if (!entryOptional.isPresent() || Objects.isNull(entryOptional.get().getValue())) {
+            throw new SchemeError("(set!): cannot set undefined variable %s", symbol.getValue());
+        }
+        entryOptional.get().setValue(value);
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+
+    public ExecutionNode getValueNode() {
+        return valueNode;
+    }
+}
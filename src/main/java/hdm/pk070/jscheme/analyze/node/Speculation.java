@@ -0,0 +1,14 @@
+package hdm.pk070.jscheme.analyze.node;
+
+/**
+ * A node relying on the values global variables have been bound to during analysis, e.g. an inlined call. As soon
+ * as one of these variables is redefined, the node falls back to the code it has been derived from. Compiled code
+ * checks {@link #isValid()} before using what the node has derived.
+ */
+public interface Speculation {
+
+    /**
+     * @return True as long as none of the global variables the node relies on has been redefined.
+     */
+    boolean isValid();
+}
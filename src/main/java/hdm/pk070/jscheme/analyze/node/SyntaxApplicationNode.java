@@ -0,0 +1,40 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * Fallback for built-in syntax which does not provide an analyzed form. The unevaluated argument list is handed to
+ * {@link SchemeBuiltinSyntax#apply(SchemeObject, Environment)} on every execution.
+ */
+public final class SyntaxApplicationNode extends ExecutionNode {
+
+    private final SchemeBuiltinSyntax builtinSyntax;
+    private final SchemeObject argumentList;
+
+    public static SyntaxApplicationNode create(SchemeBuiltinSyntax builtinSyntax, SchemeObject argumentList) {
+        return new SyntaxApplicationNode(builtinSyntax, argumentList);
+    }
+
+    private SyntaxApplicationNode(SchemeBuiltinSyntax builtinSyntax, SchemeObject argumentList) {
+        this.builtinSyntax = builtinSyntax;
+        this.argumentList = argumentList;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        return builtinSyntax.apply(argumentList, environment);
+    }
+
+    public SchemeBuiltinSyntax getBuiltinSyntax() {
+        return builtinSyntax;
+    }
+
+    public SchemeObject getArgumentList() {
+        return argumentList;
+    }
+}
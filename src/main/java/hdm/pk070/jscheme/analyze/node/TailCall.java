@@ -0,0 +1,36 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+
+/**
+ * A pending call of a {@link SchemeCustomUserFunction} in tail position. Instead of calling the function directly
+ * (and thereby growing the Java stack), an {@link ApplicationNode} in tail position returns a {@link TailCall} which
+ * is then performed by the {@link FunctionInvoker} loop of the calling function. It never escapes to the caller of
+ * {@link FunctionInvoker#invokeCustomUserFunction(SchemeCustomUserFunction, SchemeObject[])}.
+ */
+final class TailCall extends SchemeObject {
+
+    private final SchemeCustomUserFunction function;
+    private final SchemeObject[] arguments;
+
+    TailCall(SchemeCustomUserFunction function, SchemeObject[] arguments) {
+        super(SchemeType.TAIL_CALL);
+        this.function = function;
+        this.arguments = arguments;
+    }
+
+    SchemeCustomUserFunction getFunction() {
+        return function;
+    }
+
+    SchemeObject[] getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public Object getValue() {
+        return function;
+    }
+}
@@ -0,0 +1,56 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A reference to a variable which is looked up by its name in the current {@link Environment}.
+ */
+public final class VariableNode extends ExecutionNode {
+
+    private final SchemeSymbol symbol;
+
+    public static VariableNode create(SchemeSymbol symbol) {
+        return new VariableNode(symbol);
+    }
+
+    private VariableNode(SchemeSymbol symbol) {
+        this.symbol = symbol;
+    }
+
+    @Override
+    public SchemeObject execute(Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        return lookup(environment, symbol);
+    }
+
+    /**
+     * Look up a variable by searching the environment hierarchy.
+     *
+     * @param environment
+     *         The environment to start from.
+     * @param symbol
+     *         The variable's name.
+     * @return The variable's value.
+     * @throws SchemeError
+     *         If the variable is not defined.
+     */
+    public static SchemeObject lookup(Environment<SchemeSymbol, EnvironmentEntry> environment, SchemeSymbol symbol)
+            throws SchemeError {
+        Optional<EnvironmentEntry> entryOptional = environment.get(symbol);
+        // Entries without value have been captured by a closure before being defined
+        if (!entryOptional.isPresent() || Objects.isNull(entryOptional.get().getValue())) {
+            throw new SchemeError("undefined variable %s", symbol.getValue());
+        }
+        return entryOptional.get().getValue();
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+}
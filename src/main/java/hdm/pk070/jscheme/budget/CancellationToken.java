@@ -0,0 +1,82 @@
+package hdm.pk070.jscheme.budget;
+
+import hdm.pk070.jscheme.error.EvaluationCancelledError;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allows cancelling a running evaluation from another thread, either explicitly by {@link #cancel()} or by a
+ * deadline. The token is passed to {@link ExecutionBudget#begin(long, CancellationToken)} and polled by the
+ * evaluating thread at the same points fuel is consumed, so a cancelled evaluation is aborted by an
+ * {@link EvaluationCancelledError} after a few more steps at most. Evaluations on other threads aren't affected by
+ * the token, since each thread keeps its own budgets.
+ */
+public final class CancellationToken {
+
+    private static final long NO_DEADLINE = -1;
+
+    private final long timeoutMillis;
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+
+    /**
+     * @return A token which is cancelled by {@link #cancel()} only.
+     */
+    public static CancellationToken create() {
+        return new CancellationToken(NO_DEADLINE);
+    }
+
+    /**
+     * Create a token which is cancelled automatically once a certain time has passed.
+     *
+     * @param timeoutMillis
+     *         The time in milliseconds from now on after which the evaluation is cancelled.
+     * @return The token.
+     * @throws IllegalArgumentException
+     *         If {@code timeoutMillis} is negative.
+     */
+    public static CancellationToken withTimeout(long timeoutMillis) {
+        if (timeoutMillis < 0) {
+            throw new IllegalArgumentException(String.format("Timeout must not be negative, given: %d",
+                    timeoutMillis));
+        }
+        return new CancellationToken(timeoutMillis);
+    }
+
+    private CancellationToken(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        this.deadlineNanos = timeoutMillis == NO_DEADLINE ? 0 : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos
+                (timeoutMillis);
+        this.cancelled = false;
+    }
+
+    /**
+     * Cancel the evaluation using this token. May be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled || isDeadlineExceeded();
+    }
+
+    private boolean isDeadlineExceeded() {
+        return timeoutMillis != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * Called by the evaluating thread at a safe point.
+     *
+     * @throws EvaluationCancelledError
+     *         If the token has been cancelled or its deadline has passed.
+     */
+    void checkCancelled() throws EvaluationCancelledError {
+        if (cancelled) {
+            throw EvaluationCancelledError.cancelled();
+        }
+        if (isDeadlineExceeded()) {
+            throw EvaluationCancelledError.deadlineExceeded(timeoutMillis);
+        }
+    }
+}
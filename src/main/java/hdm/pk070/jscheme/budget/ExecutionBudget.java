@@ -0,0 +1,167 @@
+package hdm.pk070.jscheme.budget;
+
+import hdm.pk070.jscheme.error.FuelExhaustedError;
+import hdm.pk070.jscheme.error.SchemeError;
+
+/**
+ * Limits the number of steps an evaluation may take, so a runaway loop can't block the thread running it forever.
+ * A step is anything which may repeat an unbounded number of times: a call of a user-defined function or another
+ * iteration of a loop. Each engine calls {@link #consumeFuel()} at these points, and the evaluation is aborted by
+ * a {@link FuelExhaustedError} as soon as its fuel is used up.
+ * <br/><br/>
+ * Fuel is handed out in slices of {@link #SLICE_SIZE} steps. Taking a step only counts down the current slice, which
+ * costs a decrement and a comparison. Unlimited evaluations start with {@link Long#MAX_VALUE} units of fuel, which
+ * can't be used up in practice, so they take the same path. Once a slice is used up, the next one is taken from the
+ * reserve, and this is where the {@link CancellationToken}s of the running evaluations are polled. An evaluation
+ * without a token doesn't pay anything for cancellation, and a cancelled one is aborted within a slice's worth of
+ * steps.
+ * <br/><br/>
+ * The fuel and the running budgets are kept per thread, so evaluations on different threads, e.g. by different
+ * {@link hdm.pk070.jscheme.analyze.SchemeExecutor}s, neither draw from each other's fuel nor get cancelled by each
+ * other's tokens. A budget must be ended by the thread which has begun it. Only the tokens may be accessed by other
+ * threads.
+ */
+public final class ExecutionBudget {
+
+    /**
+     * The budget of an evaluation which may take any number of steps.
+     */
+    public static final long UNLIMITED = -1;
+
+    /**
+     * The number of steps taken between two polls of the cancellation tokens.
+     */
+    static final int SLICE_SIZE = 1024;
+
+    private static final ThreadLocal<FuelState> FUEL_STATE = ThreadLocal.withInitial(FuelState::new);
+
+    private final FuelState fuelState;
+    private final ExecutionBudget outerBudget;
+    private final CancellationToken cancellationToken;
+    private final long outerTotalFuel;
+    private final long outerGrantedFuel;
+    private final long initialFuel;
+    private long consumedFuel;
+    private boolean ended;
+
+    /**
+     * Start an evaluation with a certain budget which can't be cancelled.
+     *
+     * @param fuel
+     *         The number of steps the evaluation may take, or {@link #UNLIMITED}.
+     * @return The budget, which must be ended by {@link #end()} once the evaluation is done.
+     * @throws IllegalArgumentException
+     *         If {@code fuel} is negative but not {@link #UNLIMITED}.
+     * @see #begin(long, CancellationToken)
+     */
+    public static ExecutionBudget begin(long fuel) {
+        return begin(fuel, null);
+    }
+
+    /**
+     * Start an evaluation with a certain budget. Budgets may be nested: a nested evaluation can't get more fuel than
+     * the enclosing one has left, and the fuel it consumes is charged to the enclosing evaluation when it ends. A
+     * nested evaluation is cancelled by the tokens of the enclosing ones as well.
+     *
+     * @param fuel
+     *         The number of steps the evaluation may take, or {@link #UNLIMITED}.
+     * @param cancellationToken
+     *         The token cancelling the evaluation, or null if it can't be cancelled.
+     * @return The budget, which must be ended by {@link #end()} once the evaluation is done.
+     * @throws IllegalArgumentException
+     *         If {@code fuel} is negative but not {@link #UNLIMITED}.
+     */
+    public static ExecutionBudget begin(long fuel, CancellationToken cancellationToken) {
+        if (fuel < 0 && fuel != UNLIMITED) {
+            throw new IllegalArgumentException(String.format("Fuel must not be negative, given: %d", fuel));
+        }
+        return new ExecutionBudget(fuel, cancellationToken);
+    }
+
+    private ExecutionBudget(long fuel, CancellationToken cancellationToken) {
+        this.fuelState = FUEL_STATE.get();
+        this.outerBudget = fuelState.currentBudget;
+        this.cancellationToken = cancellationToken;
+        this.outerTotalFuel = fuelState.getTotalFuel();
+        this.outerGrantedFuel = fuelState.grantedFuel;
+        this.initialFuel = fuel == UNLIMITED ? outerTotalFuel : Math.min(fuel, outerTotalFuel);
+        this.ended = false;
+        fuelState.setTotalFuel(initialFuel);
+        fuelState.grantedFuel = fuel == UNLIMITED ? outerGrantedFuel : initialFuel;
+        fuelState.currentBudget = this;
+    }
+
+    /**
+     * Take a step. Called by the engines whenever a user-defined function is called or a loop starts over.
+     *
+     * @throws FuelExhaustedError
+     *         If the current evaluation has no fuel left.
+     * @throws hdm.pk070.jscheme.error.EvaluationCancelledError
+     *         If the current evaluation or an enclosing one has been cancelled.
+     */
+    public static void consumeFuel() throws SchemeError {
+        FuelState fuelState = FUEL_STATE.get();
+        if (--fuelState.remainingFuel < 0) {
+            fuelState.takeNextSlice();
+        }
+    }
+
+    /**
+     * End the evaluation and give the remaining fuel back to the enclosing one.
+     *
+     * @return The number of steps the evaluation has taken.
+     */
+    public long end() {
+        if (!ended) {
+            consumedFuel = initialFuel - fuelState.getTotalFuel();
+            ended = true;
+            fuelState.setTotalFuel(Math.max(outerTotalFuel - consumedFuel, 0));
+            fuelState.grantedFuel = outerGrantedFuel;
+            fuelState.currentBudget = outerBudget;
+        }
+        return consumedFuel;
+    }
+
+    /**
+     * @return The number of steps taken so far, or in total if the evaluation has ended.
+     */
+    public long getConsumedFuel() {
+        return ended ? consumedFuel : initialFuel - fuelState.getTotalFuel();
+    }
+
+    /**
+     * The fuel of a thread and the budgets it runs with.
+     */
+    private static final class FuelState {
+
+        private long remainingFuel = Long.MAX_VALUE;
+        private long reserveFuel = 0;
+        private long grantedFuel = UNLIMITED;
+        private ExecutionBudget currentBudget = null;
+
+        private void takeNextSlice() throws SchemeError {
+            // The current step hasn't been granted yet. If it fails, every further step fails as well.
+            remainingFuel = 0;
+            for (ExecutionBudget budget = currentBudget; budget != null; budget = budget.outerBudget) {
+                if (budget.cancellationToken != null) {
+                    budget.cancellationToken.checkCancelled();
+                }
+            }
+            if (reserveFuel == 0) {
+                throw new FuelExhaustedError(grantedFuel);
+            }
+            long slice = Math.min(reserveFuel, SLICE_SIZE);
+            reserveFuel -= slice;
+            remainingFuel = slice - 1;
+        }
+
+        private long getTotalFuel() {
+            return remainingFuel + reserveFuel;
+        }
+
+        private void setTotalFuel(long totalFuel) {
+            remainingFuel = Math.min(totalFuel, SLICE_SIZE);
+            reserveFuel = totalFuel - remainingFuel;
+        }
+    }
+}
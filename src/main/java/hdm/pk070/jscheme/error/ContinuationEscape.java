@@ -0,0 +1,45 @@
+package hdm.pk070.jscheme.error;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeContinuation;
+
+/**
+ * Thrown when a {@link SchemeContinuation} is invoked. It unwinds the Java stack up to the point the continuation
+ * has been captured, which catches it and carries on with the value passed to the continuation. Each continuation
+ * allocates its instance once, and no stack trace is recorded, so invoking a continuation is cheap.
+ */
+public final class ContinuationEscape extends SchemeError {
+
+    private final SchemeContinuation continuation;
+    private SchemeObject value;
+
+    public ContinuationEscape(SchemeContinuation continuation) {
+        super("(continuation): invoked outside of the extent it has been captured in", false);
+        this.continuation = continuation;
+    }
+
+    /**
+     * Set the value passed to the continuation.
+     *
+     * @param value
+     *         The value.
+     * @return This instance, ready to be thrown.
+     */
+    public ContinuationEscape withValue(SchemeObject value) {
+        this.value = value;
+        return this;
+    }
+
+    public SchemeContinuation getContinuation() {
+        return continuation;
+    }
+
+    public SchemeObject getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean isCatchable() {
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+package hdm.pk070.jscheme.error;
+
+import hdm.pk070.jscheme.budget.CancellationToken;
+
+/**
+ * Thrown when an evaluation has been cancelled by its {@link CancellationToken}, either explicitly or because its
+ * deadline has passed. Like a {@link FuelExhaustedError}, it aborts the evaluation only, so the caller may report
+ * the error and carry on with the next evaluation.
+ */
+public final class EvaluationCancelledError extends SchemeError {
+
+    private final boolean deadlineExceeded;
+
+    private EvaluationCancelledError(String message, boolean deadlineExceeded) {
+        super(message);
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    public static EvaluationCancelledError cancelled() {
+        return new EvaluationCancelledError("(cancel): evaluation has been cancelled", false);
+    }
+
+    public static EvaluationCancelledError deadlineExceeded(long timeoutMillis) {
+        return new EvaluationCancelledError(String.format("(deadline): evaluation exceeds its deadline of %d ms",
+                timeoutMillis), true);
+    }
+
+    /**
+     * @return Whether the evaluation has been cancelled because its deadline has passed rather than explicitly.
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+
+    @Override
+    public boolean isCatchable() {
+        return false;
+    }
+}
@@ -0,0 +1,29 @@
+package hdm.pk070.jscheme.error;
+
+import hdm.pk070.jscheme.budget.ExecutionBudget;
+
+/**
+ * Thrown when an evaluation has used up the fuel granted by its {@link ExecutionBudget}. The evaluation is aborted,
+ * but the interpreter stays usable, so the caller may report the error and carry on with the next evaluation.
+ */
+public final class FuelExhaustedError extends SchemeError {
+
+    private final long fuel;
+
+    public FuelExhaustedError(long fuel) {
+        super("(fuel): evaluation exceeds its budget of %d steps", fuel);
+        this.fuel = fuel;
+    }
+
+    /**
+     * @return The budget which has been exceeded.
+     */
+    public long getFuel() {
+        return fuel;
+    }
+
+    @Override
+    public boolean isCatchable() {
+        return false;
+    }
+}
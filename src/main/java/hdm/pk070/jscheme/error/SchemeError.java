@@ -1,16 +1,92 @@
 package hdm.pk070.jscheme.error;
 
+import hdm.pk070.jscheme.SchemeConstants;
+
 /**
  * This special exception type is used to communicate all types of errors concerning
  * JScheme usage.
+ * <br/><br/>
+ * Errors are part of the normal control flow of Scheme programs, e.g. when a validator raises an error caught by
+ * 'guard'. Hence they are made cheap: the Java stack trace is only recorded if the system property
+ * {@value SchemeConstants#DEBUG_PROPERTY} is set, and a message given as format string and arguments is only
+ * formatted once it's actually requested.
  *
  * @author patrick.kleindienst
  */
 public class SchemeError extends Exception {
 
+    private static volatile boolean stackTracesEnabled = Boolean.getBoolean(SchemeConstants.DEBUG_PROPERTY);
+
+    private String message;
+    private Object[] messageArguments;
+
     public SchemeError(String message) {
-        super(message);
+        super(null, null, true, stackTracesEnabled);
+        this.message = message;
+        this.messageArguments = null;
     }
 
+    /**
+     * Create an error whose message is formatted lazily.
+     *
+     * @param messageFormat
+     *         The message as format string (see {@link String#format(String, Object...)}).
+     * @param messageArguments
+     *         The arguments referenced by the format string.
+     */
+    public SchemeError(String messageFormat, Object... messageArguments) {
+        super(null, null, true, stackTracesEnabled);
+        this.message = messageFormat;
+        this.messageArguments = messageArguments;
+    }
 
+    /**
+     * Create an error which may skip recording the stack trace. Errors which are used for control flow rather than
+     * for reporting problems do not need a stack trace and are much cheaper without one.
+     *
+     * @param message
+     *         The error message.
+     * @param writableStackTrace
+     *         Whether the stack trace shall be recorded.
+     */
+    protected SchemeError(String message, boolean writableStackTrace) {
+        super(null, null, false, writableStackTrace);
+        this.message = message;
+        this.messageArguments = null;
+    }
+
+    @Override
+    public String getMessage() {
+        if (messageArguments != null) {
+            message = String.format(message, messageArguments);
+            messageArguments = null;
+        }
+        return message;
+    }
+
+    /**
+     * Check whether Scheme code may catch this error, by 'guard' or by a handler installed by
+     * 'with-exception-handler'. Errors which abort the evaluation as a whole, like an exceeded budget, or which
+     * implement control flow of the interpreter itself, like invoking a continuation, can't be caught.
+     *
+     * @return True if the error can be caught, false otherwise.
+     */
+    public boolean isCatchable() {
+        return true;
+    }
+
+    /**
+     * Turn recording the Java stack traces of subsequently created errors on or off, e.g. for debugging the
+     * interpreter itself.
+     *
+     * @param enabled
+     *         Whether stack traces shall be recorded.
+     */
+    public static void setStackTracesEnabled(boolean enabled) {
+        stackTracesEnabled = enabled;
+    }
+
+    public static boolean isStackTracesEnabled() {
+        return stackTracesEnabled;
+    }
 }
@@ -0,0 +1,64 @@
+package hdm.pk070.jscheme.error;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.control.ExceptionHandlers;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeErrorObject;
+
+/**
+ * Carries an object raised by 'raise', 'raise-continuable' or 'error' up the Java stack to the 'guard' it has been
+ * raised to, or out of the evaluation if there is neither a guard nor a handler. Raises which can be served by a
+ * handler installed by 'with-exception-handler' call the handler right away and don't throw anything (see
+ * {@link ExceptionHandlers}). No stack trace is recorded, so using 'guard' for control flow is cheap.
+ */
+public final class SchemeRaise extends SchemeError {
+
+    private final SchemeObject payload;
+    private final boolean continuable;
+    private final ExceptionHandlers.HandlerFrame guardFrame;
+
+    /**
+     * Create a raise to be thrown.
+     *
+     * @param payload
+     *         The raised object.
+     * @param continuable
+     *         Whether the object has been raised by 'raise-continuable'.
+     * @param guardFrame
+     *         The frame of the guard the object is raised to, or null if there is none.
+     */
+    public SchemeRaise(SchemeObject payload, boolean continuable, ExceptionHandlers.HandlerFrame guardFrame) {
+        super(null, false);
+        this.payload = payload;
+        this.continuable = continuable;
+        this.guardFrame = guardFrame;
+    }
+
+    /**
+     * @return The raised object.
+     */
+    public SchemeObject getPayload() {
+        return payload;
+    }
+
+    public boolean isContinuable() {
+        return continuable;
+    }
+
+    /**
+     * @return True if the object is raised to the guard owning {@code frame}.
+     */
+    public boolean isRaisedTo(ExceptionHandlers.HandlerFrame frame) {
+        return guardFrame == frame;
+    }
+
+    @Override
+    public String getMessage() {
+        if (payload.hasType(SchemeType.ERROR_OBJECT)) {
+            SchemeErrorObject errorObject = (SchemeErrorObject) payload;
+            return errorObject.isSignalledByInterpreter() ? errorObject.getMessage() : "(error): " + errorObject
+                    .describe();
+        }
+        return "(raise): uncaught exception: " + payload;
+    }
+}
@@ -1,15 +1,16 @@
 package hdm.pk070.jscheme.eval;
 
+import hdm.pk070.jscheme.budget.ExecutionBudget;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
 import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
 import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
 import hdm.pk070.jscheme.reader.SchemeReader;
-import hdm.pk070.jscheme.stack.SchemeCallStack;
 import hdm.pk070.jscheme.table.environment.Environment;
 import hdm.pk070.jscheme.table.environment.LocalEnvironment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
@@ -51,22 +52,42 @@ class ListEvaluator extends AbstractEvaluator<SchemeCons> {
         // Extract arg list (cdr of expression)
         SchemeObject argumentList = expression.getCdr();
 
+        return apply(functionSlot, evaluatedFunctionSlot, argumentList, environment);
+    }
+
+    /**
+     * Apply an evaluated function slot to an argument list.
+     *
+     * @param functionSlot
+     *         The unevaluated function slot, for error messages.
+     * @param evaluatedFunctionSlot
+     *         The function or syntax to apply.
+     * @param argumentList
+     *         The unevaluated arguments.
+     * @param environment
+     *         The evaluation context.
+     * @return The result of the application.
+     * @throws SchemeError
+     *         If the function slot can't be applied or the application fails.
+     */
+    private SchemeObject apply(SchemeObject functionSlot, SchemeObject evaluatedFunctionSlot, SchemeObject
+            argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
         // Check if function slot is a built-in function
-        if (evaluatedFunctionSlot.subtypeOf(SchemeBuiltinFunction.class)) {
+        if (evaluatedFunctionSlot.hasType(SchemeType.BUILTIN_FUNCTION)) {
             return evaluateBuiltinFunction(((SchemeBuiltinFunction) evaluatedFunctionSlot), argumentList, environment);
 
             // Check if function slot is a built-in syntax (e.g. define)
-        } else if (evaluatedFunctionSlot.subtypeOf(SchemeBuiltinSyntax.class)) {
+        } else if (evaluatedFunctionSlot.hasType(SchemeType.BUILTIN_SYNTAX)) {
             return evaluateBuiltinSyntax(((SchemeBuiltinSyntax) evaluatedFunctionSlot), argumentList, environment);
             // Check if function slot is a user-defined function
-        } else if (evaluatedFunctionSlot.typeOf(SchemeCustomUserFunction.class)) {
+        } else if (evaluatedFunctionSlot.hasType(SchemeType.CUSTOM_FUNCTION)) {
             return evaluateCustomUserFunction(((SchemeCustomUserFunction) evaluatedFunctionSlot), argumentList,
                     environment);
         }
 
         // Reaching this section means we don't have a valid function slot -> throw SchemeError
-        throw new SchemeError(String.format("application: not a procedure [expected: procedure that can be applied to" +
-                " arguments, given: %s]", functionSlot));
+        throw new SchemeError("application: not a procedure [expected: procedure that can be applied to" +
+                " arguments, given: %s]", functionSlot);
     }
 
     /**
@@ -106,29 +127,28 @@ class ListEvaluator extends AbstractEvaluator<SchemeCons> {
     private SchemeObject evaluateBuiltinFunction(SchemeBuiltinFunction builtinFunction, SchemeObject argumentList,
                                                  Environment<SchemeSymbol, EnvironmentEntry> environment) throws
             SchemeError {
-        SchemeObject restArguments;
-        restArguments = argumentList;
         int argumentCount = 0;
+        for (SchemeObject restArguments = argumentList; !restArguments.hasType(SchemeType.NIL); restArguments = (
+                (SchemeCons) restArguments).getCdr()) {
+            argumentCount++;
+        }
 
-        // as long as end of argumentList is not reached ...
-        while (!restArguments.typeOf(SchemeNil.class)) {
-            SchemeObject currentArgument = ((SchemeCons) restArguments).getCar();
-            SchemeObject evaluatedArgument = SchemeEval.getInstance().eval(currentArgument, environment);
+        SchemeObject[] arguments = new SchemeObject[argumentCount];
+        SchemeObject restArguments = argumentList;
+        for (int i = 0; i < argumentCount; i++) {
+            arguments[i] = SchemeEval.getInstance().eval(((SchemeCons) restArguments).getCar(), environment);
             restArguments = ((SchemeCons) restArguments).getCdr();
-
-            // push evaluated arg to stack
-            SchemeCallStack.instance().push(evaluatedArgument);
-
-            // increment arg counter
-            argumentCount++;
         }
 
-        // call built-in function
-        return builtinFunction.call(argumentCount);
+        // Functions without an entry point for this number of arguments fall back to SchemeCallStack
+        return builtinFunction.invoke(arguments);
     }
 
     /**
-     * Evaluating a {@link SchemeCustomUserFunction}.
+     * Evaluating a {@link SchemeCustomUserFunction}. The last expression of the body is in tail position: if it
+     * calls a user-defined function, possibly within the branches of an 'if', the loop continues with that function
+     * instead of evaluating the call recursively. This way, tail-recursive functions run in constant Java stack
+     * space.
      *
      * @param customFunction
      *         The {@link SchemeCustomUserFunction} to be evaluated.
@@ -140,7 +160,67 @@ class ListEvaluator extends AbstractEvaluator<SchemeCons> {
      */
     private SchemeObject evaluateCustomUserFunction(SchemeCustomUserFunction customFunction, SchemeObject
             argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment) throws SchemeError {
+        SchemeCustomUserFunction currentFunction = customFunction;
+        LocalEnvironment functionBodyEvalEnvironment = bindArguments(customFunction, argumentList, environment);
 
+        while (true) {
+            SchemeObject bodyList = currentFunction.getFunctionBodyList();
+            if (bodyList.hasType(SchemeType.NIL)) {
+                return null;
+            }
+
+            while (!((SchemeCons) bodyList).getCdr().hasType(SchemeType.NIL)) {
+                SchemeObject nextBodyPart = ((SchemeCons) bodyList).getCar();
+                SchemeEval.getInstance().eval(nextBodyPart, functionBodyEvalEnvironment);
+                bodyList = ((SchemeCons) bodyList).getCdr();
+            }
+
+            SchemeObject tailExpression = ((SchemeCons) bodyList).getCar();
+            SchemeObject evaluatedFunctionSlot = null;
+            while (tailExpression.hasType(SchemeType.CONS)) {
+                evaluatedFunctionSlot = SchemeEval.getInstance().eval(((SchemeCons) tailExpression).getCar(),
+                        functionBodyEvalEnvironment);
+                if (!evaluatedFunctionSlot.typeOf(SchemeBuiltinIf.class)) {
+                    break;
+                }
+                tailExpression = ((SchemeBuiltinIf) evaluatedFunctionSlot).selectBranch(((SchemeCons)
+                        tailExpression).getCdr(), functionBodyEvalEnvironment);
+                evaluatedFunctionSlot = null;
+            }
+
+            if (!tailExpression.hasType(SchemeType.CONS)) {
+                return SchemeEval.getInstance().eval(tailExpression, functionBodyEvalEnvironment);
+            }
+            if (!evaluatedFunctionSlot.hasType(SchemeType.CUSTOM_FUNCTION)) {
+                return apply(((SchemeCons) tailExpression).getCar(), evaluatedFunctionSlot, ((SchemeCons)
+                        tailExpression).getCdr(), functionBodyEvalEnvironment);
+            }
+
+            // Tail call: continue with the called function instead of nesting another evaluation
+            currentFunction = (SchemeCustomUserFunction) evaluatedFunctionSlot;
+            functionBodyEvalEnvironment = bindArguments(currentFunction, ((SchemeCons) tailExpression).getCdr(),
+                    functionBodyEvalEnvironment);
+        }
+    }
+
+    /**
+     * Evaluate the arguments of a call of a {@link SchemeCustomUserFunction} and bind them to its parameters.
+     *
+     * @param customFunction
+     *         The called function.
+     * @param argumentList
+     *         The unevaluated arguments.
+     * @param environment
+     *         The {@link Environment} the arguments are evaluated in.
+     * @return The environment the function body gets evaluated in.
+     * @throws SchemeError
+     *         If the number of arguments doesn't match or evaluating an argument fails.
+     */
+    private LocalEnvironment bindArguments(SchemeCustomUserFunction customFunction, SchemeObject argumentList,
+                                           Environment<SchemeSymbol, EnvironmentEntry> environment) throws
+            SchemeError {
+
+        ExecutionBudget.consumeFuel();
 
         LocalEnvironment functionBodyEvalEnvironment = LocalEnvironment.withSizeAndParent
                 (customFunction.getRequiredSlotsCount(), customFunction.getHomeEnvironment());
@@ -151,12 +231,12 @@ class ListEvaluator extends AbstractEvaluator<SchemeCons> {
         int argumentCount = 0;
 
         // As long as end of param list is not reached ...
-        while (functionParameterList.typeOf(SchemeCons.class)) {
+        while (functionParameterList.hasType(SchemeType.CONS)) {
             // If we have another parameter, but there's no matching argument -> throw SchemeError
-            if (!functionCallArgumentList.typeOf(SchemeCons.class)) {
-                throw new SchemeError(String.format("(eval): arity mismatch, expected number of " +
+            if (!functionCallArgumentList.hasType(SchemeType.CONS)) {
+                throw new SchemeError("(eval): arity mismatch, expected number of " +
                         "arguments does not match the given number [expected: %d, given: %d]", customFunction
-                        .getParamCount(), argumentCount));
+                        .getParamCount(), argumentCount);
             }
 
             SchemeObject unevaluatedArgument = ((SchemeCons) functionCallArgumentList).getCar();
@@ -173,21 +253,12 @@ class ListEvaluator extends AbstractEvaluator<SchemeCons> {
             functionCallArgumentList = ((SchemeCons) functionCallArgumentList).getCdr();
         }
 
-        if (!functionCallArgumentList.typeOf(SchemeNil.class)) {
-            throw new SchemeError(String.format("(eval): arity mismatch, expected number of " +
+        if (!functionCallArgumentList.hasType(SchemeType.NIL)) {
+            throw new SchemeError("(eval): arity mismatch, expected number of " +
                             "arguments does not match the given number [expected: %d, more given!]",
-                    customFunction.getParamCount()));
-        }
-
-        SchemeObject bodyList = customFunction.getFunctionBodyList();
-        SchemeObject lastValue = null;
-
-        while (!bodyList.typeOf(SchemeNil.class)) {
-            SchemeObject nextBodyPart = ((SchemeCons) bodyList).getCar();
-            lastValue = SchemeEval.getInstance().eval(nextBodyPart, functionBodyEvalEnvironment);
-            bodyList = ((SchemeCons) bodyList).getCdr();
+                    customFunction.getParamCount());
         }
 
-        return lastValue;
+        return functionBodyEvalEnvironment;
     }
 }
@@ -39,13 +39,14 @@ public class SchemeEval {
      */
     public SchemeObject eval(SchemeObject expression, Environment<SchemeSymbol, EnvironmentEntry> environment) throws
             SchemeError {
-        if (expression.typeOf(SchemeSymbol.class)) {
-            return SymbolEvaluator.getInstance().doEval(((SchemeSymbol) expression), environment);
-        } else if (expression.typeOf(SchemeCons.class)) {
-            return ListEvaluator.getInstance().doEval(((SchemeCons) expression), environment);
-        } else {
-            // Return expression without further evaluation in all the other cases.
-            return expression;
+        switch (expression.getType()) {
+            case SYMBOL:
+                return SymbolEvaluator.getInstance().doEval(((SchemeSymbol) expression), environment);
+            case CONS:
+                return ListEvaluator.getInstance().doEval(((SchemeCons) expression), environment);
+            default:
+                // Return expression without further evaluation in all the other cases.
+                return expression;
         }
     }
 }
@@ -8,6 +8,7 @@ import hdm.pk070.jscheme.table.environment.Environment;
 import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
 
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -30,16 +31,15 @@ class SymbolEvaluator extends AbstractEvaluator<SchemeSymbol> {
     public SchemeObject doEval(SchemeSymbol expression, Environment<SchemeSymbol, EnvironmentEntry> environment)
             throws SchemeError {
         // Get symbol from global environment
-        LOGGER.debug(String.format("Evaluating symbol %s ...", expression.getValue()));
+        LOGGER.debug("Evaluating symbol {} ...", expression.getValue());
         Optional<EnvironmentEntry> entryOptional = environment.get(expression);
-        // Throw SchemeError if not present in environment
-        if (!entryOptional.isPresent()) {
-            LOGGER.debug(String.format("Unable to find symbol %s in environment. Throwing SchemeError.",
-                    expression.getValue()));
-            throw new SchemeError(String.format("undefined variable %s", expression.getValue()));
+        // Throw SchemeError if not present in environment or captured by a closure before being defined
+        if (!entryOptional.isPresent() || Objects.isNull(entryOptional.get().getValue())) {
+            LOGGER.debug("Unable to find symbol {} in environment. Throwing SchemeError.", expression.getValue());
+            throw new SchemeError("undefined variable %s", expression.getValue());
         }
         // Return existing value
-        LOGGER.debug(String.format("Evaluation of symbol %s yielded: " + entryOptional.get(), expression.getValue()));
+        LOGGER.debug("Evaluation of symbol {} yielded: {}", expression.getValue(), entryOptional.get());
         return entryOptional.get().getValue();
     }
 }
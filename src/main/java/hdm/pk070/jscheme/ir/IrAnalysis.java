@@ -0,0 +1,147 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Queries and rewrites shared by {@link IrLowering} and the optimization passes.
+ */
+public final class IrAnalysis {
+
+    private IrAnalysis() {
+    }
+
+    /**
+     * Count the references of a variable within a node. An {@link IrOpaque} form referring to the variable counts
+     * as one reference.
+     *
+     * @param binding
+     *         The variable.
+     * @param node
+     *         The node to search.
+     * @return The number of references.
+     */
+    public static int countUses(IrBinding binding, IrNode node) {
+        if (node instanceof IrVariable) {
+            return ((IrVariable) node).getBinding() == binding ? 1 : 0;
+        } else if (node instanceof IrOpaque) {
+            return ((IrOpaque) node).getReferencedBindings().contains(binding) ? 1 : 0;
+        }
+
+        int uses = 0;
+        for (IrNode child : node.getChildren()) {
+            uses += countUses(binding, child);
+        }
+        return uses;
+    }
+
+    /**
+     * Check whether one of the {@link IrOpaque} forms within a node may refer to a variable.
+     *
+     * @param binding
+     *         The variable.
+     * @param node
+     *         The node to search.
+     * @return True if an opaque form refers to the variable.
+     */
+    public static boolean isReferencedByOpaqueForm(IrBinding binding, IrNode node) {
+        if (node instanceof IrOpaque) {
+            return ((IrOpaque) node).getReferencedBindings().contains(binding);
+        }
+        for (IrNode child : node.getChildren()) {
+            if (isReferencedByOpaqueForm(binding, child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replace the references of a variable by another node. References made by {@link IrOpaque} forms are left
+     * alone, so callers have to make sure there are none.
+     *
+     * @param node
+     *         The node to rewrite.
+     * @param binding
+     *         The variable.
+     * @param replacement
+     *         The node to put in place of each reference.
+     * @return The rewritten node.
+     */
+    public static IrNode replaceUses(IrNode node, IrBinding binding, IrNode replacement) {
+        if (node instanceof IrVariable) {
+            return ((IrVariable) node).getBinding() == binding ? replacement : node;
+        }
+
+        List<IrNode> children = node.getChildren();
+        if (children.isEmpty()) {
+            return node;
+        }
+        List<IrNode> newChildren = new ArrayList<>(children.size());
+        for (IrNode child : children) {
+            newChildren.add(replaceUses(child, binding, replacement));
+        }
+        return node.withChildren(newChildren);
+    }
+
+    /**
+     * Collect the names of the variables a node refers to without binding them itself. Since it's unknown which of
+     * the symbols of an {@link IrOpaque} form are variables, all of them are included.
+     *
+     * @param node
+     *         The node to search.
+     * @return The names of the free variables.
+     */
+    public static Set<SchemeSymbol> freeSymbols(IrNode node) {
+        Set<IrBinding> boundBindings = new HashSet<>();
+        Set<IrBinding> referencedBindings = new HashSet<>();
+        Set<SchemeSymbol> freeSymbols = new HashSet<>();
+        collectBindings(node, boundBindings, referencedBindings, freeSymbols);
+
+        for (IrBinding referencedBinding : referencedBindings) {
+            if (!boundBindings.contains(referencedBinding)) {
+                freeSymbols.add(referencedBinding.getSymbol());
+            }
+        }
+        return freeSymbols;
+    }
+
+    private static void collectBindings(IrNode node, Set<IrBinding> boundBindings, Set<IrBinding>
+            referencedBindings, Set<SchemeSymbol> opaqueSymbols) {
+        if (node instanceof IrVariable) {
+            referencedBindings.add(((IrVariable) node).getBinding());
+        } else if (node instanceof IrOpaque) {
+            referencedBindings.addAll(((IrOpaque) node).getReferencedBindings());
+            opaqueSymbols.addAll(((IrOpaque) node).getSymbols());
+        } else if (node instanceof IrLambda) {
+            boundBindings.addAll(((IrLambda) node).getParameters());
+        } else if (node instanceof IrLet) {
+            boundBindings.addAll(((IrLet) node).getBindings());
+        } else if (node instanceof IrNamedLet) {
+            boundBindings.add(((IrNamedLet) node).getLoop());
+            boundBindings.addAll(((IrNamedLet) node).getParameters());
+        } else if (node instanceof IrDefine && ((IrDefine) node).getBinding().getKind() == IrBinding.Kind
+                .DEFINITION) {
+            boundBindings.add(((IrDefine) node).getBinding());
+        }
+
+        for (IrNode child : node.getChildren()) {
+            collectBindings(child, boundBindings, referencedBindings, opaqueSymbols);
+        }
+    }
+
+    /**
+     * @return True if evaluating the node can neither fail nor have side effects, so it may be dropped if its value
+     * isn't used.
+     */
+    public static boolean isPure(IrNode node) {
+        if (node instanceof IrVariable) {
+            return ((IrVariable) node).getBinding().isInitialized();
+        }
+        return node instanceof IrConstant || node instanceof IrLambda;
+    }
+}
@@ -0,0 +1,78 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+
+/**
+ * A variable of the intermediate representation. Variables are compared by identity, so two variables of the same
+ * name bound in different places are different bindings, and passes never confuse shadowed variables.
+ */
+public final class IrBinding {
+
+    /**
+     * The places a variable can be bound at.
+     */
+    public enum Kind {
+
+        /**
+         * A variable of the root environment.
+         */
+        GLOBAL,
+
+        /**
+         * A parameter of a lambda expression or a named let.
+         */
+        PARAMETER,
+
+        /**
+         * A variable bound by let.
+         */
+        LET,
+
+        /**
+         * A variable bound by an internal definition. It may be referred to before its definition is executed.
+         */
+        DEFINITION,
+
+        /**
+         * The name of a named let.
+         */
+        LOOP,
+
+        /**
+         * A variable introduced by {@link IrConverter} for an intermediate result.
+         */
+        TEMPORARY
+    }
+
+    private final SchemeSymbol symbol;
+    private final Kind kind;
+
+    public static IrBinding create(SchemeSymbol symbol, Kind kind) {
+        return new IrBinding(symbol, kind);
+    }
+
+    private IrBinding(SchemeSymbol symbol, Kind kind) {
+        this.symbol = symbol;
+        this.kind = kind;
+    }
+
+    public SchemeSymbol getSymbol() {
+        return symbol;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return True if the variable has been bound before any expression referring to it can be evaluated.
+     */
+    public boolean isInitialized() {
+        return kind != Kind.GLOBAL && kind != Kind.DEFINITION;
+    }
+
+    @Override
+    public String toString() {
+        return symbol.getValue();
+    }
+}
@@ -0,0 +1,47 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A call of a function. The function is evaluated first, followed by the arguments from left to right.
+ */
+public final class IrCall extends IrNode {
+
+    private final IrNode function;
+    private final List<IrNode> arguments;
+
+    public static IrCall create(IrNode function, List<IrNode> arguments) {
+        return new IrCall(function, arguments);
+    }
+
+    private IrCall(IrNode function, List<IrNode> arguments) {
+        this.function = function;
+        this.arguments = Collections.unmodifiableList(arguments);
+    }
+
+    public IrNode getFunction() {
+        return function;
+    }
+
+    public List<IrNode> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public List<IrNode> getChildren() {
+        List<IrNode> children = new ArrayList<>();
+        children.add(function);
+        children.addAll(arguments);
+        return children;
+    }
+
+    @Override
+    public IrNode withChildren(List<IrNode> children) {
+        if (sameChildren(getChildren(), children)) {
+            return this;
+        }
+        return new IrCall(children.get(0), new ArrayList<>(children.subList(1, children.size())));
+    }
+}
@@ -0,0 +1,33 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+
+/**
+ * A literal or a quoted expression.
+ */
+public final class IrConstant extends IrNode {
+
+    private final SchemeObject value;
+
+    public static IrConstant create(SchemeObject value) {
+        return new IrConstant(value);
+    }
+
+    private IrConstant(SchemeObject value) {
+        this.value = value;
+    }
+
+    public SchemeObject getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean isAtom() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return value.toString();
+    }
+}
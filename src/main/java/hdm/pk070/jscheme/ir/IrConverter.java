@@ -0,0 +1,394 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinDefine;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinLambda;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinLet;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinQuote;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.table.symbolTable.SchemeSymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Converts the output of {@link hdm.pk070.jscheme.reader.SchemeReader} into the intermediate representation, in
+ * A-normal form (see {@link IrNode}). 'quote', 'if', 'lambda', 'let' and 'define' are modelled, every other special
+ * form is kept as {@link IrOpaque}.
+ * <br/><br/>
+ * The converter doesn't report syntax errors. Whenever an expression is malformed or uses a feature the
+ * representation doesn't cover, e.g. a variable number of parameters, a 'define' outside of a body or a local
+ * variable named like one of the modelled keywords, the expression isn't converted at all, so it gets executed as
+ * written and the evaluator reports the error.
+ */
+public final class IrConverter {
+
+    /**
+     * The names of temporary variables contain whitespace, so they can't clash with names read by the reader.
+     */
+    private static final String TEMPORARY_PREFIX = "ir temp ";
+
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("quote", "if", "lambda", "let",
+            "define"));
+
+    private final Environment<SchemeSymbol, EnvironmentEntry> rootEnvironment;
+    private final Map<SchemeSymbol, IrBinding> globalBindings;
+    private int temporaryCount;
+
+    public static IrConverter forEnvironment(Environment<SchemeSymbol, EnvironmentEntry> rootEnvironment) {
+        return new IrConverter(rootEnvironment);
+    }
+
+    private IrConverter(Environment<SchemeSymbol, EnvironmentEntry> rootEnvironment) {
+        this.rootEnvironment = rootEnvironment;
+        this.globalBindings = new HashMap<>();
+        this.temporaryCount = 0;
+    }
+
+    /**
+     * Convert a top-level expression.
+     *
+     * @param expression
+     *         The expression as returned by {@link hdm.pk070.jscheme.reader.SchemeReader}.
+     * @return The converted expression, or nothing if it can't be converted.
+     */
+    public Optional<IrNode> convert(SchemeObject expression) {
+        try {
+            ensureKeywordsAreSyntax();
+            if (isSyntax(expression, null, SchemeBuiltinDefine.class)) {
+                return Optional.of(convertDefinition((SchemeCons) expression, null));
+            }
+            return Optional.of(convertExpression(expression, null));
+        } catch (SchemeError schemeError) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * {@link IrLowering} writes the modelled keywords, which therefore have to refer to the built-in syntax.
+     */
+    private void ensureKeywordsAreSyntax() throws SchemeError {
+        for (String keyword : KEYWORDS) {
+            Optional<SchemeSymbol> symbol = SchemeSymbolTable.getInstance().get(keyword);
+            if (!symbol.isPresent() || !lookupSyntax(symbol.get(), null).isPresent()) {
+                throw new SchemeError("(ir): keyword %s is not bound to syntax", keyword);
+            }
+        }
+    }
+
+    private IrNode convertExpression(SchemeObject expression, Scope scope) throws SchemeError {
+        if (expression.hasType(SchemeType.SYMBOL)) {
+            return IrVariable.create(lookup((SchemeSymbol) expression, scope));
+        } else if (!expression.hasType(SchemeType.CONS)) {
+            return IrConstant.create(expression);
+        }
+
+        SchemeCons list = (SchemeCons) expression;
+        if (list.getCar().hasType(SchemeType.SYMBOL)) {
+            Optional<SchemeBuiltinSyntax> syntax = lookupSyntax((SchemeSymbol) list.getCar(), scope);
+            if (syntax.isPresent()) {
+                return convertSpecialForm(list, syntax.get(), scope);
+            }
+        }
+        return convertCall(list, scope);
+    }
+
+    private IrNode convertSpecialForm(SchemeCons form, SchemeBuiltinSyntax syntax, Scope scope) throws
+            SchemeError {
+        if (syntax instanceof SchemeBuiltinQuote) {
+            return IrConstant.create(elements(form, 2).get(1));
+        } else if (syntax instanceof SchemeBuiltinIf) {
+            List<SchemeObject> ifParts = elements(form, 4);
+            List<Temporary> temporaries = new ArrayList<>();
+            IrNode condition = convertOperand(ifParts.get(1), scope, temporaries);
+            return bindTemporaries(temporaries, IrIf.create(condition, convertExpression(ifParts.get(2), scope),
+                    convertExpression(ifParts.get(3), scope)));
+        } else if (syntax instanceof SchemeBuiltinLambda) {
+            return convertLambda(form.getCdr(), scope);
+        } else if (syntax instanceof SchemeBuiltinLet) {
+            return convertLet(form, scope);
+        } else if (syntax instanceof SchemeBuiltinDefine) {
+            throw new SchemeError("(ir): definition outside of a body: %s", form);
+        }
+        return convertOpaque(form, scope);
+    }
+
+    private IrNode convertCall(SchemeCons call, Scope scope) throws SchemeError {
+        List<SchemeObject> callParts = elements(call, -1);
+        List<Temporary> temporaries = new ArrayList<>();
+        IrNode function = convertOperand(callParts.get(0), scope, temporaries);
+        List<IrNode> arguments = new ArrayList<>();
+        for (SchemeObject argument : callParts.subList(1, callParts.size())) {
+            arguments.add(convertOperand(argument, scope, temporaries));
+        }
+        return bindTemporaries(temporaries, IrCall.create(function, arguments));
+    }
+
+    /**
+     * Convert an operand to an atom. The operand's value is bound to a new temporary variable unless it's an atom
+     * already. The temporaries the operand itself needs are hoisted, so they're bound one after another instead of
+     * being nested.
+     */
+    private IrNode convertOperand(SchemeObject operand, Scope scope, List<Temporary> temporaries) throws
+            SchemeError {
+        IrNode node = convertExpression(operand, scope);
+        while (node instanceof IrLet && ((IrLet) node).isTemporary()) {
+            IrLet temporaryLet = (IrLet) node;
+            temporaries.add(new Temporary(temporaryLet.getBindings().get(0), temporaryLet.getValues().get(0)));
+            node = temporaryLet.getBody();
+        }
+        if (node.isAtom()) {
+            return node;
+        }
+
+        IrBinding temporary = IrBinding.create(new SchemeSymbol(TEMPORARY_PREFIX + temporaryCount++), IrBinding
+                .Kind.TEMPORARY);
+        temporaries.add(new Temporary(temporary, node));
+        return IrVariable.create(temporary);
+    }
+
+    private IrNode bindTemporaries(List<Temporary> temporaries, IrNode body) {
+        IrNode node = body;
+        for (int i = temporaries.size() - 1; i >= 0; i--) {
+            Temporary temporary = temporaries.get(i);
+            node = IrLet.create(new ArrayList<>(Arrays.asList(temporary.binding)), new ArrayList<>(Arrays.asList
+                    (temporary.value)), node);
+        }
+        return node;
+    }
+
+    private IrLambda convertLambda(SchemeObject parametersAndBody, Scope scope) throws SchemeError {
+        if (!parametersAndBody.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(ir): bad lambda");
+        }
+        Scope lambdaScope = new Scope(scope);
+        List<IrBinding> parameters = new ArrayList<>();
+        for (SchemeObject parameter : elements(((SchemeCons) parametersAndBody).getCar(), -1)) {
+            parameters.add(lambdaScope.bind(parameter, IrBinding.Kind.PARAMETER));
+        }
+        return IrLambda.create(parameters, convertBody(((SchemeCons) parametersAndBody).getCdr(), lambdaScope));
+    }
+
+    private IrNode convertLet(SchemeCons form, Scope scope) throws SchemeError {
+        SchemeObject bindingsAndBody = form.getCdr();
+        Scope bodyScope = new Scope(scope);
+        IrBinding loop = null;
+        if (bindingsAndBody.hasType(SchemeType.CONS) && ((SchemeCons) bindingsAndBody).getCar().hasType(SchemeType
+                .SYMBOL)) {
+            loop = bodyScope.bind(((SchemeCons) bindingsAndBody).getCar(), IrBinding.Kind.LOOP);
+            bindingsAndBody = ((SchemeCons) bindingsAndBody).getCdr();
+        }
+        if (!bindingsAndBody.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(ir): bad let: %s", form);
+        }
+
+        List<IrBinding> bindings = new ArrayList<>();
+        List<IrNode> values = new ArrayList<>();
+        for (SchemeObject binding : elements(((SchemeCons) bindingsAndBody).getCar(), -1)) {
+            List<SchemeObject> bindingParts = elements(binding, 2);
+            // The values are evaluated outside of the scope of the variables
+            values.add(convertExpression(bindingParts.get(1), scope));
+            bindings.add(bodyScope.bind(bindingParts.get(0), Objects.isNull(loop) ? IrBinding.Kind.LET : IrBinding
+                    .Kind.PARAMETER));
+        }
+
+        IrNode body = convertBody(((SchemeCons) bindingsAndBody).getCdr(), bodyScope);
+        if (Objects.nonNull(loop)) {
+            return IrNamedLet.create(loop, bindings, values, body);
+        }
+        return IrLet.create(bindings, values, body);
+    }
+
+    /**
+     * Convert the body of a lambda expression or let. The names of internal definitions are bound before the body
+     * is converted, since they're visible throughout the body.
+     */
+    private IrNode convertBody(SchemeObject bodyList, Scope bodyScope) throws SchemeError {
+        List<SchemeObject> bodyForms = elements(bodyList, -1);
+        if (bodyForms.isEmpty()) {
+            throw new SchemeError("(ir): empty body");
+        }
+
+        Map<SchemeObject, IrBinding> definitions = new IdentityHashMap<>();
+        for (SchemeObject bodyForm : bodyForms) {
+            if (isSyntax(bodyForm, bodyScope, SchemeBuiltinDefine.class)) {
+                definitions.put(bodyForm, bodyScope.bind(definitionTarget((SchemeCons) bodyForm), IrBinding.Kind
+                        .DEFINITION));
+            }
+        }
+        if (definitions.containsKey(bodyForms.get(bodyForms.size() - 1))) {
+            throw new SchemeError("(ir): body ends with a definition");
+        }
+
+        List<IrNode> forms = new ArrayList<>();
+        for (SchemeObject bodyForm : bodyForms) {
+            forms.add(definitions.containsKey(bodyForm) ? convertDefinition((SchemeCons) bodyForm, bodyScope) :
+                    convertExpression(bodyForm, bodyScope));
+        }
+        return forms.size() == 1 ? forms.get(0) : IrSequence.create(forms);
+    }
+
+    private SchemeObject definitionTarget(SchemeCons definition) throws SchemeError {
+        SchemeObject target = elements(definition, -1).get(1);
+        return target.hasType(SchemeType.CONS) ? ((SchemeCons) target).getCar() : target;
+    }
+
+    /**
+     * Convert a definition, either within a body whose scope binds the name already, or at top level if
+     * {@code scope} is null.
+     */
+    private IrDefine convertDefinition(SchemeCons definition, Scope scope) throws SchemeError {
+        List<SchemeObject> definitionParts = elements(definition, -1);
+        if (definitionParts.size() < 3) {
+            throw new SchemeError("(ir): bad definition: %s", definition);
+        }
+        SchemeObject target = definitionParts.get(1);
+        if (!definitionTarget(definition).hasType(SchemeType.SYMBOL)) {
+            throw new SchemeError("(ir): bad definition: %s", definition);
+        }
+        IrBinding binding = lookup((SchemeSymbol) definitionTarget(definition), scope);
+
+        if (target.hasType(SchemeType.CONS)) {
+            SchemeObject parametersAndBody = new SchemeCons(((SchemeCons) target).getCdr(), ((SchemeCons)
+                    definition.getCdr()).getCdr());
+            return IrDefine.create(binding, convertLambda(parametersAndBody, scope), true);
+        } else if (definitionParts.size() != 3) {
+            throw new SchemeError("(ir): bad definition: %s", definition);
+        }
+        return IrDefine.create(binding, convertExpression(definitionParts.get(2), scope), false);
+    }
+
+    private IrOpaque convertOpaque(SchemeCons form, Scope scope) {
+        Set<SchemeSymbol> symbols = new LinkedHashSet<>();
+        collectSymbols(form, symbols);
+
+        List<IrBinding> referencedBindings = new ArrayList<>();
+        for (SchemeSymbol symbol : symbols) {
+            for (Scope current = scope; Objects.nonNull(current); current = current.parent) {
+                if (current.bindings.containsKey(symbol)) {
+                    referencedBindings.add(current.bindings.get(symbol));
+                    break;
+                }
+            }
+        }
+        return IrOpaque.create(form, symbols, referencedBindings);
+    }
+
+    private void collectSymbols(SchemeObject object, Set<SchemeSymbol> symbols) {
+        if (object.hasType(SchemeType.SYMBOL)) {
+            symbols.add((SchemeSymbol) object);
+        } else if (object.hasType(SchemeType.CONS)) {
+            collectSymbols(((SchemeCons) object).getCar(), symbols);
+            collectSymbols(((SchemeCons) object).getCdr(), symbols);
+        }
+    }
+
+    private IrBinding lookup(SchemeSymbol symbol, Scope scope) {
+        for (Scope current = scope; Objects.nonNull(current); current = current.parent) {
+            IrBinding binding = current.bindings.get(symbol);
+            if (Objects.nonNull(binding)) {
+                return binding;
+            }
+        }
+        return globalBindings.computeIfAbsent(symbol, globalSymbol -> IrBinding.create(globalSymbol, IrBinding
+                .Kind.GLOBAL));
+    }
+
+    /**
+     * Look up syntax the way {@link hdm.pk070.jscheme.analyze.AnalysisScope#lookupSyntax(SchemeSymbol)} does: a
+     * keyword is a symbol bound to syntax in the root environment and not shadowed by a local variable.
+     */
+    private Optional<SchemeBuiltinSyntax> lookupSyntax(SchemeSymbol symbol, Scope scope) {
+        for (Scope current = scope; Objects.nonNull(current); current = current.parent) {
+            if (current.bindings.containsKey(symbol)) {
+                return Optional.empty();
+            }
+        }
+        Optional<EnvironmentEntry> entryOptional = rootEnvironment.get(symbol);
+        if (entryOptional.isPresent()) {
+            SchemeObject value = entryOptional.get().getValue();
+            if (Objects.nonNull(value) && value.hasType(SchemeType.BUILTIN_SYNTAX)) {
+                return Optional.of((SchemeBuiltinSyntax) value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean isSyntax(SchemeObject form, Scope scope, Class<? extends SchemeBuiltinSyntax> syntaxClass) {
+        return form.hasType(SchemeType.CONS) && ((SchemeCons) form).getCar().hasType(SchemeType.SYMBOL) &&
+                lookupSyntax((SchemeSymbol) ((SchemeCons) form).getCar(), scope).filter(syntaxClass::isInstance)
+                        .isPresent();
+    }
+
+    /**
+     * Split a proper list into its elements.
+     *
+     * @param list
+     *         The list.
+     * @param expectedCount
+     *         The number of elements the list must have, or -1 for any number.
+     */
+    private static List<SchemeObject> elements(SchemeObject list, int expectedCount) throws SchemeError {
+        List<SchemeObject> elements = new ArrayList<>();
+        SchemeObject rest = list;
+        while (rest.hasType(SchemeType.CONS)) {
+            elements.add(((SchemeCons) rest).getCar());
+            rest = ((SchemeCons) rest).getCdr();
+        }
+        if (!rest.hasType(SchemeType.NIL) || (expectedCount >= 0 && elements.size() != expectedCount)) {
+            throw new SchemeError("(ir): unexpected list: %s", list);
+        }
+        return elements;
+    }
+
+    /**
+     * The local variables bound by a lambda expression, a let or a body.
+     */
+    private static final class Scope {
+
+        private final Map<SchemeSymbol, IrBinding> bindings;
+        private final Scope parent;
+
+        private Scope(Scope parent) {
+            this.bindings = new HashMap<>();
+            this.parent = parent;
+        }
+
+        private IrBinding bind(SchemeObject name, IrBinding.Kind kind) throws SchemeError {
+            if (!name.hasType(SchemeType.SYMBOL) || bindings.containsKey(name) || KEYWORDS.contains(((SchemeSymbol)
+                    name).getValue())) {
+                throw new SchemeError("(ir): unsupported variable name: %s", name);
+            }
+            IrBinding binding = IrBinding.create((SchemeSymbol) name, kind);
+            bindings.put((SchemeSymbol) name, binding);
+            return binding;
+        }
+    }
+
+    private static final class Temporary {
+
+        private final IrBinding binding;
+        private final IrNode value;
+
+        private Temporary(IrBinding binding, IrNode value) {
+            this.binding = binding;
+            this.value = value;
+        }
+    }
+}
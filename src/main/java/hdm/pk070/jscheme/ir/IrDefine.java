@@ -0,0 +1,61 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A definition, either of a global variable or an internal definition within a body.
+ */
+public final class IrDefine extends IrNode {
+
+    private final IrBinding binding;
+    private final IrNode value;
+    private final boolean functionDefinition;
+
+    /**
+     * Create a definition.
+     *
+     * @param binding
+     *         The defined variable.
+     * @param value
+     *         The value of the variable.
+     * @param functionDefinition
+     *         Whether the definition has been written as (define (name params...) body...), which is kept since
+     *         functions defined that way may call themselves as loop. {@code value} is an {@link IrLambda} then.
+     * @return The new definition.
+     */
+    public static IrDefine create(IrBinding binding, IrNode value, boolean functionDefinition) {
+        return new IrDefine(binding, value, functionDefinition);
+    }
+
+    private IrDefine(IrBinding binding, IrNode value, boolean functionDefinition) {
+        this.binding = binding;
+        this.value = value;
+        this.functionDefinition = functionDefinition;
+    }
+
+    public IrBinding getBinding() {
+        return binding;
+    }
+
+    public IrNode getValue() {
+        return value;
+    }
+
+    public boolean isFunctionDefinition() {
+        return functionDefinition;
+    }
+
+    @Override
+    public List<IrNode> getChildren() {
+        return Collections.singletonList(value);
+    }
+
+    @Override
+    public IrNode withChildren(List<IrNode> children) {
+        if (children.get(0) == value) {
+            return this;
+        }
+        return new IrDefine(binding, children.get(0), functionDefinition && children.get(0) instanceof IrLambda);
+    }
+}
@@ -0,0 +1,49 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An 'if' expression. Only the condition is evaluated unconditionally.
+ */
+public final class IrIf extends IrNode {
+
+    private final IrNode condition;
+    private final IrNode conditionMet;
+    private final IrNode otherwise;
+
+    public static IrIf create(IrNode condition, IrNode conditionMet, IrNode otherwise) {
+        return new IrIf(condition, conditionMet, otherwise);
+    }
+
+    private IrIf(IrNode condition, IrNode conditionMet, IrNode otherwise) {
+        this.condition = condition;
+        this.conditionMet = conditionMet;
+        this.otherwise = otherwise;
+    }
+
+    public IrNode getCondition() {
+        return condition;
+    }
+
+    public IrNode getConditionMet() {
+        return conditionMet;
+    }
+
+    public IrNode getOtherwise() {
+        return otherwise;
+    }
+
+    @Override
+    public List<IrNode> getChildren() {
+        return Arrays.asList(condition, conditionMet, otherwise);
+    }
+
+    @Override
+    public IrNode withChildren(List<IrNode> children) {
+        if (sameChildren(getChildren(), children)) {
+            return this;
+        }
+        return new IrIf(children.get(0), children.get(1), children.get(2));
+    }
+}
@@ -0,0 +1,52 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A lambda expression with a fixed number of parameters. Its body may start with internal definitions, which are
+ * {@link IrDefine}s within an {@link IrSequence}.
+ */
+public final class IrLambda extends IrNode {
+
+    private final List<IrBinding> parameters;
+    private final IrNode body;
+
+    public static IrLambda create(List<IrBinding> parameters, IrNode body) {
+        return new IrLambda(parameters, body);
+    }
+
+    private IrLambda(List<IrBinding> parameters, IrNode body) {
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.body = body;
+    }
+
+    public List<IrBinding> getParameters() {
+        return parameters;
+    }
+
+    public IrNode getBody() {
+        return body;
+    }
+
+    /**
+     * Creating a closure has no side effects, so lambda expressions are atoms.
+     */
+    @Override
+    public boolean isAtom() {
+        return true;
+    }
+
+    @Override
+    public List<IrNode> getChildren() {
+        return Collections.singletonList(body);
+    }
+
+    @Override
+    public IrNode withChildren(List<IrNode> children) {
+        if (children.get(0) == body) {
+            return this;
+        }
+        return new IrLambda(parameters, children.get(0));
+    }
+}
@@ -0,0 +1,61 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bind variables to values for the scope of a body. The values are evaluated from left to right outside of the
+ * scope of the variables, like the arguments of a lambda expression applied right away.
+ */
+public final class IrLet extends IrNode {
+
+    private final List<IrBinding> bindings;
+    private final List<IrNode> values;
+    private final IrNode body;
+
+    public static IrLet create(List<IrBinding> bindings, List<IrNode> values, IrNode body) {
+        return new IrLet(bindings, values, body);
+    }
+
+    private IrLet(List<IrBinding> bindings, List<IrNode> values, IrNode body) {
+        this.bindings = Collections.unmodifiableList(bindings);
+        this.values = Collections.unmodifiableList(values);
+        this.body = body;
+    }
+
+    public List<IrBinding> getBindings() {
+        return bindings;
+    }
+
+    public List<IrNode> getValues() {
+        return values;
+    }
+
+    public IrNode getBody() {
+        return body;
+    }
+
+    /**
+     * @return True if this let binds a single temporary variable introduced by {@link IrConverter}.
+     */
+    public boolean isTemporary() {
+        return bindings.size() == 1 && bindings.get(0).getKind() == IrBinding.Kind.TEMPORARY;
+    }
+
+    @Override
+    public List<IrNode> getChildren() {
+        List<IrNode> children = new ArrayList<>(values);
+        children.add(body);
+        return children;
+    }
+
+    @Override
+    public IrNode withChildren(List<IrNode> children) {
+        if (sameChildren(getChildren(), children)) {
+            return this;
+        }
+        return new IrLet(bindings, new ArrayList<>(children.subList(0, values.size())), children.get(values
+                .size()));
+    }
+}
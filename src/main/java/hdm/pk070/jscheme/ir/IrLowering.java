@@ -0,0 +1,203 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.symbolTable.SchemeSymbolTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Turns the intermediate representation back into the form returned by
+ * {@link hdm.pk070.jscheme.reader.SchemeReader}, so the result can be run by every
+ * {@link hdm.pk070.jscheme.analyze.ExecutionEngine}.
+ * <br/><br/>
+ * Temporary variables introduced by {@link IrConverter} are substituted back into the place they've been taken
+ * from where this doesn't change the order of evaluation, i.e. if the temporary is referred to once and its
+ * reference is the first thing evaluated by the temporary's scope. An expression converted and lowered again
+ * without any pass in between therefore reads like the original one, apart from the way constants are quoted.
+ */
+public final class IrLowering {
+
+    public static IrLowering create() {
+        return new IrLowering();
+    }
+
+    private IrLowering() {
+    }
+
+    /**
+     * Lower a node.
+     *
+     * @param node
+     *         The root of the intermediate representation.
+     * @return The expression as returned by {@link hdm.pk070.jscheme.reader.SchemeReader}.
+     * @throws SchemeError
+     *         If the keywords can't be added to the symbol table.
+     */
+    public SchemeObject lower(IrNode node) throws SchemeError {
+        return write(substituteTemporaries(node));
+    }
+
+    private IrNode substituteTemporaries(IrNode node) {
+        List<IrNode> children = node.getChildren();
+        List<IrNode> newChildren = new ArrayList<>(children.size());
+        for (IrNode child : children) {
+            newChildren.add(substituteTemporaries(child));
+        }
+        IrNode newNode = node.withChildren(newChildren);
+
+        if (newNode instanceof IrLet && ((IrLet) newNode).isTemporary()) {
+            IrLet temporaryLet = (IrLet) newNode;
+            IrBinding temporary = temporaryLet.getBindings().get(0);
+            if (IrAnalysis.countUses(temporary, temporaryLet.getBody()) == 1 && isEvaluatedFirst(temporary,
+                    temporaryLet.getBody())) {
+                return IrAnalysis.replaceUses(temporaryLet.getBody(), temporary, temporaryLet.getValues().get(0));
+            }
+        }
+        return newNode;
+    }
+
+    /**
+     * Check whether evaluating a node evaluates a reference to a variable before anything but atoms.
+     */
+    private boolean isEvaluatedFirst(IrBinding binding, IrNode node) {
+        if (node instanceof IrVariable) {
+            return ((IrVariable) node).getBinding() == binding;
+        }
+
+        for (IrNode child : evaluatedChildren(node)) {
+            if (isEvaluatedFirst(binding, child)) {
+                return true;
+            } else if (!child.isAtom()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The children evaluated unconditionally when evaluating a node, before the node's scope is entered.
+     */
+    private List<IrNode> evaluatedChildren(IrNode node) {
+        if (node instanceof IrCall || node instanceof IrSequence) {
+            return node.getChildren();
+        } else if (node instanceof IrIf) {
+            return Collections.singletonList(((IrIf) node).getCondition());
+        } else if (node instanceof IrLet) {
+            return ((IrLet) node).getValues();
+        } else if (node instanceof IrNamedLet) {
+            return ((IrNamedLet) node).getInitialValues();
+        } else if (node instanceof IrDefine) {
+            return Collections.singletonList(((IrDefine) node).getValue());
+        }
+        return Collections.emptyList();
+    }
+
+    private SchemeObject write(IrNode node) throws SchemeError {
+        if (node instanceof IrConstant) {
+            SchemeObject value = ((IrConstant) node).getValue();
+            if (value.hasType(SchemeType.SYMBOL) || value.hasType(SchemeType.CONS)) {
+                return list(keyword("quote"), value);
+            }
+            return value;
+        } else if (node instanceof IrVariable) {
+            return ((IrVariable) node).getBinding().getSymbol();
+        } else if (node instanceof IrCall) {
+            List<SchemeObject> elements = new ArrayList<>();
+            for (IrNode child : node.getChildren()) {
+                elements.add(write(child));
+            }
+            return toList(elements);
+        } else if (node instanceof IrIf) {
+            IrIf ifNode = (IrIf) node;
+            return list(keyword("if"), write(ifNode.getCondition()), write(ifNode.getConditionMet()), write(ifNode
+                    .getOtherwise()));
+        } else if (node instanceof IrLambda) {
+            IrLambda lambda = (IrLambda) node;
+            return new SchemeCons(keyword("lambda"), new SchemeCons(symbols(lambda.getParameters()), writeBody
+                    (lambda.getBody())));
+        } else if (node instanceof IrLet) {
+            IrLet let = (IrLet) node;
+            return new SchemeCons(keyword("let"), new SchemeCons(writeBindings(let.getBindings(), let.getValues()),
+                    writeBody(let.getBody())));
+        } else if (node instanceof IrNamedLet) {
+            IrNamedLet namedLet = (IrNamedLet) node;
+            return new SchemeCons(keyword("let"), new SchemeCons(namedLet.getLoop().getSymbol(), new SchemeCons
+                    (writeBindings(namedLet.getParameters(), namedLet.getInitialValues()), writeBody(namedLet
+                            .getBody()))));
+        } else if (node instanceof IrDefine) {
+            return writeDefinition((IrDefine) node);
+        } else if (node instanceof IrSequence) {
+            // A sequence outside of a body is evaluated as the body of a lambda expression called right away
+            return list(new SchemeCons(keyword("lambda"), new SchemeCons(new SchemeNil(), writeBody(node))));
+        }
+        return ((IrOpaque) node).getForm();
+    }
+
+    private SchemeObject writeDefinition(IrDefine definition) throws SchemeError {
+        SchemeSymbol name = definition.getBinding().getSymbol();
+        if (definition.isFunctionDefinition()) {
+            IrLambda lambda = (IrLambda) definition.getValue();
+            return new SchemeCons(keyword("define"), new SchemeCons(new SchemeCons(name, symbols(lambda
+                    .getParameters())), writeBody(lambda.getBody())));
+        }
+        return list(keyword("define"), name, write(definition.getValue()));
+    }
+
+    private SchemeObject writeBody(IrNode body) throws SchemeError {
+        List<SchemeObject> forms = new ArrayList<>();
+        for (IrNode form : body instanceof IrSequence ? ((IrSequence) body).getForms() : Collections.singletonList
+                (body)) {
+            forms.add(write(form));
+        }
+        return toList(forms);
+    }
+
+    private SchemeObject writeBindings(List<IrBinding> bindings, List<IrNode> values) throws SchemeError {
+        List<SchemeObject> bindingList = new ArrayList<>();
+        for (int i = 0; i < bindings.size(); i++) {
+            bindingList.add(list(bindings.get(i).getSymbol(), write(values.get(i))));
+        }
+        return toList(bindingList);
+    }
+
+    private SchemeObject symbols(List<IrBinding> bindings) {
+        List<SchemeObject> symbols = new ArrayList<>();
+        for (IrBinding binding : bindings) {
+            symbols.add(binding.getSymbol());
+        }
+        return toList(symbols);
+    }
+
+    /**
+     * Keywords have to be the symbols of the symbol table, since {@link hdm.pk070.jscheme.table.environment
+     * .GlobalEnvironment} compares symbols by identity.
+     */
+    private SchemeSymbol keyword(String name) throws SchemeError {
+        Optional<SchemeSymbol> symbol = SchemeSymbolTable.getInstance().get(name);
+        if (symbol.isPresent()) {
+            return symbol.get();
+        }
+        return SchemeSymbolTable.getInstance().add(new SchemeSymbol(name));
+    }
+
+    private SchemeObject list(SchemeObject... elements) {
+        return toList(Arrays.asList(elements));
+    }
+
+    private SchemeObject toList(List<SchemeObject> elements) {
+        SchemeObject list = new SchemeNil();
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            list = new SchemeCons(elements.get(i), list);
+        }
+        return list;
+    }
+}
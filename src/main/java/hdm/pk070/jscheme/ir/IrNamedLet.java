@@ -0,0 +1,61 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A named let, i.e. a loop whose body may call itself by name. The initial values are evaluated like the values of
+ * an {@link IrLet}.
+ */
+public final class IrNamedLet extends IrNode {
+
+    private final IrBinding loop;
+    private final List<IrBinding> parameters;
+    private final List<IrNode> initialValues;
+    private final IrNode body;
+
+    public static IrNamedLet create(IrBinding loop, List<IrBinding> parameters, List<IrNode> initialValues, IrNode
+            body) {
+        return new IrNamedLet(loop, parameters, initialValues, body);
+    }
+
+    private IrNamedLet(IrBinding loop, List<IrBinding> parameters, List<IrNode> initialValues, IrNode body) {
+        this.loop = loop;
+        this.parameters = Collections.unmodifiableList(parameters);
+        this.initialValues = Collections.unmodifiableList(initialValues);
+        this.body = body;
+    }
+
+    public IrBinding getLoop() {
+        return loop;
+    }
+
+    public List<IrBinding> getParameters() {
+        return parameters;
+    }
+
+    public List<IrNode> getInitialValues() {
+        return initialValues;
+    }
+
+    public IrNode getBody() {
+        return body;
+    }
+
+    @Override
+    public List<IrNode> getChildren() {
+        List<IrNode> children = new ArrayList<>(initialValues);
+        children.add(body);
+        return children;
+    }
+
+    @Override
+    public IrNode withChildren(List<IrNode> children) {
+        if (sameChildren(getChildren(), children)) {
+            return this;
+        }
+        return new IrNamedLet(loop, parameters, new ArrayList<>(children.subList(0, initialValues.size())),
+                children.get(initialValues.size()));
+    }
+}
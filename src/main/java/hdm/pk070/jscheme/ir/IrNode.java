@@ -0,0 +1,57 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A node of the intermediate representation which sits between the output of
+ * {@link hdm.pk070.jscheme.reader.SchemeReader} and the evaluators. {@link IrConverter} turns an expression into
+ * A-normal form: the function and the arguments of a call as well as the condition of an 'if' are atoms, i.e.
+ * constants, variables or lambda expressions, and every other subexpression is bound to a temporary variable first.
+ * <br/><br/>
+ * Nodes are immutable, passes rewrite a tree by creating new nodes. The children of a node are listed in the order
+ * they are evaluated in.
+ */
+public abstract class IrNode {
+
+    /**
+     * @return The direct subexpressions of this node, in evaluation order.
+     */
+    public List<IrNode> getChildren() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Create a node like this one with other children.
+     *
+     * @param children
+     *         The new children, in the order returned by {@link #getChildren()}.
+     * @return The new node, or this node itself if the children are the same.
+     */
+    public IrNode withChildren(List<IrNode> children) {
+        return this;
+    }
+
+    /**
+     * @return True if evaluating the node neither has side effects nor takes any steps worth binding to a
+     * variable, i.e. if it may appear as operand of a call.
+     */
+    public boolean isAtom() {
+        return false;
+    }
+
+    /**
+     * Check whether a list of new children is the same as the current one, element by element.
+     */
+    static boolean sameChildren(List<IrNode> currentChildren, List<IrNode> newChildren) {
+        if (currentChildren.size() != newChildren.size()) {
+            return false;
+        }
+        for (int i = 0; i < currentChildren.size(); i++) {
+            if (currentChildren.get(i) != newChildren.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
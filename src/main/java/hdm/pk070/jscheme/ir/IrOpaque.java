@@ -0,0 +1,53 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A special form the intermediate representation doesn't model, e.g. 'do' or 'guard'. It's kept as written and
+ * passes treat it conservatively: every variable it may refer to counts as used, and may be changed by it.
+ */
+public final class IrOpaque extends IrNode {
+
+    private final SchemeObject form;
+    private final Set<SchemeSymbol> symbols;
+    private final List<IrBinding> referencedBindings;
+
+    /**
+     * Create an opaque form.
+     *
+     * @param form
+     *         The form as read.
+     * @param symbols
+     *         All symbols occurring within the form.
+     * @param referencedBindings
+     *         The local variables visible at the form whose names occur within the form.
+     * @return The new opaque form.
+     */
+    public static IrOpaque create(SchemeObject form, Set<SchemeSymbol> symbols, List<IrBinding>
+            referencedBindings) {
+        return new IrOpaque(form, symbols, referencedBindings);
+    }
+
+    private IrOpaque(SchemeObject form, Set<SchemeSymbol> symbols, List<IrBinding> referencedBindings) {
+        this.form = form;
+        this.symbols = Collections.unmodifiableSet(symbols);
+        this.referencedBindings = Collections.unmodifiableList(referencedBindings);
+    }
+
+    public SchemeObject getForm() {
+        return form;
+    }
+
+    public Set<SchemeSymbol> getSymbols() {
+        return symbols;
+    }
+
+    public List<IrBinding> getReferencedBindings() {
+        return referencedBindings;
+    }
+}
@@ -0,0 +1,39 @@
+package hdm.pk070.jscheme.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The forms of a body with more than one form, evaluated one after another. The value of the last form is the
+ * value of the sequence.
+ */
+public final class IrSequence extends IrNode {
+
+    private final List<IrNode> forms;
+
+    public static IrSequence create(List<IrNode> forms) {
+        return new IrSequence(forms);
+    }
+
+    private IrSequence(List<IrNode> forms) {
+        this.forms = Collections.unmodifiableList(forms);
+    }
+
+    public List<IrNode> getForms() {
+        return forms;
+    }
+
+    @Override
+    public List<IrNode> getChildren() {
+        return forms;
+    }
+
+    @Override
+    public IrNode withChildren(List<IrNode> children) {
+        if (sameChildren(forms, children)) {
+            return this;
+        }
+        return new IrSequence(new ArrayList<>(children));
+    }
+}
@@ -0,0 +1,31 @@
+package hdm.pk070.jscheme.ir;
+
+/**
+ * A reference to a variable.
+ */
+public final class IrVariable extends IrNode {
+
+    private final IrBinding binding;
+
+    public static IrVariable create(IrBinding binding) {
+        return new IrVariable(binding);
+    }
+
+    private IrVariable(IrBinding binding) {
+        this.binding = binding;
+    }
+
+    public IrBinding getBinding() {
+        return binding;
+    }
+
+    @Override
+    public boolean isAtom() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return binding.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.ir.IrCall;
+import hdm.pk070.jscheme.ir.IrDefine;
+import hdm.pk070.jscheme.ir.IrLambda;
+import hdm.pk070.jscheme.ir.IrLet;
+import hdm.pk070.jscheme.ir.IrNode;
+import hdm.pk070.jscheme.ir.IrSequence;
+
+/**
+ * Replaces the call of a lambda expression by a let binding the parameters to the arguments, e.g.
+ * ((lambda (x) (* x x)) 3) becomes (let ((x 3)) (* x x)), which saves creating the closure. The call of a lambda
+ * expression without parameters whose body is a single expression is replaced by the body.
+ */
+final class BetaReduction extends OptimizationPass {
+
+    static final String NAME = "beta-reduction";
+
+    static BetaReduction create() {
+        return new BetaReduction();
+    }
+
+    private BetaReduction() {
+        super(NAME);
+    }
+
+    @Override
+    protected IrNode rewrite(IrNode node) {
+        IrNode rewrittenNode = rewriteChildren(node);
+        if (!(rewrittenNode instanceof IrCall) || !(((IrCall) rewrittenNode).getFunction() instanceof IrLambda)) {
+            return rewrittenNode;
+        }
+
+        IrCall call = (IrCall) rewrittenNode;
+        IrLambda lambda = (IrLambda) call.getFunction();
+        if (lambda.getParameters().size() != call.getArguments().size()) {
+            // Leave the arity error to the evaluator
+            return call;
+        } else if (lambda.getParameters().isEmpty() && !(lambda.getBody() instanceof IrSequence) && !(lambda
+                .getBody() instanceof IrDefine)) {
+            return countRewrite(lambda.getBody());
+        }
+        return countRewrite(IrLet.create(lambda.getParameters(), call.getArguments(), lambda.getBody()));
+    }
+}
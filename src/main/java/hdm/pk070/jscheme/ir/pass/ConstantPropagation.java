@@ -0,0 +1,56 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.ir.IrAnalysis;
+import hdm.pk070.jscheme.ir.IrBinding;
+import hdm.pk070.jscheme.ir.IrConstant;
+import hdm.pk070.jscheme.ir.IrIf;
+import hdm.pk070.jscheme.ir.IrLet;
+import hdm.pk070.jscheme.ir.IrNode;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+
+/**
+ * Replaces the references of variables bound to constants by let with the constants, e.g.
+ * (let ((x 2)) (* x x)) becomes (let ((x 2)) (* 2 2)), and an 'if' whose condition is a constant with the branch
+ * that is taken. Variables referred to by an opaque form are left alone, since the form may change them.
+ * <br/><br/>
+ * Calls of built-in functions with constant arguments aren't folded here, that's done by
+ * {@link hdm.pk070.jscheme.analyze.ConstantFolder} when the lowered expression gets analyzed.
+ */
+final class ConstantPropagation extends OptimizationPass {
+
+    static final String NAME = "constant-propagation";
+
+    static ConstantPropagation create() {
+        return new ConstantPropagation();
+    }
+
+    private ConstantPropagation() {
+        super(NAME);
+    }
+
+    @Override
+    protected IrNode rewrite(IrNode node) {
+        if (node instanceof IrIf && ((IrIf) node).getCondition() instanceof IrConstant) {
+            IrIf ifNode = (IrIf) node;
+            boolean conditionMet = SchemeBuiltinIf.isConditionMet(((IrConstant) ifNode.getCondition()).getValue());
+            return rewrite(countRewrite(conditionMet ? ifNode.getConditionMet() : ifNode.getOtherwise()));
+        } else if (node instanceof IrLet) {
+            // Top-down, so constants reach the lets nested in the body in the same run
+            return rewriteChildren(propagateBindings((IrLet) node));
+        }
+        return rewriteChildren(node);
+    }
+
+    private IrNode propagateBindings(IrLet let) {
+        IrNode body = let.getBody();
+        for (int i = 0; i < let.getBindings().size(); i++) {
+            IrBinding binding = let.getBindings().get(i);
+            IrNode value = let.getValues().get(i);
+            if (value instanceof IrConstant && IrAnalysis.countUses(binding, body) > 0 && !IrAnalysis
+                    .isReferencedByOpaqueForm(binding, body)) {
+                body = countRewrite(IrAnalysis.replaceUses(body, binding, value));
+            }
+        }
+        return body == let.getBody() ? let : IrLet.create(let.getBindings(), let.getValues(), body);
+    }
+}
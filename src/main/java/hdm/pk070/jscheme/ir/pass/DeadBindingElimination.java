@@ -0,0 +1,104 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.ir.IrAnalysis;
+import hdm.pk070.jscheme.ir.IrBinding;
+import hdm.pk070.jscheme.ir.IrConstant;
+import hdm.pk070.jscheme.ir.IrDefine;
+import hdm.pk070.jscheme.ir.IrLambda;
+import hdm.pk070.jscheme.ir.IrLet;
+import hdm.pk070.jscheme.ir.IrNode;
+import hdm.pk070.jscheme.ir.IrSequence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes variables which aren't referred to: bindings of a let whose value has no side effects (see
+ * {@link IrAnalysis#isPure(IrNode)}), and internal definitions of lambda expressions or constants. A let left
+ * without bindings is replaced by its body, unless the body consists of several forms or internal definitions.
+ */
+final class DeadBindingElimination extends OptimizationPass {
+
+    static final String NAME = "dead-binding-elimination";
+
+    static DeadBindingElimination create() {
+        return new DeadBindingElimination();
+    }
+
+    private DeadBindingElimination() {
+        super(NAME);
+    }
+
+    @Override
+    protected IrNode rewrite(IrNode node) {
+        IrNode rewrittenNode = rewriteChildren(node);
+        if (rewrittenNode instanceof IrLet) {
+            return eliminateBindings((IrLet) rewrittenNode);
+        } else if (rewrittenNode instanceof IrSequence) {
+            return eliminateDefinitions((IrSequence) rewrittenNode);
+        }
+        return rewrittenNode;
+    }
+
+    private IrNode eliminateBindings(IrLet let) {
+        List<IrBinding> bindings = new ArrayList<>();
+        List<IrNode> values = new ArrayList<>();
+        for (int i = 0; i < let.getBindings().size(); i++) {
+            IrBinding binding = let.getBindings().get(i);
+            IrNode value = let.getValues().get(i);
+            if (IrAnalysis.countUses(binding, let.getBody()) > 0 || !IrAnalysis.isPure(value)) {
+                bindings.add(binding);
+                values.add(value);
+            }
+        }
+
+        if (bindings.isEmpty() && isExpression(let.getBody())) {
+            return countRewrite(let.getBody());
+        } else if (bindings.size() == let.getBindings().size()) {
+            return let;
+        }
+        return countRewrite(IrLet.create(bindings, values, let.getBody()));
+    }
+
+    private IrNode eliminateDefinitions(IrSequence sequence) {
+        List<IrNode> forms = new ArrayList<>();
+        for (IrNode form : sequence.getForms()) {
+            if (isDeadDefinition(form, sequence)) {
+                countRewrite(form);
+            } else {
+                forms.add(form);
+            }
+        }
+
+        if (forms.size() == sequence.getForms().size()) {
+            return sequence;
+        }
+        return forms.size() == 1 ? forms.get(0) : IrSequence.create(forms);
+    }
+
+    private boolean isDeadDefinition(IrNode form, IrSequence sequence) {
+        if (!(form instanceof IrDefine)) {
+            return false;
+        }
+        IrDefine definition = (IrDefine) form;
+        if (definition.getBinding().getKind() != IrBinding.Kind.DEFINITION || !(definition.getValue() instanceof
+                IrLambda || definition.getValue() instanceof IrConstant)) {
+            return false;
+        }
+
+        // References within the definition's own value are recursive calls and don't keep it alive
+        for (IrNode otherForm : sequence.getForms()) {
+            if (otherForm != form && IrAnalysis.countUses(definition.getBinding(), otherForm) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A body consisting of several forms or an internal definition can't stand in for a let.
+     */
+    private boolean isExpression(IrNode body) {
+        return !(body instanceof IrSequence) && !(body instanceof IrDefine);
+    }
+}
@@ -0,0 +1,144 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.ir.IrAnalysis;
+import hdm.pk070.jscheme.ir.IrBinding;
+import hdm.pk070.jscheme.ir.IrCall;
+import hdm.pk070.jscheme.ir.IrDefine;
+import hdm.pk070.jscheme.ir.IrLambda;
+import hdm.pk070.jscheme.ir.IrLet;
+import hdm.pk070.jscheme.ir.IrNamedLet;
+import hdm.pk070.jscheme.ir.IrNode;
+import hdm.pk070.jscheme.ir.IrSequence;
+import hdm.pk070.jscheme.ir.IrVariable;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Finds calls whose callee is known to be a certain lambda expression, i.e. calls of a variable bound by let to a
+ * lambda expression which is called once and referred to nowhere else. The lambda expression is moved into the
+ * call, e.g. (let ((f (lambda (x) (* x x)))) (f 3)) becomes ((lambda (x) (* x x)) 3), which {@link BetaReduction}
+ * turns into a let.
+ * <br/><br/>
+ * The lambda expression isn't moved into another lambda expression or loop, where it would be created over and
+ * over again, nor into a scope binding one of the names of its free variables.
+ */
+final class KnownCallDetection extends OptimizationPass {
+
+    static final String NAME = "known-call-detection";
+
+    static KnownCallDetection create() {
+        return new KnownCallDetection();
+    }
+
+    private KnownCallDetection() {
+        super(NAME);
+    }
+
+    @Override
+    protected IrNode rewrite(IrNode node) {
+        IrNode rewrittenNode = rewriteChildren(node);
+        if (rewrittenNode instanceof IrLet) {
+            return moveKnownCallees((IrLet) rewrittenNode);
+        }
+        return rewrittenNode;
+    }
+
+    private IrNode moveKnownCallees(IrLet let) {
+        List<IrBinding> bindings = new ArrayList<>(let.getBindings());
+        List<IrNode> values = new ArrayList<>(let.getValues());
+        IrNode body = let.getBody();
+
+        for (int i = bindings.size() - 1; i >= 0; i--) {
+            if (!(values.get(i) instanceof IrLambda) || IrAnalysis.countUses(bindings.get(i), body) != 1) {
+                continue;
+            }
+            IrLambda lambda = (IrLambda) values.get(i);
+            Set<SchemeSymbol> freeSymbols = IrAnalysis.freeSymbols(lambda);
+            // The lambda expression has been created outside of the let, where none of its variables were visible
+            if (!Collections.disjoint(symbolsOf(bindings), freeSymbols)) {
+                continue;
+            }
+
+            IrNode movedBody = moveIntoCall(body, bindings.get(i), lambda, freeSymbols);
+            if (Objects.nonNull(movedBody)) {
+                body = countRewrite(movedBody);
+                bindings.remove(i);
+                values.remove(i);
+            }
+        }
+        return body == let.getBody() ? let : IrLet.create(bindings, values, body);
+    }
+
+    /**
+     * Put a lambda expression in place of the variable a call refers to it by.
+     *
+     * @return The rewritten node, or null if the variable isn't called or the call can't be reached.
+     */
+    private IrNode moveIntoCall(IrNode node, IrBinding binding, IrLambda lambda, Set<SchemeSymbol> freeSymbols) {
+        if (node instanceof IrCall && isReferenceTo(((IrCall) node).getFunction(), binding)) {
+            IrCall call = (IrCall) node;
+            if (call.getArguments().size() != lambda.getParameters().size()) {
+                return null;
+            }
+            return IrCall.create(lambda, call.getArguments());
+        }
+
+        List<IrNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            if (IrAnalysis.countUses(binding, children.get(i)) == 0) {
+                continue;
+            }
+            if (!isReachable(node, i, freeSymbols)) {
+                return null;
+            }
+            IrNode movedChild = moveIntoCall(children.get(i), binding, lambda, freeSymbols);
+            if (Objects.isNull(movedChild)) {
+                return null;
+            }
+            List<IrNode> newChildren = new ArrayList<>(children);
+            newChildren.set(i, movedChild);
+            return node.withChildren(newChildren);
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a lambda expression may be moved into a certain child of a node.
+     */
+    private boolean isReachable(IrNode node, int childIndex, Set<SchemeSymbol> freeSymbols) {
+        if (node instanceof IrLet) {
+            IrLet let = (IrLet) node;
+            return childIndex < let.getValues().size() || Collections.disjoint(symbolsOf(let.getBindings()),
+                    freeSymbols);
+        } else if (node instanceof IrNamedLet) {
+            return childIndex < ((IrNamedLet) node).getInitialValues().size();
+        } else if (node instanceof IrSequence) {
+            List<IrBinding> definitions = new ArrayList<>();
+            for (IrNode form : ((IrSequence) node).getForms()) {
+                if (form instanceof IrDefine && ((IrDefine) form).getBinding().getKind() == IrBinding.Kind
+                        .DEFINITION) {
+                    definitions.add(((IrDefine) form).getBinding());
+                }
+            }
+            return Collections.disjoint(symbolsOf(definitions), freeSymbols);
+        }
+        return !(node instanceof IrLambda);
+    }
+
+    private boolean isReferenceTo(IrNode node, IrBinding binding) {
+        return node instanceof IrVariable && ((IrVariable) node).getBinding() == binding;
+    }
+
+    private List<SchemeSymbol> symbolsOf(List<IrBinding> bindings) {
+        List<SchemeSymbol> symbols = new ArrayList<>();
+        for (IrBinding binding : bindings) {
+            symbols.add(binding.getSymbol());
+        }
+        return symbols;
+    }
+}
@@ -0,0 +1,83 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.ir.IrNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A transformation of the intermediate representation which preserves the meaning of the program. Passes are run
+ * by {@link PassManager}, which keeps running them as long as one of them finds something to rewrite.
+ */
+public abstract class OptimizationPass {
+
+    private final String name;
+    private int rewriteCount;
+
+    protected OptimizationPass(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return The name the pass is enabled by, e.g. in the system property
+     * {@link hdm.pk070.jscheme.SchemeConstants#PASSES_PROPERTY}.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Run the pass on a tree.
+     *
+     * @param node
+     *         The root of the tree.
+     * @return The rewritten tree, or {@code node} itself if there was nothing to rewrite.
+     */
+    final IrNode run(IrNode node) {
+        rewriteCount = 0;
+        return rewrite(node);
+    }
+
+    /**
+     * @return The number of rewrites done by the last run.
+     */
+    final int getRewriteCount() {
+        return rewriteCount;
+    }
+
+    /**
+     * Rewrite a node and its children.
+     *
+     * @param node
+     *         The node to rewrite.
+     * @return The rewritten node, or {@code node} itself if there was nothing to rewrite.
+     */
+    protected abstract IrNode rewrite(IrNode node);
+
+    /**
+     * Rewrite the children of a node, leaving the node itself as it is.
+     */
+    protected final IrNode rewriteChildren(IrNode node) {
+        List<IrNode> children = node.getChildren();
+        if (children.isEmpty()) {
+            return node;
+        }
+        List<IrNode> newChildren = new ArrayList<>(children.size());
+        for (IrNode child : children) {
+            newChildren.add(rewrite(child));
+        }
+        return node.withChildren(newChildren);
+    }
+
+    /**
+     * Record a rewrite.
+     *
+     * @param rewrittenNode
+     *         The result of the rewrite.
+     * @return {@code rewrittenNode}.
+     */
+    protected final IrNode countRewrite(IrNode rewrittenNode) {
+        rewriteCount++;
+        return rewrittenNode;
+    }
+}
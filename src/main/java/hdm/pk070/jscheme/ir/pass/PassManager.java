@@ -0,0 +1,225 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.ir.IrConverter;
+import hdm.pk070.jscheme.ir.IrLowering;
+import hdm.pk070.jscheme.ir.IrNode;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Runs the enabled {@link OptimizationPass}es on top-level expressions before they're executed. An expression is
+ * converted by {@link IrConverter}, rewritten by the passes and turned back into a reader form by
+ * {@link IrLowering}. The passes are run one after another, in rounds, until a round finds nothing to rewrite or
+ * {@link #MAX_ROUNDS} rounds have been run.
+ * <br/><br/>
+ * The passes are, in the order they're run:
+ * <br/><br/>
+ * - {@value KnownCallDetection#NAME}: moves lambda expressions bound by let into the single call of them<br/>
+ * - {@value BetaReduction#NAME}: turns calls of lambda expressions into lets<br/>
+ * - {@value ConstantPropagation#NAME}: substitutes constants bound by let and folds 'if's with constant
+ * condition<br/>
+ * - {@value DeadBindingElimination#NAME}: removes unused variables<br/>
+ * <br/>
+ * Each pass can be enabled and disabled on its own. The manager records how often each pass has been run, how
+ * many rewrites it has done and how long it has taken (see {@link #report()}).
+ */
+public final class PassManager {
+
+    /**
+     * The specification enabling every pass.
+     */
+    public static final String ALL_PASSES = "all";
+
+    /**
+     * The specification disabling every pass.
+     */
+    public static final String NO_PASSES = "none";
+
+    /**
+     * The maximum number of times the passes are run on an expression.
+     */
+    static final int MAX_ROUNDS = 8;
+
+    private final Map<String, OptimizationPass> passes;
+    private final Set<String> enabledPasses;
+    private final Map<String, PassStatistics> statistics;
+
+    /**
+     * @return A manager with all passes enabled.
+     */
+    public static PassManager create() {
+        PassManager passManager = new PassManager();
+        passManager.enabledPasses.addAll(passManager.passes.keySet());
+        return passManager;
+    }
+
+    /**
+     * Create a manager from a specification like "constant-propagation,dead-binding-elimination".
+     *
+     * @param specification
+     *         {@link #ALL_PASSES}, {@link #NO_PASSES} or a comma-separated list of the names of the passes to
+     *         enable.
+     * @return The new manager.
+     * @throws IllegalArgumentException
+     *         If the specification names an unknown pass.
+     */
+    public static PassManager forSpecification(String specification) {
+        PassManager passManager = new PassManager();
+        String trimmedSpecification = specification.trim();
+        if (trimmedSpecification.equals(ALL_PASSES)) {
+            passManager.enabledPasses.addAll(passManager.passes.keySet());
+        } else if (!trimmedSpecification.equals(NO_PASSES) && !trimmedSpecification.isEmpty()) {
+            for (String passName : trimmedSpecification.split(",")) {
+                passManager.setEnabled(passName.trim(), true);
+            }
+        }
+        return passManager;
+    }
+
+    private PassManager() {
+        this.passes = new LinkedHashMap<>();
+        for (OptimizationPass pass : Arrays.asList(KnownCallDetection.create(), BetaReduction.create(),
+                ConstantPropagation.create(), DeadBindingElimination.create())) {
+            passes.put(pass.getName(), pass);
+        }
+        this.enabledPasses = new HashSet<>();
+        this.statistics = new LinkedHashMap<>();
+        for (String passName : passes.keySet()) {
+            statistics.put(passName, PassStatistics.create());
+        }
+    }
+
+    /**
+     * @return The names of all passes, in the order they're run.
+     */
+    public List<String> getPassNames() {
+        return new ArrayList<>(passes.keySet());
+    }
+
+    /**
+     * Enable or disable a pass.
+     *
+     * @param passName
+     *         The name of the pass.
+     * @param enabled
+     *         Whether the pass shall be run.
+     * @throws IllegalArgumentException
+     *         If there is no pass of that name.
+     */
+    public void setEnabled(String passName, boolean enabled) {
+        ensurePassExists(passName);
+        if (enabled) {
+            enabledPasses.add(passName);
+        } else {
+            enabledPasses.remove(passName);
+        }
+    }
+
+    public boolean isEnabled(String passName) {
+        ensurePassExists(passName);
+        return enabledPasses.contains(passName);
+    }
+
+    public boolean hasEnabledPasses() {
+        return !enabledPasses.isEmpty();
+    }
+
+    public PassStatistics getStatistics(String passName) {
+        ensurePassExists(passName);
+        return statistics.get(passName);
+    }
+
+    public void resetStatistics() {
+        statistics.values().forEach(PassStatistics::reset);
+    }
+
+    private void ensurePassExists(String passName) {
+        if (!passes.containsKey(passName)) {
+            throw new IllegalArgumentException(String.format("Unknown optimization pass: %s (known passes: %s)",
+                    passName, String.join(", ", passes.keySet())));
+        }
+    }
+
+    /**
+     * Optimize a top-level expression.
+     *
+     * @param expression
+     *         The expression as returned by {@link hdm.pk070.jscheme.reader.SchemeReader}.
+     * @param environment
+     *         The environment the expression will be executed in.
+     * @return The optimized expression, or {@code expression} itself if there was nothing to optimize or the
+     * expression can't be converted.
+     * @throws SchemeError
+     *         If lowering the optimized expression fails.
+     */
+    public SchemeObject optimize(SchemeObject expression, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        if (!hasEnabledPasses()) {
+            return expression;
+        }
+
+        Optional<IrNode> convertedExpression = IrConverter.forEnvironment(environment).convert(expression);
+        if (!convertedExpression.isPresent()) {
+            return expression;
+        }
+        IrNode optimizedExpression = optimize(convertedExpression.get());
+        if (optimizedExpression == convertedExpression.get()) {
+            return expression;
+        }
+        return IrLowering.create().lower(optimizedExpression);
+    }
+
+    /**
+     * Run the enabled passes on a tree until they find nothing to rewrite.
+     *
+     * @param node
+     *         The root of the tree.
+     * @return The optimized tree, or {@code node} itself if there was nothing to rewrite.
+     */
+    public IrNode optimize(IrNode node) {
+        IrNode currentNode = node;
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            int rewriteCount = 0;
+            for (OptimizationPass pass : passes.values()) {
+                if (!enabledPasses.contains(pass.getName())) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                currentNode = pass.run(currentNode);
+                statistics.get(pass.getName()).record(pass.getRewriteCount(), System.nanoTime() - start);
+                rewriteCount += pass.getRewriteCount();
+            }
+            if (rewriteCount == 0) {
+                break;
+            }
+        }
+        return currentNode;
+    }
+
+    /**
+     * @return A table of the statistics of each pass.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder(String.format("%-26s %8s %10s %12s%n", "pass", "runs",
+                "rewrites", "time (ms)"));
+        for (Map.Entry<String, PassStatistics> entry : statistics.entrySet()) {
+            String passName = enabledPasses.contains(entry.getKey()) ? entry.getKey() : entry.getKey() + " (off)";
+            PassStatistics passStatistics = entry.getValue();
+            report.append(String.format("%-26s %8d %10d %12.3f%n", passName, passStatistics.getRuns(),
+                    passStatistics.getRewrites(), passStatistics.getElapsedNanos() / 1e6));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package hdm.pk070.jscheme.ir.pass;
+
+/**
+ * How often an {@link OptimizationPass} has been run, how many rewrites it has done and how long it has taken.
+ */
+public final class PassStatistics {
+
+    private long runs;
+    private long rewrites;
+    private long elapsedNanos;
+
+    static PassStatistics create() {
+        return new PassStatistics();
+    }
+
+    private PassStatistics() {
+    }
+
+    void record(int rewriteCount, long nanos) {
+        runs++;
+        rewrites += rewriteCount;
+        elapsedNanos += nanos;
+    }
+
+    void reset() {
+        runs = 0;
+        rewrites = 0;
+        elapsedNanos = 0;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getRewrites() {
+        return rewrites;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+}
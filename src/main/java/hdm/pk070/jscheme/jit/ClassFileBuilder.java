@@ -0,0 +1,190 @@
+package hdm.pk070.jscheme.jit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal writer for JVM class files, just capable enough for the classes generated by {@link JitCompiler}.
+ * Classes are written in version 49 (Java 5) format, which is verified by type inference and therefore doesn't
+ * require stack map frames.
+ */
+final class ClassFileBuilder {
+
+    private static final int CLASS_FILE_VERSION = 49;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_FIELD_REF = 9;
+    private static final int CONSTANT_METHOD_REF = 10;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private final ByteArrayOutputStream constantPoolBytes;
+    private final DataOutputStream constantPool;
+    private final Map<String, Integer> constantIndices;
+    private int constantCount;
+
+    private final int thisClass;
+    private final int superClass;
+    private final int codeAttributeName;
+    private final List<byte[]> methods;
+
+    /**
+     * Start a new public final class.
+     *
+     * @param className
+     *         The internal name of the class, e.g. "a/b/C".
+     * @param superClassName
+     *         The internal name of the super class.
+     */
+    ClassFileBuilder(String className, String superClassName) {
+        this.constantPoolBytes = new ByteArrayOutputStream();
+        this.constantPool = new DataOutputStream(constantPoolBytes);
+        this.constantIndices = new HashMap<>();
+        this.constantCount = 1;
+        this.methods = new ArrayList<>();
+
+        this.thisClass = classConstant(className);
+        this.superClass = classConstant(superClassName);
+        this.codeAttributeName = utf8Constant("Code");
+    }
+
+    int utf8Constant(String value) {
+        return constant("U" + value, () -> {
+            constantPool.writeByte(CONSTANT_UTF8);
+            constantPool.writeUTF(value);
+        });
+    }
+
+    int integerConstant(int value) {
+        return constant("I" + value, () -> {
+            constantPool.writeByte(CONSTANT_INTEGER);
+            constantPool.writeInt(value);
+        });
+    }
+
+    int classConstant(String className) {
+        int nameIndex = utf8Constant(className);
+        return constant("C" + className, () -> {
+            constantPool.writeByte(CONSTANT_CLASS);
+            constantPool.writeShort(nameIndex);
+        });
+    }
+
+    int fieldConstant(String ownerName, String fieldName, String descriptor) {
+        return memberConstant(CONSTANT_FIELD_REF, ownerName, fieldName, descriptor);
+    }
+
+    int methodConstant(String ownerName, String methodName, String descriptor) {
+        return memberConstant(CONSTANT_METHOD_REF, ownerName, methodName, descriptor);
+    }
+
+    private int memberConstant(int tag, String ownerName, String memberName, String descriptor) {
+        int ownerIndex = classConstant(ownerName);
+        int nameIndex = utf8Constant(memberName);
+        int descriptorIndex = utf8Constant(descriptor);
+        int nameAndTypeIndex = constant("N" + memberName + descriptor, () -> {
+            constantPool.writeByte(CONSTANT_NAME_AND_TYPE);
+            constantPool.writeShort(nameIndex);
+            constantPool.writeShort(descriptorIndex);
+        });
+        return constant(tag + ownerName + "." + memberName + descriptor, () -> {
+            constantPool.writeByte(tag);
+            constantPool.writeShort(ownerIndex);
+            constantPool.writeShort(nameAndTypeIndex);
+        });
+    }
+
+    /**
+     * Add a public method.
+     *
+     * @param methodName
+     *         The method's name.
+     * @param descriptor
+     *         The method's descriptor.
+     * @param methodCode
+     *         The method's instructions.
+     */
+    void addMethod(String methodName, String descriptor, MethodCode methodCode) {
+        int nameIndex = utf8Constant(methodName);
+        int descriptorIndex = utf8Constant(descriptor);
+        byte[] code = methodCode.toByteArray();
+
+        ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+        DataOutputStream method = new DataOutputStream(methodBytes);
+        try {
+            method.writeShort(ACC_PUBLIC);
+            method.writeShort(nameIndex);
+            method.writeShort(descriptorIndex);
+            method.writeShort(1);
+
+            method.writeShort(codeAttributeName);
+            method.writeInt(12 + code.length);
+            method.writeShort(methodCode.getMaxStack());
+            method.writeShort(methodCode.getMaxLocals());
+            method.writeInt(code.length);
+            method.write(code);
+            // Neither exception table nor attributes
+            method.writeShort(0);
+            method.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        methods.add(methodBytes.toByteArray());
+    }
+
+    byte[] toByteArray() {
+        ByteArrayOutputStream classBytes = new ByteArrayOutputStream();
+        DataOutputStream classFile = new DataOutputStream(classBytes);
+        try {
+            classFile.writeInt(0xCAFEBABE);
+            classFile.writeShort(0);
+            classFile.writeShort(CLASS_FILE_VERSION);
+            classFile.writeShort(constantCount);
+            classFile.write(constantPoolBytes.toByteArray());
+            classFile.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            classFile.writeShort(thisClass);
+            classFile.writeShort(superClass);
+            // No interfaces and no fields
+            classFile.writeShort(0);
+            classFile.writeShort(0);
+            classFile.writeShort(methods.size());
+            for (byte[] method : methods) {
+                classFile.write(method);
+            }
+            classFile.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return classBytes.toByteArray();
+    }
+
+    private int constant(String key, ConstantWriter constantWriter) {
+        Integer index = constantIndices.get(key);
+        if (index == null) {
+            try {
+                constantWriter.write();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index = constantCount++;
+            constantIndices.put(key, index);
+        }
+        return index;
+    }
+
+    @FunctionalInterface
+    private interface ConstantWriter {
+        void write() throws IOException;
+    }
+}
@@ -0,0 +1,11 @@
+package hdm.pk070.jscheme.jit;
+
+/**
+ * Thrown if a function body doesn't fit into a single JVM method. Such a body stays interpreted.
+ */
+final class CodeTooLargeException extends RuntimeException {
+
+    CodeTooLargeException(int codeLength) {
+        super(String.format("Generated method exceeds the maximum code length [length: %d]", codeLength));
+    }
+}
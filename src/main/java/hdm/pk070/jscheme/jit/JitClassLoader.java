@@ -0,0 +1,16 @@
+package hdm.pk070.jscheme.jit;
+
+/**
+ * Loads the classes generated by {@link JitCompiler}. Every generated class gets a loader of its own, so it can be
+ * unloaded as soon as the function it belongs to is no longer referenced.
+ */
+final class JitClassLoader extends ClassLoader {
+
+    JitClassLoader() {
+        super(NativeCode.class.getClassLoader());
+    }
+
+    Class<?> defineClass(String className, byte[] classFile) {
+        return defineClass(className, classFile, 0, classFile.length);
+    }
+}
@@ -0,0 +1,398 @@
+package hdm.pk070.jscheme.jit;
+
+import hdm.pk070.jscheme.SchemeConstants;
+import hdm.pk070.jscheme.analyze.node.*;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Second tier of function execution. Once a function body has been called often enough (see
+ * {@link #getCompileThreshold()}), it's translated into a JVM class whose {@link NativeCode#invoke} method does
+ * what executing the body's nodes would do, so HotSpot can compile and inline it like any other Java code. Each
+ * class is loaded by a {@link JitClassLoader} of its own.
+ */
+public class JitCompiler {
+
+    private static final Logger LOGGER = LogManager.getLogger(JitCompiler.class.getName());
+
+    private static final String NATIVE_CODE = "hdm/pk070/jscheme/jit/NativeCode";
+    private static final String JIT_RUNTIME = "hdm/pk070/jscheme/jit/JitRuntime";
+    private static final String SCHEME_OBJECT = "hdm/pk070/jscheme/obj/SchemeObject";
+    private static final String GENERATED_CLASS_PREFIX = "hdm/pk070/jscheme/jit/generated/NativeBody";
+
+    private static final String OBJECT_DESC = "Ljava/lang/Object;";
+    private static final String SCHEME_OBJECT_DESC = "L" + SCHEME_OBJECT + ";";
+    private static final String ENVIRONMENT_DESC = "Lhdm/pk070/jscheme/table/environment/LocalEnvironment;";
+
+    private static final int THIS_LOCAL = 0;
+    private static final int ENVIRONMENT_LOCAL = 1;
+    private static final int CONSTANTS_LOCAL = 2;
+
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+
+    private static volatile int compileThreshold = Integer.getInteger(SchemeConstants.JIT_THRESHOLD_PROPERTY,
+            SchemeConstants.DEFAULT_JIT_THRESHOLD);
+
+    private ClassFileBuilder classFileBuilder;
+    private MethodCode methodCode;
+    private List<Object> constants;
+    private int bodyStart;
+
+    public static JitCompiler getInstance() {
+        return new JitCompiler();
+    }
+
+    private JitCompiler() {
+    }
+
+    /**
+     * @return The number of calls after which a function body gets compiled. Values less than or equal to zero
+     * mean that nothing gets compiled at all.
+     */
+    public static int getCompileThreshold() {
+        return compileThreshold;
+    }
+
+    public static void setCompileThreshold(int compileThreshold) {
+        JitCompiler.compileThreshold = compileThreshold;
+    }
+
+    /**
+     * Generate and load a JVM class for a function body.
+     *
+     * @param analyzedBody
+     *         The function body to compile.
+     * @return An {@link Optional} containing the compiled body or an empty {@link Optional} if the body is too large
+     * for a single JVM method.
+     */
+    public Optional<NativeCode> compile(AnalyzedBody analyzedBody) {
+        String className = GENERATED_CLASS_PREFIX + CLASS_COUNTER.incrementAndGet();
+        try {
+            byte[] classFile = generateClass(className, analyzedBody.getBodyNode());
+            Class<?> nativeCodeClass = new JitClassLoader().defineClass(className.replace('/', '.'), classFile);
+            NativeCode nativeCode = (NativeCode) nativeCodeClass.getConstructor(Object[].class).newInstance(
+                    (Object) constants.toArray());
+
+            LOGGER.debug("Compiled function body to {} ({} bytes)", className, classFile.length);
+            return Optional.of(nativeCode);
+        } catch (CodeTooLargeException e) {
+            LOGGER.warn("Unable to compile function body, it stays interpreted", e);
+            return Optional.empty();
+        } catch (ReflectiveOperationException e) {
+            // Every generated class has the constructor, so this is a bug just like a VerifyError
+            throw new IllegalStateException(String.format("Unable to instantiate %s", className), e);
+        }
+    }
+
+    private byte[] generateClass(String className, ExecutionNode bodyNode) {
+        classFileBuilder = new ClassFileBuilder(className, NATIVE_CODE);
+        constants = new ArrayList<>();
+
+        String constructorDesc = "([" + OBJECT_DESC + ")V";
+        MethodCode constructorCode = new MethodCode(2);
+        constructorCode.emitByte(MethodCode.ALOAD, THIS_LOCAL, 1);
+        constructorCode.emitByte(MethodCode.ALOAD, 1, 1);
+        constructorCode.emitShort(MethodCode.INVOKESPECIAL, classFileBuilder.methodConstant(NATIVE_CODE, "<init>",
+                constructorDesc), -2);
+        constructorCode.emit(MethodCode.RETURN, 0);
+        classFileBuilder.addMethod("<init>", constructorDesc, constructorCode);
+
+        methodCode = new MethodCode(3);
+        methodCode.emitByte(MethodCode.ALOAD, THIS_LOCAL, 1);
+        methodCode.emitShort(MethodCode.GETFIELD, classFileBuilder.fieldConstant(NATIVE_CODE, "constants", "[" +
+                OBJECT_DESC), 0);
+        methodCode.emitByte(MethodCode.ASTORE, CONSTANTS_LOCAL, -1);
+        bodyStart = methodCode.position();
+        generateNode(bodyNode);
+        methodCode.emit(MethodCode.ARETURN, -1);
+        classFileBuilder.addMethod("invoke", "(" + ENVIRONMENT_DESC + ")" + SCHEME_OBJECT_DESC, methodCode);
+
+        return classFileBuilder.toByteArray();
+    }
+
+    /**
+     * Generate the instructions for a node. They leave the node's value on top of the operand stack.
+     */
+    private void generateNode(ExecutionNode node) {
+        if (node instanceof ConstantNode) {
+            loadConstant(((ConstantNode) node).getValue());
+            methodCode.emitShort(MethodCode.CHECKCAST, classFileBuilder.classConstant(SCHEME_OBJECT), 0);
+        } else if (node instanceof LocalVariableNode) {
+            LocalVariableNode variableNode = (LocalVariableNode) node;
+            loadEnvironment();
+            pushInt(variableNode.getDepth());
+            pushInt(variableNode.getSlot());
+            loadConstant(variableNode.getSymbol());
+            invokeRuntime("loadLocal", "(" + ENVIRONMENT_DESC + "II" + OBJECT_DESC + ")" + SCHEME_OBJECT_DESC, 4);
+        } else if (node instanceof GlobalVariableNode) {
+            loadConstant(node);
+            invokeRuntime("loadGlobal", "(" + OBJECT_DESC + ")" + SCHEME_OBJECT_DESC, 1);
+        } else if (node instanceof VariableNode) {
+            loadEnvironment();
+            loadConstant(((VariableNode) node).getSymbol());
+            invokeRuntime("loadName", "(" + ENVIRONMENT_DESC + OBJECT_DESC + ")" + SCHEME_OBJECT_DESC, 2);
+        } else if (node instanceof DefineNode) {
+            loadEnvironment();
+            loadConstant(((DefineNode) node).getSymbol());
+            generateNode(((DefineNode) node).getValueNode());
+            invokeRuntime("define", "(" + ENVIRONMENT_DESC + OBJECT_DESC + SCHEME_OBJECT_DESC + ")" +
+                    SCHEME_OBJECT_DESC, 3);
+        } else if (node instanceof LocalDefineNode) {
+            LocalDefineNode defineNode = (LocalDefineNode) node;
+            loadEnvironment();
+            pushInt(defineNode.getSlot());
+            loadConstant(defineNode.getSymbol());
+            generateNode(defineNode.getValueNode());
+            invokeRuntime("defineLocal", "(" + ENVIRONMENT_DESC + "I" + OBJECT_DESC + SCHEME_OBJECT_DESC + ")" +
+                    SCHEME_OBJECT_DESC, 4);
+        } else if (node instanceof LocalSetNode) {
+            LocalSetNode setNode = (LocalSetNode) node;
+            loadEnvironment();
+            pushInt(setNode.getDepth());
+            pushInt(setNode.getSlot());
+            loadConstant(setNode.getSymbol());
+            generateNode(setNode.getValueNode());
+            invokeRuntime("setLocal", "(" + ENVIRONMENT_DESC + "II" + OBJECT_DESC + SCHEME_OBJECT_DESC + ")" +
+                    SCHEME_OBJECT_DESC, 5);
+        } else if (node instanceof SetNode) {
+            loadEnvironment();
+            loadConstant(((SetNode) node).getSymbol());
+            generateNode(((SetNode) node).getValueNode());
+            invokeRuntime("setName", "(" + ENVIRONMENT_DESC + OBJECT_DESC + SCHEME_OBJECT_DESC + ")" +
+                    SCHEME_OBJECT_DESC, 3);
+        } else if (node instanceof LambdaNode) {
+            loadConstant(node);
+            loadEnvironment();
+            invokeRuntime("makeClosure", "(" + OBJECT_DESC + ENVIRONMENT_DESC + ")" + SCHEME_OBJECT_DESC, 2);
+        } else if (node instanceof IfNode) {
+            generateIf((IfNode) node);
+        } else if (node instanceof SequenceNode) {
+            ExecutionNode[] nodes = ((SequenceNode) node).getNodes();
+            for (int i = 0; i < nodes.length - 1; i++) {
+                generateNode(nodes[i]);
+                methodCode.emit(MethodCode.POP, -1);
+            }
+            generateNode(nodes[nodes.length - 1]);
+        } else if (node instanceof ArithmeticNode) {
+            generateArithmetic((ArithmeticNode) node);
+        } else if (node instanceof ApplicationNode) {
+            generateApplication((ApplicationNode) node);
+        } else if (node instanceof InlinedCallNode) {
+            generateInlinedCall((InlinedCallNode) node);
+        } else if (node instanceof ConstantGlobalNode) {
+            ConstantGlobalNode constantNode = (ConstantGlobalNode) node;
+            generateSpeculativeConstant(constantNode, constantNode.getValue(), constantNode.getVariableNode());
+        } else if (node instanceof FoldedCallNode) {
+            FoldedCallNode foldedCallNode = (FoldedCallNode) node;
+            generateSpeculativeConstant(foldedCallNode, foldedCallNode.getValue(), foldedCallNode.getCallNode());
+        } else if (node instanceof ModuloConsCallNode && !((ModuloConsCallNode) node).isTailPosition()) {
+            // Only in tail position the list is built by the node's loop
+            generateNode(((ModuloConsCallNode) node).getCallNode());
+        } else {
+            // No JVM equivalent, execute the node itself
+            loadConstant(node);
+            loadEnvironment();
+            invokeRuntime("executeNode", "(" + OBJECT_DESC + ENVIRONMENT_DESC + ")" + SCHEME_OBJECT_DESC, 2);
+        }
+    }
+
+    private void generateIf(IfNode ifNode) {
+        generateNode(ifNode.getConditionNode());
+        invokeRuntime("isConditionMet", "(" + SCHEME_OBJECT_DESC + ")Z", 1);
+        int elseJump = methodCode.emitJump(MethodCode.IFEQ, -1);
+        int branchStackDepth = methodCode.getStackDepth();
+
+        generateNode(ifNode.getConditionMetNode());
+        int endJump = methodCode.emitJump(MethodCode.GOTO, 0);
+
+        methodCode.patchJump(elseJump);
+        methodCode.setStackDepth(branchStackDepth);
+        generateNode(ifNode.getElseNode());
+        methodCode.patchJump(endJump);
+    }
+
+    private void generateInlinedCall(InlinedCallNode inlinedCallNode) {
+        loadConstant(inlinedCallNode);
+        invokeRuntime("isValid", "(" + OBJECT_DESC + ")Z", 1);
+        int callJump = methodCode.emitJump(MethodCode.IFEQ, -1);
+        int branchStackDepth = methodCode.getStackDepth();
+
+        generateNode(inlinedCallNode.getInlinedNode());
+        int endJump = methodCode.emitJump(MethodCode.GOTO, 0);
+
+        methodCode.patchJump(callJump);
+        methodCode.setStackDepth(branchStackDepth);
+        generateNode(inlinedCallNode.getCallNode());
+        methodCode.patchJump(endJump);
+    }
+
+    /**
+     * Generate the instructions for a value computed during analysis. The value is embedded as a constant, the node
+     * it has been derived from is executed once the speculation has become invalid.
+     */
+    private void generateSpeculativeConstant(Speculation speculation, SchemeObject value, ExecutionNode
+            fallbackNode) {
+        loadConstant(speculation);
+        invokeRuntime("isValid", "(" + OBJECT_DESC + ")Z", 1);
+        int fallbackJump = methodCode.emitJump(MethodCode.IFEQ, -1);
+        int branchStackDepth = methodCode.getStackDepth();
+
+        loadConstant(value);
+        methodCode.emitShort(MethodCode.CHECKCAST, classFileBuilder.classConstant(SCHEME_OBJECT), 0);
+        int endJump = methodCode.emitJump(MethodCode.GOTO, 0);
+
+        methodCode.patchJump(fallbackJump);
+        methodCode.setStackDepth(branchStackDepth);
+        generateNode(fallbackNode);
+        methodCode.patchJump(endJump);
+    }
+
+    /**
+     * Generate an arithmetic call which keeps using the node's speculation on operand types. If the function slot
+     * doesn't evaluate to the built-in function, the node itself performs the call.
+     */
+    private void generateArithmetic(ArithmeticNode arithmeticNode) {
+        generateNode(arithmeticNode.getFunctionNode());
+        methodCode.emit(MethodCode.DUP, 1);
+        loadConstant(arithmeticNode);
+        invokeRuntime("isOperation", "(" + SCHEME_OBJECT_DESC + OBJECT_DESC + ")Z", 2);
+        int genericJump = methodCode.emitJump(MethodCode.IFEQ, -1);
+        int genericStackDepth = methodCode.getStackDepth();
+
+        ExecutionNode[] operandNodes = arithmeticNode.getArgumentNodes();
+        generateNode(operandNodes[0]);
+        generateNode(operandNodes[1]);
+        loadConstant(arithmeticNode);
+        invokeRuntime("arithmetic", "(" + SCHEME_OBJECT_DESC + SCHEME_OBJECT_DESC + SCHEME_OBJECT_DESC +
+                OBJECT_DESC + ")" + SCHEME_OBJECT_DESC, 4);
+        int endJump = methodCode.emitJump(MethodCode.GOTO, 0);
+
+        methodCode.patchJump(genericJump);
+        methodCode.setStackDepth(genericStackDepth);
+        methodCode.emit(MethodCode.POP, -1);
+        loadConstant(arithmeticNode);
+        loadEnvironment();
+        invokeRuntime("executeNode", "(" + OBJECT_DESC + ENVIRONMENT_DESC + ")" + SCHEME_OBJECT_DESC, 2);
+        methodCode.patchJump(endJump);
+    }
+
+    private void generateApplication(ApplicationNode applicationNode) {
+        ExecutionNode functionNode = applicationNode.getFunctionNode();
+        if (functionNode instanceof GlobalVariableNode && !applicationNode.isSelfCallCandidate()) {
+            generateLinkedApplication(applicationNode);
+            return;
+        }
+        generateNode(functionNode);
+
+        // A lambda expression never evaluates to syntax, everything else might
+        int syntaxEndJump = -1;
+        if (!(functionNode instanceof LambdaNode)) {
+            methodCode.emit(MethodCode.DUP, 1);
+            invokeRuntime("isSyntax", "(" + SCHEME_OBJECT_DESC + ")Z", 1);
+            int callJump = methodCode.emitJump(MethodCode.IFEQ, -1);
+            int callStackDepth = methodCode.getStackDepth();
+
+            loadConstant(applicationNode.getArgumentList());
+            loadEnvironment();
+            invokeRuntime("applySyntax", "(" + SCHEME_OBJECT_DESC + OBJECT_DESC + ENVIRONMENT_DESC + ")" +
+                    SCHEME_OBJECT_DESC, 3);
+            syntaxEndJump = methodCode.emitJump(MethodCode.GOTO, 0);
+
+            methodCode.patchJump(callJump);
+            methodCode.setStackDepth(callStackDepth);
+        }
+
+        ExecutionNode[] argumentNodes = applicationNode.getArgumentNodes();
+        pushInt(argumentNodes.length);
+        methodCode.emitShort(MethodCode.ANEWARRAY, classFileBuilder.classConstant(SCHEME_OBJECT), 0);
+        for (int i = 0; i < argumentNodes.length; i++) {
+            methodCode.emit(MethodCode.DUP, 1);
+            pushInt(i);
+            generateNode(argumentNodes[i]);
+            methodCode.emit(MethodCode.AASTORE, -3);
+        }
+
+        // In tail position, function and arguments are the only operands, so a self call can jump back to the start
+        if (applicationNode.isSelfCallCandidate() && methodCode.getStackDepth() == 2) {
+            methodCode.emit(MethodCode.DUP2, 2);
+            loadEnvironment();
+            loadConstant(applicationNode);
+            invokeRuntime("rebindSelfCall", "(" + SCHEME_OBJECT_DESC + "[" + SCHEME_OBJECT_DESC + ENVIRONMENT_DESC +
+                    OBJECT_DESC + ")Z", 4);
+            int callJump = methodCode.emitJump(MethodCode.IFEQ, -1);
+            methodCode.emit(MethodCode.POP2, -2);
+            methodCode.emitJumpTo(MethodCode.GOTO, bodyStart, 0);
+
+            methodCode.patchJump(callJump);
+            methodCode.setStackDepth(2);
+        }
+
+        loadConstant(InlineCache.forFunctionSlot(applicationNode.getFunctionSlot()));
+        invokeRuntime(applicationNode.isTailPosition() ? "tailCall" : "call", "(" + SCHEME_OBJECT_DESC + "[" +
+                SCHEME_OBJECT_DESC + OBJECT_DESC + ")" + SCHEME_OBJECT_DESC, 3);
+
+        if (syntaxEndJump != -1) {
+            methodCode.patchJump(syntaxEndJump);
+        }
+    }
+
+    /**
+     * Generate a call of a global procedure through the call's {@link GlobalCallSite}. As long as the site is not
+     * linked to a procedure, e.g. because the call hasn't been executed yet, the node itself performs the call.
+     */
+    private void generateLinkedApplication(ApplicationNode applicationNode) {
+        loadConstant(applicationNode);
+        invokeRuntime("isLinked", "(" + OBJECT_DESC + ")Z", 1);
+        int genericJump = methodCode.emitJump(MethodCode.IFEQ, -1);
+        int genericStackDepth = methodCode.getStackDepth();
+
+        ExecutionNode[] argumentNodes = applicationNode.getArgumentNodes();
+        pushInt(argumentNodes.length);
+        methodCode.emitShort(MethodCode.ANEWARRAY, classFileBuilder.classConstant(SCHEME_OBJECT), 0);
+        for (int i = 0; i < argumentNodes.length; i++) {
+            methodCode.emit(MethodCode.DUP, 1);
+            pushInt(i);
+            generateNode(argumentNodes[i]);
+            methodCode.emit(MethodCode.AASTORE, -3);
+        }
+        loadConstant(applicationNode);
+        invokeRuntime("callLinked", "([" + SCHEME_OBJECT_DESC + OBJECT_DESC + ")" + SCHEME_OBJECT_DESC, 2);
+        int endJump = methodCode.emitJump(MethodCode.GOTO, 0);
+
+        methodCode.patchJump(genericJump);
+        methodCode.setStackDepth(genericStackDepth);
+        loadConstant(applicationNode);
+        loadEnvironment();
+        invokeRuntime("executeNode", "(" + OBJECT_DESC + ENVIRONMENT_DESC + ")" + SCHEME_OBJECT_DESC, 2);
+        methodCode.patchJump(endJump);
+    }
+
+    private void loadEnvironment() {
+        methodCode.emitByte(MethodCode.ALOAD, ENVIRONMENT_LOCAL, 1);
+    }
+
+    private void loadConstant(Object constant) {
+        constants.add(constant);
+        methodCode.emitByte(MethodCode.ALOAD, CONSTANTS_LOCAL, 1);
+        pushInt(constants.size() - 1);
+        methodCode.emit(MethodCode.AALOAD, -1);
+    }
+
+    private void pushInt(int value) {
+        methodCode.pushInt(value, classFileBuilder);
+    }
+
+    /**
+     * Call a {@link JitRuntime} method returning a single value.
+     */
+    private void invokeRuntime(String methodName, String descriptor, int argumentCount) {
+        methodCode.emitShort(MethodCode.INVOKESTATIC, classFileBuilder.methodConstant(JIT_RUNTIME, methodName,
+                descriptor), 1 - argumentCount);
+    }
+}
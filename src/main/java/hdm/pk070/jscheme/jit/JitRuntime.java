@@ -0,0 +1,147 @@
+package hdm.pk070.jscheme.jit;
+
+import hdm.pk070.jscheme.analyze.node.ApplicationNode;
+import hdm.pk070.jscheme.analyze.node.ArithmeticNode;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.analyze.node.GlobalCallSite;
+import hdm.pk070.jscheme.analyze.node.GlobalVariableNode;
+import hdm.pk070.jscheme.analyze.node.InlineCache;
+import hdm.pk070.jscheme.analyze.node.LambdaNode;
+import hdm.pk070.jscheme.analyze.node.LocalDefineNode;
+import hdm.pk070.jscheme.analyze.node.LocalSetNode;
+import hdm.pk070.jscheme.analyze.node.LocalVariableNode;
+import hdm.pk070.jscheme.analyze.node.SetNode;
+import hdm.pk070.jscheme.analyze.node.Speculation;
+import hdm.pk070.jscheme.analyze.node.VariableNode;
+import hdm.pk070.jscheme.budget.ExecutionBudget;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * Operations called by the classes generated by {@link JitCompiler}. They are small and static, so HotSpot inlines
+ * them into the generated code. Objects taken from the constant array are passed as {@link Object}, which keeps the
+ * generated code free of casts.
+ */
+public final class JitRuntime {
+
+    private JitRuntime() {
+    }
+
+    public static SchemeObject loadLocal(LocalEnvironment environment, int depth, int slot, Object symbol) throws
+            SchemeError {
+        return LocalVariableNode.lookup(environment, depth, slot, (SchemeSymbol) symbol);
+    }
+
+    public static SchemeObject loadGlobal(Object globalVariableNode) throws SchemeError {
+        return ((GlobalVariableNode) globalVariableNode).getValue();
+    }
+
+    public static SchemeObject loadName(LocalEnvironment environment, Object symbol) throws SchemeError {
+        return VariableNode.lookup(environment, (SchemeSymbol) symbol);
+    }
+
+    public static SchemeObject define(LocalEnvironment environment, Object symbol, SchemeObject value) throws
+            SchemeError {
+        environment.add(EnvironmentEntry.create((SchemeSymbol) symbol, value));
+        return new SchemeVoid();
+    }
+
+    public static SchemeObject defineLocal(LocalEnvironment environment, int slot, Object symbol, SchemeObject
+            value) {
+        LocalDefineNode.define(environment, slot, (SchemeSymbol) symbol, value);
+        return new SchemeVoid();
+    }
+
+    public static SchemeObject setLocal(LocalEnvironment environment, int depth, int slot, Object symbol,
+                                        SchemeObject value) throws SchemeError {
+        LocalSetNode.assign(environment, depth, slot, (SchemeSymbol) symbol, value);
+        return new SchemeVoid();
+    }
+
+    public static SchemeObject setName(LocalEnvironment environment, Object symbol, SchemeObject value) throws
+            SchemeError {
+        SetNode.assign(environment, (SchemeSymbol) symbol, value);
+        return new SchemeVoid();
+    }
+
+    public static SchemeObject makeClosure(Object lambdaNode, LocalEnvironment environment) {
+        return ((LambdaNode) lambdaNode).createClosure(environment);
+    }
+
+    public static boolean isConditionMet(SchemeObject conditionValue) {
+        return SchemeBuiltinIf.isConditionMet(conditionValue);
+    }
+
+    public static boolean isSyntax(SchemeObject function) {
+        return function.hasType(SchemeType.BUILTIN_SYNTAX);
+    }
+
+    public static SchemeObject applySyntax(SchemeObject builtinSyntax, Object argumentList, LocalEnvironment
+            environment) throws SchemeError {
+        return ((SchemeBuiltinSyntax) builtinSyntax).apply((SchemeObject) argumentList, environment);
+    }
+
+    public static SchemeObject call(SchemeObject function, SchemeObject[] arguments, Object inlineCache) throws
+            SchemeError {
+        if (((InlineCache) inlineCache).kindOf(function) == InlineCache.BUILTIN_FUNCTION) {
+            return FunctionInvoker.invokeBuiltinFunction((SchemeBuiltinFunction) function, arguments);
+        }
+        return FunctionInvoker.invokeCustomUserFunction((SchemeCustomUserFunction) function, arguments);
+    }
+
+    public static boolean isLinked(Object applicationNode) {
+        GlobalCallSite globalCallSite = ((ApplicationNode) applicationNode).getGlobalCallSite();
+        return Objects.nonNull(globalCallSite) && globalCallSite.isLinked();
+    }
+
+    public static SchemeObject callLinked(SchemeObject[] arguments, Object applicationNode) throws SchemeError {
+        return ((ApplicationNode) applicationNode).getGlobalCallSite().invoke(arguments);
+    }
+
+    public static SchemeObject tailCall(SchemeObject function, SchemeObject[] arguments, Object inlineCache) throws
+            SchemeError {
+        if (((InlineCache) inlineCache).kindOf(function) == InlineCache.BUILTIN_FUNCTION) {
+            return FunctionInvoker.invokeBuiltinFunction((SchemeBuiltinFunction) function, arguments);
+        }
+        return FunctionInvoker.createTailCall((SchemeCustomUserFunction) function, arguments);
+    }
+
+    public static boolean rebindSelfCall(SchemeObject function, SchemeObject[] arguments, LocalEnvironment
+            environment, Object applicationNode) throws SchemeError {
+        if (((ApplicationNode) applicationNode).rebindSelfCall(function, arguments, environment)) {
+            // The compiled body jumps back to its start
+            ExecutionBudget.consumeFuel();
+            return true;
+        }
+        return false;
+    }
+
+    public static boolean isValid(Object speculation) {
+        return ((Speculation) speculation).isValid();
+    }
+
+    public static boolean isOperation(SchemeObject function, Object arithmeticNode) {
+        return ((ArithmeticNode) arithmeticNode).isOperation(function);
+    }
+
+    public static SchemeObject arithmetic(SchemeObject function, SchemeObject operand1, SchemeObject operand2,
+                                          Object arithmeticNode) throws SchemeError {
+        return ((ArithmeticNode) arithmeticNode).apply(function, operand1, operand2);
+    }
+
+    public static SchemeObject executeNode(Object executionNode, LocalEnvironment environment) throws SchemeError {
+        return ((ExecutionNode) executionNode).execute(environment);
+    }
+}
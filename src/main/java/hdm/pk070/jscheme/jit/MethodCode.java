@@ -0,0 +1,162 @@
+package hdm.pk070.jscheme.jit;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The instructions of a single method being generated by {@link JitCompiler}. Keeps track of the operand stack
+ * depth to compute the method's max stack size.
+ */
+final class MethodCode {
+
+    static final int ICONST_0 = 0x03;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int ALOAD = 0x19;
+    static final int AALOAD = 0x32;
+    static final int ASTORE = 0x3a;
+    static final int AASTORE = 0x53;
+    static final int POP = 0x57;
+    static final int POP2 = 0x58;
+    static final int DUP = 0x59;
+    static final int DUP2 = 0x5c;
+    static final int IFEQ = 0x99;
+    static final int GOTO = 0xa7;
+    static final int ARETURN = 0xb0;
+    static final int RETURN = 0xb1;
+    static final int GETFIELD = 0xb4;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int ANEWARRAY = 0xbd;
+    static final int CHECKCAST = 0xc0;
+
+    private static final int MAX_CODE_LENGTH = 65535;
+
+    private final ByteArrayOutputStream code;
+    private final int maxLocals;
+    private int stackDepth;
+    private int maxStack;
+    private final List<int[]> jumps;
+
+    MethodCode(int maxLocals) {
+        this.code = new ByteArrayOutputStream();
+        this.maxLocals = maxLocals;
+        this.stackDepth = 0;
+        this.maxStack = 0;
+        this.jumps = new ArrayList<>();
+    }
+
+    /**
+     * Append an instruction without operands.
+     *
+     * @param opcode
+     *         The instruction's opcode.
+     * @param stackEffect
+     *         The change of the operand stack depth caused by the instruction.
+     */
+    void emit(int opcode, int stackEffect) {
+        code.write(opcode);
+        adjustStack(stackEffect);
+    }
+
+    /**
+     * Append an instruction with a single one-byte operand.
+     */
+    void emitByte(int opcode, int operand, int stackEffect) {
+        code.write(opcode);
+        code.write(operand);
+        adjustStack(stackEffect);
+    }
+
+    /**
+     * Append an instruction with a single two-byte operand, e.g. a constant pool index.
+     */
+    void emitShort(int opcode, int operand, int stackEffect) {
+        code.write(opcode);
+        code.write(operand >> 8);
+        code.write(operand);
+        adjustStack(stackEffect);
+    }
+
+    void pushInt(int value, ClassFileBuilder classFileBuilder) {
+        if (value >= -1 && value <= 5) {
+            emit(ICONST_0 + value, 1);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            emitByte(BIPUSH, value, 1);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            emitShort(SIPUSH, value, 1);
+        } else {
+            emitShort(LDC_W, classFileBuilder.integerConstant(value), 1);
+        }
+    }
+
+    /**
+     * Append a jump whose target is not known yet.
+     *
+     * @return The position of the jump, to be passed to {@link #patchJump(int)}.
+     */
+    int emitJump(int opcode, int stackEffect) {
+        int position = position();
+        emitShort(opcode, 0, stackEffect);
+        return position;
+    }
+
+    /**
+     * Append a jump to a position which has already been emitted, i.e. a backward jump.
+     */
+    void emitJumpTo(int opcode, int targetPosition, int stackEffect) {
+        int position = emitJump(opcode, stackEffect);
+        jumps.add(new int[]{position, targetPosition});
+    }
+
+    /**
+     * Let a jump continue at the current position.
+     */
+    void patchJump(int jumpPosition) {
+        jumps.add(new int[]{jumpPosition, position()});
+    }
+
+    int position() {
+        return code.size();
+    }
+
+    /**
+     * Set the operand stack depth explicitly, e.g. at the start of a branch.
+     */
+    void setStackDepth(int stackDepth) {
+        this.stackDepth = stackDepth;
+    }
+
+    int getStackDepth() {
+        return stackDepth;
+    }
+
+    int getMaxStack() {
+        return maxStack;
+    }
+
+    int getMaxLocals() {
+        return maxLocals;
+    }
+
+    byte[] toByteArray() {
+        byte[] bytes = code.toByteArray();
+        if (bytes.length > MAX_CODE_LENGTH) {
+            throw new CodeTooLargeException(bytes.length);
+        }
+        // Jump offsets are relative to the jump instruction itself
+        for (int[] jump : jumps) {
+            int offset = jump[1] - jump[0];
+            bytes[jump[0] + 1] = (byte) (offset >> 8);
+            bytes[jump[0] + 2] = (byte) offset;
+        }
+        return bytes;
+    }
+
+    private void adjustStack(int stackEffect) {
+        stackDepth += stackEffect;
+        maxStack = Math.max(maxStack, stackDepth);
+    }
+}
@@ -0,0 +1,30 @@
+package hdm.pk070.jscheme.jit;
+
+import hdm.pk070.jscheme.analyze.node.AnalyzedBody;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+
+/**
+ * Base class of the JVM classes generated by {@link JitCompiler}. Each subclass implements the body of a single
+ * {@link AnalyzedBody}. Objects referenced by the generated code are kept in a constant array.
+ */
+public abstract class NativeCode {
+
+    protected final Object[] constants;
+
+    protected NativeCode(Object[] constants) {
+        this.constants = constants;
+    }
+
+    /**
+     * Run the compiled function body.
+     *
+     * @param functionEnvironment
+     *         The environment holding the call's arguments.
+     * @return The value of the body, possibly a pending tail call.
+     * @throws SchemeError
+     *         If executing the body fails.
+     */
+    public abstract SchemeObject invoke(LocalEnvironment functionEnvironment) throws SchemeError;
+}
@@ -1,15 +1,46 @@
 package hdm.pk070.jscheme.obj;
 
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
 /**
  * This class acts as a base class for all types of JScheme functions.
+ * <br/><br/>
+ * Procedures expose a {@link MethodHandle} entry point (see {@link #getEntryPoint(int)}), which call sites may be
+ * linked to directly instead of dispatching on the kind of callee on every call.
  *
  * @author patrick.kleindienst
  */
 public class SchemeFunction extends SchemeObject {
 
+    /**
+     * The type of all entry points: the evaluated arguments are passed as array, the result is returned.
+     */
+    public static final MethodType ENTRY_POINT_TYPE = MethodType.methodType(SchemeObject.class, SchemeObject[]
+            .class);
+
+    private static final MethodHandle INVOKE_FUNCTION;
+
+    static {
+        try {
+            INVOKE_FUNCTION = MethodHandles.lookup().findStatic(FunctionInvoker.class, "invokeFunction", MethodType
+                    .methodType(SchemeObject.class, SchemeObject.class, SchemeObject[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private final String internalName;
 
     protected SchemeFunction(String internalName) {
+        this(internalName, SchemeType.FUNCTION);
+    }
+
+    protected SchemeFunction(String internalName, SchemeType type) {
+        super(type);
         this.internalName = internalName;
     }
 
@@ -17,6 +48,19 @@ public class SchemeFunction extends SchemeObject {
         return this.internalName;
     }
 
+    /**
+     * Get a handle calling this procedure, of type {@link #ENTRY_POINT_TYPE}.
+     *
+     * @param argumentCount
+     *         The number of arguments the handle is going to be invoked with. Procedures may return a handle which
+     *         only accepts exactly that many arguments.
+     * @return The entry point. By default, the handle calls
+     * {@link FunctionInvoker#invokeFunction(SchemeObject, SchemeObject[])} with this procedure.
+     */
+    public MethodHandle getEntryPoint(int argumentCount) {
+        return INVOKE_FUNCTION.bindTo(this);
+    }
+
     @Override
     public Object getValue() {
         throw new UnsupportedOperationException();
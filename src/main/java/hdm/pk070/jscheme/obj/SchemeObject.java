@@ -10,8 +10,31 @@ import java.util.Objects;
 public abstract class SchemeObject {
 
 
-    protected SchemeObject() {
+    private final SchemeType type;
 
+    protected SchemeObject(SchemeType type) {
+        this.type = type;
+    }
+
+    /**
+     * Get the type tag which has been assigned to this object on construction.
+     *
+     * @return The type tag.
+     */
+    public final SchemeType getType() {
+        return type;
+    }
+
+    /**
+     * Check if a {@link SchemeObject} carries a certain type tag. Unlike {@link #typeOf(Class)}, this is a plain
+     * comparison.
+     *
+     * @param type
+     *         The type tag the object shall be checked against.
+     * @return True if this object's type tag is <code>type</code>, false otherwise.
+     */
+    public final boolean hasType(SchemeType type) {
+        return getType() == type;
     }
 
 
@@ -0,0 +1,73 @@
+package hdm.pk070.jscheme.obj;
+
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+
+/**
+ * The type tag every {@link SchemeObject} carries from construction on. Checking a tag is a plain comparison, so
+ * hot paths use {@link SchemeObject#hasType(SchemeType)} and the category checks below instead of
+ * {@link SchemeObject#typeOf(Class)} and {@link SchemeObject#subtypeOf(Class)}.
+ */
+public enum SchemeType {
+
+    SYMBOL(Category.SYMBOL),
+    NIL(Category.SYMBOL),
+    TRUE(Category.BOOL),
+    FALSE(Category.BOOL),
+    VOID(Category.OTHER),
+    STRING(Category.OTHER),
+    CONS(Category.OTHER),
+    ERROR_OBJECT(Category.OTHER),
+    INTEGER(Category.NUMBER),
+    FRACTION(Category.NUMBER),
+    FLOAT(Category.NUMBER),
+    BUILTIN_FUNCTION(Category.FUNCTION),
+    CUSTOM_FUNCTION(Category.FUNCTION),
+    FUNCTION(Category.FUNCTION),
+    BUILTIN_SYNTAX(Category.OTHER),
+    /**
+     * A call in tail position which is still to be performed by the caller.
+     */
+    TAIL_CALL(Category.OTHER),
+    /**
+     * Objects which are used by the interpreter internally and never show up as a value of an expression.
+     */
+    INTERNAL(Category.OTHER);
+
+    private enum Category {
+        SYMBOL, BOOL, NUMBER, FUNCTION, OTHER
+    }
+
+    private final Category category;
+
+    SchemeType(Category category) {
+        this.category = category;
+    }
+
+    /**
+     * @return True for types which are subtypes of {@link hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber}.
+     */
+    public boolean isNumber() {
+        return category == Category.NUMBER;
+    }
+
+    /**
+     * @return True for types which are subtypes of {@link hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeBool}.
+     */
+    public boolean isBool() {
+        return category == Category.BOOL;
+    }
+
+    /**
+     * @return True for types which are subtypes of {@link SchemeSymbol}, including nil and booleans.
+     */
+    public boolean isSymbol() {
+        return category == Category.SYMBOL || category == Category.BOOL;
+    }
+
+    /**
+     * @return True for types which are subtypes of {@link SchemeFunction}.
+     */
+    public boolean isFunction() {
+        return category == Category.FUNCTION;
+    }
+}
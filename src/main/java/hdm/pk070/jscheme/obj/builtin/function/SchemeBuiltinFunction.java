@@ -3,18 +3,44 @@ package hdm.pk070.jscheme.obj.builtin.function;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeFunction;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.stack.SchemeCallStack;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+
 /**
  * This class acts as an abstraction for all implementations of built-in JScheme functions.
+ * <br/><br/>
+ * Besides {@link #call(int)}, which fetches its arguments from {@link SchemeCallStack}, every built-in function can
+ * be called with its arguments passed directly via {@link #call0()}, {@link #call1(SchemeObject)},
+ * {@link #call2(SchemeObject, SchemeObject)}, {@link #call3(SchemeObject, SchemeObject, SchemeObject)} and
+ * {@link #callN(SchemeObject[])}. Their default implementations push the arguments on {@link SchemeCallStack} and
+ * delegate to {@link #call(int)}, so functions only override the entry points which are worth it.
+ * <br/><br/>
+ * The {@link MethodHandle} entry point of a built-in function (see {@link #getEntryPoint(int)}) is bound to the
+ * method matching the number of arguments, so HotSpot can inline e.g. {@code cons} into a linked call site.
  *
  * @author patrick.kleindienst
  */
 public abstract class SchemeBuiltinFunction extends SchemeFunction {
 
 
+    private static final SchemeObject[] NO_ARGUMENTS = new SchemeObject[0];
+
+    /**
+     * Handles of {@link #call0()} to {@link #call3(SchemeObject, SchemeObject, SchemeObject)}, indexed by the number
+     * of arguments.
+     */
+    private static final MethodHandle[] FIXED_ARITY_ENTRY_POINTS = {findEntryPoint("call0", 0), findEntryPoint
+            ("call1", 1), findEntryPoint("call2", 2), findEntryPoint("call3", 3)};
+
+    private static final MethodHandle VARIABLE_ARITY_ENTRY_POINT = findEntryPoint("callN", ENTRY_POINT_TYPE);
+
     protected SchemeBuiltinFunction(final String internalName) {
-        super(internalName);
+        super(internalName, SchemeType.BUILTIN_FUNCTION);
     }
 
     /**
@@ -28,4 +54,135 @@ public abstract class SchemeBuiltinFunction extends SchemeFunction {
      */
     public abstract SchemeObject call(int argCount) throws SchemeError;
 
+    /**
+     * Check whether the function is pure, i.e. its result only depends on its arguments and calling it has no
+     * observable side effects. Calls of pure functions whose arguments are constant may be evaluated once when the
+     * calling function is analyzed.
+     *
+     * @return True if the function is pure, false otherwise.
+     */
+    public boolean isPure() {
+        return false;
+    }
+
+    @Override
+    public MethodHandle getEntryPoint(int argumentCount) {
+        if (argumentCount < FIXED_ARITY_ENTRY_POINTS.length) {
+            return FIXED_ARITY_ENTRY_POINTS[argumentCount].bindTo(this).asSpreader(SchemeObject[].class,
+                    argumentCount);
+        }
+        return VARIABLE_ARITY_ENTRY_POINT.bindTo(this);
+    }
+
+    /**
+     * Calling a built-in function with arguments which have already been evaluated. The call is dispatched to the
+     * entry point matching the number of arguments.
+     *
+     * @param arguments
+     *         The evaluated arguments.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If anything goes wrong during function call (e.g. wrong number or type of arguments).
+     */
+    public final SchemeObject invoke(SchemeObject[] arguments) throws SchemeError {
+        switch (arguments.length) {
+            case 0:
+                return call0();
+            case 1:
+                return call1(arguments[0]);
+            case 2:
+                return call2(arguments[0], arguments[1]);
+            case 3:
+                return call3(arguments[0], arguments[1], arguments[2]);
+            default:
+                return callN(arguments);
+        }
+    }
+
+    /**
+     * Calling a built-in function without arguments.
+     *
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If the function does not accept zero arguments.
+     */
+    public SchemeObject call0() throws SchemeError {
+        return callN(NO_ARGUMENTS);
+    }
+
+    /**
+     * Calling a built-in function with a single argument.
+     *
+     * @param argument
+     *         The evaluated argument.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If anything goes wrong during function call (e.g. wrong number or type of arguments).
+     */
+    public SchemeObject call1(SchemeObject argument) throws SchemeError {
+        return callN(new SchemeObject[]{argument});
+    }
+
+    /**
+     * Calling a built-in function with two arguments.
+     *
+     * @param argument1
+     *         The first evaluated argument.
+     * @param argument2
+     *         The second evaluated argument.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If anything goes wrong during function call (e.g. wrong number or type of arguments).
+     */
+    public SchemeObject call2(SchemeObject argument1, SchemeObject argument2) throws SchemeError {
+        return callN(new SchemeObject[]{argument1, argument2});
+    }
+
+    /**
+     * Calling a built-in function with three arguments.
+     *
+     * @param argument1
+     *         The first evaluated argument.
+     * @param argument2
+     *         The second evaluated argument.
+     * @param argument3
+     *         The third evaluated argument.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If anything goes wrong during function call (e.g. wrong number or type of arguments).
+     */
+    public SchemeObject call3(SchemeObject argument1, SchemeObject argument2, SchemeObject argument3) throws
+            SchemeError {
+        return callN(new SchemeObject[]{argument1, argument2, argument3});
+    }
+
+    /**
+     * Calling a built-in function with any number of arguments. Unless overridden, the arguments are pushed on
+     * {@link SchemeCallStack} from left to right and {@link #call(int)} is called.
+     *
+     * @param arguments
+     *         The evaluated arguments.
+     * @return The result of the function call.
+     * @throws SchemeError
+     *         If anything goes wrong during function call (e.g. wrong number or type of arguments).
+     */
+    public SchemeObject callN(SchemeObject[] arguments) throws SchemeError {
+        for (SchemeObject argument : arguments) {
+            SchemeCallStack.instance().push(argument);
+        }
+        return call(arguments.length);
+    }
+
+    private static MethodHandle findEntryPoint(String methodName, int argumentCount) {
+        return findEntryPoint(methodName, MethodType.methodType(SchemeObject.class, Collections.<Class<?>>nCopies
+                (argumentCount, SchemeObject.class)));
+    }
+
+    private static MethodHandle findEntryPoint(String methodName, MethodType methodType) {
+        try {
+            return MethodHandles.lookup().findVirtual(SchemeBuiltinFunction.class, methodName, methodType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
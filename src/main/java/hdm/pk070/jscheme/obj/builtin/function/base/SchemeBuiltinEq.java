@@ -2,8 +2,8 @@ package hdm.pk070.jscheme.obj.builtin.function.base;
 
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
 import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeBool;
 import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeFalse;
 import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeTrue;
@@ -60,19 +60,29 @@ public class SchemeBuiltinEq extends SchemeBuiltinFunction {
         super("eq?");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeBool call(int argCount) throws SchemeError {
         if (argCount != 2) {
-            throw new SchemeError(String.format("(eq?): arity mismatch, expected number of arguments does not match " +
-                    "the given" + " number [expected: 2, given: %d]", argCount));
+            throw new SchemeError("(eq?): arity mismatch, expected number of arguments does not match " +
+                    "the given" + " number [expected: 2, given: %d]", argCount);
         }
 
         SchemeObject argument2 = SchemeCallStack.instance().pop();
         SchemeObject argument1 = SchemeCallStack.instance().pop();
 
+        return call2(argument1, argument2);
+    }
+
+    @Override
+    public SchemeBool call2(SchemeObject argument1, SchemeObject argument2) {
         if (argument2 == argument1) {
             return new SchemeTrue();
-        } else if (!argument2.typeOf(SchemeCons.class) && argument2.equals(argument1)) {
+        } else if (!argument2.hasType(SchemeType.CONS) && argument2.equals(argument1)) {
             return new SchemeTrue();
         } else {
             return new SchemeFalse();
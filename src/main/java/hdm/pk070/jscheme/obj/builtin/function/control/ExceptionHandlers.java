@@ -0,0 +1,181 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.error.SchemeRaise;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeErrorObject;
+
+import java.util.Objects;
+
+/**
+ * The exception handlers installed by 'with-exception-handler' and 'guard', innermost first.
+ * <br/><br/>
+ * Raising an object calls the innermost handler right away, with the handlers outside of it installed, so neither
+ * a Java exception is thrown nor is the stack unwound. Only if the innermost handler belongs to a 'guard', the
+ * raised object is thrown to it as {@link SchemeRaise}, which records no stack trace. Errors signalled by the
+ * interpreter itself are thrown as usual and passed to the handlers once they've been caught, as an error object.
+ * <br/><br/>
+ * Like {@link hdm.pk070.jscheme.stack.SchemeCallStack}, the handlers are global state.
+ */
+public final class ExceptionHandlers {
+
+    private static final SchemeObject[] NO_ARGUMENTS = new SchemeObject[0];
+
+    private static HandlerFrame innermostFrame = null;
+
+    private ExceptionHandlers() {
+    }
+
+    /**
+     * Call a thunk with a handler installed.
+     *
+     * @param handler
+     *         The handler, a procedure of one argument.
+     * @param thunk
+     *         The procedure to call.
+     * @return The result of the thunk.
+     * @throws SchemeError
+     *         If the thunk fails with an error not served by the handler.
+     */
+    static SchemeObject withExceptionHandler(SchemeObject handler, SchemeObject thunk) throws SchemeError {
+        HandlerFrame frame = new HandlerFrame(handler, innermostFrame);
+        innermostFrame = frame;
+        try {
+            return FunctionInvoker.invokeFunction(thunk, NO_ARGUMENTS);
+        } catch (SchemeError schemeError) {
+            if (!schemeError.isCatchable() || schemeError instanceof SchemeRaise) {
+                throw schemeError;
+            }
+            // An error signalled by the interpreter has already unwound the thunk, so the handler can't return to
+            // the point the error has been signalled at
+            innermostFrame = frame.outerFrame;
+            FunctionInvoker.invokeFunction(handler, new SchemeObject[]{conditionOf(schemeError)});
+            return raise(handlerReturned(conditionOf(schemeError)), false);
+        } finally {
+            innermostFrame = frame.outerFrame;
+        }
+    }
+
+    /**
+     * Call a thunk with the handler of a 'guard' installed.
+     *
+     * @param clauses
+     *         A procedure of one argument, evaluating the clauses of the guard. It returns {@code noMatch} if none
+     *         of the clauses applies.
+     * @param thunk
+     *         The procedure evaluating the body of the guard.
+     * @param noMatch
+     *         The object returned by {@code clauses} if none of the clauses applies.
+     * @return The result of the thunk, or of the clauses if an object has been raised.
+     * @throws SchemeError
+     *         If the thunk fails with an error none of the clauses applies to.
+     */
+    public static SchemeObject guard(SchemeObject clauses, SchemeObject thunk, SchemeObject noMatch) throws
+            SchemeError {
+        HandlerFrame frame = new HandlerFrame(null, innermostFrame);
+        innermostFrame = frame;
+        SchemeError caughtError;
+        try {
+            return FunctionInvoker.invokeFunction(thunk, NO_ARGUMENTS);
+        } catch (SchemeError schemeError) {
+            if (!schemeError.isCatchable() || (schemeError instanceof SchemeRaise && !((SchemeRaise) schemeError)
+                    .isRaisedTo(frame))) {
+                throw schemeError;
+            }
+            caughtError = schemeError;
+        } finally {
+            innermostFrame = frame.outerFrame;
+        }
+
+        SchemeObject condition = conditionOf(caughtError);
+        SchemeObject result = FunctionInvoker.invokeFunction(clauses, new SchemeObject[]{condition});
+        if (result != noMatch) {
+            return result;
+        } else if (caughtError instanceof SchemeRaise) {
+            // Pass the object on to the handlers outside of the guard
+            return raise(condition, ((SchemeRaise) caughtError).isContinuable());
+        }
+        throw caughtError;
+    }
+
+    /**
+     * Raise an object.
+     *
+     * @param payload
+     *         The object to raise.
+     * @param continuable
+     *         Whether the handler may return, making its result the result of this method.
+     * @return The result of the handler if {@code continuable} is set.
+     * @throws SchemeError
+     *         If the innermost handler belongs to a 'guard' or there is no handler, or if the handler returns
+     *         although {@code continuable} isn't set.
+     */
+    static SchemeObject raise(SchemeObject payload, boolean continuable) throws SchemeError {
+        HandlerFrame frame = innermostFrame;
+        if (Objects.isNull(frame) || Objects.isNull(frame.handler)) {
+            throw new SchemeRaise(payload, continuable, frame);
+        }
+
+        // The handler runs with the handlers outside of it installed
+        innermostFrame = frame.outerFrame;
+        try {
+            SchemeObject result = invokeHandler(frame.handler, payload);
+            if (continuable) {
+                return result;
+            }
+            return raise(handlerReturned(payload), false);
+        } finally {
+            innermostFrame = frame;
+        }
+    }
+
+    private static SchemeObject invokeHandler(SchemeObject handler, SchemeObject payload) throws SchemeError {
+        try {
+            return FunctionInvoker.invokeFunction(handler, new SchemeObject[]{payload});
+        } catch (SchemeError schemeError) {
+            if (!schemeError.isCatchable() || schemeError instanceof SchemeRaise) {
+                throw schemeError;
+            }
+            // The Java stack still contains the frames of the handlers the failing handler runs outside of
+            return raise(conditionOf(schemeError), false);
+        }
+    }
+
+    /**
+     * Get the object passed to handlers for an error.
+     *
+     * @param schemeError
+     *         The error.
+     * @return The raised object if the error has been thrown by a raise, an error object describing the error
+     * otherwise.
+     */
+    public static SchemeObject conditionOf(SchemeError schemeError) {
+        if (schemeError instanceof SchemeRaise) {
+            return ((SchemeRaise) schemeError).getPayload();
+        }
+        return SchemeErrorObject.of(schemeError);
+    }
+
+    /**
+     * A handler returning from a non-continuable raise is an error, which is raised to the handlers outside of it.
+     */
+    private static SchemeObject handlerReturned(SchemeObject payload) {
+        return SchemeErrorObject.of(new SchemeError("(raise): handler returned from non-continuable exception %s",
+                payload));
+    }
+
+    /**
+     * A handler installed by 'with-exception-handler', or the place of a 'guard' in the chain of handlers.
+     */
+    public static final class HandlerFrame {
+
+        private final SchemeObject handler;
+        private final HandlerFrame outerFrame;
+
+        private HandlerFrame(SchemeObject handler, HandlerFrame outerFrame) {
+            this.handler = handler;
+            this.outerFrame = outerFrame;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.error.ContinuationEscape;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+
+/**
+ * Calls a procedure with the current continuation as its only argument.
+ * <br/><br/>
+ * >> (call/cc (lambda (return) (+ 1 (return 42))))<br/>
+ * => 42
+ * <br/><br/>
+ * When called as a function, the continuation is captured as {@link SchemeContinuation#escapeOnly()}, which costs
+ * no more than throwing and catching a preallocated exception. The stackless engine captures re-entrant
+ * continuations instead, see {@link hdm.pk070.jscheme.vm.SchemeVirtualMachine}.
+ */
+public final class SchemeBuiltinCallCC extends SchemeBuiltinFunction {
+
+    public static SchemeBuiltinCallCC create() {
+        return new SchemeBuiltinCallCC();
+    }
+
+    private SchemeBuiltinCallCC() {
+        super("call/cc");
+    }
+
+    @Override
+    public SchemeObject call(int argCount) throws SchemeError {
+        if (argCount != 1) {
+            throw new SchemeError("(call/cc): arity mismatch, expected number of arguments does not " +
+                    "match given number [expected: 1, given: %d]", argCount);
+        }
+        return call1(SchemeCallStack.instance().pop());
+    }
+
+    @Override
+    public SchemeObject call1(SchemeObject procedure) throws SchemeError {
+        ensureIsProcedure(procedure);
+
+        SchemeContinuation continuation = SchemeContinuation.escapeOnly();
+        try {
+            return FunctionInvoker.invokeFunction(procedure, new SchemeObject[]{continuation});
+        } catch (ContinuationEscape escape) {
+            if (escape.getContinuation() != continuation) {
+                throw escape;
+            }
+            return escape.getValue();
+        } finally {
+            continuation.deactivate();
+        }
+    }
+
+    /**
+     * Make sure the argument of call/cc can be called.
+     *
+     * @param procedure
+     *         The argument.
+     * @throws SchemeError
+     *         If the argument is not a procedure.
+     */
+    public static void ensureIsProcedure(SchemeObject procedure) throws SchemeError {
+        if (!procedure.getType().isFunction()) {
+            throw new SchemeError("(call/cc): contract violation [expected: procedure, given: %s]",
+                    procedure);
+        }
+    }
+}
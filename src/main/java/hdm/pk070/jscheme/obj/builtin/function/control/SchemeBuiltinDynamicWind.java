@@ -0,0 +1,68 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+
+/**
+ * Calls three procedures without arguments: <i>before</i>, <i>thunk</i> and <i>after</i>. The result of
+ * <i>thunk</i> is returned. <i>after</i> is called even if <i>thunk</i> is left by invoking a continuation or by an
+ * error.
+ * <br/><br/>
+ * >> (dynamic-wind (lambda () 'before) (lambda () 42) (lambda () 'after))<br/>
+ * => 42
+ */
+public final class SchemeBuiltinDynamicWind extends SchemeBuiltinFunction {
+
+    private static final SchemeObject[] NO_ARGUMENTS = new SchemeObject[0];
+
+    public static SchemeBuiltinDynamicWind create() {
+        return new SchemeBuiltinDynamicWind();
+    }
+
+    private SchemeBuiltinDynamicWind() {
+        super("dynamic-wind");
+    }
+
+    @Override
+    public SchemeObject call(int argCount) throws SchemeError {
+        if (argCount != 3) {
+            throw new SchemeError("(dynamic-wind): arity mismatch, expected number of arguments does " +
+                    "not match given number [expected: 3, given: %d]", argCount);
+        }
+
+        // switch order of arguments
+        SchemeObject after = SchemeCallStack.instance().pop();
+        SchemeObject thunk = SchemeCallStack.instance().pop();
+        SchemeObject before = SchemeCallStack.instance().pop();
+
+        return call3(before, thunk, after);
+    }
+
+    @Override
+    public SchemeObject call3(SchemeObject before, SchemeObject thunk, SchemeObject after) throws SchemeError {
+        ensureIsProcedure(before);
+        ensureIsProcedure(thunk);
+        ensureIsProcedure(after);
+
+        FunctionInvoker.invokeFunction(before, NO_ARGUMENTS);
+        SchemeObject result;
+        try {
+            result = FunctionInvoker.invokeFunction(thunk, NO_ARGUMENTS);
+        } catch (SchemeError error) {
+            FunctionInvoker.invokeFunction(after, NO_ARGUMENTS);
+            throw error;
+        }
+        FunctionInvoker.invokeFunction(after, NO_ARGUMENTS);
+        return result;
+    }
+
+    private void ensureIsProcedure(SchemeObject argument) throws SchemeError {
+        if (!argument.getType().isFunction()) {
+            throw new SchemeError("(dynamic-wind): contract violation [expected: procedure, given: %s]",
+                    argument);
+        }
+    }
+}
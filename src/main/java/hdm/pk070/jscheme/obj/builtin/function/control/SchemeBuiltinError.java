@@ -0,0 +1,49 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeErrorObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeString;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+
+/**
+ * Raises an error object made up of a message and any number of irritants.
+ * <br/><br/>
+ * >> (guard (e (#t (error-object-message e))) (error "not a number:" 'x))<br/>
+ * => "not a number:"
+ */
+public final class SchemeBuiltinError extends SchemeBuiltinFunction {
+
+    public static SchemeBuiltinError create() {
+        return new SchemeBuiltinError();
+    }
+
+    private SchemeBuiltinError() {
+        super("error");
+    }
+
+    @Override
+    public SchemeObject call(int argCount) throws SchemeError {
+        if (argCount < 1) {
+            throw new SchemeError("(error): arity mismatch, expected number of arguments does not match given " +
+                    "number [expected: at least 1, given: %d]", argCount);
+        }
+
+        // switch order of arguments
+        SchemeObject irritants = new SchemeNil();
+        for (int i = 1; i < argCount; i++) {
+            irritants = new SchemeCons(SchemeCallStack.instance().pop(), irritants);
+        }
+        SchemeObject message = SchemeCallStack.instance().pop();
+
+        if (!message.hasType(SchemeType.STRING)) {
+            throw new SchemeError("(error): contract violation [expected: string, given: %s]", message);
+        }
+        return ExceptionHandlers.raise(SchemeErrorObject.create(((SchemeString) message).getValue(), irritants),
+                false);
+    }
+}
@@ -0,0 +1,73 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeErrorObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeString;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeFalse;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeTrue;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+
+/**
+ * Inspects error objects: 'error-object?' checks whether an object is one, 'error-object-message' and
+ * 'error-object-irritants' return its parts.
+ * <br/><br/>
+ * >> (guard (e ((error-object? e) (error-object-irritants e))) (error "not a number:" 'x))<br/>
+ * => '(x)
+ */
+public final class SchemeBuiltinErrorObject extends SchemeBuiltinFunction {
+
+    private enum Operation {
+        IS_ERROR_OBJECT, MESSAGE, IRRITANTS
+    }
+
+    private final String internalName;
+    private final Operation operation;
+
+    public static SchemeBuiltinErrorObject createPredicate() {
+        return new SchemeBuiltinErrorObject("error-object?", Operation.IS_ERROR_OBJECT);
+    }
+
+    public static SchemeBuiltinErrorObject createMessageAccessor() {
+        return new SchemeBuiltinErrorObject("error-object-message", Operation.MESSAGE);
+    }
+
+    public static SchemeBuiltinErrorObject createIrritantsAccessor() {
+        return new SchemeBuiltinErrorObject("error-object-irritants", Operation.IRRITANTS);
+    }
+
+    private SchemeBuiltinErrorObject(String internalName, Operation operation) {
+        super(internalName);
+        this.internalName = internalName;
+        this.operation = operation;
+    }
+
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
+    @Override
+    public SchemeObject call(int argCount) throws SchemeError {
+        if (argCount != 1) {
+            throw new SchemeError("(%s): arity mismatch, expected number of arguments does not match given number " +
+                    "[expected: 1, given: %d]", internalName, argCount);
+        }
+        return call1(SchemeCallStack.instance().pop());
+    }
+
+    @Override
+    public SchemeObject call1(SchemeObject argument) throws SchemeError {
+        if (operation == Operation.IS_ERROR_OBJECT) {
+            return argument.hasType(SchemeType.ERROR_OBJECT) ? new SchemeTrue() : new SchemeFalse();
+        } else if (!argument.hasType(SchemeType.ERROR_OBJECT)) {
+            throw new SchemeError("(%s): contract violation [expected: error object, given: %s]", internalName,
+                    argument);
+        } else if (operation == Operation.MESSAGE) {
+            return new SchemeString(((SchemeErrorObject) argument).getMessage());
+        }
+        return ((SchemeErrorObject) argument).getIrritants();
+    }
+}
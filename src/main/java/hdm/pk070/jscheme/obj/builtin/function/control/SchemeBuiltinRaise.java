@@ -0,0 +1,45 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+
+/**
+ * Raises an object, passing it to the innermost handler installed by 'with-exception-handler' or 'guard'. After
+ * 'raise-continuable', the handler may return, and its result becomes the result of the raise.
+ * <br/><br/>
+ * >> (with-exception-handler (lambda (e) (* e 2)) (lambda () (+ 1 (raise-continuable 20))))<br/>
+ * => 41
+ */
+public final class SchemeBuiltinRaise extends SchemeBuiltinFunction {
+
+    private final boolean continuable;
+
+    public static SchemeBuiltinRaise create() {
+        return new SchemeBuiltinRaise("raise", false);
+    }
+
+    public static SchemeBuiltinRaise createContinuable() {
+        return new SchemeBuiltinRaise("raise-continuable", true);
+    }
+
+    private SchemeBuiltinRaise(String internalName, boolean continuable) {
+        super(internalName);
+        this.continuable = continuable;
+    }
+
+    @Override
+    public SchemeObject call(int argCount) throws SchemeError {
+        if (argCount != 1) {
+            throw new SchemeError("(%s): arity mismatch, expected number of arguments does not match given number " +
+                    "[expected: 1, given: %d]", continuable ? "raise-continuable" : "raise", argCount);
+        }
+        return call1(SchemeCallStack.instance().pop());
+    }
+
+    @Override
+    public SchemeObject call1(SchemeObject payload) throws SchemeError {
+        return ExceptionHandlers.raise(payload, continuable);
+    }
+}
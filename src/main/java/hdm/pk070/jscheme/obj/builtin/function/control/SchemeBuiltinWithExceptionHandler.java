@@ -0,0 +1,53 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+
+/**
+ * Calls a thunk with a handler installed, which is passed every object raised while the thunk runs. Errors signalled
+ * by the interpreter itself are passed to the handler as error objects.
+ * <br/><br/>
+ * >> (call/cc (lambda (k) (with-exception-handler (lambda (e) (k 'caught)) (lambda () (car 1)))))<br/>
+ * => caught
+ */
+public final class SchemeBuiltinWithExceptionHandler extends SchemeBuiltinFunction {
+
+    public static SchemeBuiltinWithExceptionHandler create() {
+        return new SchemeBuiltinWithExceptionHandler();
+    }
+
+    private SchemeBuiltinWithExceptionHandler() {
+        super("with-exception-handler");
+    }
+
+    @Override
+    public SchemeObject call(int argCount) throws SchemeError {
+        if (argCount != 2) {
+            throw new SchemeError("(with-exception-handler): arity mismatch, expected number of arguments does not " +
+                    "match given number [expected: 2, given: %d]", argCount);
+        }
+
+        // switch order of arguments
+        SchemeObject thunk = SchemeCallStack.instance().pop();
+        SchemeObject handler = SchemeCallStack.instance().pop();
+
+        return call2(handler, thunk);
+    }
+
+    @Override
+    public SchemeObject call2(SchemeObject handler, SchemeObject thunk) throws SchemeError {
+        ensureIsProcedure(handler);
+        ensureIsProcedure(thunk);
+
+        return ExceptionHandlers.withExceptionHandler(handler, thunk);
+    }
+
+    private void ensureIsProcedure(SchemeObject argument) throws SchemeError {
+        if (!argument.getType().isFunction()) {
+            throw new SchemeError("(with-exception-handler): contract violation [expected: procedure, given: %s]",
+                    argument);
+        }
+    }
+}
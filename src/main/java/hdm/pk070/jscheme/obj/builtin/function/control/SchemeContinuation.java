@@ -0,0 +1,64 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.error.ContinuationEscape;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+
+/**
+ * A continuation captured by {@link SchemeBuiltinCallCC}. Invoking it with a value throws the continuation's
+ * {@link ContinuationEscape}, which unwinds the stack up to the point the continuation has been captured.
+ * <br/><br/>
+ * Continuations created by {@link #escapeOnly()} can only be used for escaping, i.e. while the
+ * {@link SchemeBuiltinCallCC} call that captured them has not returned yet. Execution engines which are able to
+ * resume a continuation later on provide subclasses of their own.
+ */
+public class SchemeContinuation extends SchemeBuiltinFunction {
+
+    private final ContinuationEscape escape;
+    private volatile boolean active;
+
+    public static SchemeContinuation escapeOnly() {
+        return new SchemeContinuation();
+    }
+
+    protected SchemeContinuation() {
+        super("continuation");
+        this.escape = new ContinuationEscape(this);
+        this.active = true;
+    }
+
+    @Override
+    public SchemeObject call(int argCount) throws SchemeError {
+        if (argCount != 1) {
+            throw new SchemeError("(continuation): arity mismatch, expected number of arguments does " +
+                    "not match given number [expected: 1, given: %d]", argCount);
+        }
+        return call1(SchemeCallStack.instance().pop());
+    }
+
+    @Override
+    public SchemeObject call1(SchemeObject value) throws SchemeError {
+        if (!isInvocable()) {
+            throw new SchemeError("(continuation): cannot re-enter a continuation after call/cc has returned, " +
+                    "re-entrant continuations require the stackless engine");
+        }
+        throw escape.withValue(value);
+    }
+
+    /**
+     * Mark this continuation as no longer invocable, since the {@link SchemeBuiltinCallCC} call that captured it
+     * has returned.
+     */
+    public void deactivate() {
+        this.active = false;
+    }
+
+    /**
+     * @return True if invoking this continuation can resume execution.
+     */
+    protected boolean isInvocable() {
+        return active;
+    }
+}
@@ -24,15 +24,20 @@ public final class SchemeBuiltinCons extends SchemeBuiltinFunction {
     @Override
     public SchemeObject call(int argCount) throws SchemeError {
         if (argCount != 2) {
-            throw new SchemeError(String.format("(cons): arity mismatch, expected number of arguments does not match " +
-                    "given number [expected: 2, given: %d]", argCount));
+            throw new SchemeError("(cons): arity mismatch, expected number of arguments does not match " +
+                    "given number [expected: 2, given: %d]", argCount);
         }
 
         // switch order of arguments
         SchemeObject arg2 = SchemeCallStack.instance().pop();
         SchemeObject arg1 = SchemeCallStack.instance().pop();
 
-        return new SchemeCons(arg1, arg2);
+        return call2(arg1, arg2);
+    }
+
+    @Override
+    public SchemeObject call2(SchemeObject argument1, SchemeObject argument2) {
+        return new SchemeCons(argument1, argument2);
     }
 
 }
@@ -2,6 +2,7 @@ package hdm.pk070.jscheme.obj.builtin.function.list;
 
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
 import hdm.pk070.jscheme.stack.SchemeCallStack;
@@ -22,19 +23,28 @@ public final class SchemeBuiltinGetCdr extends SchemeBuiltinFunction {
         super("cdr");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeObject call(int argCount) throws SchemeError {
         if (argCount != 1) {
-            throw new SchemeError(String.format("(cdr): arity mismatch, expected number of arguments does not match " +
-                    "given number [expected: 1, given: %d]", argCount));
+            throw new SchemeError("(cdr): arity mismatch, expected number of arguments does not match " +
+                    "given number [expected: 1, given: %d]", argCount);
         }
 
-        SchemeObject poppedArg = SchemeCallStack.instance().pop();
-        if (!poppedArg.typeOf(SchemeCons.class)) {
-            throw new SchemeError(String.format("(cdr): contract violation [expected: cons, given: %s]",
-                    poppedArg));
+        return call1(SchemeCallStack.instance().pop());
+    }
+
+    @Override
+    public SchemeObject call1(SchemeObject argument) throws SchemeError {
+        if (!argument.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(cdr): contract violation [expected: cons, given: %s]",
+                    argument);
         }
-        return ((SchemeCons) poppedArg).getCdr();
+        return ((SchemeCons) argument).getCdr();
     }
 
 }
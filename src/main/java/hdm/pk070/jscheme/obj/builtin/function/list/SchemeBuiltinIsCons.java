@@ -2,8 +2,8 @@ package hdm.pk070.jscheme.obj.builtin.function.list;
 
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
 import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeBool;
 import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeFalse;
 import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeTrue;
@@ -25,15 +25,24 @@ public final class SchemeBuiltinIsCons extends SchemeBuiltinFunction {
         super("cons?");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeBool call(int argCount) throws SchemeError {
         if (argCount != 1) {
-            throw new SchemeError(String.format("(cons?): arity mismatch, expected number of arguments does not match" +
+            throw new SchemeError("(cons?): arity mismatch, expected number of arguments does not match" +
                     " " +
-                    "given number [expected: 1, given: %d]", argCount));
+                    "given number [expected: 1, given: %d]", argCount);
         }
-        SchemeObject poppedArg = SchemeCallStack.instance().pop();
-        if (poppedArg.typeOf(SchemeCons.class)) {
+        return call1(SchemeCallStack.instance().pop());
+    }
+
+    @Override
+    public SchemeBool call1(SchemeObject argument) {
+        if (argument.hasType(SchemeType.CONS)) {
             return new SchemeTrue();
         }
         return new SchemeFalse();
@@ -21,19 +21,27 @@ public final class SchemeBuiltinAbsolute extends SchemeBuiltinFunction {
         super("abs");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeNumber call(int argCount) throws SchemeError {
         if (argCount != 1) {
-            throw new SchemeError(String.format("(abs): arity mismatch, expected number of arguments does not match " +
-                    "given number [expected: 1, given: %d]", argCount));
+            throw new SchemeError("(abs): arity mismatch, expected number of arguments does not match " +
+                    "given number [expected: 1, given: %d]", argCount);
         } else {
-            SchemeObject poppedArg = SchemeCallStack.instance().pop();
-            if (!poppedArg.subtypeOf(SchemeNumber.class)) {
-                throw new SchemeError(String.format("(abs): contract violation [expected: number, given: %s]",
-                        poppedArg));
-            } else {
-                return ((SchemeNumber) poppedArg).absolute();
-            }
+            return call1(SchemeCallStack.instance().pop());
+        }
+    }
+
+    @Override
+    public SchemeNumber call1(SchemeObject argument) throws SchemeError {
+        if (!argument.getType().isNumber()) {
+            throw new SchemeError("(abs): contract violation [expected: number, given: %s]",
+                    argument);
         }
+        return ((SchemeNumber) argument).absolute();
     }
 }
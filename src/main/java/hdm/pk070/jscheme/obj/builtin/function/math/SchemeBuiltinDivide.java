@@ -2,6 +2,7 @@ package hdm.pk070.jscheme.obj.builtin.function.math;
 
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
 import hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber;
 import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
@@ -27,6 +28,11 @@ public final class SchemeBuiltinDivide extends SchemeBuiltinFunction {
         super("/");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeNumber call(int argCount) throws SchemeError {
         SchemeNumber divisionResult;
@@ -39,19 +45,19 @@ public final class SchemeBuiltinDivide extends SchemeBuiltinFunction {
             SchemeObject poppedArg = SchemeCallStack.instance().pop();
 
             // Check if popped arg is number
-            if (!poppedArg.subtypeOf(SchemeNumber.class)) {
-                throw new SchemeError(String.format("(/): contract violation [expected: number, given: %s]",
-                        poppedArg));
+            if (!poppedArg.getType().isNumber()) {
+                throw new SchemeError("(/): contract violation [expected: number, given: %s]",
+                        poppedArg);
             }
-            return new SchemeInteger(1).divide(((SchemeNumber) poppedArg));
+            return divide(new SchemeInteger(1), (SchemeNumber) poppedArg);
         } else {
 
             List<SchemeNumber> argList = new LinkedList<>();
             for (int i = 0; i < argCount; i++) {
                 SchemeObject poppedArg = SchemeCallStack.instance().pop();
-                if (!poppedArg.subtypeOf(SchemeNumber.class)) {
-                    throw new SchemeError(String.format("(/): contract violation [expected: number, given: %s]",
-                            poppedArg));
+                if (!poppedArg.getType().isNumber()) {
+                    throw new SchemeError("(/): contract violation [expected: number, given: %s]",
+                            poppedArg);
                 }
                 argList.add((SchemeNumber) poppedArg);
             }
@@ -63,11 +69,39 @@ public final class SchemeBuiltinDivide extends SchemeBuiltinFunction {
             divisionResult = argList.remove(0);
 
             for (SchemeNumber currentArg : argList) {
-                divisionResult = divisionResult.divide(currentArg);
+                divisionResult = divide(divisionResult, currentArg);
             }
 
             return divisionResult;
         }
     }
 
+    @Override
+    public SchemeNumber call1(SchemeObject argument) throws SchemeError {
+        return divide(new SchemeInteger(1), ensureIsNumber(argument));
+    }
+
+    @Override
+    public SchemeNumber call2(SchemeObject argument1, SchemeObject argument2) throws SchemeError {
+        // check in the same order as call(int), which pops the divisor first
+        SchemeNumber divisor = ensureIsNumber(argument2);
+        return divide(ensureIsNumber(argument1), divisor);
+    }
+
+    private SchemeNumber divide(SchemeNumber dividend, SchemeNumber divisor) throws SchemeError {
+        // Only exact numbers can't be divided by zero, a float divisor yields infinity or NaN
+        if (!divisor.hasType(SchemeType.FLOAT) && divisor.getValue().doubleValue() == 0) {
+            throw new SchemeError("(/): division by zero");
+        }
+        return dividend.divide(divisor);
+    }
+
+    private SchemeNumber ensureIsNumber(SchemeObject argument) throws SchemeError {
+        if (!argument.getType().isNumber()) {
+            throw new SchemeError("(/): contract violation [expected: number, given: %s]",
+                    argument);
+        }
+        return (SchemeNumber) argument;
+    }
+
 }
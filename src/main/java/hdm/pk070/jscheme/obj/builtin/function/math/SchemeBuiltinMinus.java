@@ -26,6 +26,11 @@ public class SchemeBuiltinMinus extends SchemeBuiltinFunction {
         super("-");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeNumber call(int argCount) throws SchemeError {
         SchemeNumber difference;
@@ -40,9 +45,9 @@ public class SchemeBuiltinMinus extends SchemeBuiltinFunction {
         else if (argCount == 1) {
             SchemeObject singleArg = SchemeCallStack.instance().pop();
             // throw SchemeError if popped arg is not a number
-            if (!singleArg.subtypeOf(SchemeNumber.class)) {
-                throw new SchemeError(String.format("(-): contract violation [expected: number, given: %s]",
-                        singleArg));
+            if (!singleArg.getType().isNumber()) {
+                throw new SchemeError("(-): contract violation [expected: number, given: %s]",
+                        singleArg);
             }
             // if the single arg is a number, return inverse
             return ((SchemeNumber) singleArg).multiply(new SchemeInteger(-1));
@@ -55,9 +60,9 @@ public class SchemeBuiltinMinus extends SchemeBuiltinFunction {
             List<SchemeNumber> argsList = new LinkedList<>();
             for (int i = 0; i < argCount; i++) {
                 SchemeObject nextArg = SchemeCallStack.instance().pop();
-                if (!nextArg.subtypeOf(SchemeNumber.class)) {
-                    throw new SchemeError(String.format("(-): contract violation [expected: number, given: %s]",
-                            nextArg));
+                if (!nextArg.getType().isNumber()) {
+                    throw new SchemeError("(-): contract violation [expected: number, given: %s]",
+                            nextArg);
                 }
                 argsList.add(((SchemeNumber) nextArg));
             }
@@ -77,4 +82,24 @@ public class SchemeBuiltinMinus extends SchemeBuiltinFunction {
         return difference;
     }
 
+    @Override
+    public SchemeNumber call1(SchemeObject argument) throws SchemeError {
+        return ensureIsNumber(argument).multiply(new SchemeInteger(-1));
+    }
+
+    @Override
+    public SchemeNumber call2(SchemeObject argument1, SchemeObject argument2) throws SchemeError {
+        // check in the same order as call(int), which pops the subtrahend first
+        SchemeNumber subtrahend = ensureIsNumber(argument2);
+        return ensureIsNumber(argument1).subtract(subtrahend);
+    }
+
+    private SchemeNumber ensureIsNumber(SchemeObject argument) throws SchemeError {
+        if (!argument.getType().isNumber()) {
+            throw new SchemeError("(-): contract violation [expected: number, given: %s]",
+                    argument);
+        }
+        return (SchemeNumber) argument;
+    }
+
 }
@@ -23,18 +23,38 @@ public class SchemeBuiltinPlus extends SchemeBuiltinFunction {
         super("+");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeNumber call(int argCount) throws SchemeError {
         SchemeNumber result = new SchemeInteger(0);
 
         for (int i = 0; i < argCount; i++) {
             SchemeObject poppedArg = SchemeCallStack.instance().pop();
-            if (!poppedArg.subtypeOf(SchemeNumber.class)) {
-                throw new SchemeError(String.format("(+): contract violation [expected: number, given: %s]",
-                        poppedArg));
+            if (!poppedArg.getType().isNumber()) {
+                throw new SchemeError("(+): contract violation [expected: number, given: %s]",
+                        poppedArg);
             }
             result = result.add(((SchemeNumber) poppedArg));
         }
         return result;
     }
+
+    @Override
+    public SchemeNumber call2(SchemeObject argument1, SchemeObject argument2) throws SchemeError {
+        // check in the same order as call(int), which pops the last argument first
+        SchemeNumber summand2 = ensureIsNumber(argument2);
+        return ensureIsNumber(argument1).add(summand2);
+    }
+
+    private SchemeNumber ensureIsNumber(SchemeObject argument) throws SchemeError {
+        if (!argument.getType().isNumber()) {
+            throw new SchemeError("(+): contract violation [expected: number, given: %s]",
+                    argument);
+        }
+        return (SchemeNumber) argument;
+    }
 }
@@ -22,6 +22,11 @@ public final class SchemeBuiltinTimes extends SchemeBuiltinFunction {
         super("*");
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public SchemeNumber call(int argCount) throws SchemeError {
         SchemeNumber product = new SchemeInteger(1);
@@ -30,13 +35,28 @@ public final class SchemeBuiltinTimes extends SchemeBuiltinFunction {
         for (int i = 0; i < argCount; i++) {
             SchemeObject currentArg = SchemeCallStack.instance().pop();
             // check if currentArg is of type SchemeInteger
-            if (!currentArg.subtypeOf(SchemeNumber.class)) {
-                throw new SchemeError(String.format("(*): contract violation [expected: number, given: %s]",
-                        currentArg));
+            if (!currentArg.getType().isNumber()) {
+                throw new SchemeError("(*): contract violation [expected: number, given: %s]",
+                        currentArg);
             }
             // do multiply
             product = product.multiply(((SchemeNumber) currentArg));
         }
         return product;
     }
+
+    @Override
+    public SchemeNumber call2(SchemeObject argument1, SchemeObject argument2) throws SchemeError {
+        // check in the same order as call(int), which pops the last argument first
+        SchemeNumber factor2 = ensureIsNumber(argument2);
+        return ensureIsNumber(argument1).multiply(factor2);
+    }
+
+    private SchemeNumber ensureIsNumber(SchemeObject argument) throws SchemeError {
+        if (!argument.getType().isNumber()) {
+            throw new SchemeError("(*): contract violation [expected: number, given: %s]",
+                    argument);
+        }
+        return (SchemeNumber) argument;
+    }
 }
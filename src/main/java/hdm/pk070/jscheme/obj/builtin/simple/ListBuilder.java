@@ -0,0 +1,64 @@
+package hdm.pk070.jscheme.obj.builtin.simple;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+
+import java.util.Objects;
+
+/**
+ * Builds a list front to back, e.g. for a function which appends one element per iteration of a loop (see
+ * {@link hdm.pk070.jscheme.analyze.node.ModuloConsCallNode}). The cells under construction stay within the builder
+ * until {@link #complete(SchemeObject)} fills in the cdr of the last one, so no cell with a missing cdr ever escapes.
+ * <br/><br/>
+ * Unlike cells created by {@link SchemeCons#SchemeCons(SchemeObject, SchemeObject)}, the cells of a built list don't
+ * have a final cdr. A list handed to another thread therefore has to be published safely, like any other mutable
+ * object.
+ */
+public final class ListBuilder {
+
+    private SchemeCons firstCell;
+    private SchemeCons lastCell;
+
+    public static ListBuilder create() {
+        return new ListBuilder();
+    }
+
+    private ListBuilder() {
+        this.firstCell = null;
+        this.lastCell = null;
+    }
+
+    /**
+     * Append an element to the list.
+     *
+     * @param car
+     *         The new element.
+     * @throws IllegalStateException
+     *         If the list is already complete.
+     */
+    public void append(final SchemeObject car) {
+        SchemeCons cell = SchemeCons.withPendingCdr(car);
+        if (Objects.isNull(firstCell)) {
+            firstCell = cell;
+        } else {
+            lastCell.fillInCdr(cell);
+        }
+        lastCell = cell;
+    }
+
+    /**
+     * Complete the list. Appending to it afterwards is not possible anymore.
+     *
+     * @param tail
+     *         The cdr of the last cell, usually nil.
+     * @return The first cell of the list or {@code tail} if no element has been appended.
+     * @throws IllegalStateException
+     *         If the list is already complete.
+     */
+    public SchemeObject complete(final SchemeObject tail) {
+        if (Objects.isNull(lastCell)) {
+            return tail;
+        }
+        lastCell.fillInCdr(tail);
+        return firstCell;
+    }
+}
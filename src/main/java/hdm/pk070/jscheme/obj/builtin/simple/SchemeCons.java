@@ -1,27 +1,52 @@
 package hdm.pk070.jscheme.obj.builtin.simple;
 
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 import java.util.Objects;
 
 /**
  * This class poses a JScheme list. In Scheme, every list is made up of one or more cons cells. In other words, lists
  * in Scheme are implemented as linked lists.
+ * <br/><br/>
+ * Cons cells are immutable. Only a cell created by {@link #withPendingCdr(SchemeObject)} gets its cdr filled in
+ * once after creation, which allows building a list front to back by means of {@link ListBuilder}. Such a cell never
+ * escapes the builder before it is filled in.
  *
  * @author patrick.kleindienst
  */
 public final class SchemeCons extends SchemeObject {
 
     private final SchemeObject car;
-    private final SchemeObject cdr;
+    private SchemeObject cdr;
+
+    /**
+     * Create a cons cell whose cdr is filled in later by {@link #fillInCdr(SchemeObject)}. The cell must not be
+     * handed out before that, since it's not a valid list so far.
+     *
+     * @param car
+     *         The car of the new cell.
+     * @return The new cell.
+     */
+    static SchemeCons withPendingCdr(final SchemeObject car) {
+        Objects.requireNonNull(car);
+        return new SchemeCons(car);
+    }
 
     public SchemeCons(final SchemeObject car, final SchemeObject cdr) {
+        super(SchemeType.CONS);
         Objects.requireNonNull(car);
         Objects.requireNonNull(cdr);
         this.car = car;
         this.cdr = cdr;
     }
 
+    private SchemeCons(final SchemeObject car) {
+        super(SchemeType.CONS);
+        this.car = car;
+        this.cdr = null;
+    }
+
     @Override
     public Object getValue() {
         throw new UnsupportedOperationException("SchemeCons does not have a value, use getCar() and getCdr()");
@@ -35,6 +60,22 @@ public final class SchemeCons extends SchemeObject {
         return cdr;
     }
 
+    /**
+     * Fill in the cdr of a cell created by {@link #withPendingCdr(SchemeObject)}.
+     *
+     * @param cdr
+     *         The cdr of this cell.
+     * @throws IllegalStateException
+     *         If the cell already has a cdr.
+     */
+    void fillInCdr(final SchemeObject cdr) {
+        Objects.requireNonNull(cdr);
+        if (Objects.nonNull(this.cdr)) {
+            throw new IllegalStateException("The cdr of a cons cell must not be replaced");
+        }
+        this.cdr = cdr;
+    }
+
 
     @Override
     public String toString() {
@@ -48,11 +89,11 @@ public final class SchemeCons extends SchemeObject {
     private String prettyPrintList(SchemeObject schemeObject) {
         String listPrint = "";
 
-        if (schemeObject.typeOf(SchemeCons.class)) {
+        if (schemeObject.hasType(SchemeType.CONS)) {
             listPrint += ((SchemeCons) schemeObject).getCar().toString();
             listPrint += " ";
             return (listPrint + prettyPrintList(((SchemeCons) schemeObject).getCdr())).trim();
-        } else if (schemeObject.typeOf(SchemeNil.class)) {
+        } else if (schemeObject.hasType(SchemeType.NIL)) {
             return listPrint;
         } else {
             return (listPrint + ". " + schemeObject.toString());
@@ -0,0 +1,99 @@
+package hdm.pk070.jscheme.obj.builtin.simple;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+
+import java.util.Objects;
+
+/**
+ * The object raised by 'error', consisting of a message and a list of irritants. Errors signalled by the interpreter
+ * itself, e.g. a contract violation of a built-in function, are turned into error objects as well when they're
+ * caught by Scheme code. Their message is taken from the {@link SchemeError} once it's requested.
+ */
+public final class SchemeErrorObject extends SchemeObject {
+
+    private final SchemeError schemeError;
+    private final String message;
+    private final SchemeObject irritants;
+
+    /**
+     * Create an error object as raised by 'error'.
+     *
+     * @param message
+     *         The message.
+     * @param irritants
+     *         The list of irritants.
+     * @return The error object.
+     */
+    public static SchemeErrorObject create(String message, SchemeObject irritants) {
+        return new SchemeErrorObject(null, Objects.requireNonNull(message), Objects.requireNonNull(irritants));
+    }
+
+    /**
+     * Create an error object for an error signalled by the interpreter.
+     *
+     * @param schemeError
+     *         The error.
+     * @return The error object, which has no irritants.
+     */
+    public static SchemeErrorObject of(SchemeError schemeError) {
+        return new SchemeErrorObject(Objects.requireNonNull(schemeError), null, new SchemeNil());
+    }
+
+    private SchemeErrorObject(SchemeError schemeError, String message, SchemeObject irritants) {
+        super(SchemeType.ERROR_OBJECT);
+        this.schemeError = schemeError;
+        this.message = message;
+        this.irritants = irritants;
+    }
+
+    @Override
+    public String getValue() {
+        return getMessage();
+    }
+
+    public String getMessage() {
+        return Objects.isNull(schemeError) ? message : schemeError.getMessage();
+    }
+
+    public SchemeObject getIrritants() {
+        return irritants;
+    }
+
+    /**
+     * @return True if the error object describes an error signalled by the interpreter, false if it has been
+     * created by 'error'.
+     */
+    public boolean isSignalledByInterpreter() {
+        return Objects.nonNull(schemeError);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    /**
+     * @return The message followed by the irritants, separated by spaces.
+     */
+    public String describe() {
+        StringBuilder stringBuilder = new StringBuilder(getMessage());
+        SchemeObject restIrritants = irritants;
+        while (restIrritants.hasType(SchemeType.CONS)) {
+            stringBuilder.append(' ').append(((SchemeCons) restIrritants).getCar());
+            restIrritants = ((SchemeCons) restIrritants).getCdr();
+        }
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "#<error: " + describe() + ">";
+    }
+}
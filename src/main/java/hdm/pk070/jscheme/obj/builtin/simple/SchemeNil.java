@@ -1,5 +1,7 @@
 package hdm.pk070.jscheme.obj.builtin.simple;
 
+import hdm.pk070.jscheme.obj.SchemeType;
+
 /**
  * An empty list or "null".
  *
@@ -9,7 +11,7 @@ public final class SchemeNil extends SchemeSymbol {
 
 
     public SchemeNil() {
-        super("'()");
+        super("'()", SchemeType.NIL);
     }
 
 }
@@ -3,6 +3,7 @@ package hdm.pk070.jscheme.obj.builtin.simple;
 import hdm.pk070.jscheme.obj.SchemeObject;
 
 import java.util.Objects;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 /**
  * A JScheme string.
@@ -15,6 +16,7 @@ public final class SchemeString extends SchemeObject {
     private final String stringVal;
 
     public SchemeString(final String stringVal) {
+        super(SchemeType.STRING);
         Objects.requireNonNull(stringVal);
         this.stringVal = stringVal;
     }
@@ -1,6 +1,7 @@
 package hdm.pk070.jscheme.obj.builtin.simple;
 
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 /**
  * A JScheme symbol which is used for defining variable and function bindings.
@@ -13,6 +14,11 @@ public class SchemeSymbol extends SchemeObject {
 
 
     public SchemeSymbol(final String symbolVal) {
+        this(symbolVal, SchemeType.SYMBOL);
+    }
+
+    protected SchemeSymbol(final String symbolVal, SchemeType type) {
+        super(type);
         this.symbolVal = symbolVal;
     }
 
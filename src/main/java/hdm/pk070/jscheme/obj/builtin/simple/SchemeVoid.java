@@ -1,6 +1,7 @@
 package hdm.pk070.jscheme.obj.builtin.simple;
 
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 /**
  * Defining an empty or rather no result.
@@ -9,6 +10,9 @@ import hdm.pk070.jscheme.obj.SchemeObject;
  */
 public class SchemeVoid extends SchemeObject {
 
+    public SchemeVoid() {
+        super(SchemeType.VOID);
+    }
 
     @Override
     public Object getValue() {
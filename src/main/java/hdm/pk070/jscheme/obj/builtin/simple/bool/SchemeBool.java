@@ -1,5 +1,6 @@
 package hdm.pk070.jscheme.obj.builtin.simple.bool;
 
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 
 /**
@@ -9,7 +10,7 @@ import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
  */
 public abstract class SchemeBool extends SchemeSymbol {
 
-    protected SchemeBool(String symbolVal) {
-        super(symbolVal);
+    protected SchemeBool(String symbolVal, SchemeType type) {
+        super(symbolVal, type);
     }
 }
@@ -1,5 +1,7 @@
 package hdm.pk070.jscheme.obj.builtin.simple.bool;
 
+import hdm.pk070.jscheme.obj.SchemeType;
+
 /**
  * The JScheme equivalent to "false".
  *
@@ -8,7 +10,7 @@ package hdm.pk070.jscheme.obj.builtin.simple.bool;
 public final class SchemeFalse extends SchemeBool {
 
     public SchemeFalse() {
-        super("#f");
+        super("#f", SchemeType.FALSE);
     }
 
 }
@@ -1,5 +1,7 @@
 package hdm.pk070.jscheme.obj.builtin.simple.bool;
 
+import hdm.pk070.jscheme.obj.SchemeType;
+
 /**
  * The JScheme equivalent to "true".
  *
@@ -8,7 +10,7 @@ package hdm.pk070.jscheme.obj.builtin.simple.bool;
 public final class SchemeTrue extends SchemeBool {
 
     public SchemeTrue() {
-        super("#t");
+        super("#t", SchemeType.TRUE);
     }
 
 }
@@ -1,12 +1,17 @@
 package hdm.pk070.jscheme.obj.builtin.simple.number;
 
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 /**
  * @author patrick.kleindienst
  */
 public abstract class SchemeNumber extends SchemeObject {
 
+    protected SchemeNumber(SchemeType type) {
+        super(type);
+    }
+
     public abstract SchemeNumber add(SchemeNumber number);
 
     public abstract SchemeNumber subtract(SchemeNumber number);
@@ -3,6 +3,7 @@ package hdm.pk070.jscheme.obj.builtin.simple.number.exact;
 import hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber;
 import hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex.SchemeFloat;
 import org.apache.commons.math3.fraction.Fraction;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 /**
  *
@@ -14,10 +15,12 @@ public final class SchemeFraction extends SchemeExactNumber {
     private final Fraction fraction;
 
     public SchemeFraction(int numerator, int denominator) {
+        super(SchemeType.FRACTION);
         this.fraction = new Fraction(numerator, denominator);
     }
 
     public SchemeFraction(Fraction fraction) {
+        super(SchemeType.FRACTION);
         this.fraction = fraction;
     }
 
@@ -33,9 +36,9 @@ public final class SchemeFraction extends SchemeExactNumber {
 
     @Override
     public SchemeNumber add(SchemeNumber number) {
-        if (number.typeOf(SchemeFloat.class)) {
+        if (number.hasType(SchemeType.FLOAT)) {
             return new SchemeFloat(this.fraction.floatValue() + ((SchemeFloat) number).getValue());
-        } else if (number.typeOf(SchemeFraction.class)) {
+        } else if (number.hasType(SchemeType.FRACTION)) {
             return new SchemeFraction(this.fraction.add(((SchemeFraction) number).getValue()));
         }
         return new SchemeFraction(this.fraction.add(((SchemeInteger) number).getValue()));
@@ -43,9 +46,9 @@ public final class SchemeFraction extends SchemeExactNumber {
 
     @Override
     public SchemeNumber subtract(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
+        if (number.hasType(SchemeType.INTEGER)) {
             return new SchemeFraction(this.getValue().subtract(((SchemeInteger) number).getValue()));
-        } else if (number.typeOf(SchemeFloat.class)) {
+        } else if (number.hasType(SchemeType.FLOAT)) {
             return this.toSchemeFloat().subtract(number);
         }
         return new SchemeFraction(this.getValue().subtract(((SchemeFraction) number).getValue()));
@@ -53,9 +56,9 @@ public final class SchemeFraction extends SchemeExactNumber {
 
     @Override
     public SchemeNumber multiply(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
+        if (number.hasType(SchemeType.INTEGER)) {
             return new SchemeFraction(this.getValue().multiply(((SchemeInteger) number).getValue()));
-        } else if (number.typeOf(SchemeFloat.class)) {
+        } else if (number.hasType(SchemeType.FLOAT)) {
             return this.toSchemeFloat().multiply(number);
         }
         return new SchemeFraction(this.getValue().multiply(((SchemeFraction) number).getValue()));
@@ -63,9 +66,9 @@ public final class SchemeFraction extends SchemeExactNumber {
 
     @Override
     public SchemeNumber divide(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
+        if (number.hasType(SchemeType.INTEGER)) {
             return new SchemeFraction(this.getValue().divide(((SchemeInteger) number).getValue()));
-        } else if (number.typeOf(SchemeFraction.class)) {
+        } else if (number.hasType(SchemeType.FRACTION)) {
             return new SchemeFraction(this.getValue().divide(((SchemeFraction) number).getValue()));
         } else {
             return this.toSchemeFloat().divide(number);
@@ -3,6 +3,7 @@ package hdm.pk070.jscheme.obj.builtin.simple.number.exact;
 import hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber;
 import hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex.SchemeFloat;
 import org.apache.commons.math3.fraction.Fraction;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 /**
  * @author patrick.kleindienst
@@ -13,6 +14,7 @@ public final class SchemeInteger extends SchemeExactNumber {
     private final int intVal;
 
     public SchemeInteger(final int intVal) {
+        super(SchemeType.INTEGER);
         this.intVal = intVal;
     }
 
@@ -22,12 +24,19 @@ public final class SchemeInteger extends SchemeExactNumber {
         return intVal;
     }
 
+    /**
+     * @return The value without boxing it.
+     */
+    public int intValue() {
+        return intVal;
+    }
+
     @Override
     public SchemeNumber add(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
-            return new SchemeInteger(this.getValue() + ((SchemeInteger) number).getValue());
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() + ((SchemeFloat) number).getValue());
+        if (number.hasType(SchemeType.INTEGER)) {
+            return new SchemeInteger(intVal + ((SchemeInteger) number).intVal);
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(intVal + ((SchemeFloat) number).getValue());
         } else {
             // number is of type SchemeFraction
             return number.add(this);
@@ -36,10 +45,10 @@ public final class SchemeInteger extends SchemeExactNumber {
 
     @Override
     public SchemeNumber subtract(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
-            return new SchemeInteger(this.getValue() - ((SchemeInteger) number).getValue());
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() - ((SchemeFloat) number).getValue());
+        if (number.hasType(SchemeType.INTEGER)) {
+            return new SchemeInteger(intVal - ((SchemeInteger) number).intVal);
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(intVal - ((SchemeFloat) number).getValue());
         } else {
             // number is of type SchemeFraction
             return new SchemeFraction(new Fraction(this.getValue()).subtract(((SchemeFraction) number).getValue()));
@@ -48,10 +57,10 @@ public final class SchemeInteger extends SchemeExactNumber {
 
     @Override
     public SchemeNumber multiply(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
-            return new SchemeInteger(this.getValue() * ((SchemeInteger) number).getValue());
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() * ((SchemeFloat) number).getValue());
+        if (number.hasType(SchemeType.INTEGER)) {
+            return new SchemeInteger(intVal * ((SchemeInteger) number).intVal);
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(intVal * ((SchemeFloat) number).getValue());
         } else {
             // number is of type SchemeFraction
             return number.multiply(this);
@@ -60,10 +69,10 @@ public final class SchemeInteger extends SchemeExactNumber {
 
     @Override
     public SchemeNumber divide(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
-            return new SchemeFraction(this.getValue(), ((SchemeInteger) number).getValue());
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() / ((SchemeFloat) number).getValue());
+        if (number.hasType(SchemeType.INTEGER)) {
+            return new SchemeFraction(this.getValue(), ((SchemeInteger) number).intVal);
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(intVal / ((SchemeFloat) number).getValue());
         } else {
             // number is of type SchemeFraction
             return new SchemeFraction(new Fraction(this.getValue()).divide(((SchemeFraction) number).getValue()));
@@ -72,7 +81,7 @@ public final class SchemeInteger extends SchemeExactNumber {
 
     @Override
     public SchemeNumber absolute() {
-        if (this.getValue() > 0) {
+        if (intVal > 0) {
             return new SchemeInteger(this.getValue());
         } else {
             return this.multiply(new SchemeInteger(-1));
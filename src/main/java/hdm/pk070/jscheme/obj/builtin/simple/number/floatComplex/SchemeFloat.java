@@ -1,5 +1,6 @@
 package hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex;
 
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber;
 import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeFraction;
 import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
@@ -12,6 +13,7 @@ public final class SchemeFloat extends SchemeFloatComplex {
     private final float floatVal;
 
     public SchemeFloat(float floatVal) {
+        super(SchemeType.FLOAT);
         this.floatVal = floatVal;
     }
 
@@ -20,12 +22,19 @@ public final class SchemeFloat extends SchemeFloatComplex {
         return floatVal;
     }
 
+    /**
+     * @return The value without boxing it.
+     */
+    public float floatValue() {
+        return floatVal;
+    }
+
     @Override
     public SchemeNumber add(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
+        if (number.hasType(SchemeType.INTEGER)) {
             return number.add(this);
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() + ((SchemeFloat) number).getValue());
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(floatVal + ((SchemeFloat) number).floatVal);
         } else {
             // number is of type SchemeFraction
             return this.add(((SchemeFraction) number).toSchemeFloat());
@@ -34,10 +43,10 @@ public final class SchemeFloat extends SchemeFloatComplex {
 
     @Override
     public SchemeNumber subtract(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
-            return new SchemeFloat(this.getValue() - ((SchemeInteger) number).getValue());
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() - ((SchemeFloat) number).getValue());
+        if (number.hasType(SchemeType.INTEGER)) {
+            return new SchemeFloat(floatVal - ((SchemeInteger) number).getValue());
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(floatVal - ((SchemeFloat) number).floatVal);
         } else {
             // number is of type SchemeFraction
             return this.subtract(((SchemeFraction) number).toSchemeFloat());
@@ -46,10 +55,10 @@ public final class SchemeFloat extends SchemeFloatComplex {
 
     @Override
     public SchemeNumber multiply(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
+        if (number.hasType(SchemeType.INTEGER)) {
             return number.multiply(this);
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() * ((SchemeFloat) number).getValue());
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(floatVal * ((SchemeFloat) number).floatVal);
         }
         // number is of type SchemeFraction
         return this.multiply(((SchemeFraction) number).toSchemeFloat());
@@ -57,10 +66,10 @@ public final class SchemeFloat extends SchemeFloatComplex {
 
     @Override
     public SchemeNumber divide(SchemeNumber number) {
-        if (number.typeOf(SchemeInteger.class)) {
-            return new SchemeFloat(this.getValue() / ((SchemeInteger) number).getValue());
-        } else if (number.typeOf(SchemeFloat.class)) {
-            return new SchemeFloat(this.getValue() / ((SchemeFloat) number).getValue());
+        if (number.hasType(SchemeType.INTEGER)) {
+            return new SchemeFloat(floatVal / ((SchemeInteger) number).getValue());
+        } else if (number.hasType(SchemeType.FLOAT)) {
+            return new SchemeFloat(floatVal / ((SchemeFloat) number).floatVal);
         }
         // number is of type SchemeFraction
         return this.divide(((SchemeFraction) number).toSchemeFloat());
@@ -68,7 +77,7 @@ public final class SchemeFloat extends SchemeFloatComplex {
 
     @Override
     public SchemeNumber absolute() {
-        if (this.getValue() > 0) {
+        if (floatVal > 0) {
             return new SchemeFloat(this.getValue());
         } else {
             return this.multiply(new SchemeInteger(-1));
@@ -1,5 +1,6 @@
 package hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex;
 
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber;
 
 /**
@@ -8,4 +9,8 @@ import hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber;
  * @author patrick.kleindienst
  */
 abstract class SchemeFloatComplex extends SchemeNumber {
+
+    SchemeFloatComplex(SchemeType type) {
+        super(type);
+    }
 }
@@ -1,8 +1,12 @@
 package hdm.pk070.jscheme.obj.builtin.syntax;
 
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.eval.SchemeEval;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
@@ -42,10 +46,7 @@ public final class SchemeBuiltinDefine extends SchemeBuiltinSyntax {
         Objects.requireNonNull(argumentList);
         Objects.requireNonNull(environment);
 
-        // Argument list must be a cons
-        if (!argumentList.typeOf(SchemeCons.class) || !((SchemeCons) argumentList).getCdr().typeOf(SchemeCons.class)) {
-            throw new SchemeError("(define): bad syntax (requires exactly 2 arguments)");
-        }
+        ensureArgumentListIsValid(argumentList);
 
         // The name of the variable/function
         SchemeObject argListCar = ((SchemeCons) argumentList).getCar();
@@ -53,10 +54,10 @@ public final class SchemeBuiltinDefine extends SchemeBuiltinSyntax {
         // The value the name gets bound to (simple object or function body)
         SchemeCons argListCdr = (SchemeCons) ((SchemeCons) argumentList).getCdr();
 
-        if (argListCar.typeOf(SchemeSymbol.class)) {
+        if (argListCar.hasType(SchemeType.SYMBOL)) {
             // We have a variable binding
             return this.createVariableBinding(((SchemeSymbol) argListCar), argListCdr, environment);
-        } else if (argListCar.typeOf(SchemeCons.class)) {
+        } else if (argListCar.hasType(SchemeType.CONS)) {
             // We have a function binding
             return this.createFunctionBinding((SchemeCons) argListCar, argListCdr, environment);
         }
@@ -64,13 +65,39 @@ public final class SchemeBuiltinDefine extends SchemeBuiltinSyntax {
         throw new SchemeError("(define): bad syntax");
     }
 
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        ensureArgumentListIsValid(argumentList);
+
+        SchemeObject argListCar = ((SchemeCons) argumentList).getCar();
+        SchemeCons argListCdr = (SchemeCons) ((SchemeCons) argumentList).getCdr();
+
+        if (argListCar.hasType(SchemeType.SYMBOL)) {
+            ensureSingleValueExpression(argListCdr);
+            return analyzer.analyzeDefinition((SchemeSymbol) argListCar, argListCdr.getCar(), scope);
+        } else if (argListCar.hasType(SchemeType.CONS)) {
+            SchemeCons functionSignature = (SchemeCons) argListCar;
+            ensureFunctionDefinitionIsValid(functionSignature, argListCdr);
+
+            SchemeSymbol functionName = (SchemeSymbol) functionSignature.getCar();
+            return analyzer.analyzeFunctionDefinition(functionName, functionSignature.getCdr(), argListCdr, scope);
+        }
+
+        throw new SchemeError("(define): bad syntax");
+    }
+
+    private void ensureArgumentListIsValid(SchemeObject argumentList) throws SchemeError {
+        // Argument list must be a cons
+        if (!argumentList.hasType(SchemeType.CONS) || !((SchemeCons) argumentList).getCdr().hasType(SchemeType.CONS)) {
+            throw new SchemeError("(define): bad syntax (requires exactly 2 arguments)");
+        }
+    }
+
     private SchemeVoid createVariableBinding(SchemeSymbol variableName, SchemeCons valueCons, Environment<SchemeSymbol,
             EnvironmentEntry> environment) throws SchemeError {
 
-        if (!valueCons.getCdr().typeOf(SchemeNil.class)) {
-            // throw SchemeError if cdr of argument list is followed by anything else than nil
-            throw new SchemeError("(define): bad syntax (multiple expressions after identifier)");
-        }
+        ensureSingleValueExpression(valueCons);
 
         SchemeObject variableValue = valueCons.getCar();
         environment.add(EnvironmentEntry.create(variableName, SchemeEval.getInstance().eval(variableValue,
@@ -78,20 +105,18 @@ public final class SchemeBuiltinDefine extends SchemeBuiltinSyntax {
         return new SchemeVoid();
     }
 
+    private void ensureSingleValueExpression(SchemeCons valueCons) throws SchemeError {
+        if (!valueCons.getCdr().hasType(SchemeType.NIL)) {
+            // throw SchemeError if cdr of argument list is followed by anything else than nil
+            throw new SchemeError("(define): bad syntax (multiple expressions after identifier)");
+        }
+    }
+
     private SchemeVoid createFunctionBinding(SchemeCons functionSignature, SchemeCons functionBodyList,
                                              Environment<SchemeSymbol,
                                                      EnvironmentEntry> environment) throws SchemeError {
 
-        if (!functionSignature.getCar().typeOf(SchemeSymbol.class)) {
-            throw new SchemeError(String.format("(define): bad syntax (not an identifier for procedure name: %s)",
-                    functionSignature.getCar()));
-        }
-
-        if (functionBodyList.getCar().equals(new SchemeNil())) {
-            throw new SchemeError("(define): missing procedure expression");
-        }
-
-        ensureLastBodyListIsExpression(functionBodyList);
+        ensureFunctionDefinitionIsValid(functionSignature, functionBodyList);
 
         // Extract function name from signature after having ensured that the signature's CAR is actually a symbol
         SchemeSymbol functionName = (SchemeSymbol) functionSignature.getCar();
@@ -109,6 +134,20 @@ public final class SchemeBuiltinDefine extends SchemeBuiltinSyntax {
         return new SchemeVoid();
     }
 
+    private void ensureFunctionDefinitionIsValid(SchemeCons functionSignature, SchemeCons functionBodyList) throws
+            SchemeError {
+        if (!functionSignature.getCar().hasType(SchemeType.SYMBOL)) {
+            throw new SchemeError("(define): bad syntax (not an identifier for procedure name: %s)",
+                    functionSignature.getCar());
+        }
+
+        if (functionBodyList.getCar().equals(new SchemeNil())) {
+            throw new SchemeError("(define): missing procedure expression");
+        }
+
+        ensureLastBodyListIsExpression(functionBodyList);
+    }
+
     /**
      * Inspect function body and make sure that the last partial body list is an expression. If it's a define
      * statement instead, a {@link SchemeError} is thrown.
@@ -121,13 +160,13 @@ public final class SchemeBuiltinDefine extends SchemeBuiltinSyntax {
     private void ensureLastBodyListIsExpression(SchemeCons functionBody) throws SchemeError {
         SchemeObject restBodyLists = functionBody;
 
-        while (restBodyLists.typeOf(SchemeCons.class) && !((SchemeCons) restBodyLists).getCdr().typeOf(SchemeNil
-                .class)) {
+        while (restBodyLists.hasType(SchemeType.CONS) && !((SchemeCons) restBodyLists).getCdr().hasType(SchemeType
+                .NIL)) {
             restBodyLists = ((SchemeCons) restBodyLists).getCdr();
         }
 
         SchemeObject lastBodyList = ((SchemeCons) restBodyLists).getCar();
-        if (lastBodyList.typeOf(SchemeCons.class) && ((SchemeCons) lastBodyList).getCar().equals(new SchemeSymbol
+        if (lastBodyList.hasType(SchemeType.CONS) && ((SchemeCons) lastBodyList).getCar().equals(new SchemeSymbol
                 ("define"))) {
             throw new SchemeError("(define): no expression after sequence of " +
                     "internal definitions");
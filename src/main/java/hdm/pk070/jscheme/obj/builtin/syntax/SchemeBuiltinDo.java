@@ -0,0 +1,126 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ConstantNode;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.analyze.node.IfNode;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An iteration construct. The variables are bound to their initial values, then the commands are executed and the
+ * variables are bound to the values of their step expressions until the test is met. The value of the last result
+ * expression is returned. The loop is analyzed like a named let whose name can't be referred to by the program.
+ * <br/><br/>
+ * Usage example:
+ * <br/><br/>
+ * (do ((i 0 (+ i 1)) (acc '() (cons i acc))) ((eq? i 3) acc))<br/>
+ */
+public final class SchemeBuiltinDo extends SchemeBuiltinSyntax {
+
+    /**
+     * The reader never produces symbols containing whitespace, so the loop can't be shadowed or called by the body.
+     */
+    private static final SchemeSymbol LOOP_NAME = new SchemeSymbol("do loop");
+
+    public static SchemeBuiltinDo create() {
+        return new SchemeBuiltinDo();
+    }
+
+    private SchemeBuiltinDo() {
+        super("do");
+    }
+
+    @Override
+    public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        ExecutionNode doNode = analyze(argumentList, SchemeAnalyzer.getInstance(), AnalysisScope.withRootEnvironment
+                (environment));
+        return FunctionInvoker.resolveTailCalls(doNode.execute(environment));
+    }
+
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        if (!argumentList.hasType(SchemeType.CONS) || !((SchemeCons) argumentList).getCdr().hasType(SchemeType
+                .CONS)) {
+            throw new SchemeError("(do): bad syntax, missing variable specifications or test clause");
+        }
+
+        List<SchemeObject> variables = new ArrayList<>();
+        List<SchemeObject> initialValues = new ArrayList<>();
+        List<SchemeObject> steps = new ArrayList<>();
+        parseVariableSpecifications(((SchemeCons) argumentList).getCar(), variables, initialValues, steps);
+
+        SchemeObject testClause = ((SchemeCons) ((SchemeCons) argumentList).getCdr()).getCar();
+        if (!testClause.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(do): bad syntax, not a test clause: %s", testClause);
+        }
+        SchemeObject test = ((SchemeCons) testClause).getCar();
+        SchemeObject results = ((SchemeCons) testClause).getCdr();
+
+        // The commands followed by the call starting the next iteration
+        List<SchemeObject> iteration = new ArrayList<>();
+        SchemeObject restCommands = ((SchemeCons) ((SchemeCons) argumentList).getCdr()).getCdr();
+        while (restCommands.hasType(SchemeType.CONS)) {
+            iteration.add(((SchemeCons) restCommands).getCar());
+            restCommands = ((SchemeCons) restCommands).getCdr();
+        }
+        iteration.add(new SchemeCons(LOOP_NAME, SchemeBuiltinLet.toList(steps)));
+
+        return analyzer.analyzeLoop(LOOP_NAME, SchemeBuiltinLet.toList(variables), (SchemeCons) argumentList,
+                bodyScope -> IfNode.create(analyzer.analyze(test, bodyScope), results.hasType(SchemeType.CONS) ?
+                        analyzer.analyzeSequence((SchemeCons) results, bodyScope) : ConstantNode.create(new
+                        SchemeVoid()), analyzer.analyzeSequence((SchemeCons) SchemeBuiltinLet.toList(iteration),
+                        bodyScope)), SchemeBuiltinLet.toList(initialValues), scope);
+    }
+
+    /**
+     * Split specifications like ((i 0 (+ i 1)) (acc '())) into variables, initial values and steps. A variable
+     * without step keeps its value, i.e. the variable itself is its step.
+     */
+    private void parseVariableSpecifications(SchemeObject specifications, List<SchemeObject> variables,
+                                             List<SchemeObject> initialValues, List<SchemeObject> steps) throws
+            SchemeError {
+        SchemeObject restSpecifications = specifications;
+        while (restSpecifications.hasType(SchemeType.CONS)) {
+            SchemeObject specification = ((SchemeCons) restSpecifications).getCar();
+            if (!specification.hasType(SchemeType.CONS) || !((SchemeCons) specification).getCar().hasType
+                    (SchemeType.SYMBOL) || !((SchemeCons) specification).getCdr().hasType(SchemeType.CONS)) {
+                throw new SchemeError("(do): bad syntax, not a variable specification: %s",
+                        specification);
+            }
+            SchemeObject variable = ((SchemeCons) specification).getCar();
+            SchemeCons initAndStep = (SchemeCons) ((SchemeCons) specification).getCdr();
+
+            variables.add(variable);
+            initialValues.add(initAndStep.getCar());
+            if (initAndStep.getCdr().hasType(SchemeType.NIL)) {
+                steps.add(variable);
+            } else if (initAndStep.getCdr().hasType(SchemeType.CONS) && ((SchemeCons) initAndStep.getCdr())
+                    .getCdr().hasType(SchemeType.NIL)) {
+                steps.add(((SchemeCons) initAndStep.getCdr()).getCar());
+            } else {
+                throw new SchemeError("(do): bad syntax, not a variable specification: %s",
+                        specification);
+            }
+            restSpecifications = ((SchemeCons) restSpecifications).getCdr();
+        }
+
+        if (!restSpecifications.hasType(SchemeType.NIL)) {
+            throw new SchemeError("(do): bad syntax, not a sequence of variable specifications: %s",
+                    specifications);
+        }
+    }
+}
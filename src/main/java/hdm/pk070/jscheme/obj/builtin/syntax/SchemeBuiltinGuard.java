@@ -0,0 +1,180 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.function.control.ExceptionHandlers;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.table.symbolTable.SchemeSymbolTable;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Evaluates a body and catches the objects raised while doing so. The raised object is bound to a variable and the
+ * clauses are checked in order, like the clauses of 'cond'; the value of the first clause applying is the result of
+ * the guard. If no clause applies, the object is raised once more to the handlers outside of the guard. Errors
+ * signalled by the interpreter itself are caught as error objects.
+ * <br/><br/>
+ * Usage examples:
+ * <br/><br/>
+ * (guard (e ((eq? e 'oops) 'caught) (else 'other)) (raise 'oops))<br/>
+ * (guard (e ((error-object? e) (error-object-message e))) (car 1))<br/>
+ * <br/>
+ * The guard is turned into a call of two procedures, one evaluating the clauses and one evaluating the body, which
+ * are analyzed like any other lambda.
+ */
+public final class SchemeBuiltinGuard extends SchemeBuiltinSyntax {
+
+    /**
+     * The reader never produces symbols containing whitespace, so the variable can't be shadowed by a clause.
+     */
+    private static final SchemeSymbol TEST_VARIABLE = new SchemeSymbol("guard test");
+    private static final SchemeSymbol ELSE = new SchemeSymbol("else");
+    private static final SchemeSymbol ARROW = new SchemeSymbol("=>");
+
+    /**
+     * Returned by the clauses if none of them applies.
+     */
+    private static final SchemeObject NO_MATCH = new SchemeSymbol("guard no match");
+
+    private static final GuardFunction GUARD_FUNCTION = new GuardFunction();
+
+    public static SchemeBuiltinGuard create() {
+        return new SchemeBuiltinGuard();
+    }
+
+    private SchemeBuiltinGuard() {
+        super("guard");
+    }
+
+    @Override
+    public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        ExecutionNode guardNode = analyze(argumentList, SchemeAnalyzer.getInstance(), AnalysisScope
+                .withRootEnvironment(environment));
+        return FunctionInvoker.resolveTailCalls(guardNode.execute(environment));
+    }
+
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        if (!argumentList.hasType(SchemeType.CONS) || !((SchemeCons) argumentList).getCar().hasType(SchemeType
+                .CONS) || !((SchemeCons) ((SchemeCons) argumentList).getCar()).getCar().hasType(SchemeType.SYMBOL)) {
+            throw new SchemeError("(guard): bad syntax, missing variable and clauses");
+        }
+        SchemeCons variableAndClauses = (SchemeCons) ((SchemeCons) argumentList).getCar();
+        SchemeObject body = ((SchemeCons) argumentList).getCdr();
+        if (!body.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(guard): bad syntax, missing body");
+        }
+
+        SchemeObject clausesLambda = list(symbol("lambda"), list(variableAndClauses.getCar()), expandClauses
+                (variableAndClauses.getCdr()));
+        SchemeObject bodyLambda = new SchemeCons(symbol("lambda"), new SchemeCons(new SchemeNil(), body));
+        return analyzer.analyze(list(GUARD_FUNCTION, clausesLambda, bodyLambda), scope);
+    }
+
+    /**
+     * Turn the clauses into nested 'if' expressions, ending with {@link #NO_MATCH}.
+     */
+    private SchemeObject expandClauses(SchemeObject clauses) throws SchemeError {
+        if (clauses.hasType(SchemeType.NIL)) {
+            return list(symbol("quote"), NO_MATCH);
+        }
+        if (!clauses.hasType(SchemeType.CONS) || !((SchemeCons) clauses).getCar().hasType(SchemeType.CONS)) {
+            throw new SchemeError("(guard): bad syntax, not a sequence of clauses: %s", clauses);
+        }
+
+        SchemeCons clause = (SchemeCons) ((SchemeCons) clauses).getCar();
+        SchemeObject restClauses = ((SchemeCons) clauses).getCdr();
+        SchemeObject test = clause.getCar();
+        SchemeObject expressions = clause.getCdr();
+
+        if (ELSE.equals(test)) {
+            if (!restClauses.hasType(SchemeType.NIL) || !expressions.hasType(SchemeType.CONS)) {
+                throw new SchemeError("(guard): bad syntax, 'else' must be the last clause and needs an expression");
+            }
+            return sequence(expressions);
+        }
+        if (expressions.hasType(SchemeType.NIL)) {
+            // (test) results in the value of test
+            return bindTest(test, TEST_VARIABLE, restClauses);
+        }
+        if (expressions.hasType(SchemeType.CONS) && ARROW.equals(((SchemeCons) expressions).getCar())) {
+            SchemeObject receiver = ((SchemeCons) expressions).getCdr();
+            if (!receiver.hasType(SchemeType.CONS) || !((SchemeCons) receiver).getCdr().hasType(SchemeType.NIL)) {
+                throw new SchemeError("(guard): bad syntax, expected a single receiver after => in: %s", clause);
+            }
+            return bindTest(test, list(((SchemeCons) receiver).getCar(), TEST_VARIABLE), restClauses);
+        }
+        return list(symbol("if"), test, sequence(expressions), expandClauses(restClauses));
+    }
+
+    /**
+     * Evaluate the test once, and evaluate {@code consequent} with the test's value bound to
+     * {@link #TEST_VARIABLE} if it's met.
+     */
+    private SchemeObject bindTest(SchemeObject test, SchemeObject consequent, SchemeObject restClauses) throws
+            SchemeError {
+        SchemeObject testLambda = list(symbol("lambda"), list(TEST_VARIABLE), list(symbol("if"), TEST_VARIABLE,
+                consequent, expandClauses(restClauses)));
+        return list(testLambda, test);
+    }
+
+    private SchemeObject sequence(SchemeObject expressions) throws SchemeError {
+        if (((SchemeCons) expressions).getCdr().hasType(SchemeType.NIL)) {
+            return ((SchemeCons) expressions).getCar();
+        }
+        return list(new SchemeCons(symbol("lambda"), new SchemeCons(new SchemeNil(), expressions)));
+    }
+
+    /**
+     * Get the symbol the reader would produce, since variables are looked up by the identity of their symbols.
+     */
+    private static SchemeSymbol symbol(String name) throws SchemeError {
+        Optional<SchemeSymbol> symbol = SchemeSymbolTable.getInstance().get(name);
+        if (symbol.isPresent()) {
+            return symbol.get();
+        }
+        return SchemeSymbolTable.getInstance().add(new SchemeSymbol(name));
+    }
+
+    private static SchemeObject list(SchemeObject... elements) {
+        return SchemeBuiltinLet.toList(Arrays.asList(elements));
+    }
+
+    /**
+     * Calls {@link ExceptionHandlers#guard(SchemeObject, SchemeObject, SchemeObject)} with the clauses and the body
+     * of a guard. It's not bound to any variable, but referred to by the expanded guard directly.
+     */
+    private static final class GuardFunction extends SchemeBuiltinFunction {
+
+        private GuardFunction() {
+            super("guard");
+        }
+
+        @Override
+        public SchemeObject call(int argCount) throws SchemeError {
+            // switch order of arguments
+            SchemeObject thunk = SchemeCallStack.instance().pop();
+            SchemeObject clauses = SchemeCallStack.instance().pop();
+            return call2(clauses, thunk);
+        }
+
+        @Override
+        public SchemeObject call2(SchemeObject clauses, SchemeObject thunk) throws SchemeError {
+            return ExceptionHandlers.guard(clauses, thunk, NO_MATCH);
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package hdm.pk070.jscheme.obj.builtin.syntax;
 
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.eval.SchemeEval;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeString;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
-import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeTrue;
 import hdm.pk070.jscheme.obj.builtin.simple.number.SchemeNumber;
 import hdm.pk070.jscheme.table.environment.Environment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
@@ -28,53 +30,97 @@ public final class SchemeBuiltinIf extends SchemeBuiltinSyntax {
     @Override
     public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment)
             throws SchemeError {
+        return SchemeEval.getInstance().eval(selectBranch(argumentList, environment), environment);
+    }
+
+    /**
+     * Evaluate the condition and choose the branch to evaluate next, which is left to the caller. This way, the
+     * tree-walking evaluator evaluates a branch in tail position without nesting Java calls.
+     *
+     * @param argumentList
+     *         Condition, then-expression and else-expression.
+     * @param environment
+     *         The environment the condition is evaluated in.
+     * @return The unevaluated expression of the chosen branch.
+     * @throws SchemeError
+     *         If the syntax is invalid or evaluating the condition fails.
+     */
+    public SchemeObject selectBranch(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry>
+            environment) throws SchemeError {
+        SchemeObject[] ifParts = parseArgumentList(argumentList);
+
+        SchemeObject conditionalValue = SchemeEval.getInstance().eval(ifParts[0], environment);
+        if (isConditionMet(conditionalValue)) {
+            return ifParts[1];
+        } else {
+            return ifParts[2];
+        }
+    }
+
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        SchemeObject[] ifParts = parseArgumentList(argumentList);
+        return analyzer.analyzeIf(ifParts[0], ifParts[1], ifParts[2], scope);
+    }
+
+    /**
+     * Check if a value makes 'if' choose its first branch.
+     *
+     * @param conditionalValue
+     *         The evaluated condition.
+     * @return True for non-zero numbers, non-empty strings and #t, false otherwise.
+     */
+    public static boolean isConditionMet(SchemeObject conditionalValue) {
+        return isNonZeroNumber(conditionalValue) || isNonEmptyString(conditionalValue) || isSchemeTrue
+                (conditionalValue);
+    }
 
-        if (!argumentList.typeOf(SchemeCons.class)) {
+    /**
+     * Validate the argument list and split it into condition, then-expression and else-expression.
+     */
+    private SchemeObject[] parseArgumentList(SchemeObject argumentList) throws SchemeError {
+        if (!argumentList.hasType(SchemeType.CONS)) {
             throw new SchemeError("(if): bad syntax, has 0 parts after keyword in: (if)");
         }
 
         SchemeObject conditionalExpression = ((SchemeCons) argumentList).getCar();
         SchemeObject argumentRestList = ((SchemeCons) argumentList).getCdr();
 
-        if (!argumentRestList.typeOf(SchemeCons.class)) {
-            throw new SchemeError(String.format("(if): bad syntax, has 1 parts after keyword in: %s", (new SchemeCons
-                    (new SchemeSymbol("if"), argumentList)).toString().substring(1)));
+        if (!argumentRestList.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(if): bad syntax, has 1 parts after keyword in: %s", (new SchemeCons
+                    (new SchemeSymbol("if"), argumentList)).toString().substring(1));
         }
 
         SchemeObject conditionMetExpression = ((SchemeCons) argumentRestList).getCar();
         argumentRestList = ((SchemeCons) argumentRestList).getCdr();
 
-        if (!argumentRestList.typeOf(SchemeCons.class)) {
-            throw new SchemeError(String.format("(if): missing 'else' expression in: %s", (new SchemeCons
-                    (new SchemeSymbol("if"), argumentList)).toString().substring(1)));
+        if (!argumentRestList.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(if): missing 'else' expression in: %s", (new SchemeCons
+                    (new SchemeSymbol("if"), argumentList)).toString().substring(1));
         }
 
         SchemeObject elseExpression = ((SchemeCons) argumentRestList).getCar();
         argumentRestList = ((SchemeCons) argumentRestList).getCdr();
 
-        if (!argumentRestList.typeOf(SchemeNil.class)) {
-            throw new SchemeError(String.format("(if): bad syntax, has too many parts after keyword in: %s", (new
-                    SchemeCons(new SchemeSymbol("if"), argumentList)).toString().substring(1)));
+        if (!argumentRestList.hasType(SchemeType.NIL)) {
+            throw new SchemeError("(if): bad syntax, has too many parts after keyword in: %s", (new
+                    SchemeCons(new SchemeSymbol("if"), argumentList)).toString().substring(1));
         }
 
-        SchemeObject conditionalValue = SchemeEval.getInstance().eval(conditionalExpression, environment);
-        if (isNonZeroNumber(conditionalValue) || isNonEmptyString(conditionalValue) || isSchemeTrue(conditionalValue)) {
-            return SchemeEval.getInstance().eval(conditionMetExpression, environment);
-        } else {
-            return SchemeEval.getInstance().eval(elseExpression, environment);
-        }
+        return new SchemeObject[]{conditionalExpression, conditionMetExpression, elseExpression};
     }
 
-    private boolean isNonZeroNumber(SchemeObject conditionValue) {
-        return conditionValue.subtypeOf(SchemeNumber.class) && (((SchemeNumber) conditionValue).getValue()
+    private static boolean isNonZeroNumber(SchemeObject conditionValue) {
+        return conditionValue.getType().isNumber() && (((SchemeNumber) conditionValue).getValue()
                 .intValue() != 0);
     }
 
-    private boolean isNonEmptyString(SchemeObject conditionValue) {
-        return conditionValue.typeOf(SchemeString.class) && !((SchemeString) conditionValue).getValue().equals("");
+    private static boolean isNonEmptyString(SchemeObject conditionValue) {
+        return conditionValue.hasType(SchemeType.STRING) && !((SchemeString) conditionValue).getValue().equals("");
     }
 
-    private boolean isSchemeTrue(SchemeObject conditionValue) {
-        return conditionValue.typeOf(SchemeTrue.class);
+    private static boolean isSchemeTrue(SchemeObject conditionValue) {
+        return conditionValue.hasType(SchemeType.TRUE);
     }
 }
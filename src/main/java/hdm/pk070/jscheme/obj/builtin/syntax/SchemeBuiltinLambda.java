@@ -1,11 +1,14 @@
 package hdm.pk070.jscheme.obj.builtin.syntax;
 
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
-import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.obj.custom.FunctionTemplateCache;
 import hdm.pk070.jscheme.table.environment.Environment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
 
@@ -26,24 +29,39 @@ public class SchemeBuiltinLambda extends SchemeBuiltinSyntax {
     @Override
     public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment)
             throws SchemeError {
-        if (!argumentList.typeOf(SchemeCons.class)) {
+        ensureArgumentListIsValid(argumentList);
+
+        // The lambda expression is prepared only once, every evaluation just creates a closure out of it
+        return FunctionTemplateCache.getInstance().templateFor((SchemeCons) argumentList, "anonymous lambda", (
+                (SchemeCons) argumentList).getCar(), (SchemeCons) ((SchemeCons) argumentList).getCdr()).bindTo
+                (environment);
+    }
+
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        ensureArgumentListIsValid(argumentList);
+
+        return analyzer.analyzeLambda("anonymous lambda", ((SchemeCons) argumentList).getCar(), (SchemeCons) (
+                (SchemeCons) argumentList).getCdr(), scope);
+    }
+
+    private void ensureArgumentListIsValid(SchemeObject argumentList) throws SchemeError {
+        if (!argumentList.hasType(SchemeType.CONS)) {
             throw new SchemeError("(lambda): bad syntax in: (lambda) [expected 2 arguments, 0 given]");
         }
 
         SchemeObject lambdaParameterList = ((SchemeCons) argumentList).getCar();
 
-        if (!(lambdaParameterList.typeOf(SchemeNil.class) || lambdaParameterList.typeOf(SchemeCons.class) ||
-                lambdaParameterList.typeOf(SchemeSymbol.class))) {
+        if (!(lambdaParameterList.hasType(SchemeType.NIL) || lambdaParameterList.hasType(SchemeType.CONS) ||
+                lambdaParameterList.hasType(SchemeType.SYMBOL))) {
             throw new SchemeError("(lambda): bad syntax, invalid parameter list");
         }
 
         SchemeObject lambdaBodyList = ((SchemeCons) argumentList).getCdr();
 
-        if (!lambdaBodyList.typeOf(SchemeCons.class)) {
+        if (!lambdaBodyList.hasType(SchemeType.CONS)) {
             throw new SchemeError("(lambda): bad syntax in: (lambda (x)) [expected 2 arguments, 1 given]");
         }
-
-        return SchemeCustomUserFunction.create("anonymous lambda", lambdaParameterList, (SchemeCons) lambdaBodyList,
-                environment).prepare();
     }
 }
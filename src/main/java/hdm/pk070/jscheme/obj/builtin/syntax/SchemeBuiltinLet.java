@@ -0,0 +1,117 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bind variables to the values of some expressions for the scope of a body. A named let additionally binds a name
+ * to the body itself, so it can be used as a loop: calling the name in tail position starts the body over with the
+ * variables bound to the arguments.
+ * <br/><br/>
+ * Usage examples:
+ * <br/><br/>
+ * (let ((x 1) (y 2)) (+ x y))<br/>
+ * (let loop ((i 10) (acc 0)) (if (eq? i 0) acc (loop (- i 1) (+ acc i))))<br/>
+ */
+public final class SchemeBuiltinLet extends SchemeBuiltinSyntax {
+
+    public static SchemeBuiltinLet create() {
+        return new SchemeBuiltinLet();
+    }
+
+    private SchemeBuiltinLet() {
+        super("let");
+    }
+
+    @Override
+    public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        ExecutionNode letNode = analyze(argumentList, SchemeAnalyzer.getInstance(), AnalysisScope
+                .withRootEnvironment(environment));
+        return FunctionInvoker.resolveTailCalls(letNode.execute(environment));
+    }
+
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        if (!argumentList.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(let): bad syntax in: (let)");
+        }
+
+        SchemeObject firstArgument = ((SchemeCons) argumentList).getCar();
+        SchemeObject restArguments = ((SchemeCons) argumentList).getCdr();
+        if (firstArgument.hasType(SchemeType.SYMBOL)) {
+            if (!restArguments.hasType(SchemeType.CONS)) {
+                throw new SchemeError("(let): bad syntax, missing bindings after name %s",
+                        firstArgument);
+            }
+            SchemeCons bindingsAndBody = (SchemeCons) restArguments;
+            SchemeObject[] variablesAndValues = parseBindings(bindingsAndBody.getCar());
+            SchemeCons functionBodyList = ensureBodyIsPresent(bindingsAndBody.getCdr());
+
+            return analyzer.analyzeLoop((SchemeSymbol) firstArgument, variablesAndValues[0], functionBodyList,
+                    bodyScope -> analyzer.analyzeBody(functionBodyList, bodyScope), variablesAndValues[1], scope);
+        }
+
+        SchemeObject[] variablesAndValues = parseBindings(firstArgument);
+        SchemeCons functionBodyList = ensureBodyIsPresent(restArguments);
+        return analyzer.analyzeLet(variablesAndValues[0], functionBodyList, variablesAndValues[1], scope);
+    }
+
+    private SchemeCons ensureBodyIsPresent(SchemeObject functionBodyList) throws SchemeError {
+        if (!functionBodyList.hasType(SchemeType.CONS)) {
+            throw new SchemeError("(let): bad syntax, missing body");
+        }
+        return (SchemeCons) functionBodyList;
+    }
+
+    /**
+     * Split a binding list like ((x 1) (y 2)) into the list of variables (x y) and the list of expressions (1 2).
+     * An empty binding list results in two empty lists, represented by {@link SchemeNil}.
+     */
+    private SchemeObject[] parseBindings(SchemeObject bindingList) throws SchemeError {
+        List<SchemeObject> variables = new ArrayList<>();
+        List<SchemeObject> values = new ArrayList<>();
+
+        SchemeObject restBindings = bindingList;
+        while (restBindings.hasType(SchemeType.CONS)) {
+            SchemeObject binding = ((SchemeCons) restBindings).getCar();
+            if (!binding.hasType(SchemeType.CONS) || !((SchemeCons) binding).getCar().hasType(SchemeType.SYMBOL) ||
+                    !((SchemeCons) binding).getCdr().hasType(SchemeType.CONS) || !((SchemeCons) ((SchemeCons)
+                    binding).getCdr()).getCdr().hasType(SchemeType.NIL)) {
+                throw new SchemeError("(let): bad syntax, not an identifier and expression for a " +
+                        "binding in: %s", binding);
+            }
+            variables.add(((SchemeCons) binding).getCar());
+            values.add(((SchemeCons) ((SchemeCons) binding).getCdr()).getCar());
+            restBindings = ((SchemeCons) restBindings).getCdr();
+        }
+
+        if (!restBindings.hasType(SchemeType.NIL)) {
+            throw new SchemeError("(let): bad syntax, not a sequence of bindings in: %s",
+                    bindingList);
+        }
+        return new SchemeObject[]{toList(variables), toList(values)};
+    }
+
+    static SchemeObject toList(List<SchemeObject> elements) {
+        SchemeObject list = new SchemeNil();
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            list = new SchemeCons(elements.get(i), list);
+        }
+        return list;
+    }
+}
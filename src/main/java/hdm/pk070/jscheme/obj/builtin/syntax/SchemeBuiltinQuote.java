@@ -1,9 +1,13 @@
 package hdm.pk070.jscheme.obj.builtin.syntax;
 
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ConstantNode;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import hdm.pk070.jscheme.table.environment.Environment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
@@ -28,10 +32,19 @@ public final class SchemeBuiltinQuote extends SchemeBuiltinSyntax {
     @Override
     public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment)
             throws SchemeError {
+        return quotedExpression(argumentList);
+    }
+
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        return ConstantNode.create(quotedExpression(argumentList));
+    }
 
-        if (!argumentList.typeOf(SchemeCons.class)) {
+    private SchemeObject quotedExpression(SchemeObject argumentList) throws SchemeError {
+        if (!argumentList.hasType(SchemeType.CONS)) {
             throw new SchemeError("(quote): bad syntax in: (quote) [expected 1 argument, 0 given]");
-        } else if (!((SchemeCons) argumentList).getCdr().typeOf(SchemeNil.class)) {
+        } else if (!((SchemeCons) argumentList).getCdr().hasType(SchemeType.NIL)) {
             throw new SchemeError("(quote): bad syntax in: (quote) [expected 1 argument, more given]");
         }
         return ((SchemeCons) argumentList).getCar();
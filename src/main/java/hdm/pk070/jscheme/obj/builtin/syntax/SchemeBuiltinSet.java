@@ -0,0 +1,82 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.SetNode;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.eval.SchemeEval;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+/**
+ * Built-in syntax 'set!' assigns a new value to a variable which has been bound before. Unlike 'define', it never
+ * creates a binding, so assigning an unbound variable is an error.
+ * <br/><br/>
+ * Usage examples:
+ * <br/><br/>
+ * (set! counter (+ counter 1))<br/>
+ * (define (make-counter) (let ((n 0)) (lambda () (set! n (+ n 1)) n)))<br/>
+ */
+public final class SchemeBuiltinSet extends SchemeBuiltinSyntax {
+
+    public static SchemeBuiltinSet create() {
+        return new SchemeBuiltinSet();
+    }
+
+    private SchemeBuiltinSet() {
+        super("set!");
+    }
+
+    @Override
+    public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        SchemeSymbol variable = getVariable(argumentList);
+        SchemeObject value = SchemeEval.getInstance().eval(getValueExpression(argumentList), environment);
+        SetNode.assign(environment, variable, value);
+        return new SchemeVoid();
+    }
+
+    @Override
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        return analyzer.analyzeAssignment(getVariable(argumentList), getValueExpression(argumentList), scope);
+    }
+
+    /**
+     * Get the variable assigned by an application of 'set!' without validating the rest of it. Used for finding
+     * the variables a function body assigns before the body is analyzed.
+     *
+     * @param argumentList
+     *         The unevaluated argument list.
+     * @return The assigned variable or null if the argument list doesn't start with a symbol.
+     */
+    public static SchemeSymbol getAssignedVariable(SchemeObject argumentList) {
+        if (argumentList.hasType(SchemeType.CONS) && ((SchemeCons) argumentList).getCar().hasType(SchemeType
+                .SYMBOL)) {
+            return (SchemeSymbol) ((SchemeCons) argumentList).getCar();
+        }
+        return null;
+    }
+
+    private SchemeSymbol getVariable(SchemeObject argumentList) throws SchemeError {
+        if (!argumentList.hasType(SchemeType.CONS) || !((SchemeCons) argumentList).getCdr().hasType(SchemeType
+                .CONS) || !((SchemeCons) ((SchemeCons) argumentList).getCdr()).getCdr().hasType(SchemeType.NIL)) {
+            throw new SchemeError("(set!): bad syntax (requires exactly 2 arguments)");
+        }
+        SchemeObject variable = ((SchemeCons) argumentList).getCar();
+        if (!variable.hasType(SchemeType.SYMBOL)) {
+            throw new SchemeError("(set!): bad syntax (not an identifier: %s)", variable);
+        }
+        return (SchemeSymbol) variable;
+    }
+
+    private SchemeObject getValueExpression(SchemeObject argumentList) {
+        return ((SchemeCons) ((SchemeCons) argumentList).getCdr()).getCar();
+    }
+}
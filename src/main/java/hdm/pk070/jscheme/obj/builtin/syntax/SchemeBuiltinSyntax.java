@@ -1,7 +1,12 @@
 package hdm.pk070.jscheme.obj.builtin.syntax;
 
+import hdm.pk070.jscheme.analyze.AnalysisScope;
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.SyntaxApplicationNode;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import hdm.pk070.jscheme.table.environment.Environment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
@@ -16,6 +21,7 @@ public abstract class SchemeBuiltinSyntax extends SchemeObject {
     private final String internalName;
 
     protected SchemeBuiltinSyntax(String internalName) {
+        super(SchemeType.BUILTIN_SYNTAX);
         this.internalName = internalName;
     }
 
@@ -33,6 +39,26 @@ public abstract class SchemeBuiltinSyntax extends SchemeObject {
     public abstract SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry>
             environment) throws SchemeError;
 
+    /**
+     * Turn an application of this syntax into an {@link ExecutionNode}. Subclasses should validate the argument
+     * list here and return a specialized node, so the syntax check does not have to be repeated on each execution.
+     * By default, the unevaluated argument list is passed to {@link #apply(SchemeObject, Environment)} on execution.
+     *
+     * @param argumentList
+     *         The unevaluated argument list.
+     * @param analyzer
+     *         The analyzer that can be used for analyzing sub-expressions.
+     * @param scope
+     *         The scope the syntax is applied in.
+     * @return The analyzed syntax application.
+     * @throws SchemeError
+     *         If syntax is not used as expected.
+     */
+    public ExecutionNode analyze(SchemeObject argumentList, SchemeAnalyzer analyzer, AnalysisScope scope) throws
+            SchemeError {
+        return SyntaxApplicationNode.create(this, argumentList);
+    }
+
     /**
      * We assume that a built-in syntax does not have a value to return.
      * The current solution might not be the best one.
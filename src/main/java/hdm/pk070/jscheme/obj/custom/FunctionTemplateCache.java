@@ -0,0 +1,132 @@
+package hdm.pk070.jscheme.obj.custom;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+
+/**
+ * Remembers the prepared {@link SchemeCustomUserFunction} created for a lambda or function definition, so
+ * evaluating the same source expression again only has to bind the prepared function to an environment instead of
+ * walking parameter list and body once more. Templates are looked up by the identity of the source expression,
+ * which is referenced weakly: as soon as the code containing the expression is gone, its template is dropped as
+ * well.
+ */
+public final class FunctionTemplateCache {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static FunctionTemplateCache functionTemplateCache = null;
+
+    private final ReferenceQueue<SchemeObject> collectedSources;
+    private Entry[] buckets;
+    private int entryCount;
+
+    public static synchronized FunctionTemplateCache getInstance() {
+        if (Objects.isNull(functionTemplateCache)) {
+            functionTemplateCache = new FunctionTemplateCache();
+        }
+        return functionTemplateCache;
+    }
+
+    private FunctionTemplateCache() {
+        this.collectedSources = new ReferenceQueue<>();
+        this.buckets = new Entry[INITIAL_CAPACITY];
+        this.entryCount = 0;
+    }
+
+    /**
+     * Get the prepared function for a source expression, preparing it on first request. The template has no home
+     * environment and must be bound to one by {@link SchemeCustomUserFunction#bindTo} before it's called.
+     *
+     * @param source
+     *         The expression the function is created from, e.g. the argument list of a lambda expression.
+     * @param internalName
+     *         The name of the function.
+     * @param parameterList
+     *         The function's parameter list.
+     * @param functionBodyList
+     *         The function's body list.
+     * @return The prepared function.
+     * @throws SchemeError
+     *         If the parameter list is invalid. Invalid functions are not cached.
+     */
+    public synchronized SchemeCustomUserFunction templateFor(SchemeCons source, String internalName, SchemeObject
+            parameterList, SchemeCons functionBodyList) throws SchemeError {
+        int hash = System.identityHashCode(source);
+        for (Entry entry = buckets[hash & (buckets.length - 1)]; Objects.nonNull(entry); entry = entry.next) {
+            if (entry.get() == source) {
+                return entry.template;
+            }
+        }
+
+        SchemeCustomUserFunction template = SchemeCustomUserFunction.create(internalName, parameterList,
+                functionBodyList, null).prepare();
+        expungeCollectedSources();
+        if (entryCount >= buckets.length * 3 / 4) {
+            resize();
+        }
+        int index = hash & (buckets.length - 1);
+        buckets[index] = new Entry(source, hash, template, buckets[index], collectedSources);
+        entryCount++;
+        return template;
+    }
+
+    private void expungeCollectedSources() {
+        Object collectedEntry;
+        while (Objects.nonNull(collectedEntry = collectedSources.poll())) {
+            Entry entry = (Entry) collectedEntry;
+            int index = entry.hash & (buckets.length - 1);
+            Entry previous = null;
+            for (Entry current = buckets[index]; Objects.nonNull(current); current = current.next) {
+                if (current == entry) {
+                    if (Objects.isNull(previous)) {
+                        buckets[index] = current.next;
+                    } else {
+                        previous.next = current.next;
+                    }
+                    entryCount--;
+                    break;
+                }
+                previous = current;
+            }
+        }
+    }
+
+    private void resize() {
+        Entry[] newBuckets = new Entry[buckets.length * 2];
+        for (Entry bucket : buckets) {
+            Entry entry = bucket;
+            while (Objects.nonNull(entry)) {
+                Entry next = entry.next;
+                int index = entry.hash & (newBuckets.length - 1);
+                entry.next = newBuckets[index];
+                newBuckets[index] = entry;
+                entry = next;
+            }
+        }
+        buckets = newBuckets;
+    }
+
+    /**
+     * A chained bucket entry referencing its source expression weakly. The hash is kept since it can't be computed
+     * anymore once the source has been collected.
+     */
+    private static final class Entry extends WeakReference<SchemeObject> {
+
+        private final int hash;
+        private final SchemeCustomUserFunction template;
+        private Entry next;
+
+        private Entry(SchemeObject source, int hash, SchemeCustomUserFunction template, Entry next,
+                      ReferenceQueue<SchemeObject> collectedSources) {
+            super(source, collectedSources);
+            this.hash = hash;
+            this.template = template;
+            this.next = next;
+        }
+    }
+}
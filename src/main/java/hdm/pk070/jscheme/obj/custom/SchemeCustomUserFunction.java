@@ -1,14 +1,22 @@
 package hdm.pk070.jscheme.obj.custom;
 
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.AnalyzedBody;
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeFunction;
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import hdm.pk070.jscheme.table.environment.Environment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+
 /**
  * This class represents a custom Scheme function defined by the user.
  *
@@ -16,12 +24,25 @@ import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
  */
 public class SchemeCustomUserFunction extends SchemeFunction {
 
+    private static final SchemeSymbol DEFINE_SYMBOL = new SchemeSymbol("define");
+
+    private static final MethodHandle INVOKE_FUNCTION;
+
+    static {
+        try {
+            INVOKE_FUNCTION = MethodHandles.lookup().findStatic(FunctionInvoker.class, "invokeCustomUserFunction",
+                    MethodType.methodType(SchemeObject.class, SchemeCustomUserFunction.class, SchemeObject[].class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
     private final SchemeObject parameterList;
     private final SchemeCons functionBodyList;
     private final Environment<SchemeSymbol, EnvironmentEntry> homeEnvironment;
     private Integer localVariableCount;
     private Integer paramCount;
+    private AnalyzedBody analyzedBody;
 
     public static SchemeCustomUserFunction create(String internalName, SchemeObject parameterList, SchemeCons
             functionBodyList, Environment<SchemeSymbol, EnvironmentEntry> homeEnvironment) {
@@ -30,7 +51,7 @@ public class SchemeCustomUserFunction extends SchemeFunction {
 
     private SchemeCustomUserFunction(String internalName, SchemeObject parameterList, SchemeCons functionBodyList,
                                      Environment<SchemeSymbol, EnvironmentEntry> homeEnvironment) {
-        super(internalName);
+        super(internalName, SchemeType.CUSTOM_FUNCTION);
         this.parameterList = parameterList;
         this.functionBodyList = functionBodyList;
         this.homeEnvironment = homeEnvironment;
@@ -38,6 +59,17 @@ public class SchemeCustomUserFunction extends SchemeFunction {
         this.paramCount = 0;
     }
 
+    private SchemeCustomUserFunction(SchemeCustomUserFunction preparedFunction, Environment<SchemeSymbol,
+            EnvironmentEntry> homeEnvironment) {
+        super(preparedFunction.getInternalName(), SchemeType.CUSTOM_FUNCTION);
+        this.parameterList = preparedFunction.parameterList;
+        this.functionBodyList = preparedFunction.functionBodyList;
+        this.homeEnvironment = homeEnvironment;
+        this.localVariableCount = preparedFunction.localVariableCount;
+        this.paramCount = preparedFunction.paramCount;
+        this.analyzedBody = preparedFunction.analyzedBody;
+    }
+
     /**
      * Triggering the function to finish its own setup.
      *
@@ -51,6 +83,39 @@ public class SchemeCustomUserFunction extends SchemeFunction {
         return this;
     }
 
+    /**
+     * Attach a function body which has already been analyzed.
+     *
+     * @param analyzedBody
+     *         The analyzed function body.
+     * @return The calling function object
+     */
+    public SchemeCustomUserFunction withAnalyzedBody(AnalyzedBody analyzedBody) {
+        this.analyzedBody = analyzedBody;
+        return this;
+    }
+
+    /**
+     * Create a closure out of a prepared function. Parameter list, body and counters are shared with the calling
+     * function object, so nothing has to be computed again.
+     *
+     * @param homeEnvironment
+     *         The environment the new closure is created in.
+     * @return A new function object which has {@code homeEnvironment} as home environment.
+     */
+    public SchemeCustomUserFunction bindTo(Environment<SchemeSymbol, EnvironmentEntry> homeEnvironment) {
+        return new SchemeCustomUserFunction(this, homeEnvironment);
+    }
+
+    /**
+     * The entry point of a user-defined function executes its analyzed (or compiled) body via
+     * {@link FunctionInvoker#invokeCustomUserFunction(SchemeCustomUserFunction, SchemeObject[])}.
+     */
+    @Override
+    public MethodHandle getEntryPoint(int argumentCount) {
+        return INVOKE_FUNCTION.bindTo(this);
+    }
+
     /**
      * Counting the number of parameters specified in the function's parameter list.
      *
@@ -61,9 +126,9 @@ public class SchemeCustomUserFunction extends SchemeFunction {
     private int countParams() throws SchemeError {
         int count = 0;
         SchemeObject paramList = this.parameterList;
-        while (!paramList.typeOf(SchemeNil.class)) {
+        while (!paramList.hasType(SchemeType.NIL)) {
             if (isValidParam(paramList)) {
-                if (paramList.typeOf(SchemeSymbol.class)) {
+                if (paramList.hasType(SchemeType.SYMBOL)) {
                     return count + 1;
                 }
             }
@@ -84,12 +149,12 @@ public class SchemeCustomUserFunction extends SchemeFunction {
      *         if parameter is invalid
      */
     private boolean isValidParam(SchemeObject parameterList) throws SchemeError {
-        if (parameterList.typeOf(SchemeCons.class) && ((SchemeCons) parameterList).getCar()
-                .typeOf(SchemeSymbol.class)) {
+        if (parameterList.hasType(SchemeType.CONS) && ((SchemeCons) parameterList).getCar()
+                .hasType(SchemeType.SYMBOL)) {
             return true;
         }
-        throw new SchemeError(String.format("(define): not an identifier for procedure argument in: %s",
-                ((SchemeCons) parameterList).getCar()));
+        throw new SchemeError("(define): not an identifier for procedure argument in: %s",
+                ((SchemeCons) parameterList).getCar());
     }
 
     /**
@@ -101,9 +166,9 @@ public class SchemeCustomUserFunction extends SchemeFunction {
         int currentCount = 0;
         SchemeObject currentBodyPart = this.functionBodyList;
 
-        while (!currentBodyPart.typeOf(SchemeNil.class)) {
+        while (!currentBodyPart.hasType(SchemeType.NIL)) {
 
-            if (currentBodyPart.typeOf(SchemeCons.class)) {
+            if (currentBodyPart.hasType(SchemeType.CONS)) {
                 if (isDefinition(((SchemeCons) currentBodyPart).getCar())) {
                     currentCount++;
                 }
@@ -124,8 +189,7 @@ public class SchemeCustomUserFunction extends SchemeFunction {
      * @return True if partialBody is a define statement, false otherwise
      */
     private boolean isDefinition(SchemeObject partialBody) {
-        return partialBody.typeOf(SchemeCons.class) && ((SchemeCons) partialBody).getCar().equals(new
-                SchemeSymbol("define"));
+        return partialBody.hasType(SchemeType.CONS) && ((SchemeCons) partialBody).getCar().equals(DEFINE_SYMBOL);
     }
 
     public int getRequiredSlotsCount() {
@@ -147,4 +211,19 @@ public class SchemeCustomUserFunction extends SchemeFunction {
     public SchemeCons getFunctionBodyList() {
         return functionBodyList;
     }
+
+    /**
+     * Get the analyzed function body. Functions which have not been created by {@link SchemeAnalyzer} get their
+     * body analyzed on first request.
+     *
+     * @return The analyzed function body.
+     * @throws SchemeError
+     *         If the function body contains invalid syntax.
+     */
+    public AnalyzedBody getAnalyzedBody() throws SchemeError {
+        if (Objects.isNull(analyzedBody)) {
+            analyzedBody = SchemeAnalyzer.getInstance().analyzeFunctionBody(this);
+        }
+        return analyzedBody;
+    }
 }
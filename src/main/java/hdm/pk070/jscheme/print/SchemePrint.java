@@ -2,7 +2,7 @@ package hdm.pk070.jscheme.print;
 
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
-import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.obj.SchemeType;
 
 /**
  * Deals with any print concerns in JScheme.
@@ -25,7 +25,7 @@ public final class SchemePrint {
      *         The evaluation result to print.
      */
     public static void printEvalResult(SchemeObject evalResult) {
-        if (!evalResult.typeOf(SchemeVoid.class)) {
+        if (!evalResult.hasType(SchemeType.VOID)) {
             System.out.print("=> ");
             System.out.println(evalResult);
         }
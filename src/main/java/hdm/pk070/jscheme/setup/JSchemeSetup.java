@@ -2,6 +2,12 @@ package hdm.pk070.jscheme.setup;
 
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.builtin.function.base.SchemeBuiltinEq;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinCallCC;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinDynamicWind;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinError;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinErrorObject;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinRaise;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinWithExceptionHandler;
 import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinCons;
 import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinGetCar;
 import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinGetCdr;
@@ -9,9 +15,13 @@ import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinIsCons;
 import hdm.pk070.jscheme.obj.builtin.function.math.*;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinDefine;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinDo;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinGuard;
 import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
 import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinLambda;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinLet;
 import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinQuote;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSet;
 import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
 import hdm.pk070.jscheme.table.symbolTable.SchemeSymbolTable;
@@ -24,9 +34,19 @@ import hdm.pk070.jscheme.table.symbolTable.SchemeSymbolTable;
 public final class JSchemeSetup {
 
     public static void init() throws SchemeError {
+        registerBuiltins();
+        printWelcomeScreen();
+    }
+
+    /**
+     * Bind all built-in functions and all built-in syntax in {@link GlobalEnvironment}.
+     *
+     * @throws SchemeError
+     *         If an entry cannot be added to {@link GlobalEnvironment}.
+     */
+    public static void registerBuiltins() throws SchemeError {
         registerBuiltinFunctions();
         registerBuiltinSyntax();
-        printWelcomeScreen();
     }
 
     private static void registerBuiltinFunctions() throws SchemeError {
@@ -50,6 +70,26 @@ public final class JSchemeSetup {
                 ("cons?")), SchemeBuiltinIsCons.create()));
         GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
                 SchemeSymbol("eq?")), SchemeBuiltinEq.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("call/cc")), SchemeBuiltinCallCC.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("call-with-current-continuation")), SchemeBuiltinCallCC.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("dynamic-wind")), SchemeBuiltinDynamicWind.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("raise")), SchemeBuiltinRaise.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("raise-continuable")), SchemeBuiltinRaise.createContinuable()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("error")), SchemeBuiltinError.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("with-exception-handler")), SchemeBuiltinWithExceptionHandler.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("error-object?")), SchemeBuiltinErrorObject.createPredicate()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("error-object-message")), SchemeBuiltinErrorObject.createMessageAccessor()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("error-object-irritants")), SchemeBuiltinErrorObject.createIrritantsAccessor()));
     }
 
     private static void registerBuiltinSyntax() throws SchemeError {
@@ -61,6 +101,14 @@ public final class JSchemeSetup {
                 SchemeSymbol("lambda")), SchemeBuiltinLambda.create()));
         GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
                 SchemeSymbol("quote")), SchemeBuiltinQuote.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("let")), SchemeBuiltinLet.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("do")), SchemeBuiltinDo.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("guard")), SchemeBuiltinGuard.create()));
+        GlobalEnvironment.getInstance().add(EnvironmentEntry.create(SchemeSymbolTable.getInstance().add(new
+                SchemeSymbol("set!")), SchemeBuiltinSet.create()));
     }
 
 
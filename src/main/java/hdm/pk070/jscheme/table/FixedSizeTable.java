@@ -51,4 +51,27 @@ public abstract class FixedSizeTable<KEY, VALUE> extends BaseTable<KEY, VALUE> {
         throw new SchemeError("FixedSizeTable overflow!");
     }
 
+    /**
+     * Direct access to a certain slot of the table.
+     *
+     * @param index
+     *         The slot index.
+     * @return The value stored at {@code index} or null if the slot is empty.
+     */
+    protected VALUE getAt(int index) {
+        return (VALUE) entries[index];
+    }
+
+    /**
+     * Store a value at a certain slot of the table, replacing whatever has been stored there before.
+     *
+     * @param index
+     *         The slot index.
+     * @param value
+     *         The value to store.
+     */
+    protected void setAt(int index, final VALUE value) {
+        entries[index] = value;
+    }
+
 }
@@ -40,7 +40,7 @@ public abstract class ResizableTable<KEY, VALUE> extends BaseTable<KEY, VALUE> {
 
         // Start searching value at startIndex
         int nextIndex = startIndex;
-        LOGGER.debug(String.format("Start searching for entry with key %s at index %d", key.toString(), nextIndex));
+        LOGGER.debug("Start searching for entry with key {} at index {}", key, nextIndex);
 
         // Jump into infinite loop
         for (; ; ) {
@@ -49,15 +49,14 @@ public abstract class ResizableTable<KEY, VALUE> extends BaseTable<KEY, VALUE> {
             if (Objects.nonNull(entries[nextIndex])) {
                 VALUE entryFound = (VALUE) entries[nextIndex];
                 if (keysMatch(key, entryFound)) {
-                    LOGGER.debug(String.format("Found entry %s for key %s at index %d", entryFound.toString(), key
-                            .toString(), nextIndex));
+                    LOGGER.debug("Found entry {} for key {} at index {}", entryFound, key, nextIndex);
                     return Optional.of(entryFound);
                 }
 
                 // Keys did not match, proceed with next index
             } else {
                 // No entry found for specified key -> return empty result
-                LOGGER.debug(String.format("No entry found for key %s", key.toString()));
+                LOGGER.debug("No entry found for key {}", key);
                 return Optional.empty();
             }
 
@@ -65,7 +64,7 @@ public abstract class ResizableTable<KEY, VALUE> extends BaseTable<KEY, VALUE> {
             nextIndex = ++nextIndex % currentTableSize;
 
             if (reachedStartIndexAgain(nextIndex, startIndex)) {
-                LOGGER.debug(String.format("Searched whole table but didn't find entry for key %s", key.toString()));
+                LOGGER.debug("Searched whole table but didn't find entry for key {}", key);
                 return Optional.empty();
             }
         }
@@ -170,8 +169,8 @@ public abstract class ResizableTable<KEY, VALUE> extends BaseTable<KEY, VALUE> {
                         currentTableSize = oldTableSize;
 
                         // throw fatal error
-                        throw new SchemeError(String.format("%s: Fatal error during rehash", this.getClass()
-                                .getSimpleName()));
+                        throw new SchemeError("%s: Fatal error during rehash", this.getClass()
+                                .getSimpleName());
                     }
                 }
             }
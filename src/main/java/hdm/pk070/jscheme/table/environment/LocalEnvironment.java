@@ -1,5 +1,6 @@
 package hdm.pk070.jscheme.table.environment;
 
+import hdm.pk070.jscheme.obj.builtin.simple.ListBuilder;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import hdm.pk070.jscheme.table.FixedSizeTable;
 import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
@@ -21,6 +22,7 @@ public class LocalEnvironment extends FixedSizeTable<SchemeSymbol, EnvironmentEn
     private static final Logger LOGGER = LogManager.getLogger(LocalEnvironment.class.getName());
 
     private final Environment<SchemeSymbol, EnvironmentEntry> parentEnvironment;
+    private ListBuilder listBuilder;
 
     public static LocalEnvironment withSize(int size) {
         return new LocalEnvironment(size);
@@ -42,26 +44,65 @@ public class LocalEnvironment extends FixedSizeTable<SchemeSymbol, EnvironmentEn
 
     @Override
     public Optional<EnvironmentEntry> get(final SchemeSymbol schemeSymbol) {
-        LOGGER.debug(String.format("Searching for entry '%s' in %s", schemeSymbol
-                .toString(), this));
+        LOGGER.debug("Searching for entry '{}' in {}", schemeSymbol, this);
         Optional<EnvironmentEntry> searchedEnvironmentEntry = super.get(schemeSymbol);
 
         if (!searchedEnvironmentEntry.isPresent() && Objects.nonNull(parentEnvironment)) {
-            LOGGER.debug(String.format("Unable to find entry for key '%s' in %s, continue with parent", schemeSymbol
-                    .toString(), this));
+            LOGGER.debug("Unable to find entry for key '{}' in {}, continue with parent", schemeSymbol, this);
             searchedEnvironmentEntry = parentEnvironment.get(schemeSymbol);
         }
         if (!searchedEnvironmentEntry.isPresent()) {
-            LOGGER.debug(String.format("Unable to find entry for key '%s' in %s hierarchy, return " +
-                    "empty Optional", schemeSymbol.toString(), this));
+            LOGGER.debug("Unable to find entry for key '{}' in {} hierarchy, return empty Optional", schemeSymbol,
+                    this);
         } else {
-            LOGGER.debug(String.format("Found entry for key '%s' in %s hierarchy, return result",
-                    schemeSymbol.toString(), this));
+            LOGGER.debug("Found entry for key '{}' in {} hierarchy, return result", schemeSymbol, this);
         }
         return searchedEnvironmentEntry;
     }
 
 
+    /**
+     * Get the entry stored at a certain slot without searching by key. Slots are assigned in advance by the
+     * analyzer, which resolves each local variable to the slot it's stored in.
+     *
+     * @param slot
+     *         The slot index.
+     * @return The entry at {@code slot} or null if there's no entry yet.
+     */
+    public EnvironmentEntry getEntryAt(int slot) {
+        return getAt(slot);
+    }
+
+    /**
+     * Store an entry at a certain slot.
+     *
+     * @param slot
+     *         The slot index.
+     * @param environmentEntry
+     *         The entry to store.
+     */
+    public void setEntryAt(int slot, EnvironmentEntry environmentEntry) {
+        setAt(slot, environmentEntry);
+    }
+
+    public Environment<SchemeSymbol, EnvironmentEntry> getParentEnvironment() {
+        return parentEnvironment;
+    }
+
+    /**
+     * Get the list the current function call builds front to back (see
+     * {@link hdm.pk070.jscheme.analyze.node.ModuloConsCallNode}).
+     *
+     * @return The builder of the list or null if the call doesn't build a list this way.
+     */
+    public ListBuilder getListBuilder() {
+        return listBuilder;
+    }
+
+    public void setListBuilder(ListBuilder listBuilder) {
+        this.listBuilder = listBuilder;
+    }
+
     @Override
     protected boolean keysMatch(final SchemeSymbol schemeSymbol, final EnvironmentEntry entryFound) {
         return schemeSymbol == entryFound.getKey();
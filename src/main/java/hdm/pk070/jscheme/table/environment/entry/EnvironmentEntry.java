@@ -4,6 +4,9 @@ import hdm.pk070.jscheme.obj.SchemeObject;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import hdm.pk070.jscheme.table.environment.Environment;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -15,6 +18,8 @@ public class EnvironmentEntry {
 
     private final SchemeSymbol key;
     private SchemeObject value;
+    private boolean reassigned;
+    private List<WeakReference<RedefinitionListener>> redefinitionListeners;
 
     public static EnvironmentEntry create(SchemeSymbol key, SchemeObject value) {
         return new EnvironmentEntry(key, value);
@@ -35,7 +40,60 @@ public class EnvironmentEntry {
 
     public void setValue(SchemeObject value) {
         Objects.requireNonNull(value);
+        if (Objects.nonNull(this.value)) {
+            reassigned = true;
+        }
         this.value = value;
+        if (Objects.nonNull(redefinitionListeners)) {
+            notifyRedefinitionListeners();
+        }
+    }
+
+    /**
+     * Check if the entry still holds the first value it has been given, i.e. its variable has neither been
+     * redefined nor assigned by 'set!'. Filling in the value of an entry created without one (see
+     * {@link hdm.pk070.jscheme.analyze.node.LambdaNode}) doesn't count as reassignment.
+     * <br/><br/>
+     * Optimizations speculating on the value of a global variable do so for stable variables only. A variable which
+     * has been reassigned once is likely to be reassigned again, and each reassignment would invalidate the code
+     * relying on the old value.
+     *
+     * @return True if the value has never been replaced.
+     */
+    public boolean isStable() {
+        return !reassigned;
+    }
+
+    /**
+     * Register a listener to be notified the next time the value of this entry changes. Listeners are notified only
+     * once and have to register again if they want to be notified about further changes. They are referenced
+     * weakly, so registering does not keep them alive.
+     *
+     * @param redefinitionListener
+     *         The listener to register.
+     */
+    public synchronized void addRedefinitionListener(RedefinitionListener redefinitionListener) {
+        if (Objects.isNull(redefinitionListeners)) {
+            redefinitionListeners = new ArrayList<>();
+        }
+        redefinitionListeners.add(new WeakReference<>(redefinitionListener));
+    }
+
+    private void notifyRedefinitionListeners() {
+        List<WeakReference<RedefinitionListener>> listenersToNotify;
+        synchronized (this) {
+            listenersToNotify = redefinitionListeners;
+            redefinitionListeners = null;
+        }
+        if (Objects.isNull(listenersToNotify)) {
+            return;
+        }
+        for (WeakReference<RedefinitionListener> listenerReference : listenersToNotify) {
+            RedefinitionListener redefinitionListener = listenerReference.get();
+            if (Objects.nonNull(redefinitionListener)) {
+                redefinitionListener.entryRedefined(this);
+            }
+        }
     }
 
 
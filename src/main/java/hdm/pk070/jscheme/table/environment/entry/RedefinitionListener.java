@@ -0,0 +1,17 @@
+package hdm.pk070.jscheme.table.environment.entry;
+
+/**
+ * Gets notified when the value of an {@link EnvironmentEntry} changes, e.g. because its symbol has been defined
+ * again. Used by code that caches values derived from an entry.
+ */
+@FunctionalInterface
+public interface RedefinitionListener {
+
+    /**
+     * Called after the value of an entry has been replaced.
+     *
+     * @param environmentEntry
+     *         The entry whose value has changed.
+     */
+    void entryRedefined(EnvironmentEntry environmentEntry);
+}
@@ -0,0 +1,250 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.*;
+import hdm.pk070.jscheme.obj.SchemeObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiles the execution trees built by {@link SchemeAnalyzer} into {@link CompiledCode} for
+ * {@link SchemeVirtualMachine}. Nodes without a bytecode equivalent are embedded into the code and executed via
+ * {@link Opcode#EXECUTE_NODE}.
+ */
+public class BytecodeCompiler {
+
+    private int[] instructions;
+    private int instructionCount;
+    private final List<Object> constants;
+
+    public static BytecodeCompiler getInstance() {
+        return new BytecodeCompiler();
+    }
+
+    private BytecodeCompiler() {
+        this.instructions = new int[32];
+        this.instructionCount = 0;
+        this.constants = new ArrayList<>();
+    }
+
+    /**
+     * Compile the body of a function.
+     *
+     * @param analyzedBody
+     *         The analyzed function body.
+     * @return The compiled body.
+     */
+    public CompiledCode compile(AnalyzedBody analyzedBody) {
+        return compile(analyzedBody.getBodyNode());
+    }
+
+    /**
+     * Compile an execution tree, e.g. a top-level expression.
+     *
+     * @param executionNode
+     *         The root of the tree.
+     * @return The compiled code, returning the tree's value.
+     */
+    public CompiledCode compile(ExecutionNode executionNode) {
+        instructionCount = 0;
+        constants.clear();
+
+        compileNode(executionNode);
+        emit(Opcode.RETURN);
+
+        return new CompiledCode(Arrays.copyOf(instructions, instructionCount), constants.toArray());
+    }
+
+    private void compileNode(ExecutionNode node) {
+        if (node instanceof ConstantNode) {
+            emit(Opcode.CONST, addConstant(((ConstantNode) node).getValue()));
+        } else if (node instanceof LocalVariableNode) {
+            LocalVariableNode variableNode = (LocalVariableNode) node;
+            emit(Opcode.LOAD_LOCAL, variableNode.getDepth(), variableNode.getSlot(), addConstant(variableNode
+                    .getSymbol()));
+        } else if (node instanceof GlobalVariableNode) {
+            emit(Opcode.LOAD_GLOBAL, addConstant(node));
+        } else if (node instanceof VariableNode) {
+            emit(Opcode.LOAD_NAME, addConstant(((VariableNode) node).getSymbol()));
+        } else if (node instanceof DefineNode) {
+            compileNode(((DefineNode) node).getValueNode());
+            emit(Opcode.DEFINE, addConstant(((DefineNode) node).getSymbol()));
+        } else if (node instanceof LocalDefineNode) {
+            LocalDefineNode defineNode = (LocalDefineNode) node;
+            compileNode(defineNode.getValueNode());
+            emit(Opcode.DEFINE_LOCAL, defineNode.getSlot(), addConstant(defineNode.getSymbol()));
+        } else if (node instanceof LocalSetNode) {
+            LocalSetNode setNode = (LocalSetNode) node;
+            compileNode(setNode.getValueNode());
+            emit(Opcode.SET_LOCAL, setNode.getDepth(), setNode.getSlot(), addConstant(setNode.getSymbol()));
+        } else if (node instanceof SetNode) {
+            compileNode(((SetNode) node).getValueNode());
+            emit(Opcode.SET_NAME, addConstant(((SetNode) node).getSymbol()));
+        } else if (node instanceof LambdaNode) {
+            emit(Opcode.MAKE_CLOSURE, addConstant(node));
+        } else if (node instanceof IfNode) {
+            compileIf((IfNode) node);
+        } else if (node instanceof SequenceNode) {
+            compileSequence((SequenceNode) node);
+        } else if (node instanceof ApplicationNode) {
+            compileApplication((ApplicationNode) node);
+        } else if (node instanceof InlinedCallNode) {
+            compileInlinedCall((InlinedCallNode) node);
+        } else if (node instanceof ConstantGlobalNode) {
+            ConstantGlobalNode constantNode = (ConstantGlobalNode) node;
+            compileSpeculativeConstant(constantNode, constantNode.getValue(), constantNode.getVariableNode());
+        } else if (node instanceof FoldedCallNode) {
+            FoldedCallNode foldedCallNode = (FoldedCallNode) node;
+            compileSpeculativeConstant(foldedCallNode, foldedCallNode.getValue(), foldedCallNode.getCallNode());
+        } else if (node instanceof ModuloConsCallNode) {
+            compileModuloConsCall((ModuloConsCallNode) node);
+        } else {
+            emit(Opcode.EXECUTE_NODE, addConstant(node));
+        }
+    }
+
+    private void compileIf(IfNode ifNode) {
+        compileNode(ifNode.getConditionNode());
+        int elseJump = emit(Opcode.JUMP_IF_FALSE, -1);
+
+        compileNode(ifNode.getConditionMetNode());
+        int endJump = emit(Opcode.JUMP, -1);
+
+        patchJumpTarget(elseJump);
+        compileNode(ifNode.getElseNode());
+        patchJumpTarget(endJump);
+    }
+
+    private void compileInlinedCall(InlinedCallNode inlinedCallNode) {
+        int callJump = emit(Opcode.JUMP_IF_INVALID, addConstant(inlinedCallNode), -1);
+
+        compileNode(inlinedCallNode.getInlinedNode());
+        int endJump = emit(Opcode.JUMP, -1);
+
+        patchJumpTarget(callJump);
+        compileNode(inlinedCallNode.getCallNode());
+        patchJumpTarget(endJump);
+    }
+
+    private void compileSpeculativeConstant(Speculation speculation, SchemeObject value, ExecutionNode
+            fallbackNode) {
+        int fallbackJump = emit(Opcode.JUMP_IF_INVALID, addConstant(speculation), -1);
+
+        emit(Opcode.CONST, addConstant(value));
+        int endJump = emit(Opcode.JUMP, -1);
+
+        patchJumpTarget(fallbackJump);
+        compileNode(fallbackNode);
+        patchJumpTarget(endJump);
+    }
+
+    private void compileSequence(SequenceNode sequenceNode) {
+        ExecutionNode[] nodes = sequenceNode.getNodes();
+        for (int i = 0; i < nodes.length - 1; i++) {
+            compileNode(nodes[i]);
+            emit(Opcode.POP);
+        }
+        compileNode(nodes[nodes.length - 1]);
+    }
+
+    private void compileApplication(ApplicationNode applicationNode) {
+        int syntaxJump = compileFunction(applicationNode);
+        for (ExecutionNode argumentNode : applicationNode.getArgumentNodes()) {
+            compileNode(argumentNode);
+        }
+        compileCall(applicationNode, applicationNode.isTailPosition() ? Opcode.TAIL_CALL : Opcode.CALL, syntaxJump);
+    }
+
+    private void compileModuloConsCall(ModuloConsCallNode moduloConsCallNode) {
+        ApplicationNode callNode = moduloConsCallNode.getCallNode();
+        if (!moduloConsCallNode.isTailPosition()) {
+            // Only in tail position the list is built in a loop
+            compileNode(callNode);
+            return;
+        }
+
+        ApplicationNode selfCallNode = moduloConsCallNode.getSelfCallNode();
+        int syntaxJump = compileFunction(callNode);
+        compileNode(moduloConsCallNode.getCarNode());
+
+        int selfSyntaxJump = compileFunction(selfCallNode);
+        for (ExecutionNode argumentNode : selfCallNode.getArgumentNodes()) {
+            compileNode(argumentNode);
+        }
+        int deferJump = emit(Opcode.DEFER_CONS, selfCallNode.getArgumentNodes().length, -1);
+        compileCall(selfCallNode, Opcode.CALL, selfSyntaxJump);
+        compileCall(callNode, Opcode.TAIL_CALL, syntaxJump);
+        int endJump = emit(Opcode.JUMP, -1);
+
+        // With "cons" deferred, the self call is in tail position
+        patchJumpTarget(deferJump);
+        compileCall(selfCallNode, Opcode.TAIL_CALL, -1);
+        patchJumpTarget(endJump);
+    }
+
+    /**
+     * Compile the function of a call.
+     *
+     * @return The position of the jump taken if the function turns out to be syntax, or -1 if it can't be syntax.
+     */
+    private int compileFunction(ApplicationNode applicationNode) {
+        ExecutionNode functionNode = applicationNode.getFunctionNode();
+        compileNode(functionNode);
+
+        // A lambda expression never evaluates to syntax, everything else might
+        if (functionNode instanceof LambdaNode) {
+            return -1;
+        }
+        return emit(Opcode.APPLY_SYNTAX, addConstant(applicationNode.getArgumentList()), -1);
+    }
+
+    /**
+     * Emit the call instruction once function and arguments have been compiled.
+     */
+    private void compileCall(ApplicationNode applicationNode, int callOpcode, int syntaxJump) {
+        emit(callOpcode, applicationNode.getArgumentNodes().length, addConstant(InlineCache.forFunctionSlot
+                (applicationNode.getFunctionSlot())));
+
+        if (syntaxJump != -1) {
+            patchJumpTarget(syntaxJump);
+        }
+    }
+
+    /**
+     * Let the jump instruction at a certain position continue at the current end of the code. The jump target is
+     * always the last operand.
+     */
+    private void patchJumpTarget(int jumpPosition) {
+        instructions[jumpPosition + Opcode.operandCountOf(instructions[jumpPosition])] = instructionCount;
+    }
+
+    /**
+     * Append an instruction.
+     *
+     * @return The position of the instruction.
+     */
+    private int emit(int opcode, int... operands) {
+        ensureCapacity(1 + operands.length);
+        int position = instructionCount;
+
+        instructions[instructionCount++] = opcode;
+        for (int operand : operands) {
+            instructions[instructionCount++] = operand;
+        }
+        return position;
+    }
+
+    private void ensureCapacity(int additionalInstructions) {
+        if (instructionCount + additionalInstructions > instructions.length) {
+            instructions = Arrays.copyOf(instructions, Math.max(instructions.length * 2, instructionCount +
+                    additionalInstructions));
+        }
+    }
+
+    private int addConstant(Object constant) {
+        constants.add(constant);
+        return constants.size() - 1;
+    }
+}
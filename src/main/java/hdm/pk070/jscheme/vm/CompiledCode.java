@@ -0,0 +1,40 @@
+package hdm.pk070.jscheme.vm;
+
+import java.util.Arrays;
+
+/**
+ * A compiled function body or top-level expression: a dense instruction stream and the constant pool its operands
+ * refer to.
+ */
+public final class CompiledCode {
+
+    private final int[] instructions;
+    private final Object[] constants;
+
+    CompiledCode(int[] instructions, Object[] constants) {
+        this.instructions = instructions;
+        this.constants = constants;
+    }
+
+    public int[] getInstructions() {
+        return instructions;
+    }
+
+    public Object[] getConstants() {
+        return constants;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder stringBuilder = new StringBuilder();
+        int pc = 0;
+        while (pc < instructions.length) {
+            int opcode = instructions[pc];
+            int operandCount = Opcode.operandCountOf(opcode);
+            stringBuilder.append(String.format("%4d %s %s%n", pc, Opcode.nameOf(opcode), Arrays.toString(Arrays
+                    .copyOfRange(instructions, pc + 1, pc + 1 + operandCount))));
+            pc += 1 + operandCount;
+        }
+        return stringBuilder.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Arrays;
+
+/**
+ * The control stack of {@link SchemeVirtualMachine} when running with heap frames. Each entry remembers where
+ * execution continues once a called function returns and which cars the caller still conses onto its result (see
+ * {@link PendingCars}). The stack grows on demand up to a fixed number of frames, which bounds the memory deep
+ * recursion may take up.
+ */
+final class FrameStack {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int maxFrames;
+    private CompiledCode[] codes;
+    private int[] returnAddresses;
+    private Environment<SchemeSymbol, EnvironmentEntry>[] environments;
+    private PendingCars[] pendingCars;
+    private int size;
+
+    FrameStack(int maxFrames) {
+        int initialCapacity = Math.min(INITIAL_CAPACITY, maxFrames);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Environment<SchemeSymbol, EnvironmentEntry>[] initialEnvironments = new Environment[initialCapacity];
+        this.maxFrames = maxFrames;
+        this.codes = new CompiledCode[initialCapacity];
+        this.returnAddresses = new int[initialCapacity];
+        this.environments = initialEnvironments;
+        this.pendingCars = new PendingCars[initialCapacity];
+        this.size = 0;
+    }
+
+    /**
+     * Save the state of the calling function.
+     *
+     * @throws SchemeError
+     *         If the stack already holds the maximum number of frames.
+     */
+    void push(CompiledCode code, int returnAddress, Environment<SchemeSymbol, EnvironmentEntry> environment,
+              PendingCars pendingCars) throws SchemeError {
+        if (size == codes.length) {
+            grow();
+        }
+        codes[size] = code;
+        returnAddresses[size] = returnAddress;
+        environments[size] = environment;
+        this.pendingCars[size] = pendingCars;
+        size++;
+    }
+
+    /**
+     * Remove the topmost frame. Its contents have to be fetched by means of {@link #topCode()},
+     * {@link #topReturnAddress()}, {@link #topEnvironment()} and {@link #topPendingCars()} beforehand.
+     */
+    void pop() {
+        size--;
+        codes[size] = null;
+        environments[size] = null;
+        pendingCars[size] = null;
+    }
+
+    CompiledCode topCode() {
+        return codes[size - 1];
+    }
+
+    int topReturnAddress() {
+        return returnAddresses[size - 1];
+    }
+
+    Environment<SchemeSymbol, EnvironmentEntry> topEnvironment() {
+        return environments[size - 1];
+    }
+
+    PendingCars topPendingCars() {
+        return pendingCars[size - 1];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Remove all frames above a certain size.
+     */
+    void truncate(int newSize) {
+        Arrays.fill(codes, newSize, size, null);
+        Arrays.fill(environments, newSize, size, null);
+        Arrays.fill(pendingCars, newSize, size, null);
+        size = newSize;
+    }
+
+    /**
+     * Copy a range of frames, e.g. for capturing a continuation.
+     *
+     * @param fromDepth
+     *         The depth of the lowest frame to copy.
+     * @param toDepth
+     *         The depth above the highest frame to copy.
+     * @return The copied frames.
+     */
+    Snapshot snapshot(int fromDepth, int toDepth) {
+        return new Snapshot(Arrays.copyOfRange(codes, fromDepth, toDepth), Arrays.copyOfRange(returnAddresses,
+                fromDepth, toDepth), Arrays.copyOfRange(environments, fromDepth, toDepth), Arrays.copyOfRange
+                (pendingCars, fromDepth, toDepth));
+    }
+
+    /**
+     * Replace the frames above a certain depth by copied frames.
+     *
+     * @param depth
+     *         The depth the copied frames are placed at.
+     * @param snapshot
+     *         The copied frames.
+     * @throws SchemeError
+     *         If the stack can't hold all frames.
+     */
+    void restore(int depth, Snapshot snapshot) throws SchemeError {
+        truncate(depth);
+        for (int i = 0; i < snapshot.codes.length; i++) {
+            push(snapshot.codes[i], snapshot.returnAddresses[i], snapshot.environments[i], snapshot.pendingCars[i]);
+        }
+    }
+
+    private void grow() throws SchemeError {
+        if (size >= maxFrames) {
+            throw new SchemeError("(vm): recursion depth exceeds the limit of %d frames", maxFrames);
+        }
+        int newCapacity = (int) Math.min((long) maxFrames, size * 2L);
+        codes = Arrays.copyOf(codes, newCapacity);
+        returnAddresses = Arrays.copyOf(returnAddresses, newCapacity);
+        environments = Arrays.copyOf(environments, newCapacity);
+        pendingCars = Arrays.copyOf(pendingCars, newCapacity);
+    }
+
+    /**
+     * Frames copied off a {@link FrameStack}. A snapshot is never modified, so it can be restored any number of
+     * times.
+     */
+    static final class Snapshot {
+
+        private final CompiledCode[] codes;
+        private final int[] returnAddresses;
+        private final Environment<SchemeSymbol, EnvironmentEntry>[] environments;
+        private final PendingCars[] pendingCars;
+
+        private Snapshot(CompiledCode[] codes, int[] returnAddresses, Environment<SchemeSymbol, EnvironmentEntry>[]
+                environments, PendingCars[] pendingCars) {
+            this.codes = codes;
+            this.returnAddresses = returnAddresses;
+            this.environments = environments;
+            this.pendingCars = pendingCars;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package hdm.pk070.jscheme.vm;
+
+/**
+ * The instruction set of {@link SchemeVirtualMachine}. Each instruction is encoded as its opcode followed by a fixed
+ * number of integer operands. Operands referring to objects are indices into the constant pool of the
+ * {@link CompiledCode}.
+ */
+public final class Opcode {
+
+    /**
+     * CONST index: push a constant.
+     */
+    public static final int CONST = 0;
+
+    /**
+     * LOAD_LOCAL depth slot symbol: push the value of a variable bound by an enclosing function.
+     */
+    public static final int LOAD_LOCAL = 1;
+
+    /**
+     * LOAD_GLOBAL reference: push the value of a global variable, referenced by a
+     * {@link hdm.pk070.jscheme.analyze.node.GlobalVariableNode} caching the variable's entry.
+     */
+    public static final int LOAD_GLOBAL = 2;
+
+    /**
+     * LOAD_NAME symbol: push the value of a variable found by searching the current environment hierarchy.
+     */
+    public static final int LOAD_NAME = 3;
+
+    /**
+     * DEFINE symbol: pop a value and bind it to a symbol in the current environment.
+     */
+    public static final int DEFINE = 4;
+
+    /**
+     * DEFINE_LOCAL slot symbol: pop a value and bind it to a symbol at a slot of the current environment.
+     */
+    public static final int DEFINE_LOCAL = 5;
+
+    /**
+     * MAKE_CLOSURE lambda: push a closure created by a {@link hdm.pk070.jscheme.analyze.node.LambdaNode} in the
+     * current environment.
+     */
+    public static final int MAKE_CLOSURE = 6;
+
+    /**
+     * JUMP target: continue at an absolute instruction index.
+     */
+    public static final int JUMP = 7;
+
+    /**
+     * JUMP_IF_FALSE target: pop a condition and jump if it's not met.
+     */
+    public static final int JUMP_IF_FALSE = 8;
+
+    /**
+     * POP: discard the topmost value.
+     */
+    public static final int POP = 9;
+
+    /**
+     * APPLY_SYNTAX argumentList target: if the topmost value is built-in syntax, replace it by the result of
+     * applying the syntax to the unevaluated argument list and jump.
+     */
+    public static final int APPLY_SYNTAX = 10;
+
+    /**
+     * CALL argumentCount inlineCache: call the function located below the arguments and push the result. The
+     * call site's {@link hdm.pk070.jscheme.analyze.node.InlineCache} tells how to invoke the function.
+     */
+    public static final int CALL = 11;
+
+    /**
+     * TAIL_CALL argumentCount inlineCache: like CALL, but the current function's frame is replaced by the callee's.
+     * If the callee is the function currently executed, its environment is reused and execution continues at 0.
+     */
+    public static final int TAIL_CALL = 12;
+
+    /**
+     * RETURN: return the topmost value to the caller.
+     */
+    public static final int RETURN = 13;
+
+    /**
+     * EXECUTE_NODE node: execute a node which has no bytecode equivalent and push its result.
+     */
+    public static final int EXECUTE_NODE = 14;
+
+    /**
+     * JUMP_IF_INVALID speculation target: jump if a {@link hdm.pk070.jscheme.analyze.node.Speculation} like the
+     * body of an {@link hdm.pk070.jscheme.analyze.node.InlinedCallNode} has become invalid, i.e. the original code
+     * has to be executed instead.
+     */
+    public static final int JUMP_IF_INVALID = 15;
+
+    /**
+     * SET_LOCAL depth slot symbol: pop a value and assign it to a variable bound by an enclosing function.
+     */
+    public static final int SET_LOCAL = 16;
+
+    /**
+     * SET_NAME symbol: pop a value and assign it to a variable found by searching the current environment
+     * hierarchy.
+     */
+    public static final int SET_NAME = 17;
+
+    /**
+     * DEFER_CONS argumentCount target: precedes the call of a user-defined function whose result is the second
+     * argument of a call of "cons" in tail position, i.e. "cons", its first argument, the function and the arguments
+     * are on the stack. If "cons" is the built-in function and the function is user-defined, the first argument is
+     * remembered as car to be consed onto the current function's result, both are dropped and execution continues at
+     * the target, a TAIL_CALL of the function. This way, the function builds its list without taking a frame per
+     * cell (see {@link hdm.pk070.jscheme.analyze.node.ModuloConsCallNode}). Otherwise, execution continues with the
+     * next instruction, a plain call followed by the TAIL_CALL of "cons".
+     */
+    public static final int DEFER_CONS = 18;
+
+    private static final String[] NAMES = {"CONST", "LOAD_LOCAL", "LOAD_GLOBAL", "LOAD_NAME", "DEFINE",
+            "DEFINE_LOCAL", "MAKE_CLOSURE", "JUMP", "JUMP_IF_FALSE", "POP", "APPLY_SYNTAX", "CALL", "TAIL_CALL",
+            "RETURN", "EXECUTE_NODE", "JUMP_IF_INVALID", "SET_LOCAL", "SET_NAME", "DEFER_CONS"};
+
+    private static final int[] OPERAND_COUNTS = {1, 3, 1, 1, 1, 2, 1, 1, 1, 0, 2, 2, 2, 0, 1, 2, 3, 1, 2};
+
+    private Opcode() {
+    }
+
+    public static String nameOf(int opcode) {
+        return NAMES[opcode];
+    }
+
+    public static int operandCountOf(int opcode) {
+        return OPERAND_COUNTS[opcode];
+    }
+}
@@ -0,0 +1,97 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+
+import java.util.Arrays;
+
+/**
+ * The value stack of {@link SchemeVirtualMachine}. Unlike {@link hdm.pk070.jscheme.stack.SchemeCallStack}, it's
+ * not synchronized and there's one instance per thread.
+ */
+final class OperandStack {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private SchemeObject[] values;
+    private int size;
+
+    OperandStack() {
+        this.values = new SchemeObject[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    void push(SchemeObject value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    SchemeObject pop() {
+        SchemeObject value = values[--size];
+        values[size] = null;
+        return value;
+    }
+
+    /**
+     * Get a value without removing it.
+     *
+     * @param distance
+     *         The distance from the top, 0 being the topmost value.
+     * @return The value found.
+     */
+    SchemeObject peek(int distance) {
+        return values[size - 1 - distance];
+    }
+
+    /**
+     * Get a value by its absolute position.
+     */
+    SchemeObject get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copy the values within a range of positions.
+     *
+     * @param from
+     *         The first position, inclusive.
+     * @param to
+     *         The last position, exclusive.
+     * @return The values found.
+     */
+    SchemeObject[] copy(int from, int to) {
+        return Arrays.copyOfRange(values, from, to);
+    }
+
+    void pushAll(SchemeObject[] newValues) {
+        for (SchemeObject value : newValues) {
+            push(value);
+        }
+    }
+
+    /**
+     * Remove values below the top, the values above them move down.
+     *
+     * @param index
+     *         The position of the first value to remove.
+     * @param count
+     *         The number of values to remove.
+     */
+    void remove(int index, int count) {
+        System.arraycopy(values, index + count, values, index, size - index - count);
+        truncate(size - count);
+    }
+
+    /**
+     * Remove all values above a certain size.
+     */
+    void truncate(int newSize) {
+        Arrays.fill(values, newSize, size, null);
+        size = newSize;
+    }
+}
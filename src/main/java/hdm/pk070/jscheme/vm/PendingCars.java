@@ -0,0 +1,53 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+
+import java.util.Objects;
+
+/**
+ * The cars a function body still has to cons onto its result, most recent one first (see
+ * {@link Opcode#DEFER_CONS}). Null stands for no pending cars. Since a {@link PendingCars} is never modified, frames
+ * and continuations copied by {@link SchemeVirtualMachine} may share it, and resuming a continuation several times
+ * conses fresh cells each time.
+ */
+final class PendingCars {
+
+    private final SchemeObject car;
+    private final PendingCars next;
+
+    /**
+     * Add a car to be consed onto the result before all cars pending so far.
+     *
+     * @param pendingCars
+     *         The cars pending so far, may be null.
+     * @param car
+     *         The car to add.
+     * @return The cars pending now.
+     */
+    static PendingCars push(PendingCars pendingCars, SchemeObject car) {
+        return new PendingCars(car, pendingCars);
+    }
+
+    /**
+     * Cons all pending cars onto the result of a function body.
+     *
+     * @param pendingCars
+     *         The pending cars, may be null.
+     * @param result
+     *         The value the function body returned.
+     * @return The resulting list, or {@code result} itself if there are no pending cars.
+     */
+    static SchemeObject completeList(PendingCars pendingCars, SchemeObject result) {
+        SchemeObject list = result;
+        for (PendingCars pendingCar = pendingCars; Objects.nonNull(pendingCar); pendingCar = pendingCar.next) {
+            list = new SchemeCons(pendingCar.car, list);
+        }
+        return list;
+    }
+
+    private PendingCars(SchemeObject car, PendingCars next) {
+        this.car = car;
+        this.next = next;
+    }
+}
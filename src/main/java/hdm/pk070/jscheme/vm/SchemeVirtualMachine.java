@@ -0,0 +1,493 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.analyze.node.AnalyzedBody;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.FunctionInvoker;
+import hdm.pk070.jscheme.analyze.node.GlobalVariableNode;
+import hdm.pk070.jscheme.analyze.node.InlineCache;
+import hdm.pk070.jscheme.analyze.node.LambdaNode;
+import hdm.pk070.jscheme.analyze.node.LocalDefineNode;
+import hdm.pk070.jscheme.analyze.node.LocalSetNode;
+import hdm.pk070.jscheme.analyze.node.LocalVariableNode;
+import hdm.pk070.jscheme.analyze.node.ModuloConsCallNode;
+import hdm.pk070.jscheme.analyze.node.SetNode;
+import hdm.pk070.jscheme.analyze.node.Speculation;
+import hdm.pk070.jscheme.analyze.node.VariableNode;
+import hdm.pk070.jscheme.budget.ExecutionBudget;
+import hdm.pk070.jscheme.error.ContinuationEscape;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.NativeCode;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinCallCC;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * Executes {@link CompiledCode} produced by {@link BytecodeCompiler}. Function bodies are compiled on their first
+ * call. Calls of user-defined functions in tail position reuse the running dispatch loop, so tail-recursive
+ * functions run in constant Java stack space, just like functions building a list by calling themselves for the
+ * cdr of a cell (see {@link Opcode#DEFER_CONS}). Each thread gets its own {@link OperandStack}. Function
+ * bodies that have become hot are run as compiled JVM code instead (see {@link hdm.pk070.jscheme.jit.JitCompiler}).
+ * <br/><br/>
+ * A machine created by {@link #withHeapFrames(int)} keeps the frames of all calls of user-defined functions in a
+ * {@link FrameStack} on the heap and stays within a single dispatch loop, so the depth of non-tail recursion is only
+ * limited by the maximum number of frames. Such a machine never switches to compiled JVM code, since compiled
+ * function bodies call each other on the Java stack. It also captures re-entrant continuations when call/cc is
+ * called, by copying the frame stack and the operand stack (see {@link VmContinuation}).
+ */
+public class SchemeVirtualMachine {
+
+    private final ThreadLocal<OperandStack> operandStack;
+    private final ThreadLocal<FrameStack> frameStack;
+    private final boolean heapFrames;
+
+    public static SchemeVirtualMachine create() {
+        return new SchemeVirtualMachine(false, 0);
+    }
+
+    /**
+     * Create a machine which keeps the frames of function calls on the heap instead of the Java stack.
+     *
+     * @param maxFrames
+     *         The maximum recursion depth, exceeding it results in a {@link SchemeError}.
+     * @return The new machine.
+     */
+    public static SchemeVirtualMachine withHeapFrames(int maxFrames) {
+        if (maxFrames <= 0) {
+            throw new IllegalArgumentException("Parameter 'maxFrames' must be positive.");
+        }
+        return new SchemeVirtualMachine(true, maxFrames);
+    }
+
+    private SchemeVirtualMachine(boolean heapFrames, int maxFrames) {
+        this.operandStack = ThreadLocal.withInitial(OperandStack::new);
+        this.frameStack = ThreadLocal.withInitial(() -> new FrameStack(maxFrames));
+        this.heapFrames = heapFrames;
+    }
+
+    /**
+     * Compile and execute an execution tree.
+     *
+     * @param executionNode
+     *         The root of the tree, e.g. an analyzed top-level expression.
+     * @param environment
+     *         The execution context.
+     * @return The result of the execution.
+     * @throws SchemeError
+     *         If execution fails.
+     */
+    public SchemeObject execute(ExecutionNode executionNode, Environment<SchemeSymbol, EnvironmentEntry>
+            environment) throws SchemeError {
+        return execute(BytecodeCompiler.getInstance().compile(executionNode), environment);
+    }
+
+    /**
+     * Execute compiled code.
+     *
+     * @param compiledCode
+     *         The code to execute.
+     * @param environment
+     *         The execution context.
+     * @return The result of the execution.
+     * @throws SchemeError
+     *         If execution fails.
+     */
+    public SchemeObject execute(CompiledCode compiledCode, Environment<SchemeSymbol, EnvironmentEntry> environment)
+            throws SchemeError {
+        OperandStack stack = operandStack.get();
+        FrameStack frames = frameStack.get();
+        int initialSize = stack.size();
+        int initialDepth = frames.size();
+        try {
+            return run(compiledCode, environment, stack);
+        } finally {
+            // Drop whatever an aborted execution left behind
+            stack.truncate(initialSize);
+            frames.truncate(initialDepth);
+        }
+    }
+
+    private SchemeObject run(CompiledCode compiledCode, Environment<SchemeSymbol, EnvironmentEntry> environment,
+                             OperandStack stack) throws SchemeError {
+        FrameStack frames = frameStack.get();
+        int baseDepth = frames.size();
+        int operandBase = stack.size();
+        int[] instructions = compiledCode.getInstructions();
+        Object[] constants = compiledCode.getConstants();
+        Environment<SchemeSymbol, EnvironmentEntry> currentEnvironment = environment;
+        PendingCars pendingCars = null;
+        int pc = 0;
+
+        for (; ; ) {
+            try {
+                switch (instructions[pc]) {
+                    case Opcode.CONST:
+                        stack.push((SchemeObject) constants[instructions[pc + 1]]);
+                        pc += 2;
+                        break;
+                    case Opcode.LOAD_LOCAL:
+                        stack.push(LocalVariableNode.lookup(currentEnvironment, instructions[pc + 1],
+                                instructions[pc + 2], (SchemeSymbol) constants[instructions[pc + 3]]));
+                        pc += 4;
+                        break;
+                    case Opcode.LOAD_GLOBAL:
+                        stack.push(((GlobalVariableNode) constants[instructions[pc + 1]]).getValue());
+                        pc += 2;
+                        break;
+                    case Opcode.LOAD_NAME:
+                        stack.push(VariableNode.lookup(currentEnvironment, (SchemeSymbol)
+                                constants[instructions[pc + 1]]));
+                        pc += 2;
+                        break;
+                    case Opcode.DEFINE:
+                        currentEnvironment.add(EnvironmentEntry.create((SchemeSymbol)
+                                constants[instructions[pc + 1]], stack.pop()));
+                        stack.push(new SchemeVoid());
+                        pc += 2;
+                        break;
+                    case Opcode.DEFINE_LOCAL:
+                        LocalDefineNode.define((LocalEnvironment) currentEnvironment, instructions[pc + 1],
+                                (SchemeSymbol) constants[instructions[pc + 2]], stack.pop());
+                        stack.push(new SchemeVoid());
+                        pc += 3;
+                        break;
+                    case Opcode.SET_LOCAL:
+                        LocalSetNode.assign(currentEnvironment, instructions[pc + 1], instructions[pc + 2],
+                                (SchemeSymbol) constants[instructions[pc + 3]], stack.pop());
+                        stack.push(new SchemeVoid());
+                        pc += 4;
+                        break;
+                    case Opcode.SET_NAME:
+                        SetNode.assign(currentEnvironment, (SchemeSymbol) constants[instructions[pc + 1]], stack
+                                .pop());
+                        stack.push(new SchemeVoid());
+                        pc += 2;
+                        break;
+                    case Opcode.MAKE_CLOSURE:
+                        stack.push(((LambdaNode) constants[instructions[pc + 1]]).createClosure
+                                (currentEnvironment));
+                        pc += 2;
+                        break;
+                    case Opcode.JUMP:
+                        pc = instructions[pc + 1];
+                        break;
+                    case Opcode.JUMP_IF_FALSE:
+                        pc = SchemeBuiltinIf.isConditionMet(stack.pop()) ? pc + 2 : instructions[pc + 1];
+                        break;
+                    case Opcode.JUMP_IF_INVALID:
+                        pc = ((Speculation) constants[instructions[pc + 1]]).isValid() ? pc + 3 :
+                                instructions[pc + 2];
+                        break;
+                    case Opcode.POP:
+                        stack.pop();
+                        pc += 1;
+                        break;
+                    case Opcode.APPLY_SYNTAX:
+                        if (stack.peek(0).hasType(SchemeType.BUILTIN_SYNTAX)) {
+                            // Syntax bound to another name, it gets the unevaluated arguments
+                            SchemeBuiltinSyntax builtinSyntax = (SchemeBuiltinSyntax) stack.pop();
+                            stack.push(builtinSyntax.apply((SchemeObject) constants[instructions[pc + 1]],
+                                    currentEnvironment));
+                            pc = instructions[pc + 2];
+                        } else {
+                            pc += 3;
+                        }
+                        break;
+                    case Opcode.DEFER_CONS: {
+                        int argumentCount = instructions[pc + 1];
+                        int consPosition = stack.size() - argumentCount - 3;
+                        if (ModuloConsCallNode.isBuiltinCons(stack.get(consPosition)) && stack.peek(argumentCount)
+                                .hasType(SchemeType.CUSTOM_FUNCTION)) {
+                            // The cell is consed once the current function returns, so the call takes no frame
+                            pendingCars = PendingCars.push(pendingCars, stack.get(consPosition + 1));
+                            stack.remove(consPosition, 2);
+                            pc = instructions[pc + 2];
+                        } else {
+                            pc += 3;
+                        }
+                        break;
+                    }
+                    case Opcode.CALL: {
+                        int argumentCount = instructions[pc + 1];
+                        SchemeObject function = stack.peek(argumentCount);
+                        int kind = ((InlineCache) constants[instructions[pc + 2]]).kindOf(function);
+                        if (heapFrames && isContinuationCapture(function, kind, argumentCount, stack)) {
+                            // The callee of call/cc gets called by executing this instruction once more
+                            captureContinuation(stack, operandBase, frames.snapshot(baseDepth, frames.size()),
+                                    compiledCode, pc + 3, currentEnvironment, pendingCars);
+                            break;
+                        }
+                        if (!heapFrames || kind != InlineCache.CUSTOM_FUNCTION) {
+                            stack.push(call(stack, argumentCount, kind));
+                            pc += 3;
+                            break;
+                        }
+
+                        // Save the caller on the frame stack and continue with the callee
+                        SchemeCustomUserFunction customFunction = (SchemeCustomUserFunction) function;
+                        AnalyzedBody analyzedBody = customFunction.getAnalyzedBody();
+                        LocalEnvironment functionEnvironment = createFunctionEnvironment(customFunction,
+                                analyzedBody, stack, argumentCount);
+                        frames.push(compiledCode, pc + 3, currentEnvironment, pendingCars);
+
+                        currentEnvironment = functionEnvironment;
+                        pendingCars = null;
+                        compiledCode = compiledCodeOf(analyzedBody);
+                        instructions = compiledCode.getInstructions();
+                        constants = compiledCode.getConstants();
+                        pc = 0;
+                        break;
+                    }
+                    case Opcode.TAIL_CALL: {
+                        int argumentCount = instructions[pc + 1];
+                        SchemeObject function = stack.peek(argumentCount);
+                        int kind = ((InlineCache) constants[instructions[pc + 2]]).kindOf(function);
+                        if (heapFrames && isContinuationCapture(function, kind, argumentCount, stack)) {
+                            // The continuation of a call in tail position is the one of the caller, unless there are
+                            // cars to cons onto the result first
+                            if (Objects.nonNull(pendingCars)) {
+                                captureContinuation(stack, operandBase, frames.snapshot(baseDepth, frames.size()),
+                                        compiledCode, pc + 3, currentEnvironment, pendingCars);
+                            } else if (frames.size() == baseDepth) {
+                                captureContinuation(stack, operandBase, frames.snapshot(baseDepth, baseDepth), null,
+                                        0, null, null);
+                            } else {
+                                captureContinuation(stack, operandBase, frames.snapshot(baseDepth, frames.size() -
+                                        1), frames.topCode(), frames.topReturnAddress(), frames.topEnvironment(),
+                                        frames.topPendingCars());
+                            }
+                            break;
+                        }
+                        if (kind != InlineCache.CUSTOM_FUNCTION) {
+                            SchemeObject result = PendingCars.completeList(pendingCars, call(stack, argumentCount,
+                                    kind));
+                            if (frames.size() == baseDepth) {
+                                return result;
+                            }
+
+                            // Return to the caller saved on the frame stack
+                            compiledCode = frames.topCode();
+                            pc = frames.topReturnAddress();
+                            currentEnvironment = frames.topEnvironment();
+                            pendingCars = frames.topPendingCars();
+                            frames.pop();
+                            instructions = compiledCode.getInstructions();
+                            constants = compiledCode.getConstants();
+                            stack.push(result);
+                            break;
+                        }
+
+                        // Replace the current function by the callee and start over
+                        SchemeCustomUserFunction customFunction = (SchemeCustomUserFunction) function;
+                        AnalyzedBody analyzedBody = customFunction.getAnalyzedBody();
+                        if (isSelfCall(customFunction, analyzedBody, compiledCode, currentEnvironment,
+                                argumentCount)) {
+                            // Loop: rebind the parameters of the current environment and jump back to the start
+                            ExecutionBudget.consumeFuel();
+                            int firstArgument = stack.size() - argumentCount;
+                            for (int i = 0; i < argumentCount; i++) {
+                                analyzedBody.rebindParameter((LocalEnvironment) currentEnvironment, i, stack.get
+                                        (firstArgument + i));
+                            }
+                            analyzedBody.clearDefinitions((LocalEnvironment) currentEnvironment);
+                            stack.truncate(firstArgument - 1);
+
+                            NativeCode nativeCode = nativeCodeOf(analyzedBody);
+                            if (Objects.nonNull(nativeCode)) {
+                                return PendingCars.completeList(pendingCars, FunctionInvoker.resolveTailCalls
+                                        (nativeCode.invoke((LocalEnvironment) currentEnvironment)));
+                            }
+                            pc = 0;
+                            break;
+                        }
+                        currentEnvironment = createFunctionEnvironment(customFunction, analyzedBody, stack,
+                                argumentCount);
+
+                        NativeCode nativeCode = nativeCodeOf(analyzedBody);
+                        if (Objects.nonNull(nativeCode)) {
+                            return PendingCars.completeList(pendingCars, FunctionInvoker.resolveTailCalls(nativeCode
+                                    .invoke((LocalEnvironment) currentEnvironment)));
+                        }
+                        compiledCode = compiledCodeOf(analyzedBody);
+                        instructions = compiledCode.getInstructions();
+                        constants = compiledCode.getConstants();
+                        pc = 0;
+                        break;
+                    }
+                    case Opcode.RETURN: {
+                        if (frames.size() == baseDepth) {
+                            return PendingCars.completeList(pendingCars, stack.pop());
+                        }
+
+                        // Return to the caller saved on the frame stack, the result stays on the operand stack
+                        if (Objects.nonNull(pendingCars)) {
+                            stack.push(PendingCars.completeList(pendingCars, stack.pop()));
+                        }
+                        compiledCode = frames.topCode();
+                        pc = frames.topReturnAddress();
+                        currentEnvironment = frames.topEnvironment();
+                        pendingCars = frames.topPendingCars();
+                        frames.pop();
+                        instructions = compiledCode.getInstructions();
+                        constants = compiledCode.getConstants();
+                        break;
+                    }
+                    case Opcode.EXECUTE_NODE:
+                        stack.push(FunctionInvoker.resolveTailCalls(((ExecutionNode) constants[instructions[pc +
+                                1]]).execute(currentEnvironment)));
+                        pc += 2;
+                        break;
+                    default:
+                        throw new SchemeError("(vm): illegal instruction %d at %d", instructions[pc],
+                                pc);
+                }
+            } catch (ContinuationEscape escape) {
+                if (!heapFrames || !escape.getContinuation().typeOf(VmContinuation.class)) {
+                    throw escape;
+                }
+
+                // Resume the continuation by replacing both stacks with the captured ones
+                VmContinuation continuation = (VmContinuation) escape.getContinuation();
+                frames.restore(baseDepth, continuation.getFrames());
+                stack.truncate(operandBase);
+                stack.pushAll(continuation.getOperands());
+                if (continuation.returnsFromDispatchLoop()) {
+                    return escape.getValue();
+                }
+                compiledCode = continuation.getCode();
+                pc = continuation.getReturnAddress();
+                currentEnvironment = continuation.getEnvironment();
+                pendingCars = continuation.getPendingCars();
+                instructions = compiledCode.getInstructions();
+                constants = compiledCode.getConstants();
+                stack.push(escape.getValue());
+            }
+        }
+    }
+
+    /**
+     * Check if an instruction calls call/cc, so a re-entrant continuation has to be captured.
+     */
+    private boolean isContinuationCapture(SchemeObject function, int kind, int argumentCount, OperandStack stack) {
+        return kind == InlineCache.BUILTIN_FUNCTION && argumentCount == 1 && function.typeOf(SchemeBuiltinCallCC
+                .class) && stack.peek(0).getType().isFunction();
+    }
+
+    /**
+     * Replace call/cc and its argument on the operand stack by the argument and a new continuation, which resumes
+     * execution with {@code code} at {@code returnAddress}. If {@code code} is null, resuming the continuation
+     * returns from the dispatch loop.
+     */
+    private void captureContinuation(OperandStack stack, int operandBase, FrameStack.Snapshot frames, CompiledCode
+            code, int returnAddress, Environment<SchemeSymbol, EnvironmentEntry> environment, PendingCars
+            pendingCars) {
+        SchemeObject procedure = stack.pop();
+        stack.pop();
+        SchemeObject[] operands = stack.copy(operandBase, stack.size());
+
+        stack.push(procedure);
+        stack.push(new VmContinuation(frames, operands, code, returnAddress, environment, pendingCars));
+    }
+
+    private SchemeObject callBuiltinFunction(SchemeBuiltinFunction builtinFunction, OperandStack stack, int
+            firstArgument, int argumentCount) throws SchemeError {
+        // Arguments are read right off the operand stack, so common calls neither allocate an array nor touch
+        // SchemeCallStack
+        switch (argumentCount) {
+            case 0:
+                return builtinFunction.call0();
+            case 1:
+                return builtinFunction.call1(stack.get(firstArgument));
+            case 2:
+                return builtinFunction.call2(stack.get(firstArgument), stack.get(firstArgument + 1));
+            case 3:
+                return builtinFunction.call3(stack.get(firstArgument), stack.get(firstArgument + 1), stack.get
+                        (firstArgument + 2));
+            default:
+                SchemeObject[] arguments = new SchemeObject[argumentCount];
+                for (int i = 0; i < argumentCount; i++) {
+                    arguments[i] = stack.get(firstArgument + i);
+                }
+                return builtinFunction.callN(arguments);
+        }
+    }
+
+    private SchemeObject call(OperandStack stack, int argumentCount, int kind) throws SchemeError {
+        SchemeObject function = stack.peek(argumentCount);
+
+        if (kind == InlineCache.BUILTIN_FUNCTION) {
+            int firstArgument = stack.size() - argumentCount;
+            SchemeObject result = callBuiltinFunction((SchemeBuiltinFunction) function, stack, firstArgument,
+                    argumentCount);
+            stack.truncate(firstArgument - 1);
+            return result;
+        }
+
+        // Syntax has been taken care of by APPLY_SYNTAX, so this is a user-defined function
+        SchemeCustomUserFunction customFunction = (SchemeCustomUserFunction) function;
+        AnalyzedBody analyzedBody = customFunction.getAnalyzedBody();
+        LocalEnvironment functionEnvironment = createFunctionEnvironment(customFunction, analyzedBody, stack,
+                argumentCount);
+
+        NativeCode nativeCode = nativeCodeOf(analyzedBody);
+        if (Objects.nonNull(nativeCode)) {
+            return FunctionInvoker.resolveTailCalls(nativeCode.invoke(functionEnvironment));
+        }
+        return run(compiledCodeOf(analyzedBody), functionEnvironment, stack);
+    }
+
+    /**
+     * Check if a call in tail position calls the function whose body is currently executed, so the current
+     * environment can be reused. Environments referenced by re-entrant continuations must not change, so there are
+     * no loops when running with heap frames.
+     */
+    private boolean isSelfCall(SchemeCustomUserFunction customFunction, AnalyzedBody analyzedBody, CompiledCode
+            compiledCode, Environment<SchemeSymbol, EnvironmentEntry> currentEnvironment, int argumentCount) throws
+            SchemeError {
+        return !heapFrames && compiledCode == analyzedBody.getCompiledCode() && currentEnvironment instanceof
+                LocalEnvironment && analyzedBody.isSelfCall(customFunction, (LocalEnvironment) currentEnvironment,
+                argumentCount);
+    }
+
+    /**
+     * Move function and arguments from the operand stack into a new environment for the function call.
+     */
+    private LocalEnvironment createFunctionEnvironment(SchemeCustomUserFunction customFunction, AnalyzedBody
+            analyzedBody, OperandStack stack, int argumentCount) throws SchemeError {
+        SchemeSymbol[] parameters = analyzedBody.getParameters();
+        FunctionInvoker.ensureArityMatches(customFunction, parameters.length, argumentCount);
+        ExecutionBudget.consumeFuel();
+
+        LocalEnvironment functionEnvironment = LocalEnvironment.withSizeAndParent(analyzedBody.getFrameSize(),
+                customFunction.getHomeEnvironment());
+        int firstArgument = stack.size() - argumentCount;
+        for (int i = 0; i < argumentCount; i++) {
+            functionEnvironment.setEntryAt(i, EnvironmentEntry.create(parameters[i], stack.get(firstArgument + i)));
+        }
+        stack.truncate(firstArgument - 1);
+        return functionEnvironment;
+    }
+
+    private NativeCode nativeCodeOf(AnalyzedBody analyzedBody) {
+        return heapFrames ? null : analyzedBody.recordInvocation();
+    }
+
+    private CompiledCode compiledCodeOf(AnalyzedBody analyzedBody) {
+        CompiledCode compiledCode = analyzedBody.getCompiledCode();
+        if (Objects.isNull(compiledCode)) {
+            compiledCode = BytecodeCompiler.getInstance().compile(analyzedBody);
+            analyzedBody.setCompiledCode(compiledCode);
+        }
+        return compiledCode;
+    }
+}
@@ -0,0 +1,70 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeContinuation;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.Environment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+
+import java.util.Objects;
+
+/**
+ * A re-entrant continuation captured by {@link SchemeVirtualMachine} running with heap frames. It consists of
+ * copies of the frame stack and the operand stack plus the point execution resumes at. Since nothing of it lives on
+ * the Java stack, it can be resumed any number of times, even after the call/cc call that captured it has returned.
+ */
+final class VmContinuation extends SchemeContinuation {
+
+    private final FrameStack.Snapshot frames;
+    private final SchemeObject[] operands;
+    private final CompiledCode code;
+    private final int returnAddress;
+    private final Environment<SchemeSymbol, EnvironmentEntry> environment;
+    private final PendingCars pendingCars;
+
+    VmContinuation(FrameStack.Snapshot frames, SchemeObject[] operands, CompiledCode code, int returnAddress,
+                   Environment<SchemeSymbol, EnvironmentEntry> environment, PendingCars pendingCars) {
+        this.frames = frames;
+        this.operands = operands;
+        this.code = code;
+        this.returnAddress = returnAddress;
+        this.environment = environment;
+        this.pendingCars = pendingCars;
+    }
+
+    @Override
+    protected boolean isInvocable() {
+        return true;
+    }
+
+    FrameStack.Snapshot getFrames() {
+        return frames;
+    }
+
+    SchemeObject[] getOperands() {
+        return operands;
+    }
+
+    /**
+     * @return True if resuming means returning from the dispatch loop rather than continuing with {@link #getCode()}.
+     */
+    boolean returnsFromDispatchLoop() {
+        return Objects.isNull(code);
+    }
+
+    CompiledCode getCode() {
+        return code;
+    }
+
+    int getReturnAddress() {
+        return returnAddress;
+    }
+
+    Environment<SchemeSymbol, EnvironmentEntry> getEnvironment() {
+        return environment;
+    }
+
+    PendingCars getPendingCars() {
+        return pendingCars;
+    }
+}
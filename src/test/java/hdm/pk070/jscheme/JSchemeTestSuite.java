@@ -1,10 +1,16 @@
 package hdm.pk070.jscheme;
 
+import hdm.pk070.jscheme.analyze.SchemeAnalyzeTestSuite;
+import hdm.pk070.jscheme.budget.SchemeBudgetTestSuite;
+import hdm.pk070.jscheme.error.SchemeErrorTestSuite;
 import hdm.pk070.jscheme.eval.SchemeEvalTestSuite;
+import hdm.pk070.jscheme.ir.SchemeIrTestSuite;
+import hdm.pk070.jscheme.jit.SchemeJitTestSuite;
 import hdm.pk070.jscheme.obj.SchemeObjectTestSuite;
 import hdm.pk070.jscheme.reader.SchemeReaderTestSuite;
 import hdm.pk070.jscheme.table.SchemeTableTestSuite;
 import hdm.pk070.jscheme.table.environment.SchemeEnvironmentTestSuite;
+import hdm.pk070.jscheme.vm.SchemeVmTestSuite;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -16,6 +22,8 @@ import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({SchemeObjectTestSuite.class, SchemeReaderTestSuite.class, SchemeEvalTestSuite.class,
-        SchemeEnvironmentTestSuite.class, SchemeTableTestSuite.class})
+        SchemeAnalyzeTestSuite.class, SchemeEnvironmentTestSuite.class, SchemeTableTestSuite.class,
+        SchemeVmTestSuite.class, SchemeJitTestSuite.class, SchemeBudgetTestSuite.class, SchemeErrorTestSuite.class,
+        SchemeIrTestSuite.class})
 public class JSchemeTestSuite {
 }
@@ -0,0 +1,228 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.analyze.node.ApplicationNode;
+import hdm.pk070.jscheme.analyze.node.ConstantGlobalNode;
+import hdm.pk070.jscheme.analyze.node.ConstantNode;
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.FoldedCallNode;
+import hdm.pk070.jscheme.analyze.node.GlobalVariableNode;
+import hdm.pk070.jscheme.analyze.node.IfNode;
+import hdm.pk070.jscheme.analyze.node.LambdaNode;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.JitCompiler;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link ConstantFolder}.
+ */
+public class ConstantFolderTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testCallsOfPureBuiltinsWithLiteralArgumentsAreFolded() throws SchemeError {
+        ExecutionNode bodyNode = analyzeBody("(lambda () (* 60 60 24))");
+
+        assertThat(bodyNode, instanceOf(FoldedCallNode.class));
+        assertThat(((FoldedCallNode) bodyNode).getValue(), equalTo(new SchemeInteger(86400)));
+    }
+
+    @Test
+    public void testNestedCallsAndQuotedArgumentsAreFolded() throws SchemeError {
+        ExecutionNode bodyNode = analyzeBody("(lambda () (+ (abs -5) (car '(1 2))))");
+
+        assertThat(bodyNode, instanceOf(FoldedCallNode.class));
+        assertThat(((FoldedCallNode) bodyNode).getValue(), equalTo(new SchemeInteger(6)));
+    }
+
+    @Test
+    public void testCallsWithVariableArgumentsAreNotFolded() throws SchemeError {
+        assertThat(analyzeBody("(lambda (x) (* x 60))"), not(instanceOf(FoldedCallNode.class)));
+    }
+
+    @Test
+    public void testCallsOfImpureFunctionsAreNotFolded() throws SchemeError {
+        assertThat(analyzeBody("(lambda () (cons 1 2))"), not(instanceOf(FoldedCallNode.class)));
+    }
+
+    @Test
+    public void testCallsOfShadowedBuiltinsAreNotFolded() throws SchemeError {
+        assertThat(analyzeBody("(lambda (abs) (abs -5))"), not(instanceOf(FoldedCallNode.class)));
+    }
+
+    @Test
+    public void testCallsOfRedefinedBuiltinsAreNotFolded() throws SchemeError {
+        execute("(define (abs x) 'redefined)");
+
+        assertThat(analyzeBody("(lambda () (abs -5))"), not(instanceOf(FoldedCallNode.class)));
+    }
+
+    @Test
+    public void testTopLevelExpressionsAreNotFolded() throws SchemeError {
+        assertThat(SchemeAnalyzer.getInstance().analyze(JSchemeTestUtils.read("(abs -5)"), GlobalEnvironment
+                .getInstance()), instanceOf(ApplicationNode.class));
+    }
+
+    @Test
+    public void testFailingCallsAreLeftToExecution() throws SchemeError {
+        assertThat(analyzeBody("(lambda () (car '()))"), instanceOf(ApplicationNode.class));
+
+        expectedException.expect(SchemeError.class);
+        execute("((lambda () (car '())))");
+    }
+
+    @Test
+    public void testDivisionByZeroIsLeftToExecution() throws SchemeError {
+        execute("(define (div0) (/ 1 0))");
+
+        assertThat(analyzeBody("(lambda () (/ 1 0))"), instanceOf(ApplicationNode.class));
+
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(/): division by zero");
+        execute("(div0)");
+    }
+
+    @Test
+    public void testFoldedCallIsExecutedAgainAfterRedefinition() throws SchemeError {
+        execute("(define (seconds-per-day) (* 60 60 24))");
+        assertThat(execute("(seconds-per-day)"), equalTo(new SchemeInteger(86400)));
+
+        execute("(define (* a b c) (+ a b c))");
+
+        assertThat(execute("(seconds-per-day)"), equalTo(new SchemeInteger(144)));
+    }
+
+    @Test
+    public void testFoldedCallIsInvalidatedByRedefinitionOfFoldedArgument() throws SchemeError {
+        FoldedCallNode foldedCallNode = (FoldedCallNode) analyzeBody("(lambda () (+ (abs -5) 1))");
+
+        execute("(define (abs x) x)");
+
+        assertThat(foldedCallNode.isValid(), equalTo(false));
+        assertThat(foldedCallNode.execute(GlobalEnvironment.getInstance()), equalTo(new SchemeInteger(-4)));
+    }
+
+    @Test
+    public void testStableGlobalVariableIsTreatedAsConstant() throws SchemeError {
+        execute("(define size 10)");
+
+        ExecutionNode bodyNode = analyzeBody("(lambda () size)");
+
+        assertThat(bodyNode, instanceOf(ConstantGlobalNode.class));
+        assertThat(((ConstantGlobalNode) bodyNode).getValue(), equalTo(new SchemeInteger(10)));
+    }
+
+    @Test
+    public void testStableGlobalVariableIsFoldedIntoCall() throws SchemeError {
+        execute("(define size 10)");
+
+        ExecutionNode bodyNode = analyzeBody("(lambda () (* size 2))");
+
+        assertThat(bodyNode, instanceOf(FoldedCallNode.class));
+        assertThat(((FoldedCallNode) bodyNode).getValue(), equalTo(new SchemeInteger(20)));
+    }
+
+    @Test
+    public void testReassignedGlobalVariableIsNotTreatedAsConstant() throws SchemeError {
+        execute("(define size 10)");
+        execute("(set! size 20)");
+
+        assertThat(analyzeBody("(lambda () size)"), instanceOf(GlobalVariableNode.class));
+    }
+
+    @Test
+    public void testConstantGlobalVariableIsReadAgainAfterAssignment() throws SchemeError {
+        int originalThreshold = JitCompiler.getCompileThreshold();
+        JitCompiler.setCompileThreshold(2);
+        try {
+            for (ExecutionEngine engine : ExecutionEngine.values()) {
+                execute("(define size 10)", engine);
+                execute("(define (area) (* size size))", engine);
+                execute("(define (get-size) size)", engine);
+                for (int i = 0; i < 5; i++) {
+                    assertThat(engine.getEngineName(), execute("(area)", engine), equalTo(new SchemeInteger(100)));
+                    assertThat(engine.getEngineName(), execute("(get-size)", engine), equalTo(new SchemeInteger
+                            (10)));
+                }
+
+                execute("(set! size 3)", engine);
+
+                assertThat(engine.getEngineName(), execute("(area)", engine), equalTo(new SchemeInteger(9)));
+                assertThat(engine.getEngineName(), execute("(get-size)", engine), equalTo(new SchemeInteger(3)));
+            }
+        } finally {
+            JitCompiler.setCompileThreshold(originalThreshold);
+        }
+    }
+
+    @Test
+    public void testIfWithConstantConditionIsReplacedByChosenBranch() throws SchemeError {
+        assertThat(analyzeBody("(lambda (x) (if 1 x 'no))"), not(instanceOf(IfNode.class)));
+
+        ExecutionNode bodyNode = analyzeBody("(lambda (x) (if \"\" x 'no))");
+        assertThat(bodyNode, instanceOf(ConstantNode.class));
+        assertThat(((ConstantNode) bodyNode).getValue(), equalTo(new SchemeSymbol("no")));
+    }
+
+    @Test
+    public void testIfFollowsTruthinessOfIfSyntax() throws SchemeError {
+        assertThat(execute("((lambda () (if 0 'yes 'no)))"), equalTo(new SchemeSymbol("no")));
+        assertThat(execute("((lambda () (if \"\" 'yes 'no)))"), equalTo(new SchemeSymbol("no")));
+        assertThat(execute("((lambda () (if '() 'yes 'no)))"), equalTo(new SchemeSymbol("no")));
+        assertThat(execute("((lambda () (if \"a\" 'yes 'no)))"), equalTo(new SchemeSymbol("yes")));
+        assertThat(execute("((lambda () (if #t 'yes 'no)))"), equalTo(new SchemeSymbol("yes")));
+    }
+
+    @Test
+    public void testIfWithFoldedConditionIsKept() throws SchemeError {
+        assertThat(analyzeBody("(lambda (x) (if (eq? 1 1) x 'no))"), instanceOf(IfNode.class));
+    }
+
+    @Test
+    public void testDeadBranchIsAnalyzedAnyway() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(if): missing 'else' expression");
+
+        analyzeBody("(lambda () (if 1 'yes (if 1 2)))");
+    }
+
+    private ExecutionNode analyzeBody(String lambdaExpression) throws SchemeError {
+        LambdaNode lambdaNode = (LambdaNode) SchemeAnalyzer.getInstance().analyze(JSchemeTestUtils.read
+                (lambdaExpression), GlobalEnvironment.getInstance());
+        return lambdaNode.getPreparedFunction().getAnalyzedBody().getBodyNode();
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return execute(input, ExecutionEngine.ANALYZED);
+    }
+
+    private SchemeObject execute(String input, ExecutionEngine engine) throws SchemeError {
+        return SchemeExecutor.withEngine(engine).execute(JSchemeTestUtils.read(input), GlobalEnvironment
+                .getInstance());
+    }
+}
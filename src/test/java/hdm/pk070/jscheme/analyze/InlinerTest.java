@@ -0,0 +1,174 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.analyze.node.ExecutionNode;
+import hdm.pk070.jscheme.analyze.node.InlinedCallNode;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link Inliner}.
+ */
+public class InlinerTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        execute("(define (second l) (car (cdr l)))");
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testSmallGlobalFunctionIsInlined() throws SchemeError {
+        execute("(define (f l) (second l))");
+
+        assertThat(bodyNodeOf("f"), instanceOf(InlinedCallNode.class));
+        assertThat(execute("(f '(1 2 3))"), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testInlinedCallsWorkOnEveryEngine() throws SchemeError {
+        execute("(define (third l) (second (cdr l)))");
+        execute("(define (f l x) (+ (second l) (third (second (list-of l x)))))");
+        execute("(define (list-of a b) (cons a (cons b '())))");
+
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            assertThat(execute("(f '(1 2 3) '(4 5 6))", engine), equalTo(new SchemeInteger(8)));
+        }
+    }
+
+    @Test
+    public void testCallerIsInvalidatedWhenInlinedFunctionIsRedefined() throws SchemeError {
+        execute("(define (f l) (second l))");
+        InlinedCallNode inlinedCallNode = (InlinedCallNode) bodyNodeOf("f");
+
+        execute("(define (second l) (car l))");
+
+        assertThat(inlinedCallNode.isValid(), equalTo(false));
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            assertThat(execute("(f '(1 2 3))", engine), equalTo(new SchemeInteger(1)));
+        }
+    }
+
+    @Test
+    public void testRedefinedFunctionIsNotInlinedAnyMore() throws SchemeError {
+        execute("(define (second l) (car l))");
+        execute("(define (f l) (second l))");
+
+        assertThat(bodyNodeOf("f"), not(instanceOf(InlinedCallNode.class)));
+        assertThat(execute("(f '(1 2 3))"), equalTo(new SchemeInteger(1)));
+    }
+
+    @Test
+    public void testCallerIsInvalidatedWhenFunctionCalledByInlinedBodyIsRedefined() throws SchemeError {
+        execute("(define (f l) (second l))");
+
+        execute("(define (car l) 'redefined)");
+
+        assertThat(execute("(f '(1 2 3))"), equalTo(new SchemeSymbol("redefined")));
+    }
+
+    @Test
+    public void testParametersOfCallerDoNotShadowFreeVariablesOfInlinedBody() throws SchemeError {
+        execute("(define (f car cdr) (second (cons car cdr)))");
+
+        assertThat(bodyNodeOf("f"), instanceOf(InlinedCallNode.class));
+        assertThat(execute("(f 1 '(2 3))"), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testInlinedCallsInSelfTailCallingLoop() throws SchemeError {
+        execute("(define (sum l acc) (if (cons? l) (sum (cdr l) (+ acc (second (cons 0 l)))) acc))");
+
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            assertThat(execute("(sum '(1 2 3 4) 0)", engine), equalTo(new SchemeInteger(10)));
+        }
+    }
+
+    @Test
+    public void testRecursiveFunctionIsNotInlined() throws SchemeError {
+        execute("(define (loop n) (if (eq? n 0) 0 (loop (- n 1))))");
+        execute("(define (f n) (loop n))");
+
+        assertThat(bodyNodeOf("f"), not(instanceOf(InlinedCallNode.class)));
+    }
+
+    @Test
+    public void testFunctionCallingCustomFunctionIsNotInlined() throws SchemeError {
+        execute("(define (third l) (second (cdr l)))");
+        execute("(define (f l) (third l))");
+
+        assertThat(bodyNodeOf("f"), not(instanceOf(InlinedCallNode.class)));
+    }
+
+    @Test
+    public void testLargeFunctionIsNotInlined() throws SchemeError {
+        execute("(define (big x) (+ x 1 2 3 4 5 6 7 8 9 10 11))");
+        execute("(define (f x) (big x))");
+
+        assertThat(bodyNodeOf("f"), not(instanceOf(InlinedCallNode.class)));
+    }
+
+    @Test
+    public void testClosureIsNotInlined() throws SchemeError {
+        execute("(define (make-adder n) (lambda (x) (+ x n)))");
+        execute("(define add-ten (make-adder 10))");
+        execute("(define (f x) (add-ten x))");
+
+        assertThat(bodyNodeOf("f"), not(instanceOf(InlinedCallNode.class)));
+        assertThat(execute("(f 5)"), equalTo(new SchemeInteger(15)));
+    }
+
+    @Test
+    public void testFunctionWithLambdaIsNotInlined() throws SchemeError {
+        execute("(define (make-constant x) (lambda () x))");
+        execute("(define (f x) (make-constant x))");
+
+        assertThat(bodyNodeOf("f"), not(instanceOf(InlinedCallNode.class)));
+    }
+
+    @Test
+    public void testArityMismatchIsStillReported() throws SchemeError {
+        execute("(define (f l) (second l l))");
+
+        assertThat(bodyNodeOf("f"), not(instanceOf(InlinedCallNode.class)));
+
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("arity mismatch");
+        execute("(f '(1 2))");
+    }
+
+    private ExecutionNode bodyNodeOf(String functionName) throws SchemeError {
+        return ((SchemeCustomUserFunction) execute(functionName)).getAnalyzedBody().getBodyNode();
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return execute(input, ExecutionEngine.ANALYZED);
+    }
+
+    private SchemeObject execute(String input, ExecutionEngine engine) throws SchemeError {
+        return SchemeExecutor.withEngine(engine).execute(JSchemeTestUtils.read(input), GlobalEnvironment
+                .getInstance());
+    }
+}
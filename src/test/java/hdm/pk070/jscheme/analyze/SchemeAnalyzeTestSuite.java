@@ -0,0 +1,19 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.analyze.node.ArithmeticNodeTest;
+import hdm.pk070.jscheme.analyze.node.GlobalCallSiteTest;
+import hdm.pk070.jscheme.analyze.node.InlineCacheTest;
+import hdm.pk070.jscheme.analyze.node.ModuloConsCallNodeTest;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * A test suite collecting all test classes dealing with analysis and execution of JScheme expressions.
+ */
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({SchemeAnalyzerTest.class, SchemeExecutorTest.class, ConstantFolderTest.class,
+        InlinerTest.class, ArithmeticNodeTest.class, InlineCacheTest.class, GlobalCallSiteTest.class,
+        ModuloConsCallNodeTest.class})
+public class SchemeAnalyzeTestSuite {
+}
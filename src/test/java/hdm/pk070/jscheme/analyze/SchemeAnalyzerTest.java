@@ -0,0 +1,195 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.analyze.node.*;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeAnalyzer}.
+ */
+public class SchemeAnalyzerTest {
+
+    private SchemeAnalyzer schemeAnalyzer;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.schemeAnalyzer = SchemeAnalyzer.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testSelfEvaluatingObjectBecomesConstant() throws SchemeError {
+        ExecutionNode node = analyze("42");
+
+        assertThat(node, instanceOf(ConstantNode.class));
+        assertThat(((ConstantNode) node).getValue(), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testQuotedListBecomesConstant() throws SchemeError {
+        ExecutionNode node = analyze("'(1 2 3)");
+
+        assertThat(node, instanceOf(ConstantNode.class));
+        assertThat(((ConstantNode) node).getValue(), instanceOf(SchemeCons.class));
+    }
+
+    @Test
+    public void testIfIsAnalyzedIntoIfNode() throws SchemeError {
+        ExecutionNode node = analyze("(if (eq? 1 2) 3 4)");
+
+        assertThat(node, instanceOf(IfNode.class));
+        assertThat(((IfNode) node).getConditionNode(), instanceOf(ApplicationNode.class));
+        assertThat(((IfNode) node).getConditionMetNode(), instanceOf(ConstantNode.class));
+    }
+
+    @Test
+    public void testFunctionDefinitionIsAnalyzedIntoLambda() throws SchemeError {
+        ExecutionNode node = analyze("(define (add1 x) (+ x 1))");
+
+        assertThat(node, instanceOf(DefineNode.class));
+        assertThat(((DefineNode) node).getValueNode(), instanceOf(LambdaNode.class));
+    }
+
+    @Test
+    public void testFunctionBodyIsAnalyzedOnDefinition() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(if): missing 'else' expression in: (if x 1)");
+
+        analyze("(define (f x) (if x 1))");
+    }
+
+    @Test
+    public void testShadowedKeywordIsTreatedAsVariable() throws SchemeError {
+        LambdaNode lambdaNode = (LambdaNode) analyze("(lambda (if) (if 1 2))");
+        ExecutionNode body = lambdaNode.getPreparedFunction().getAnalyzedBody().getBodyNode();
+
+        assertThat(body, instanceOf(ApplicationNode.class));
+    }
+
+    @Test
+    public void testParameterIsResolvedToSlot() throws SchemeError {
+        LambdaNode lambdaNode = (LambdaNode) analyze("(lambda (x y) y)");
+        AnalyzedBody analyzedBody = lambdaNode.getPreparedFunction().getAnalyzedBody();
+
+        assertThat(analyzedBody.getFrameSize(), equalTo(2));
+        assertThat(analyzedBody.getBodyNode(), instanceOf(LocalVariableNode.class));
+        assertThat(((LocalVariableNode) analyzedBody.getBodyNode()).getDepth(), equalTo(0));
+        assertThat(((LocalVariableNode) analyzedBody.getBodyNode()).getSlot(), equalTo(1));
+    }
+
+    @Test
+    public void testOuterParameterIsResolvedWithDepth() throws SchemeError {
+        LambdaNode outerLambda = (LambdaNode) analyze("(lambda (x) (lambda (y) x))");
+        LambdaNode innerLambda = (LambdaNode) outerLambda.getPreparedFunction().getAnalyzedBody().getBodyNode();
+        LocalVariableNode variableNode = (LocalVariableNode) innerLambda.getPreparedFunction().getAnalyzedBody()
+                .getBodyNode();
+
+        assertThat(variableNode.getDepth(), equalTo(1));
+        assertThat(variableNode.getSlot(), equalTo(0));
+    }
+
+    @Test
+    public void testClosureCapturesOnlyReferencedVariables() throws SchemeError {
+        LambdaNode outerLambda = (LambdaNode) analyze("(lambda (x y z) (lambda (a) (+ a z)))");
+        LambdaNode innerLambda = (LambdaNode) outerLambda.getPreparedFunction().getAnalyzedBody().getBodyNode();
+
+        assertThat(outerLambda.getCapturedSymbols().length, equalTo(0));
+        assertThat(innerLambda.getCapturedSymbols(), equalTo(new SchemeSymbol[]{new SchemeSymbol("z")}));
+    }
+
+    @Test
+    public void testVariableIsCapturedByIntermediateClosures() throws SchemeError {
+        LambdaNode outerLambda = (LambdaNode) analyze("(lambda (x) (lambda (y) (lambda (z) x)))");
+        LambdaNode middleLambda = (LambdaNode) outerLambda.getPreparedFunction().getAnalyzedBody().getBodyNode();
+        LambdaNode innerLambda = (LambdaNode) middleLambda.getPreparedFunction().getAnalyzedBody().getBodyNode();
+        LocalVariableNode variableNode = (LocalVariableNode) innerLambda.getPreparedFunction().getAnalyzedBody()
+                .getBodyNode();
+
+        assertThat(middleLambda.getCapturedSymbols(), equalTo(new SchemeSymbol[]{new SchemeSymbol("x")}));
+        assertThat(innerLambda.getCapturedSymbols(), equalTo(new SchemeSymbol[]{new SchemeSymbol("x")}));
+        assertThat(variableNode.getDepth(), equalTo(1));
+        assertThat(variableNode.getSlot(), equalTo(0));
+    }
+
+    @Test
+    public void testUnassignedVariableIsCopiedIntoClosure() throws SchemeError {
+        LambdaNode outerLambda = (LambdaNode) analyze("(lambda (x) (lambda () x))");
+        LambdaNode innerLambda = (LambdaNode) outerLambda.getPreparedFunction().getAnalyzedBody().getBodyNode();
+
+        assertThat(innerLambda.getSharedCaptures(), equalTo(new boolean[]{false}));
+        assertThat(outerLambda.getPreparedFunction().getAnalyzedBody().areLocalsCaptured(), equalTo(false));
+    }
+
+    @Test
+    public void testAssignedVariableIsSharedWithClosure() throws SchemeError {
+        LambdaNode outerLambda = (LambdaNode) analyze("(lambda (x y) (lambda () (set! x y)))");
+        LambdaNode innerLambda = (LambdaNode) outerLambda.getPreparedFunction().getAnalyzedBody().getBodyNode();
+        LocalSetNode setNode = (LocalSetNode) innerLambda.getPreparedFunction().getAnalyzedBody().getBodyNode();
+
+        assertThat(innerLambda.getCapturedSymbols(), equalTo(new SchemeSymbol[]{new SchemeSymbol("x"), new
+                SchemeSymbol("y")}));
+        assertThat(innerLambda.getSharedCaptures(), equalTo(new boolean[]{true, false}));
+        assertThat(outerLambda.getPreparedFunction().getAnalyzedBody().areLocalsCaptured(), equalTo(true));
+        assertThat(setNode.getDepth(), equalTo(1));
+        assertThat(setNode.getSlot(), equalTo(0));
+    }
+
+    @Test
+    public void testInternalDefinitionIsSharedWithClosure() throws SchemeError {
+        LambdaNode outerLambda = (LambdaNode) analyze("(lambda (x) (define (f) g) (define (g) x) f)");
+        LambdaNode closureOfF = (LambdaNode) ((LocalDefineNode) ((SequenceNode) outerLambda.getPreparedFunction()
+                .getAnalyzedBody().getBodyNode()).getNodes()[0]).getValueNode();
+
+        assertThat(closureOfF.getSharedCaptures(), equalTo(new boolean[]{true}));
+    }
+
+    @Test
+    public void testAssignmentOfFreeVariableIsResolvedByName() throws SchemeError {
+        assertThat(analyze("(set! y 1)"), instanceOf(SetNode.class));
+    }
+
+    @Test
+    public void testInternalDefinitionGetsSlot() throws SchemeError {
+        LambdaNode lambdaNode = (LambdaNode) analyze("(lambda (x) (define y 1) y)");
+        AnalyzedBody analyzedBody = lambdaNode.getPreparedFunction().getAnalyzedBody();
+        ExecutionNode[] bodyNodes = ((SequenceNode) analyzedBody.getBodyNode()).getNodes();
+
+        assertThat(analyzedBody.getFrameSize(), equalTo(2));
+        assertThat(bodyNodes[0], instanceOf(LocalDefineNode.class));
+        assertThat(((LocalDefineNode) bodyNodes[0]).getSlot(), equalTo(1));
+        assertThat(((LocalVariableNode) bodyNodes[1]).getSlot(), equalTo(1));
+    }
+
+    @Test
+    public void testFreeVariableIsResolvedGlobally() throws SchemeError {
+        LambdaNode lambdaNode = (LambdaNode) analyze("(lambda (x) y)");
+
+        assertThat(lambdaNode.getPreparedFunction().getAnalyzedBody().getBodyNode(), instanceOf(GlobalVariableNode
+                .class));
+    }
+
+    private ExecutionNode analyze(String input) throws SchemeError {
+        return schemeAnalyzer.analyze(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
@@ -0,0 +1,274 @@
+package hdm.pk070.jscheme.analyze;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeFalse;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeTrue;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeExecutor}.
+ */
+public class SchemeExecutorTest {
+
+    private SchemeExecutor schemeExecutor;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.schemeExecutor = SchemeExecutor.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testRecursiveFunction() throws SchemeError {
+        execute("(define (fact n) (if (eq? n 0) 1 (* n (fact (- n 1)))))");
+
+        assertThat(execute("(fact 5)"), equalTo(new SchemeInteger(120)));
+    }
+
+    @Test
+    public void testInternalDefinition() throws SchemeError {
+        execute("(define (f x) (define y (* x 2)) (+ x y))");
+
+        assertThat(execute("(f 3)"), equalTo(new SchemeInteger(9)));
+    }
+
+    @Test
+    public void testClosureKeepsHomeEnvironment() throws SchemeError {
+        execute("(define (make-adder n) (lambda (x) (+ x n)))");
+
+        assertThat(execute("((make-adder 10) 5)"), equalTo(new SchemeInteger(15)));
+    }
+
+    @Test
+    public void testNestedClosuresResolveOuterParameters() throws SchemeError {
+        execute("(define (curry3 a) (lambda (b) (lambda (c) (- a (- b c)))))");
+
+        assertThat(execute("(((curry3 10) 4) 1)"), equalTo(new SchemeInteger(7)));
+    }
+
+    @Test
+    public void testClosureDoesNotKeepEnclosingEnvironment() throws SchemeError {
+        execute("(define (make-adder n unused) (lambda (x) (+ x n)))");
+        SchemeCustomUserFunction adder = (SchemeCustomUserFunction) execute("(make-adder 10 '(1 2 3))");
+        LocalEnvironment closureEnvironment = (LocalEnvironment) adder.getHomeEnvironment();
+
+        assertThat(closureEnvironment.getParentEnvironment(), sameInstance(GlobalEnvironment.getInstance()));
+        assertThat(closureEnvironment.get((SchemeSymbol) JSchemeTestUtils.read("unused")).isPresent(), equalTo
+                (false));
+        assertThat(closureEnvironment.getEntryAt(0).getValue(), equalTo(new SchemeInteger(10)));
+    }
+
+    @Test
+    public void testClosureSeesInternalDefinitionExecutedAfterCapture() throws SchemeError {
+        execute("(define (f n) (define (even? n) (if (eq? n 0) #t (odd? (- n 1)))) (define (odd? n) (if (eq? n 0)" +
+                " #f (even? (- n 1)))) (even? n))");
+
+        assertThat(execute("(f 10)"), equalTo(new SchemeTrue()));
+        assertThat(execute("(f 7)"), equalTo(new SchemeFalse()));
+    }
+
+    @Test
+    public void testCapturedVariableReferencedBeforeDefinitionIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("undefined variable y");
+
+        execute("(define (f) (define g (lambda () y)) (g) (define y 1) y)");
+        execute("(f)");
+    }
+
+    @Test
+    public void testParameterShadowsGlobalVariable() throws SchemeError {
+        execute("(define x 100)");
+        execute("(define (f x) (+ x 1))");
+
+        assertThat(execute("(f 1)"), equalTo(new SchemeInteger(2)));
+        assertThat(execute("x"), equalTo(new SchemeInteger(100)));
+    }
+
+    @Test
+    public void testInternalFunctionDefinitionIsRecursive() throws SchemeError {
+        execute("(define (sum n) (define (loop i acc) (if (eq? i 0) acc (loop (- i 1) (+ acc i)))) (loop n 0))");
+
+        assertThat(execute("(sum 10)"), equalTo(new SchemeInteger(55)));
+    }
+
+    @Test
+    public void testTailRecursionRunsInConstantStackSpace() throws SchemeError {
+        execute("(define (count-down n) (if (eq? n 0) 'done (count-down (- n 1))))");
+
+        assertThat(execute("(count-down 100000)"), equalTo(new SchemeSymbol("done")));
+    }
+
+    @Test
+    public void testMutualTailRecursionRunsInConstantStackSpace() throws SchemeError {
+        execute("(define (my-even? n) (if (eq? n 0) #t (my-odd? (- n 1))))");
+        execute("(define (my-odd? n) (if (eq? n 0) #f (my-even? (- n 1))))");
+
+        assertThat(execute("(my-even? 100001)"), equalTo(new SchemeFalse()));
+    }
+
+    @Test
+    public void testTreeWalkerRunsMutualTailRecursionInConstantStackSpace() throws SchemeError {
+        SchemeExecutor treeWalker = SchemeExecutor.withEngine(ExecutionEngine.TREE_WALKER);
+        treeWalker.execute(JSchemeTestUtils.read("(define (my-even? n) (if (eq? n 0) #t (my-odd? (- n 1))))"),
+                GlobalEnvironment.getInstance());
+        treeWalker.execute(JSchemeTestUtils.read("(define (my-odd? n) (if (eq? n 0) #f (my-even? (- n 1))))"),
+                GlobalEnvironment.getInstance());
+
+        assertThat(treeWalker.execute(JSchemeTestUtils.read("(my-even? 100001)"), GlobalEnvironment.getInstance()),
+                equalTo(new SchemeFalse()));
+    }
+
+    @Test
+    public void testTailCallInLastBodyExpression() throws SchemeError {
+        execute("(define (loop i acc) (define next (- i 1)) (if (eq? i 0) acc (loop next (+ acc 1))))");
+
+        assertThat(execute("(loop 50000 0)"), equalTo(new SchemeInteger(50000)));
+    }
+
+    @Test
+    public void testRedefinedGlobalIsSeenByExistingCallSite() throws SchemeError {
+        execute("(define x 1)");
+        execute("(define (f) (+ x 1))");
+        execute("(f)");
+        execute("(define x 41)");
+
+        assertThat(execute("(f)"), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testGlobalDefinedAfterFailedLookupIsFound() throws SchemeError {
+        execute("(define (f) y)");
+        try {
+            execute("(f)");
+        } catch (SchemeError ignored) {
+        }
+        execute("(define y 3)");
+
+        assertThat(execute("(f)"), equalTo(new SchemeInteger(3)));
+    }
+
+    @Test
+    public void testCachedGlobalCalleeIsInvalidatedOnRedefinition() throws SchemeError {
+        execute("(define (g x) x)");
+        execute("(define (h x) (g x))");
+        assertThat(execute("(h -5)"), equalTo(new SchemeInteger(-5)));
+
+        execute("(define g abs)");
+
+        assertThat(execute("(h -5)"), equalTo(new SchemeInteger(5)));
+    }
+
+    @Test
+    public void testSyntaxBoundToOtherNameIsStillApplied() throws SchemeError {
+        execute("(define choose if)");
+
+        assertThat(execute("(choose 0 1 2)"), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testQuotedListIsNotEvaluated() throws SchemeError {
+        SchemeObject result = execute("(cons 1 '())");
+
+        assertThat(result, equalTo(new SchemeCons(new SchemeInteger(1), new SchemeNil())));
+    }
+
+    @Test
+    public void testArityMismatchIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(eval): arity mismatch, expected number of arguments does not match the " +
+                "given number [expected: 1, given: 0]");
+
+        execute("(define (f x) x)");
+        execute("(f)");
+    }
+
+    @Test
+    public void testUndefinedVariableIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("undefined variable unknown");
+
+        execute("(unknown 1)");
+    }
+
+    @Test
+    public void testEnginesAgreeOnResult() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            SchemeExecutor engineExecutor = SchemeExecutor.withEngine(executionEngine);
+            engineExecutor.execute(JSchemeTestUtils.read("(define (fib n) (if (eq? n 0) 0 (if (eq? n 1) 1 (+ (fib " +
+                    "(- n 1)) (fib (- n 2))))))"), GlobalEnvironment.getInstance());
+
+            assertThat(engineExecutor.execute(JSchemeTestUtils.read("(fib 15)"), GlobalEnvironment.getInstance()),
+                    equalTo(new SchemeInteger(610)));
+        }
+    }
+
+    @Test
+    public void testSelfTailCallsLoopInConstantStackSpace() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            if (executionEngine == ExecutionEngine.TREE_WALKER) {
+                continue;
+            }
+            SchemeExecutor engineExecutor = SchemeExecutor.withEngine(executionEngine);
+            engineExecutor.execute(JSchemeTestUtils.read("(define (count n acc) (if (eq? n 0) acc (count (- n 1) " +
+                    "(+ acc 1))))"), GlobalEnvironment.getInstance());
+
+            assertThat(engineExecutor.execute(JSchemeTestUtils.read("(count 1000000 0)"), GlobalEnvironment
+                    .getInstance()), equalTo(new SchemeInteger(1000000)));
+        }
+    }
+
+    @Test
+    public void testSelfTailCallResetsInternalDefinitions() throws SchemeError {
+        execute("(define (f n acc) (define twice (* n 2)) (if (eq? n 0) acc (f (- n 1) (+ acc twice))))");
+
+        assertThat(execute("(f 3 0)"), equalTo(new SchemeInteger(12)));
+    }
+
+    @Test
+    public void testShadowedFunctionNameIsNoSelfCall() throws SchemeError {
+        execute("(define (g f n) n)");
+        execute("(define (f f n) (if (eq? n 0) 'done (f f (- n 1))))");
+
+        assertThat(execute("(f g 5)"), equalTo(new SchemeInteger(4)));
+    }
+
+    @Test
+    public void testSelfTailCallWithWrongArgumentCountIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(eval): arity mismatch, expected number of arguments does not match the " +
+                "given number [expected: 1, more given!]");
+
+        execute("(define (f n) (if (eq? n 0) 'done (f (- n 1) n)))");
+        execute("(f 3)");
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
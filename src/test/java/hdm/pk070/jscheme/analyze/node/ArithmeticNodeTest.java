@@ -0,0 +1,114 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeFraction;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex.SchemeFloat;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link ArithmeticNode}.
+ */
+public class ArithmeticNodeTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testOnlyBinaryArithmeticIsSpecialized() throws SchemeError {
+        assertThat(analyze("(+ 1 2)"), instanceOf(ArithmeticNode.class));
+        assertThat(analyze("(* 1 2 3)"), not(instanceOf(ArithmeticNode.class)));
+        assertThat(analyze("(- 1)"), not(instanceOf(ArithmeticNode.class)));
+    }
+
+    @Test
+    public void testNodeSpecializesOnIntegers() throws SchemeError {
+        ArithmeticNode arithmeticNode = (ArithmeticNode) analyze("(- 7 2)");
+
+        assertThat(execute(arithmeticNode), equalTo(new SchemeInteger(5)));
+        assertThat(arithmeticNode.getSpecialization(), equalTo(ArithmeticNode.Specialization.INTEGER));
+        assertThat(execute(arithmeticNode), equalTo(new SchemeInteger(5)));
+    }
+
+    @Test
+    public void testNodeSpecializesOnFloats() throws SchemeError {
+        ArithmeticNode arithmeticNode = (ArithmeticNode) analyze("(* 1.5 2.0)");
+
+        assertThat(execute(arithmeticNode), equalTo(new SchemeFloat(3.0f)));
+        assertThat(arithmeticNode.getSpecialization(), equalTo(ArithmeticNode.Specialization.FLOAT));
+    }
+
+    @Test
+    public void testNodeDeoptimizesOnOtherOperandTypes() throws SchemeError {
+        execute(analyze("(define x 1)"));
+        ArithmeticNode arithmeticNode = (ArithmeticNode) analyze("(+ x 1)");
+        execute(arithmeticNode);
+        execute(analyze("(define x (/ 1 2))"));
+
+        assertThat(execute(arithmeticNode), equalTo(new SchemeFraction(3, 2)));
+        assertThat(arithmeticNode.getSpecialization(), equalTo(ArithmeticNode.Specialization.GENERIC));
+
+        execute(analyze("(define x 1)"));
+        assertThat(execute(arithmeticNode), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testMixedOperandsAreNotSpecialized() throws SchemeError {
+        ArithmeticNode arithmeticNode = (ArithmeticNode) analyze("(+ 1 2.5)");
+
+        assertThat(execute(arithmeticNode), equalTo(new SchemeFloat(3.5f)));
+        assertThat(arithmeticNode.getSpecialization(), equalTo(ArithmeticNode.Specialization.GENERIC));
+    }
+
+    @Test
+    public void testRedefinedOperatorIsCalled() throws SchemeError {
+        ArithmeticNode arithmeticNode = (ArithmeticNode) analyze("(+ 1 2)");
+        execute(arithmeticNode);
+        execute(analyze("(define (+ a b) (* a b))"));
+
+        assertThat(execute(arithmeticNode), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testContractViolationIsReportedLikeBuiltin() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(+): contract violation [expected: number, given: \"foo\"]");
+
+        execute(analyze("(define x 1)"));
+        ArithmeticNode arithmeticNode = (ArithmeticNode) analyze("(+ 1 x)");
+        execute(arithmeticNode);
+        execute(analyze("(define x \"foo\")"));
+        execute(arithmeticNode);
+    }
+
+    private ExecutionNode analyze(String input) throws SchemeError {
+        return SchemeAnalyzer.getInstance().analyze(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+
+    private SchemeObject execute(ExecutionNode node) throws SchemeError {
+        return node.execute(GlobalEnvironment.getInstance());
+    }
+}
@@ -0,0 +1,119 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.JitCompiler;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinCons;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinPlus;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinTimes;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.table.environment.entry.EnvironmentEntry;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link GlobalCallSite}.
+ */
+public class GlobalCallSiteTest {
+
+    private static final SchemeObject[] ONE_AND_TWO = {new SchemeInteger(1), new SchemeInteger(2)};
+
+    private int originalThreshold;
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.originalThreshold = JitCompiler.getCompileThreshold();
+    }
+
+    @After
+    public void tearDown() {
+        JitCompiler.setCompileThreshold(originalThreshold);
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testSiteIsLinkedToBuiltinFunction() throws SchemeError {
+        SchemeBuiltinCons builtinCons = SchemeBuiltinCons.create();
+        GlobalCallSite globalCallSite = GlobalCallSite.create(EnvironmentEntry.create(new SchemeSymbol("f"),
+                builtinCons), 2, false);
+
+        assertThat(globalCallSite.isLinked(), equalTo(true));
+        assertThat(globalCallSite.getLinkedCallee(), sameInstance(builtinCons));
+        assertThat(globalCallSite.invoke(ONE_AND_TWO), equalTo(new SchemeCons(new SchemeInteger(1), new
+                SchemeInteger(2))));
+    }
+
+    @Test
+    public void testSiteIsRelinkedWhenVariableIsRedefined() throws SchemeError {
+        EnvironmentEntry globalEntry = EnvironmentEntry.create(new SchemeSymbol("f"), SchemeBuiltinPlus.create());
+        GlobalCallSite globalCallSite = GlobalCallSite.create(globalEntry, 2, false);
+        assertThat(globalCallSite.invoke(ONE_AND_TWO), equalTo(new SchemeInteger(3)));
+
+        SchemeBuiltinTimes builtinTimes = SchemeBuiltinTimes.create();
+        globalEntry.setValue(builtinTimes);
+
+        assertThat(globalCallSite.getLinkedCallee(), sameInstance(builtinTimes));
+        assertThat(globalCallSite.invoke(ONE_AND_TWO), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testSiteIsUnlinkedWhileVariableIsNoProcedure() throws SchemeError {
+        EnvironmentEntry globalEntry = EnvironmentEntry.create(new SchemeSymbol("f"), SchemeBuiltinIf.create());
+        GlobalCallSite globalCallSite = GlobalCallSite.create(globalEntry, 2, false);
+        assertThat(globalCallSite.isLinked(), equalTo(false));
+
+        globalEntry.setValue(SchemeBuiltinPlus.create());
+
+        assertThat(globalCallSite.isLinked(), equalTo(true));
+        assertThat(globalCallSite.invoke(ONE_AND_TWO), equalTo(new SchemeInteger(3)));
+    }
+
+    @Test
+    public void testSiteInTailPositionReturnsPendingCall() throws SchemeError {
+        SchemeCustomUserFunction customFunction = SchemeCustomUserFunction.create("f", new SchemeNil(), new
+                SchemeCons(new SchemeInteger(1), new SchemeNil()), null);
+        GlobalCallSite globalCallSite = GlobalCallSite.create(EnvironmentEntry.create(new SchemeSymbol("f"),
+                customFunction), 0, true);
+
+        SchemeObject result = globalCallSite.invoke(new SchemeObject[0]);
+
+        assertThat(result.hasType(SchemeType.TAIL_CALL), equalTo(true));
+        assertThat(((TailCall) result).getFunction(), sameInstance(customFunction));
+    }
+
+    @Test
+    public void testCallersSeeRedefinedFunctionInEveryEngine() throws SchemeError {
+        JitCompiler.setCompileThreshold(2);
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            SchemeExecutor schemeExecutor = SchemeExecutor.withEngine(engine);
+            execute(schemeExecutor, "(define (f x) (+ x 1))");
+            execute(schemeExecutor, "(define (g x) (f x))");
+            for (int i = 0; i < 5; i++) {
+                assertThat(engine.getEngineName(), execute(schemeExecutor, "(g 1)"), equalTo(new SchemeInteger(2)));
+            }
+
+            execute(schemeExecutor, "(define (f x) (* x 10))");
+
+            assertThat(engine.getEngineName(), execute(schemeExecutor, "(g 1)"), equalTo(new SchemeInteger(10)));
+        }
+    }
+
+    private SchemeObject execute(SchemeExecutor schemeExecutor, String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
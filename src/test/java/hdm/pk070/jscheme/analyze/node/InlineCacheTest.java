@@ -0,0 +1,56 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinPlus;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinIf;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link InlineCache}.
+ */
+public class InlineCacheTest {
+
+    private InlineCache inlineCache;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() {
+        this.inlineCache = InlineCache.forFunctionSlot(new SchemeSymbol("f"));
+    }
+
+    @Test
+    public void testKindsAreDeterminedByClass() throws SchemeError {
+        SchemeCustomUserFunction customFunction = SchemeCustomUserFunction.create("f", new SchemeNil(), new
+                SchemeCons(new SchemeInteger(1), new SchemeNil()), null);
+
+        assertThat(inlineCache.kindOf(SchemeBuiltinPlus.create()), equalTo(InlineCache.BUILTIN_FUNCTION));
+        assertThat(inlineCache.kindOf(SchemeBuiltinIf.create()), equalTo(InlineCache.BUILTIN_SYNTAX));
+        assertThat(inlineCache.kindOf(customFunction), equalTo(InlineCache.CUSTOM_FUNCTION));
+
+        // Same answers when served from the cache
+        assertThat(inlineCache.kindOf(SchemeBuiltinPlus.create()), equalTo(InlineCache.BUILTIN_FUNCTION));
+        assertThat(inlineCache.kindOf(customFunction.bindTo(null)), equalTo(InlineCache.CUSTOM_FUNCTION));
+    }
+
+    @Test
+    public void testNonProcedureIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("application: not a procedure [expected: procedure that can be applied to" +
+                " arguments, given: f]");
+
+        inlineCache.kindOf(new SchemeInteger(1));
+    }
+}
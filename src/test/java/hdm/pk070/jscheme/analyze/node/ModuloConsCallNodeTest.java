@@ -0,0 +1,186 @@
+package hdm.pk070.jscheme.analyze.node;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.JitCompiler;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link ModuloConsCallNode}.
+ */
+public class ModuloConsCallNodeTest {
+
+    private static final String MAP_DEFINITION = "(define (map f l) (if (cons? l) (cons (f (car l)) (map f (cdr " +
+            "l))) '()))";
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private int originalThreshold;
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.originalThreshold = JitCompiler.getCompileThreshold();
+    }
+
+    @After
+    public void tearDown() {
+        JitCompiler.setCompileThreshold(originalThreshold);
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testListIsBuiltInOrder() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, MAP_DEFINITION);
+
+            assertThat(engine.getEngineName(), execute(engine, "(map (lambda (x) (* x x)) '(1 2 3))"), equalTo
+                    (list(1, 4, 9)));
+            assertThat(engine.getEngineName(), execute(engine, "(map (lambda (x) x) '())"), equalTo(new
+                    SchemeNil()));
+        }
+    }
+
+    @Test
+    public void testMappingOverLongListTakesConstantStack() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            // The tree walker doesn't run analyzed function bodies
+            if (engine == ExecutionEngine.TREE_WALKER) {
+                continue;
+            }
+            execute(engine, MAP_DEFINITION);
+            execute(engine, "(define (iota n acc) (if (eq? n 0) acc (iota (- n 1) (cons n acc))))");
+            execute(engine, "(define (sum l acc) (if (cons? l) (sum (cdr l) (+ acc (car l))) acc))");
+
+            assertThat(engine.getEngineName(), execute(engine, "(sum (map (lambda (x) 1) (iota 1000000 '())) 0)"),
+                    equalTo(new SchemeInteger(1000000)));
+        }
+    }
+
+    @Test
+    public void testStacklessEngineRecursesDeeplyIntoCar() throws SchemeError {
+        execute(ExecutionEngine.STACKLESS, "(define (nest n acc) (if (eq? n 0) acc (nest (- n 1) (cons acc '()))))");
+        execute(ExecutionEngine.STACKLESS, "(define (depth l n) (if (cons? l) (depth (car l) (+ n 1)) n))");
+        execute(ExecutionEngine.STACKLESS, "(define (cp l) (if (cons? l) (cons (cp (car l)) (cp (cdr l))) l))");
+
+        assertThat(execute(ExecutionEngine.STACKLESS, "(depth (cp (nest 20000 '())) 0)"), equalTo(new
+                SchemeInteger(20000)));
+    }
+
+    @Test
+    public void testStacklessEngineReentersContinuationCapturedForCar() throws SchemeError {
+        execute(ExecutionEngine.STACKLESS, "(define (tag-all l) (if (cons? l) (cons ((call/cc (lambda (k) k)) " +
+                "(lambda (x) (car l))) (tag-all (cdr l))) '()))");
+
+        assertThat(execute(ExecutionEngine.STACKLESS, "(tag-all '(1 2 3))"), equalTo(list(1, 2, 3)));
+    }
+
+    @Test
+    public void testStacklessEngineConsesNewListWhenReenteringLoop() throws SchemeError {
+        execute(ExecutionEngine.STACKLESS, "(define k #f)");
+        execute(ExecutionEngine.STACKLESS, "(define (build l) (if (cons? l) (cons (call/cc (lambda (c) (if (eq? " +
+                "(car l) 2) (set! k c) #f) (car l))) (build (cdr l))) '()))");
+        execute(ExecutionEngine.STACKLESS, "(define saved (build '(1 2 3)))");
+        execute(ExecutionEngine.STACKLESS, "(define first saved)");
+        // Resuming the continuation defines "saved" once more
+        execute(ExecutionEngine.STACKLESS, "(k 20)");
+
+        assertThat(execute(ExecutionEngine.STACKLESS, "first"), equalTo(list(1, 2, 3)));
+        assertThat(execute(ExecutionEngine.STACKLESS, "saved"), equalTo(list(1, 20, 3)));
+    }
+
+    @Test
+    public void testLoopMixesWithSelfTailCalls() throws SchemeError {
+        JitCompiler.setCompileThreshold(2);
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define (odd-only l) (if (cons? l) (if (eq? (car l) 2) (odd-only (cdr l)) (cons (car " +
+                    "l) (odd-only (cdr l)))) '()))");
+
+            for (int i = 0; i < 3; i++) {
+                assertThat(engine.getEngineName(), execute(engine, "(odd-only '(1 2 3 2 5))"), equalTo(list(1, 3,
+                        5)));
+            }
+        }
+    }
+
+    @Test
+    public void testNamedLetBuildsListInLoop() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define (count-down n) (let loop ((i n)) (if (eq? i 0) '() (cons i (loop (- i 1))))))");
+
+            assertThat(engine.getEngineName(), execute(engine, "(count-down 3)"), equalTo(list(3, 2, 1)));
+        }
+    }
+
+    @Test
+    public void testOnlyDirectSelfCallIsBuiltInLoop() throws SchemeError {
+        execute(ExecutionEngine.ANALYZED, "(define (pad l) (if (cons? l) (cons (car l) (cons 0 (pad (cdr l)))) '()))");
+        execute(ExecutionEngine.ANALYZED, "(define (wrap l) (if (cons? l) (let ((x (car l))) (cons x (wrap (cdr l))))" +
+                " '()))");
+
+        // Both still recurse on the Java stack
+        assertThat(conditionMetNodeOf("pad"), instanceOf(ApplicationNode.class));
+        assertThat(conditionMetNodeOf("wrap"), not(instanceOf(ModuloConsCallNode.class)));
+        assertThat(execute(ExecutionEngine.ANALYZED, "(pad '(1 2))"), equalTo(list(1, 0, 2, 0)));
+        assertThat(execute(ExecutionEngine.ANALYZED, "(wrap '(1 2))"), equalTo(list(1, 2)));
+    }
+
+    @Test
+    public void testRedefinedConsIsCalled() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define (fold l) (if (cons? l) (cons (car l) (fold (cdr l))) 0))");
+            execute(engine, "(define cons +)");
+
+            assertThat(engine.getEngineName(), execute(engine, "(fold (quote (1 2 3)))"), equalTo(new
+                    SchemeInteger(6)));
+
+            JSchemeTestUtils.resetGlobalEnvironment();
+            JSchemeTestUtils.registerBuiltins();
+        }
+    }
+
+    @Test
+    public void testErrorWithinLoopIsReported() throws SchemeError {
+        execute(ExecutionEngine.ANALYZED, MAP_DEFINITION);
+
+        expectedException.expect(SchemeError.class);
+        execute(ExecutionEngine.ANALYZED, "(map car '(1 2))");
+    }
+
+    private ExecutionNode conditionMetNodeOf(String functionName) throws SchemeError {
+        SchemeCustomUserFunction function = (SchemeCustomUserFunction) execute(ExecutionEngine.ANALYZED,
+                functionName);
+        return ((IfNode) function.getAnalyzedBody().getBodyNode()).getConditionMetNode();
+    }
+
+    private SchemeObject execute(ExecutionEngine engine, String input) throws SchemeError {
+        return SchemeExecutor.withEngine(engine).execute(JSchemeTestUtils.read(input), GlobalEnvironment
+                .getInstance());
+    }
+
+    private static SchemeObject list(int... elements) {
+        SchemeObject list = new SchemeNil();
+        for (int i = elements.length - 1; i >= 0; i--) {
+            list = new SchemeCons(new SchemeInteger(elements[i]), list);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,168 @@
+package hdm.pk070.jscheme.budget;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.EvaluationCancelledError;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * A test class for {@link CancellationToken}.
+ */
+public class CancellationTokenTest {
+
+    private static final String FIB_DEFINITION = "(define (fib n) (if (eq? n 0) 0 (if (eq? n 1) 1 (+ (fib (- n 1)) " +
+            "(fib (- n 2))))))";
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        execute(SchemeExecutor.getInstance(), FIB_DEFINITION);
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testTimeoutStopsEveryEngine() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            SchemeExecutor schemeExecutor = SchemeExecutor.withEngine(engine);
+            schemeExecutor.setTimeout(50);
+
+            try {
+                execute(schemeExecutor, "(fib 50)");
+                fail(String.format("Evaluation has not been stopped by engine %s", engine.getEngineName()));
+            } catch (EvaluationCancelledError evaluationCancelledError) {
+                assertThat(evaluationCancelledError.isDeadlineExceeded(), equalTo(true));
+                assertThat(evaluationCancelledError.getMessage(), equalTo("(deadline): evaluation exceeds its " +
+                        "deadline of 50 ms"));
+            }
+
+            // The interpreter keeps working after the evaluation has been aborted
+            assertThat(execute(schemeExecutor, "(fib 10)"), equalTo(new SchemeInteger(55)));
+        }
+    }
+
+    @Test
+    public void testEvaluationIsCancelledFromAnotherThread() throws SchemeError {
+        CancellationToken cancellationToken = CancellationToken.create();
+        Thread cancellingThread = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignored) {
+                // Cancel right away
+            }
+            cancellationToken.cancel();
+        });
+        cancellingThread.start();
+        execute(SchemeExecutor.getInstance(), "(define (loop n) (loop (+ n 1)))");
+
+        try {
+            SchemeExecutor.getInstance().execute(JSchemeTestUtils.read("(loop 0)"), GlobalEnvironment
+                    .getInstance(), cancellationToken);
+            fail("Evaluation has not been cancelled");
+        } catch (EvaluationCancelledError evaluationCancelledError) {
+            assertThat(evaluationCancelledError.isDeadlineExceeded(), equalTo(false));
+            assertThat(evaluationCancelledError.getMessage(), equalTo("(cancel): evaluation has been cancelled"));
+        }
+    }
+
+    @Test
+    public void testUncancelledEvaluationCompletes() throws SchemeError {
+        CancellationToken cancellationToken = CancellationToken.withTimeout(60000);
+        execute(SchemeExecutor.getInstance(), "(define (count-down n) (if (eq? n 0) 'done (count-down (- n 1))))");
+
+        assertThat(SchemeExecutor.getInstance().execute(JSchemeTestUtils.read("(count-down 10000)"),
+                GlobalEnvironment.getInstance(), cancellationToken), equalTo(new SchemeSymbol("done")));
+        assertThat(cancellationToken.isCancelled(), equalTo(false));
+    }
+
+    @Test
+    public void testNestedBudgetIsCancelledByEnclosingToken() throws SchemeError {
+        CancellationToken cancellationToken = CancellationToken.create();
+        ExecutionBudget outerBudget = ExecutionBudget.begin(ExecutionBudget.UNLIMITED, cancellationToken);
+        ExecutionBudget innerBudget = ExecutionBudget.begin(ExecutionBudget.UNLIMITED);
+        cancellationToken.cancel();
+        try {
+            expectedException.expect(EvaluationCancelledError.class);
+            for (int i = 0; i <= ExecutionBudget.SLICE_SIZE; i++) {
+                ExecutionBudget.consumeFuel();
+            }
+        } finally {
+            innerBudget.end();
+            outerBudget.end();
+        }
+    }
+
+    @Test
+    public void testTokenDoesNotCancelEvaluationsOfOtherThreads() throws Exception {
+        CancellationToken cancellationToken = CancellationToken.create();
+        ExecutionBudget executionBudget = ExecutionBudget.begin(ExecutionBudget.UNLIMITED, cancellationToken);
+        cancellationToken.cancel();
+        AtomicReference<SchemeError> otherError = new AtomicReference<>();
+        Thread otherThread = new Thread(() -> {
+            ExecutionBudget otherBudget = ExecutionBudget.begin(ExecutionBudget.UNLIMITED);
+            try {
+                for (int i = 0; i <= ExecutionBudget.SLICE_SIZE; i++) {
+                    ExecutionBudget.consumeFuel();
+                }
+            } catch (SchemeError schemeError) {
+                otherError.set(schemeError);
+            } finally {
+                otherBudget.end();
+            }
+        });
+        otherThread.start();
+        otherThread.join();
+        executionBudget.end();
+
+        assertThat(otherError.get(), nullValue());
+    }
+
+    @Test
+    public void testCancelledEvaluationKeepsCountOfItsSteps() throws SchemeError {
+        CancellationToken cancellationToken = CancellationToken.create();
+        ExecutionBudget executionBudget = ExecutionBudget.begin(ExecutionBudget.UNLIMITED, cancellationToken);
+        cancellationToken.cancel();
+        try {
+            for (int i = 0; i <= ExecutionBudget.SLICE_SIZE; i++) {
+                ExecutionBudget.consumeFuel();
+            }
+            fail("Evaluation has not been cancelled");
+        } catch (EvaluationCancelledError evaluationCancelledError) {
+            assertThat(executionBudget.end(), equalTo((long) ExecutionBudget.SLICE_SIZE));
+        }
+    }
+
+    @Test
+    public void testNegativeTimeoutIsRejected() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        SchemeExecutor.getInstance().setTimeout(-1);
+    }
+
+    private SchemeObject execute(SchemeExecutor schemeExecutor, String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
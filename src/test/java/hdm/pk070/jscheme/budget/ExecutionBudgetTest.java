@@ -0,0 +1,177 @@
+package hdm.pk070.jscheme.budget;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.FuelExhaustedError;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.JitCompiler;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * A test class for {@link ExecutionBudget}.
+ */
+public class ExecutionBudgetTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testCallsAndLoopIterationsAreCountedByEveryEngine() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            SchemeExecutor schemeExecutor = SchemeExecutor.withEngine(engine);
+            execute(schemeExecutor, "(define (count-down n) (if (eq? n 0) 'done (count-down (- n 1))))");
+
+            assertThat(execute(schemeExecutor, "(count-down 10)"), equalTo(new SchemeSymbol("done")));
+            assertThat(engine.getEngineName(), schemeExecutor.getConsumedFuel(), equalTo(11L));
+        }
+    }
+
+    @Test
+    public void testRunawayLoopIsStoppedByEveryEngine() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            SchemeExecutor schemeExecutor = SchemeExecutor.withEngine(engine);
+            schemeExecutor.setFuel(100);
+            execute(schemeExecutor, "(define (loop n) (loop (+ n 1)))");
+
+            try {
+                execute(schemeExecutor, "(loop 0)");
+                fail(String.format("Loop has not been stopped by engine %s", engine.getEngineName()));
+            } catch (FuelExhaustedError fuelExhaustedError) {
+                assertThat(fuelExhaustedError.getMessage(), equalTo("(fuel): evaluation exceeds its budget of " +
+                        "100 steps"));
+                assertThat(schemeExecutor.getConsumedFuel(), equalTo(100L));
+            }
+
+            // The interpreter keeps working after the evaluation has been aborted
+            assertThat(execute(schemeExecutor, "(+ 1 2)"), equalTo(new SchemeInteger(3)));
+        }
+    }
+
+    @Test
+    public void testCompiledLoopIsStopped() throws SchemeError {
+        int originalThreshold = JitCompiler.getCompileThreshold();
+        JitCompiler.setCompileThreshold(2);
+        try {
+            SchemeExecutor schemeExecutor = SchemeExecutor.getInstance();
+            schemeExecutor.setFuel(100000);
+            execute(schemeExecutor, "(define (loop n) (loop (+ n 1)))");
+
+            expectedException.expect(FuelExhaustedError.class);
+            execute(schemeExecutor, "(loop 0)");
+        } finally {
+            JitCompiler.setCompileThreshold(originalThreshold);
+        }
+    }
+
+    @Test
+    public void testDeepRecursionIsStopped() throws SchemeError {
+        SchemeExecutor schemeExecutor = SchemeExecutor.getInstance();
+        schemeExecutor.setFuel(100);
+        execute(schemeExecutor, "(define (sum n) (+ n (sum (- n 1))))");
+
+        expectedException.expect(FuelExhaustedError.class);
+        execute(schemeExecutor, "(sum 10)");
+    }
+
+    @Test
+    public void testEachExecutionGetsTheWholeBudget() throws SchemeError {
+        SchemeExecutor schemeExecutor = SchemeExecutor.getInstance();
+        schemeExecutor.setFuel(20);
+        execute(schemeExecutor, "(define (count-down n) (if (eq? n 0) 'done (count-down (- n 1))))");
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(execute(schemeExecutor, "(count-down 15)"), equalTo(new SchemeSymbol("done")));
+        }
+    }
+
+    @Test
+    public void testNestedBudgetIsChargedToEnclosingOne() throws SchemeError {
+        ExecutionBudget outerBudget = ExecutionBudget.begin(10);
+        ExecutionBudget innerBudget = ExecutionBudget.begin(ExecutionBudget.UNLIMITED);
+        for (int i = 0; i < 4; i++) {
+            ExecutionBudget.consumeFuel();
+        }
+
+        assertThat(innerBudget.end(), equalTo(4L));
+        assertThat(outerBudget.getConsumedFuel(), equalTo(4L));
+
+        ExecutionBudget.consumeFuel();
+        assertThat(outerBudget.end(), equalTo(5L));
+    }
+
+    @Test
+    public void testNestedBudgetCannotExceedEnclosingOne() throws SchemeError {
+        ExecutionBudget outerBudget = ExecutionBudget.begin(3);
+        ExecutionBudget innerBudget = ExecutionBudget.begin(100);
+        try {
+            expectedException.expect(FuelExhaustedError.class);
+            expectedException.expectMessage("budget of 3 steps");
+            for (int i = 0; i < 4; i++) {
+                ExecutionBudget.consumeFuel();
+            }
+        } finally {
+            innerBudget.end();
+            outerBudget.end();
+        }
+    }
+
+    @Test
+    public void testThreadsDontShareFuel() throws Exception {
+        ExecutionBudget executionBudget = ExecutionBudget.begin(10);
+        AtomicLong otherConsumedFuel = new AtomicLong();
+        Thread otherThread = new Thread(() -> {
+            ExecutionBudget otherBudget = ExecutionBudget.begin(ExecutionBudget.UNLIMITED);
+            try {
+                for (int i = 0; i < 100; i++) {
+                    ExecutionBudget.consumeFuel();
+                }
+            } catch (SchemeError ignored) {
+                // Shows up in the number of steps taken
+            } finally {
+                otherConsumedFuel.set(otherBudget.end());
+            }
+        });
+        otherThread.start();
+        otherThread.join();
+        ExecutionBudget.consumeFuel();
+
+        assertThat(otherConsumedFuel.get(), equalTo(100L));
+        assertThat(executionBudget.end(), equalTo(1L));
+    }
+
+    @Test
+    public void testNegativeFuelIsRejected() {
+        expectedException.expect(IllegalArgumentException.class);
+
+        SchemeExecutor.getInstance().setFuel(-2);
+    }
+
+    private SchemeObject execute(SchemeExecutor schemeExecutor, String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
@@ -0,0 +1,13 @@
+package hdm.pk070.jscheme.budget;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * A test suite collecting all test classes dealing with limiting evaluations.
+ */
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({CancellationTokenTest.class, ExecutionBudgetTest.class})
+public class SchemeBudgetTestSuite {
+}
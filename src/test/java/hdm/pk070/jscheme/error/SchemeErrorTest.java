@@ -0,0 +1,60 @@
+package hdm.pk070.jscheme.error;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeError}.
+ */
+public class SchemeErrorTest {
+
+    @Test
+    public void testMessageIsFormattedLazily() {
+        int[] formatCount = new int[1];
+        Object argument = new Object() {
+            @Override
+            public String toString() {
+                formatCount[0]++;
+                return "argument";
+            }
+        };
+
+        SchemeError schemeError = new SchemeError("(test): contract violation [given: %s, count: %d]", argument, 2);
+        assertThat(formatCount[0], equalTo(0));
+
+        assertThat(schemeError.getMessage(), equalTo("(test): contract violation [given: argument, count: 2]"));
+        assertThat(schemeError.getMessage(), equalTo("(test): contract violation [given: argument, count: 2]"));
+        assertThat(formatCount[0], equalTo(1));
+    }
+
+    @Test
+    public void testMessageWithoutArgumentsIsNotFormatted() {
+        assertThat(new SchemeError("100% literal").getMessage(), equalTo("100% literal"));
+    }
+
+    @Test
+    public void testStackTraceIsNotRecordedByDefault() {
+        assertThat(new SchemeError("(test): failure").getStackTrace().length, equalTo(0));
+        assertThat(new SchemeError("(test): %s", "failure").getStackTrace().length, equalTo(0));
+    }
+
+    @Test
+    public void testStackTraceIsRecordedInDebugMode() {
+        SchemeError.setStackTracesEnabled(true);
+        try {
+            assertThat(new SchemeError("(test): failure").getStackTrace().length, greaterThan(0));
+        } finally {
+            SchemeError.setStackTracesEnabled(false);
+        }
+    }
+
+    @Test
+    public void testErrorsAbortingTheEvaluationCannotBeCaught() {
+        assertThat(new SchemeError("(test): failure").isCatchable(), equalTo(true));
+        assertThat(new FuelExhaustedError(10).isCatchable(), equalTo(false));
+        assertThat(EvaluationCancelledError.cancelled().isCatchable(), equalTo(false));
+    }
+}
@@ -0,0 +1,13 @@
+package hdm.pk070.jscheme.error;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * A test suite collecting all test classes dealing with errors.
+ */
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({SchemeErrorTest.class})
+public class SchemeErrorTestSuite {
+}
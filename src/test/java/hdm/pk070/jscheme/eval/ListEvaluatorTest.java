@@ -3,9 +3,11 @@ package hdm.pk070.jscheme.eval;
 import hdm.pk070.jscheme.error.SchemeError;
 import hdm.pk070.jscheme.obj.SchemeObject;
 import hdm.pk070.jscheme.obj.builtin.function.SchemeBuiltinFunction;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinPlus;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
 import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
 import hdm.pk070.jscheme.obj.builtin.syntax.SchemeBuiltinSyntax;
 import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
@@ -67,6 +69,22 @@ public class ListEvaluatorTest {
 
     @Test
     public void testEvaluateBuiltinFunction() throws SchemeError {
+        // Setup SchemeBuiltinFunction mock
+        SchemeBuiltinFunction schemeBuiltinFunction = Mockito.mock(SchemeBuiltinFunction.class);
+
+        // Invoke target method via reflection
+        ReflectionUtils.invokeMethod(listEvaluator, METHOD_EVAL_BUILTIN_FUNC,
+                new ReflectionCallArg(SchemeBuiltinFunction.class, schemeBuiltinFunction),
+                new ReflectionCallArg(SchemeObject.class, argumentListWithTwoArgs),
+                new ReflectionCallArg(Environment.class, LocalEnvironment.withSize(42)));
+
+        // Ensure the built-in function mock has been called by its entry point for two arguments
+        verify(schemeBuiltinFunction).call2(eq(new SchemeInteger(2)), eq(new SchemeInteger(3)));
+        verify(schemeBuiltinFunction, never()).call(anyInt());
+    }
+
+    @Test
+    public void testBuiltinFunctionWithoutEntryPointGetsArgumentsFromStack() throws SchemeError {
         int expectedArgCount = 2;
 
         // Setup SchemeCallStack mock and ensure its returned on request for an instance
@@ -74,8 +92,8 @@ public class ListEvaluatorTest {
         PowerMockito.mockStatic(SchemeCallStack.class);
         PowerMockito.when(SchemeCallStack.instance()).thenReturn(mockedStack);
 
-        // Setup SchemeBuiltinFunction mock
-        SchemeBuiltinFunction schemeBuiltinFunction = Mockito.mock(SchemeBuiltinFunction.class);
+        // Setup a built-in function spy which only implements call(int)
+        SchemeBuiltinFunction schemeBuiltinFunction = spy(new StubBuiltinFunction());
 
         // Invoke target method via reflection
         ReflectionUtils.invokeMethod(listEvaluator, METHOD_EVAL_BUILTIN_FUNC,
@@ -87,7 +105,7 @@ public class ListEvaluatorTest {
         verify(mockedStack).push(eq(new SchemeInteger(2)));
         verify(mockedStack).push(eq(new SchemeInteger(3)));
 
-        // Ensure the built-in function mock has been called with the right number of arguments
+        // Ensure the built-in function has been called with the right number of arguments
         verify(schemeBuiltinFunction).call(expectedArgCount);
     }
 
@@ -96,8 +114,8 @@ public class ListEvaluatorTest {
         SchemeSymbol plusSymbol = new SchemeSymbol("+");
         LocalEnvironment dummyEnv = LocalEnvironment.withSize(42);
 
-        // Setup a built-in function mock
-        SchemeBuiltinFunction builtinFunctionMock = mock(SchemeBuiltinFunction.class);
+        // Setup a built-in function spy, a mock wouldn't carry a type tag
+        SchemeBuiltinFunction builtinFunctionMock = spy(new StubBuiltinFunction());
         SymbolEvaluator symbolEvaluator = mock(SymbolEvaluator.class);
         Mockito.when(symbolEvaluator.doEval(plusSymbol, dummyEnv)).thenReturn(builtinFunctionMock);
 
@@ -113,7 +131,7 @@ public class ListEvaluatorTest {
         listEvaluator.doEval(expression, dummyEnv);
 
         // Verify that the function mock has been called as expected
-        verify(builtinFunctionMock, times(1)).call(2);
+        verify(builtinFunctionMock, times(1)).call2(new SchemeInteger(1), new SchemeInteger(2));
     }
 
     @Test
@@ -122,7 +140,7 @@ public class ListEvaluatorTest {
         LocalEnvironment dummyEnv = LocalEnvironment.withSize(42);
 
         // Setup SymbolEvaluator mock for returning our SchemeBuiltinSyntax mock
-        SchemeBuiltinSyntax mockedBuiltinSyntax = mock(SchemeBuiltinSyntax.class);
+        SchemeBuiltinSyntax mockedBuiltinSyntax = spy(new StubBuiltinSyntax());
         SymbolEvaluator mockedSymbolEvaluator = mock(SymbolEvaluator.class);
         when(mockedSymbolEvaluator.doEval(defineSymbol, dummyEnv)).thenReturn(mockedBuiltinSyntax);
 
@@ -204,7 +222,10 @@ public class ListEvaluatorTest {
         SchemeEval schemeEvalMock = mock(SchemeEval.class);
         when(schemeEvalMock.eval(new SchemeInteger(2), null)).thenReturn(new SchemeInteger(2));
         when(schemeEvalMock.eval(new SchemeInteger(3), null)).thenReturn(new SchemeInteger(3));
-        when(schemeEvalMock.eval(bodyList.getCar(), localEnvDummy)).thenReturn(new SchemeInteger(5));
+        // The body is in tail position, so the call of "+" is evaluated by the function itself
+        when(schemeEvalMock.eval(new SchemeSymbol("+"), localEnvDummy)).thenReturn(SchemeBuiltinPlus.create());
+        when(schemeEvalMock.eval(new SchemeSymbol("x"), localEnvDummy)).thenReturn(new SchemeInteger(2));
+        when(schemeEvalMock.eval(new SchemeSymbol("y"), localEnvDummy)).thenReturn(new SchemeInteger(3));
 
         PowerMockito.mockStatic(SchemeEval.class);
         PowerMockito.when(SchemeEval.getInstance()).thenReturn(schemeEvalMock);
@@ -233,4 +254,29 @@ public class ListEvaluatorTest {
         assertThat(actual.getMessage(), equalTo(expected.getMessage()));
     }
 
+    static class StubBuiltinFunction extends SchemeBuiltinFunction {
+
+        StubBuiltinFunction() {
+            super("stub-function");
+        }
+
+        @Override
+        public SchemeObject call(int argCount) {
+            return new SchemeVoid();
+        }
+    }
+
+    static class StubBuiltinSyntax extends SchemeBuiltinSyntax {
+
+        StubBuiltinSyntax() {
+            super("stub-syntax");
+        }
+
+        @Override
+        public SchemeObject apply(SchemeObject argumentList, Environment<SchemeSymbol, EnvironmentEntry>
+                environment) {
+            return new SchemeVoid();
+        }
+    }
+
 }
@@ -0,0 +1,93 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link IrConverter}.
+ */
+public class IrConverterTest {
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testOperandsWhichAreNoAtomsAreBoundToTemporaries() throws SchemeError {
+        IrNode node = convert("(f (g x) 1)").get();
+
+        assertThat(node, instanceOf(IrLet.class));
+        IrLet temporaryLet = (IrLet) node;
+        assertThat(temporaryLet.isTemporary(), equalTo(true));
+        assertThat(temporaryLet.getValues().get(0), instanceOf(IrCall.class));
+
+        IrCall call = (IrCall) temporaryLet.getBody();
+        assertThat(((IrVariable) call.getArguments().get(0)).getBinding(), sameInstance(temporaryLet.getBindings()
+                .get(0)));
+        assertThat(((IrConstant) call.getArguments().get(1)).getValue(), equalTo(new SchemeInteger(1)));
+    }
+
+    @Test
+    public void testShadowingVariablesAreDistinctBindings() throws SchemeError {
+        IrLet outerLet = (IrLet) convert("(let ((x 1)) (let ((x x)) x))").get();
+        IrLet innerLet = (IrLet) outerLet.getBody();
+
+        assertThat(((IrVariable) innerLet.getValues().get(0)).getBinding(), sameInstance(outerLet.getBindings()
+                .get(0)));
+        assertThat(((IrVariable) innerLet.getBody()).getBinding(), sameInstance(innerLet.getBindings().get(0)));
+        assertThat(innerLet.getBindings().get(0), not(sameInstance(outerLet.getBindings().get(0))));
+    }
+
+    @Test
+    public void testInternalDefinitionsAreVisibleThroughoutTheBody() throws SchemeError {
+        IrLambda lambda = (IrLambda) convert("(lambda () (define (f) (g)) (define (g) 1) (f))").get();
+        IrSequence body = (IrSequence) lambda.getBody();
+        IrDefine firstDefinition = (IrDefine) body.getForms().get(0);
+        IrDefine secondDefinition = (IrDefine) body.getForms().get(1);
+
+        IrCall callOfG = (IrCall) ((IrLambda) firstDefinition.getValue()).getBody();
+        assertThat(((IrVariable) callOfG.getFunction()).getBinding(), sameInstance(secondDefinition.getBinding()));
+        assertThat(secondDefinition.getBinding().getKind(), equalTo(IrBinding.Kind.DEFINITION));
+    }
+
+    @Test
+    public void testUnmodelledSyntaxIsKeptOpaque() throws SchemeError {
+        IrLambda lambda = (IrLambda) convert("(lambda (n) (do ((i 0 (+ i 1))) ((eq? i n) i)))").get();
+
+        assertThat(lambda.getBody(), instanceOf(IrOpaque.class));
+        assertThat(((IrOpaque) lambda.getBody()).getReferencedBindings(), contains(lambda.getParameters().get(0)));
+    }
+
+    @Test
+    public void testUnsupportedExpressionsAreNotConverted() throws SchemeError {
+        assertThat(convert("(f (define x 1))").isPresent(), equalTo(false));
+        assertThat(convert("(lambda (if) (if 1 2 3))").isPresent(), equalTo(false));
+        assertThat(convert("(lambda (x x) x)").isPresent(), equalTo(false));
+        assertThat(convert("(lambda (x) (define y 1))").isPresent(), equalTo(false));
+        assertThat(convert("(if 1 2)").isPresent(), equalTo(false));
+    }
+
+    private Optional<IrNode> convert(String input) throws SchemeError {
+        return IrConverter.forEnvironment(GlobalEnvironment.getInstance()).convert(JSchemeTestUtils.read(input));
+    }
+}
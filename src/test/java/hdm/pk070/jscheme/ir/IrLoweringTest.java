@@ -0,0 +1,74 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link IrLowering}.
+ */
+public class IrLoweringTest {
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testConvertedExpressionsAreLoweredToTheOriginal() throws SchemeError {
+        for (String input : Arrays.asList("(f (g (h x)) (k 'y))", "(if (f x) (g 1) 2)", "(define (f x) (define " +
+                "y (g x)) (h y))", "(let loop ((i 0)) (if (eq? i 3) i (loop (+ i 1))))", "((lambda (x) (* x x)) " +
+                "(f 2))", "(lambda (n) (do ((i 0 (+ i 1))) ((eq? i n) i)))")) {
+            SchemeObject expression = JSchemeTestUtils.read(input);
+            IrNode node = IrConverter.forEnvironment(GlobalEnvironment.getInstance()).convert(expression).get();
+
+            assertThat(input, IrLowering.create().lower(node), equalTo(expression));
+        }
+    }
+
+    @Test
+    public void testTemporaryEvaluatedAfterAnotherCallIsKept() throws SchemeError {
+        IrBinding temporary = IrBinding.create(new SchemeSymbol("t"), IrBinding.Kind.TEMPORARY);
+        IrNode node = IrLet.create(list(temporary), list(call("g")), IrCall.create(global("f"), list(call("h"),
+                IrVariable.create(temporary))));
+
+        assertThat(IrLowering.create().lower(node), equalTo(JSchemeTestUtils.read("(let ((t (g))) (f (h) t))")));
+    }
+
+    @Test
+    public void testSequenceOutsideOfBodyIsCalledAsLambda() throws SchemeError {
+        IrNode node = IrSequence.create(list(call("f"), call("g")));
+
+        assertThat(IrLowering.create().lower(node), equalTo(JSchemeTestUtils.read("((lambda () (f) (g)))")));
+    }
+
+    private IrNode call(String functionName) {
+        return IrCall.create(global(functionName), Collections.emptyList());
+    }
+
+    private IrNode global(String name) {
+        return IrVariable.create(IrBinding.create(new SchemeSymbol(name), IrBinding.Kind.GLOBAL));
+    }
+
+    @SafeVarargs
+    private static <T> ArrayList<T> list(T... elements) {
+        return new ArrayList<>(Arrays.asList(elements));
+    }
+}
@@ -0,0 +1,21 @@
+package hdm.pk070.jscheme.ir;
+
+import hdm.pk070.jscheme.ir.pass.BetaReductionTest;
+import hdm.pk070.jscheme.ir.pass.ConstantPropagationTest;
+import hdm.pk070.jscheme.ir.pass.DeadBindingEliminationTest;
+import hdm.pk070.jscheme.ir.pass.KnownCallDetectionTest;
+import hdm.pk070.jscheme.ir.pass.PassManagerTest;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * A test suite collecting all test classes dealing with the intermediate representation and its optimization
+ * passes.
+ */
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({IrConverterTest.class, IrLoweringTest.class, PassManagerTest.class,
+        ConstantPropagationTest.class, DeadBindingEliminationTest.class, BetaReductionTest.class,
+        KnownCallDetectionTest.class})
+public class SchemeIrTestSuite {
+}
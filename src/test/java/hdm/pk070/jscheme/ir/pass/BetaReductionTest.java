@@ -0,0 +1,59 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link BetaReduction}.
+ */
+public class BetaReductionTest {
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testCallOfLambdaExpressionBecomesLet() throws SchemeError {
+        assertOptimized("((lambda (x) (* x x)) (f 3))", "(let ((x (f 3))) (* x x))");
+        assertOptimized("(g ((lambda (x y) (+ x y)) 1 2))", "(g (let ((x 1) (y 2)) (+ x y)))");
+    }
+
+    @Test
+    public void testCallOfLambdaExpressionWithoutParametersBecomesBody() throws SchemeError {
+        assertOptimized("((lambda () (f)))", "(f)");
+        assertOptimized("((lambda () (f) (g)))", "(let () (f) (g))");
+    }
+
+    @Test
+    public void testCallWithWrongNumberOfArgumentsIsKept() throws SchemeError {
+        assertUnchanged("((lambda (x) x) 1 2)");
+    }
+
+    private void assertOptimized(String input, String expected) throws SchemeError {
+        assertThat(input, optimize(JSchemeTestUtils.read(input)), equalTo(JSchemeTestUtils.read(expected)));
+    }
+
+    private void assertUnchanged(String input) throws SchemeError {
+        SchemeObject expression = JSchemeTestUtils.read(input);
+        assertThat(input, optimize(expression), sameInstance(expression));
+    }
+
+    private SchemeObject optimize(SchemeObject expression) throws SchemeError {
+        return PassManager.forSpecification(BetaReduction.NAME).optimize(expression, GlobalEnvironment.getInstance());
+    }
+}
@@ -0,0 +1,61 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link ConstantPropagation}.
+ */
+public class ConstantPropagationTest {
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testConstantsBoundByLetAreSubstituted() throws SchemeError {
+        assertOptimized("(let ((x 2)) (* x x))", "(let ((x 2)) (* 2 2))");
+        assertOptimized("(let ((s 'a)) (let ((y (f s))) (g s y)))", "(let ((s 'a)) (let ((y (f 'a))) (g 'a y)))");
+    }
+
+    @Test
+    public void testIfWithConstantConditionIsReplacedByBranch() throws SchemeError {
+        assertOptimized("(lambda () (if #t (f) (g)))", "(lambda () (f))");
+        assertOptimized("(let ((debug #f)) (if debug (f) (g)))", "(let ((debug #f)) (g))");
+    }
+
+    @Test
+    public void testVariablesReferredToByOpaqueFormsAreKept() throws SchemeError {
+        assertUnchanged("(let ((n 3)) (do ((i 0 (+ i 1))) ((eq? i n) i)))");
+        assertUnchanged("(let ((f (g))) (f 1))");
+    }
+
+    private void assertOptimized(String input, String expected) throws SchemeError {
+        assertThat(input, optimize(JSchemeTestUtils.read(input)), equalTo(JSchemeTestUtils.read(expected)));
+    }
+
+    private void assertUnchanged(String input) throws SchemeError {
+        SchemeObject expression = JSchemeTestUtils.read(input);
+        assertThat(input, optimize(expression), sameInstance(expression));
+    }
+
+    private SchemeObject optimize(SchemeObject expression) throws SchemeError {
+        return PassManager.forSpecification(ConstantPropagation.NAME).optimize(expression, GlobalEnvironment
+                .getInstance());
+    }
+}
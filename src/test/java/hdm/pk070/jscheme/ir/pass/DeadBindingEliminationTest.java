@@ -0,0 +1,67 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link DeadBindingElimination}.
+ */
+public class DeadBindingEliminationTest {
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testUnusedBindingsWithoutSideEffectsAreRemoved() throws SchemeError {
+        assertOptimized("(let ((x 1) (y (f))) (g y))", "(let ((y (f))) (g y))");
+        assertOptimized("(let ((x 1) (h (lambda () 2))) (g))", "(g)");
+    }
+
+    @Test
+    public void testBindingsWithSideEffectsAreKept() throws SchemeError {
+        assertUnchanged("(let ((x (f))) 1)");
+        assertUnchanged("(lambda () (let ((x y)) 1))");
+    }
+
+    @Test
+    public void testUnusedInternalDefinitionsAreRemoved() throws SchemeError {
+        assertOptimized("(define (h) (define (unused n) (unused n)) (define used 2) used)", "(define (h) (define " +
+                "used 2) used)");
+        assertOptimized("(lambda () (define (unused) 1) (f))", "(lambda () (f))");
+    }
+
+    @Test
+    public void testLetWithBodyOfSeveralFormsIsKept() throws SchemeError {
+        assertOptimized("(let ((x 1)) (f) (g))", "(let () (f) (g))");
+    }
+
+    private void assertOptimized(String input, String expected) throws SchemeError {
+        assertThat(input, optimize(JSchemeTestUtils.read(input)), equalTo(JSchemeTestUtils.read(expected)));
+    }
+
+    private void assertUnchanged(String input) throws SchemeError {
+        SchemeObject expression = JSchemeTestUtils.read(input);
+        assertThat(input, optimize(expression), sameInstance(expression));
+    }
+
+    private SchemeObject optimize(SchemeObject expression) throws SchemeError {
+        return PassManager.forSpecification(DeadBindingElimination.NAME).optimize(expression, GlobalEnvironment
+                .getInstance());
+    }
+}
@@ -0,0 +1,67 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link KnownCallDetection}.
+ */
+public class KnownCallDetectionTest {
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testLambdaExpressionIsMovedIntoItsOnlyCall() throws SchemeError {
+        assertOptimized("(let ((square (lambda (x) (* x x)))) (square 3))", "(let () ((lambda (x) (* x x)) 3))");
+        assertOptimized("(let ((f (lambda () 1)) (y 2)) (if y (f) 0))", "(let ((y 2)) (if y ((lambda () 1)) 0))");
+    }
+
+    @Test
+    public void testLambdaExpressionIsNotMovedIntoOtherLambdaExpressionOrLoop() throws SchemeError {
+        assertUnchanged("(let ((f (lambda (x) x))) (lambda () (f 1)))");
+        assertUnchanged("(let ((f (lambda (x) x))) (let loop ((i 0)) (f i)))");
+    }
+
+    @Test
+    public void testLambdaExpressionIsNotMovedIntoScopeShadowingItsVariables() throws SchemeError {
+        assertUnchanged("(let ((f (lambda () y))) (let ((y 2)) (f)))");
+        assertUnchanged("(let ((f (lambda () y)) (y 2)) (f))");
+    }
+
+    @Test
+    public void testLambdaExpressionReferredToTwiceIsKept() throws SchemeError {
+        assertUnchanged("(let ((f (lambda (x) x))) (f (f 1)))");
+        assertUnchanged("(let ((f (lambda (x) x))) (g f))");
+    }
+
+    private void assertOptimized(String input, String expected) throws SchemeError {
+        assertThat(input, optimize(JSchemeTestUtils.read(input)), equalTo(JSchemeTestUtils.read(expected)));
+    }
+
+    private void assertUnchanged(String input) throws SchemeError {
+        SchemeObject expression = JSchemeTestUtils.read(input);
+        assertThat(input, optimize(expression), sameInstance(expression));
+    }
+
+    private SchemeObject optimize(SchemeObject expression) throws SchemeError {
+        return PassManager.forSpecification(KnownCallDetection.NAME).optimize(expression, GlobalEnvironment
+                .getInstance());
+    }
+}
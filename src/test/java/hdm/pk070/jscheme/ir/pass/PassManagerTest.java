@@ -0,0 +1,116 @@
+package hdm.pk070.jscheme.ir.pass;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link PassManager}.
+ */
+public class PassManagerTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testSpecificationEnablesPasses() {
+        assertThat(PassManager.forSpecification(PassManager.NO_PASSES).hasEnabledPasses(), equalTo(false));
+        PassManager allPasses = PassManager.forSpecification(PassManager.ALL_PASSES);
+        for (String passName : allPasses.getPassNames()) {
+            assertThat(allPasses.isEnabled(passName), equalTo(true));
+        }
+
+        PassManager somePasses = PassManager.forSpecification(BetaReduction.NAME + ", " + DeadBindingElimination
+                .NAME);
+        assertThat(somePasses.isEnabled(BetaReduction.NAME), equalTo(true));
+        assertThat(somePasses.isEnabled(DeadBindingElimination.NAME), equalTo(true));
+        assertThat(somePasses.isEnabled(ConstantPropagation.NAME), equalTo(false));
+        assertThat(somePasses.isEnabled(KnownCallDetection.NAME), equalTo(false));
+    }
+
+    @Test
+    public void testUnknownPassIsRejected() {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("inlining");
+        PassManager.forSpecification("beta-reduction,inlining");
+    }
+
+    @Test
+    public void testPassesCooperateUntilNothingIsLeftToRewrite() throws SchemeError {
+        PassManager passManager = PassManager.create();
+
+        assertThat(optimize(passManager, "(let ((square (lambda (x) (* x x))) (unused (lambda () 0))) (square 3))"),
+                equalTo(JSchemeTestUtils.read("(* 3 3)")));
+    }
+
+    @Test
+    public void testStatisticsAreRecordedPerPass() throws SchemeError {
+        PassManager passManager = PassManager.create();
+        passManager.setEnabled(ConstantPropagation.NAME, false);
+        optimize(passManager, "((lambda (x) (f x)) 1)");
+
+        assertThat(passManager.getStatistics(BetaReduction.NAME).getRuns(), greaterThan(0L));
+        assertThat(passManager.getStatistics(BetaReduction.NAME).getRewrites(), equalTo(1L));
+        assertThat(passManager.getStatistics(ConstantPropagation.NAME).getRuns(), equalTo(0L));
+        assertThat(passManager.report(), containsString(BetaReduction.NAME));
+
+        passManager.resetStatistics();
+
+        assertThat(passManager.getStatistics(BetaReduction.NAME).getRuns(), equalTo(0L));
+        assertThat(passManager.getStatistics(BetaReduction.NAME).getRewrites(), equalTo(0L));
+    }
+
+    @Test
+    public void testOptimizedProgramsBehaveAlikeInEveryEngine() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            SchemeExecutor schemeExecutor = SchemeExecutor.withEngine(engine);
+            schemeExecutor.setPassManager(PassManager.create());
+            execute(schemeExecutor, "(define (f x) (let ((square (lambda (y) (* y y))) (unused 1)) (if #t (square" +
+                    " (+ x 1)) 0)))");
+            execute(schemeExecutor, "(define (g n) (define (unused) n) (let loop ((i 0) (acc '())) (if (eq? i n)" +
+                    " acc (loop (+ i 1) (cons i acc)))))");
+
+            assertThat(engine.getEngineName(), execute(schemeExecutor, "(f 2)"), equalTo(JSchemeTestUtils.read
+                    ("9")));
+            assertThat(engine.getEngineName(), execute(schemeExecutor, "(g 3)"), equalTo(JSchemeTestUtils.read
+                    ("(2 1 0)")));
+            assertThat(engine.getEngineName(), execute(schemeExecutor, "((lambda (x) (let ((y x)) (do ((i 0 (+ " +
+                    "i 1))) ((eq? i y) i)))) 4)"), equalTo(JSchemeTestUtils.read("4")));
+            assertThat(engine.getEngineName(), execute(schemeExecutor, "(let ((x 1)) ((lambda (x y) (cons y (cons" +
+                    " x '()))) 2 x))"), equalTo(JSchemeTestUtils.read("(1 2)")));
+        }
+    }
+
+    private SchemeObject optimize(PassManager passManager, String input) throws SchemeError {
+        return passManager.optimize(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+
+    private SchemeObject execute(SchemeExecutor schemeExecutor, String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
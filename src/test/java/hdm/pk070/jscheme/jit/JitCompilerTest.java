@@ -0,0 +1,198 @@
+package hdm.pk070.jscheme.jit;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.analyze.node.AnalyzedBody;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex.SchemeFloat;
+import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link JitCompiler}.
+ */
+public class JitCompilerTest {
+
+    private int originalThreshold;
+    private SchemeExecutor schemeExecutor;
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.originalThreshold = JitCompiler.getCompileThreshold();
+        JitCompiler.setCompileThreshold(2);
+        this.schemeExecutor = SchemeExecutor.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JitCompiler.setCompileThreshold(originalThreshold);
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testHotFunctionIsCompiled() throws SchemeError {
+        execute("(define (fact n) (if (eq? n 0) 1 (* n (fact (- n 1)))))");
+
+        assertThat(execute("(fact 10)"), equalTo(new SchemeInteger(3628800)));
+        assertThat(analyzedBodyOf("fact").getNativeCode(), notNullValue());
+        assertThat(execute("(fact 5)"), equalTo(new SchemeInteger(120)));
+    }
+
+    @Test
+    public void testColdFunctionStaysInterpreted() throws SchemeError {
+        execute("(define (f x) x)");
+        execute("(f 1)");
+
+        assertThat(analyzedBodyOf("f").getNativeCode(), nullValue());
+    }
+
+    @Test
+    public void testCompiledClassesHaveLoadersOfTheirOwn() throws SchemeError {
+        execute("(define (f x) x)");
+        execute("(define (g x) x)");
+        execute("(f (f (g (g 1))))");
+
+        ClassLoader firstLoader = analyzedBodyOf("f").getNativeCode().getClass().getClassLoader();
+        ClassLoader secondLoader = analyzedBodyOf("g").getNativeCode().getClass().getClassLoader();
+
+        assertThat(firstLoader, instanceOf(JitClassLoader.class));
+        assertThat(firstLoader, not(sameInstance(secondLoader)));
+    }
+
+    @Test
+    public void testCompiledTailCallsRunInConstantStackSpace() throws SchemeError {
+        execute("(define (count-down n) (if (eq? n 0) 'done (count-down (- n 1))))");
+
+        assertThat(execute("(count-down 100000)"), equalTo(new SchemeSymbol("done")));
+        assertThat(analyzedBodyOf("count-down").getNativeCode(), notNullValue());
+    }
+
+    @Test
+    public void testHotLoopContinuesInCompiledCode() throws SchemeError {
+        execute("(define (count n acc) (if (eq? n 0) acc (count (- n 1) (+ acc 1))))");
+
+        assertThat(execute("(count 1000000 0)"), equalTo(new SchemeInteger(1000000)));
+        assertThat(analyzedBodyOf("count").getNativeCode(), notNullValue());
+        assertThat(analyzedBodyOf("count").getInvocationCount(), equalTo(2));
+    }
+
+    @Test
+    public void testCompiledSelfTailCallsKeepClosuresOfEachIteration() throws SchemeError {
+        execute("(define (collect n acc) (if (eq? n 0) acc (collect (- n 1) (cons (lambda () n) acc))))");
+        execute("(collect 3 '())");
+
+        assertThat(execute("((car (collect 5 '())))"), equalTo(new SchemeInteger(1)));
+        assertThat(execute("((car (cdr (collect 5 '()))))"), equalTo(new SchemeInteger(2)));
+        assertThat(analyzedBodyOf("collect").getNativeCode(), notNullValue());
+    }
+
+    @Test
+    public void testCompiledArithmeticKeepsSpecializationAndHonorsRedefinition() throws SchemeError {
+        execute("(define (scale x) (* x 3))");
+        execute("(scale 1)");
+        execute("(scale 2)");
+
+        assertThat(execute("(scale 4.0)"), equalTo(new SchemeFloat(12.0f)));
+        assertThat(analyzedBodyOf("scale").getNativeCode(), notNullValue());
+
+        execute("(define (* a b) (+ a b))");
+        assertThat(execute("(scale 4)"), equalTo(new SchemeInteger(7)));
+    }
+
+    @Test
+    public void testCompiledInlinedCallHonorsRedefinition() throws SchemeError {
+        execute("(define (second l) (car (cdr l)))");
+        execute("(define (f l) (+ 1 (second l)))");
+        execute("(f '(1 2))");
+        execute("(f '(1 2))");
+
+        assertThat(execute("(f '(1 2))"), equalTo(new SchemeInteger(3)));
+        assertThat(analyzedBodyOf("f").getNativeCode(), notNullValue());
+
+        execute("(define (second l) (car l))");
+        assertThat(execute("(f '(1 2))"), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testCompiledCodeSupportsClosuresAndInternalDefinitions() throws SchemeError {
+        execute("(define (make-adder n) (define k (* n 2)) (lambda (x) (+ x k)))");
+        execute("(make-adder 1)");
+        execute("(make-adder 2)");
+
+        assertThat(execute("((make-adder 10) 5)"), equalTo(new SchemeInteger(25)));
+        assertThat(analyzedBodyOf("make-adder").getNativeCode(), notNullValue());
+    }
+
+    @Test
+    public void testCompiledCodePassesUnevaluatedArgumentsToSyntax() throws SchemeError {
+        execute("(define choose if)");
+        execute("(define (f x) (choose x 1 undefined-variable))");
+        execute("(f 1)");
+
+        assertThat(execute("(f 1)"), equalTo(new SchemeInteger(1)));
+        assertThat(analyzedBodyOf("f").getNativeCode(), notNullValue());
+    }
+
+    @Test
+    public void testNonPositiveThresholdDisablesCompilation() throws SchemeError {
+        JitCompiler.setCompileThreshold(0);
+        execute("(define (f x) x)");
+        execute("(f (f (f 1)))");
+
+        assertThat(analyzedBodyOf("f").getNativeCode(), nullValue());
+    }
+
+    @Test
+    public void testBytecodeEngineSwitchesToCompiledCode() throws SchemeError {
+        schemeExecutor = SchemeExecutor.withEngine(ExecutionEngine.BYTECODE);
+        execute("(define (sum n acc) (if (eq? n 0) acc (sum (- n 1) (+ acc n))))");
+
+        assertThat(execute("(sum 100 0)"), equalTo(new SchemeInteger(5050)));
+        assertThat(analyzedBodyOf("sum").getNativeCode(), notNullValue());
+    }
+
+    @Test
+    public void testEveryNodeShapeCompiles() throws SchemeError {
+        execute("(define pi 3)");
+        execute("(define counter 0)");
+        execute("(define (second l) (car (cdr l)))");
+        execute("(define choose if)");
+        String[] definitions = {"(define (constant) 42)", "(define (identity x) x)", "(define (stable) pi)",
+                "(define (bump) (set! counter (+ counter 1)) counter)", "(define (folded) (* pi 2))",
+                "(define (local x) (define y (* x 2)) (set! y (- y 1)) y)", "(define (adder n) (lambda (x) (+ x n)))",
+                "(define (inlined l) (+ 1 (second l)))", "(define (syntax x) (choose x 1 2))",
+                "(define (count-down n) (if (eq? n 0) 'done (count-down (- n 1))))",
+                "(define (copy l) (if (cons? l) (cons (car l) (copy (cdr l))) '()))",
+                "(define (first-copied l) (if (cons? l) (car (cons (car l) (first-copied (cdr l)))) l))"};
+        for (String definition : definitions) {
+            execute(definition);
+        }
+
+        for (String functionName : new String[]{"constant", "identity", "stable", "bump", "folded", "local",
+                "adder", "inlined", "syntax", "count-down", "copy", "first-copied"}) {
+            // A VerifyError or ClassFormatError of the generated class is thrown rather than swallowed
+            assertThat(functionName, JitCompiler.getInstance().compile(analyzedBodyOf(functionName)).isPresent(),
+                    equalTo(true));
+        }
+    }
+
+    private AnalyzedBody analyzedBodyOf(String functionName) throws SchemeError {
+        SchemeCustomUserFunction function = (SchemeCustomUserFunction) execute(functionName);
+        return function.getAnalyzedBody();
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
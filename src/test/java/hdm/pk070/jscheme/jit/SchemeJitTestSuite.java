@@ -0,0 +1,13 @@
+package hdm.pk070.jscheme.jit;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * A test suite collecting all test classes dealing with compilation to JVM bytecode.
+ */
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({JitCompilerTest.class})
+public class SchemeJitTestSuite {
+}
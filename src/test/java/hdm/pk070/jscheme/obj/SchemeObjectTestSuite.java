@@ -1,6 +1,7 @@
 package hdm.pk070.jscheme.obj;
 
 import hdm.pk070.jscheme.obj.builtin.SchemeBuiltinTestSuite;
+import hdm.pk070.jscheme.obj.custom.FunctionTemplateCacheTest;
 import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunctionTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -12,6 +13,7 @@ import org.junit.runners.Suite;
  */
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({SchemeBuiltinTestSuite.class, SchemeCustomUserFunctionTest.class})
+@Suite.SuiteClasses({SchemeBuiltinTestSuite.class, SchemeCustomUserFunctionTest.class,
+        FunctionTemplateCacheTest.class})
 public class SchemeObjectTestSuite {
 }
@@ -0,0 +1,112 @@
+package hdm.pk070.jscheme.obj.builtin.function;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.function.base.SchemeBuiltinEq;
+import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinCons;
+import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinGetCar;
+import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinGetCdr;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinDivide;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinMinus;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinPlus;
+import hdm.pk070.jscheme.obj.builtin.function.math.SchemeBuiltinTimes;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeString;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeTrue;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeFraction;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.stack.SchemeCallStack;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * A test class for the fixed-arity entry points of {@link SchemeBuiltinFunction}.
+ */
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore("javax.management.*")
+@PrepareForTest(SchemeCallStack.class)
+public class SchemeBuiltinFunctionTest {
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private SchemeCallStack mockedCallStack;
+
+    @Before
+    public void setUp() {
+        mockedCallStack = mock(SchemeCallStack.class);
+        PowerMockito.mockStatic(SchemeCallStack.class);
+        PowerMockito.when(SchemeCallStack.instance()).thenReturn(mockedCallStack);
+    }
+
+    @Test
+    public void testListFunctionsDoNotTouchCallStack() throws SchemeError {
+        SchemeCons cons = new SchemeCons(new SchemeInteger(1), new SchemeNil());
+
+        assertThat(SchemeBuiltinGetCar.create().call1(cons), equalTo(new SchemeInteger(1)));
+        assertThat(SchemeBuiltinGetCdr.create().call1(cons), equalTo(new SchemeNil()));
+        assertThat(SchemeBuiltinCons.create().call2(new SchemeInteger(1), new SchemeNil()), equalTo(cons));
+        assertThat(SchemeBuiltinEq.create().call2(new SchemeInteger(1), new SchemeInteger(1)), equalTo(new
+                SchemeTrue()));
+
+        verifyZeroInteractions(mockedCallStack);
+    }
+
+    @Test
+    public void testBinaryArithmeticDoesNotTouchCallStack() throws SchemeError {
+        assertThat(SchemeBuiltinPlus.create().call2(new SchemeInteger(4), new SchemeInteger(2)), equalTo(new
+                SchemeInteger(6)));
+        assertThat(SchemeBuiltinMinus.create().call2(new SchemeInteger(4), new SchemeInteger(2)), equalTo(new
+                SchemeInteger(2)));
+        assertThat(SchemeBuiltinTimes.create().call2(new SchemeInteger(4), new SchemeInteger(2)), equalTo(new
+                SchemeInteger(8)));
+        assertThat(SchemeBuiltinDivide.create().call2(new SchemeInteger(1), new SchemeInteger(2)), equalTo(new
+                SchemeFraction(1, 2)));
+        assertThat(SchemeBuiltinMinus.create().call1(new SchemeInteger(4)), equalTo(new SchemeInteger(-4)));
+
+        verifyZeroInteractions(mockedCallStack);
+    }
+
+    @Test
+    public void testInvokeDispatchesOnArgumentCount() throws SchemeError {
+        SchemeObject result = SchemeBuiltinCons.create().invoke(new SchemeObject[]{new SchemeInteger(1), new
+                SchemeInteger(2)});
+
+        assertThat(result, equalTo(new SchemeCons(new SchemeInteger(1), new SchemeInteger(2))));
+        verifyZeroInteractions(mockedCallStack);
+    }
+
+    @Test
+    public void testFallBackToCallStackWithoutFixedArityEntryPoint() throws SchemeError {
+        when(mockedCallStack.pop()).thenReturn(new SchemeInteger(3)).thenReturn(new SchemeInteger(2)).thenReturn
+                (new SchemeInteger(1));
+
+        SchemeObject result = SchemeBuiltinPlus.create().invoke(new SchemeObject[]{new SchemeInteger(1), new
+                SchemeInteger(2), new SchemeInteger(3)});
+
+        assertThat(result, equalTo(new SchemeInteger(6)));
+        verify(mockedCallStack).push(new SchemeInteger(1));
+        verify(mockedCallStack).push(new SchemeInteger(2));
+        verify(mockedCallStack).push(new SchemeInteger(3));
+    }
+
+    @Test
+    public void testContractViolationReportsSameArgumentAsCallStackProtocol() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(-): contract violation [expected: number, given: \"b\"]");
+
+        SchemeBuiltinMinus.create().call2(new SchemeString("a"), new SchemeString("b"));
+    }
+}
@@ -1,6 +1,11 @@
 package hdm.pk070.jscheme.obj.builtin.function;
 
 import hdm.pk070.jscheme.obj.builtin.function.base.SchemeBuiltinEqTest;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinCallCCTest;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinDynamicWindTest;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinErrorTest;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinRaiseTest;
+import hdm.pk070.jscheme.obj.builtin.function.control.SchemeBuiltinWithExceptionHandlerTest;
 import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinConsTest;
 import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinGetCarTest;
 import hdm.pk070.jscheme.obj.builtin.function.list.SchemeBuiltinGetCdrTest;
@@ -17,6 +22,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({SchemeBuiltinPlusTest.class, SchemeBuiltinMinusTest.class, SchemeBuiltinTimesTest.class,
         SchemeBuiltinDivideTest.class, SchemeBuiltinAbsoluteTest.class, SchemeBuiltinConsTest.class,
         SchemeBuiltinGetCarTest.class, SchemeBuiltinGetCdrTest.class, SchemeBuiltinIsConsTest.class,
-        SchemeBuiltinEqTest.class})
+        SchemeBuiltinEqTest.class, SchemeBuiltinFunctionTest.class, SchemeBuiltinCallCCTest.class,
+        SchemeBuiltinDynamicWindTest.class, SchemeBuiltinRaiseTest.class, SchemeBuiltinErrorTest.class,
+        SchemeBuiltinWithExceptionHandlerTest.class})
 public class SchemeBuiltinFunctionTestSuite {
 }
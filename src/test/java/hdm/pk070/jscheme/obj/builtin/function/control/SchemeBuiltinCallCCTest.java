@@ -0,0 +1,114 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeFalse;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinCallCC}.
+ */
+public class SchemeBuiltinCallCCTest {
+
+    private static final String FIND_FIRST = "(define (find-first pred l) (call/cc (lambda (return) (define (loop l)" +
+            " (if (cons? l) (if (pred (car l)) (return (car l)) (loop (cdr l))) #f)) (loop l))))";
+
+    private SchemeExecutor schemeExecutor;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.schemeExecutor = SchemeExecutor.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testReturnValueOfProcedureIfContinuationIsNotInvoked() throws SchemeError {
+        assertThat(execute("(call/cc (lambda (k) 42))"), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testInvokingContinuationSkipsRestOfComputation() throws SchemeError {
+        assertThat(execute("(+ 1 (call/cc (lambda (k) (+ 100 (k 41)))))"), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testEscapeFromNestedCallsOnAllEngines() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            schemeExecutor = SchemeExecutor.withEngine(executionEngine);
+            execute(FIND_FIRST);
+
+            assertThat(execute("(find-first (lambda (x) (eq? x 3)) '(1 2 3 4))"), equalTo(new SchemeInteger(3)));
+            assertThat(execute("(find-first (lambda (x) (eq? x 5)) '(1 2 3 4))"), equalTo(new SchemeFalse()));
+        }
+    }
+
+    @Test
+    public void testLongNameIsBound() throws SchemeError {
+        assertThat(execute("(call-with-current-continuation (lambda (k) (k 'done)))"), equalTo(new SchemeSymbol
+                ("done")));
+    }
+
+    @Test
+    public void testEscapeOnlyContinuationCannotBeReentered() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(continuation): cannot re-enter a continuation after call/cc has returned");
+
+        execute("((call/cc (lambda (k) k)) (lambda (x) 41))");
+    }
+
+    @Test
+    public void testStacklessEngineReentersContinuation() throws SchemeError {
+        schemeExecutor = SchemeExecutor.withEngine(ExecutionEngine.STACKLESS);
+
+        assertThat(execute("(+ 1 ((call/cc (lambda (k) k)) (lambda (x) 41)))"), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testStacklessEngineReentersContinuationCapturedInTailPosition() throws SchemeError {
+        schemeExecutor = SchemeExecutor.withEngine(ExecutionEngine.STACKLESS);
+        execute("(define (current-continuation) (call/cc (lambda (k) k)))");
+
+        assertThat(execute("(+ 1 ((current-continuation) (lambda (x) 41)))"), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testThrowErrorIfArgumentIsNoProcedure() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(call/cc): contract violation [expected: procedure, given: 1]");
+
+        execute("(call/cc 1)");
+    }
+
+    @Test
+    public void testThrowErrorIfContinuationGetsWrongNumberOfArguments() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(continuation): arity mismatch");
+
+        execute("(call/cc (lambda (k) (k 1 2)))");
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
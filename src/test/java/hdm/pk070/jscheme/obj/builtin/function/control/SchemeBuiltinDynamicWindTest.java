@@ -0,0 +1,83 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinDynamicWind}.
+ */
+public class SchemeBuiltinDynamicWindTest {
+
+    private SchemeExecutor schemeExecutor;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.schemeExecutor = SchemeExecutor.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testReturnResultOfThunk() throws SchemeError {
+        assertThat(execute("(dynamic-wind (lambda () 1) (lambda () 2) (lambda () 3))"), equalTo(new SchemeInteger
+                (2)));
+    }
+
+    @Test
+    public void testAfterIsCalledWhenEscapingOnAllEngines() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            schemeExecutor = SchemeExecutor.withEngine(executionEngine);
+
+            // The continuation invoked by 'after' wins over the one invoked by the thunk
+            assertThat(execute("(call/cc (lambda (k) (dynamic-wind (lambda () 1) (lambda () (k 'thunk)) (lambda ()" +
+                    " (k 'after)))))"), equalTo(new SchemeSymbol("after")));
+        }
+    }
+
+    @Test
+    public void testAfterIsCalledOnError() throws SchemeError {
+        assertThat(execute("(call/cc (lambda (k) (dynamic-wind (lambda () 1) (lambda () (undefined-function)) " +
+                "(lambda () (k 'after)))))"), equalTo(new SchemeSymbol("after")));
+    }
+
+    @Test
+    public void testStacklessEngineEscapesThroughDynamicWind() throws SchemeError {
+        schemeExecutor = SchemeExecutor.withEngine(ExecutionEngine.STACKLESS);
+
+        assertThat(execute("(+ 1 (call/cc (lambda (k) (dynamic-wind (lambda () 0) (lambda () (k 41)) (lambda () " +
+                "0)))))"), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testThrowErrorIfArgumentIsNoProcedure() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(dynamic-wind): contract violation [expected: procedure, given: 2]");
+
+        execute("(dynamic-wind (lambda () 1) 2 (lambda () 3))");
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
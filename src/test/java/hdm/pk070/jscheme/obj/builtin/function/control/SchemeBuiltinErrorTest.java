@@ -0,0 +1,90 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeErrorObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeString;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeFalse;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinError} and {@link SchemeBuiltinErrorObject}.
+ */
+public class SchemeBuiltinErrorTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testErrorObjectCarriesMessageAndIrritants() throws SchemeError {
+        assertThat(execute("(guard (e ((error-object? e) (cons (error-object-message e) (error-object-irritants " +
+                "e)))) (error \"bad:\" 1 'x))"), equalTo(new SchemeCons(new SchemeString("bad:"), JSchemeTestUtils
+                .read("(1 x)"))));
+    }
+
+    @Test
+    public void testInterpreterErrorIsCaughtAsErrorObject() throws SchemeError {
+        SchemeObject errorObject = execute("(guard (e (#t e)) (car 1))");
+
+        assertThat(errorObject, instanceOf(SchemeErrorObject.class));
+        assertThat(((SchemeErrorObject) errorObject).isSignalledByInterpreter(), equalTo(true));
+        assertThat(execute("(guard (e (#t (error-object-message e))) (car 1))"), equalTo(new SchemeString("(car): " +
+                "contract violation [expected: cons, given: 1]")));
+    }
+
+    @Test
+    public void testOtherObjectsAreNoErrorObjects() throws SchemeError {
+        assertThat(execute("(guard (e (#t (error-object? e))) (raise 'oops))"), equalTo(new SchemeFalse()));
+    }
+
+    @Test
+    public void testUncaughtErrorReportsMessageAndIrritants() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(error): bad: 1 x");
+
+        execute("(error \"bad:\" 1 'x)");
+    }
+
+    @Test
+    public void testThrowErrorIfMessageIsNoString() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(error): contract violation [expected: string, given: 1]");
+
+        execute("(error 1)");
+    }
+
+    @Test
+    public void testThrowErrorIfAccessorIsAppliedToOtherObject() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(error-object-message): contract violation [expected: error object, " +
+                "given: 1]");
+
+        execute("(error-object-message 1)");
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return SchemeExecutor.getInstance().execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
@@ -0,0 +1,99 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.error.SchemeRaise;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinRaise}.
+ */
+public class SchemeBuiltinRaiseTest {
+
+    private SchemeExecutor schemeExecutor;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.schemeExecutor = SchemeExecutor.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testContinuableRaiseReturnsResultOfHandlerOnAllEngines() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            schemeExecutor = SchemeExecutor.withEngine(executionEngine);
+
+            assertThat(execute("(with-exception-handler (lambda (e) (* e 2)) (lambda () (+ 1 (raise-continuable " +
+                    "20))))"), equalTo(new SchemeInteger(41)));
+        }
+    }
+
+    @Test
+    public void testHandlerIsCalledWithOuterHandlersInstalled() throws SchemeError {
+        assertThat(execute("(with-exception-handler (lambda (e) (cons 'outer e)) (lambda () " +
+                "(with-exception-handler (lambda (e) (raise-continuable 'inner)) (lambda () (raise-continuable " +
+                "'first)))))"), equalTo(new SchemeCons(new SchemeSymbol("outer"), new SchemeSymbol
+                ("inner"))));
+    }
+
+    @Test
+    public void testHandlerIsUninstalledAfterThunkHasReturned() throws SchemeError {
+        execute("(with-exception-handler (lambda (e) 'handled) (lambda () 1))");
+
+        expectedException.expect(SchemeRaise.class);
+        expectedException.expectMessage("(raise): uncaught exception: oops");
+        execute("(raise 'oops)");
+    }
+
+    @Test
+    public void testUncaughtRaiseCarriesRaisedObject() throws SchemeError {
+        try {
+            execute("(raise 'oops)");
+        } catch (SchemeRaise schemeRaise) {
+            assertThat(schemeRaise.getPayload(), equalTo(new SchemeSymbol("oops")));
+            assertThat(schemeRaise.isContinuable(), equalTo(false));
+        }
+    }
+
+    @Test
+    public void testHandlerReturningFromNonContinuableRaiseIsAnError() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(raise): handler returned from non-continuable exception oops");
+
+        execute("(with-exception-handler (lambda (e) 'ignored) (lambda () (raise 'oops)))");
+    }
+
+    @Test
+    public void testThrowErrorIfNumberOfArgumentsDoesNotMatch() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(raise-continuable): arity mismatch");
+
+        execute("(raise-continuable 1 2)");
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
@@ -0,0 +1,91 @@
+package hdm.pk070.jscheme.obj.builtin.function.control;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeString;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinWithExceptionHandler}.
+ */
+public class SchemeBuiltinWithExceptionHandlerTest {
+
+    private SchemeExecutor schemeExecutor;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.schemeExecutor = SchemeExecutor.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testReturnResultOfThunk() throws SchemeError {
+        assertThat(execute("(with-exception-handler (lambda (e) 'handled) (lambda () 'done))"), equalTo(new
+                SchemeSymbol("done")));
+    }
+
+    @Test
+    public void testHandlerEscapesFromInterpreterErrorOnAllEngines() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            schemeExecutor = SchemeExecutor.withEngine(executionEngine);
+
+            assertThat(execute("(call/cc (lambda (k) (with-exception-handler (lambda (e) (k " +
+                    "(error-object-message e))) (lambda () (car 1)))))"), equalTo(new SchemeString("(car): contract " +
+                    "violation [expected: cons, given: 1]")));
+        }
+    }
+
+    @Test
+    public void testErrorWithinHandlerIsPassedToOuterHandler() throws SchemeError {
+        assertThat(execute("(call/cc (lambda (k) (with-exception-handler (lambda (e) (k 'outer)) (lambda () " +
+                "(with-exception-handler (lambda (e) (car e)) (lambda () (raise 'inner)))))))"), equalTo(new
+                SchemeSymbol("outer")));
+    }
+
+    @Test
+    public void testRaiseWithinHandlerIsNotCaughtByItself() throws SchemeError {
+        assertThat(execute("(guard (e (#t e)) (with-exception-handler (lambda (e) (raise 'from-handler)) (lambda " +
+                "() (raise 'first))))"), equalTo(new SchemeSymbol("from-handler")));
+    }
+
+    @Test
+    public void testHandlerReturningFromInterpreterErrorIsAnError() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(raise): handler returned from non-continuable exception");
+
+        execute("(with-exception-handler (lambda (e) 'ignored) (lambda () (car 1)))");
+    }
+
+    @Test
+    public void testThrowErrorIfHandlerIsNoProcedure() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(with-exception-handler): contract violation [expected: procedure, given: " +
+                "1]");
+
+        execute("(with-exception-handler 1 (lambda () 2))");
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
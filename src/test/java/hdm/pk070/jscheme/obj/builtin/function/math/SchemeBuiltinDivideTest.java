@@ -58,6 +58,16 @@ public class SchemeBuiltinDivideTest {
         this.builtinDivide.call(1);
     }
 
+    @Test(expected = SchemeError.class)
+    public void testThrowSchemeErrorOnDivisionByExactZero() throws SchemeError {
+        this.builtinDivide.call2(new SchemeInteger(1), new SchemeInteger(0));
+    }
+
+    @Test(expected = SchemeError.class)
+    public void testThrowSchemeErrorOnReciprocalOfExactZero() throws SchemeError {
+        this.builtinDivide.call1(new SchemeInteger(0));
+    }
+
     @Test
     public void testReturnReciprocalOnSingleIntegerArgument() throws SchemeError {
         SchemeCallStack mockedCallStack = mock(SchemeCallStack.class);
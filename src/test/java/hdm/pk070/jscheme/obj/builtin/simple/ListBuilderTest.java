@@ -0,0 +1,37 @@
+package hdm.pk070.jscheme.obj.builtin.simple;
+
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link ListBuilder}
+ */
+public class ListBuilderTest {
+
+    @Test
+    public void testElementsAreListedInOrder() {
+        ListBuilder listBuilder = ListBuilder.create();
+        listBuilder.append(new SchemeInteger(42));
+        listBuilder.append(new SchemeInteger(43));
+
+        assertThat(listBuilder.complete(new SchemeNil()), equalTo(new SchemeCons(new SchemeInteger(42), new
+                SchemeCons(new SchemeInteger(43), new SchemeNil()))));
+    }
+
+    @Test
+    public void testEmptyListIsTail() {
+        assertThat(ListBuilder.create().complete(new SchemeNil()), equalTo(new SchemeNil()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCompletedListCannotBeAppendedTo() {
+        ListBuilder listBuilder = ListBuilder.create();
+        listBuilder.append(new SchemeInteger(42));
+        listBuilder.complete(new SchemeNil());
+
+        listBuilder.append(new SchemeInteger(43));
+    }
+}
@@ -13,6 +13,6 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({SchemeObjectTest.class, SchemeIntegerTest.class, SchemeFractionTest.class,
         ApacheCommonsFractionLearningTest.class, SchemeFloatTest
-        .class, SchemeConsTest.class})
+        .class, SchemeConsTest.class, ListBuilderTest.class})
 public class SchemeBuiltinSimpleTypesTestSuite {
 }
@@ -74,4 +74,17 @@ public class SchemeConsTest {
         assertThat("List does not have expected formatting!", degeneratedConsString, equalTo("\'(\"foobar\" " +
                 "\"fizzbuzz\" . 42)"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCellWithPendingCdrIsCompletedOnce() {
+        SchemeCons cell = SchemeCons.withPendingCdr(new SchemeInteger(42));
+        cell.fillInCdr(new SchemeCons(new SchemeInteger(43), new SchemeNil()));
+
+        assertThat(cell, equalTo(cons1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCdrCannotBeReplaced() {
+        cons3.fillInCdr(new SchemeNil());
+    }
+}
@@ -1,7 +1,11 @@
 package hdm.pk070.jscheme.obj.builtin.simple;
 
 import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.SchemeType;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeFalse;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeFraction;
 import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.obj.builtin.simple.number.floatComplex.SchemeFloat;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -62,4 +66,23 @@ public class SchemeObjectTest {
         assertThat(schemeIntObj.equals(new SchemeInteger((Integer) schemeIntObj.getValue())), equalTo(true));
         assertThat(schemeStringObj.equals(new SchemeString((String) schemeStringObj.getValue())), equalTo(true));
     }
+
+    @Test
+    public void testObjectsCarryTypeTagMatchingTheirClass() {
+        assertThat(schemeIntObj.hasType(SchemeType.INTEGER), equalTo(true));
+        assertThat(schemeStringObj.hasType(SchemeType.STRING), equalTo(true));
+        assertThat(schemeStringObj.hasType(SchemeType.INTEGER), equalTo(false));
+        assertThat(new SchemeNil().hasType(SchemeType.NIL), equalTo(true));
+        assertThat(new SchemeSymbol("foo").hasType(SchemeType.SYMBOL), equalTo(true));
+    }
+
+    @Test
+    public void testTypeCategoriesMatchSubtypeOf() {
+        assertThat(new SchemeFraction(1, 2).getType().isNumber(), equalTo(true));
+        assertThat(new SchemeFloat(1.5f).getType().isNumber(), equalTo(true));
+        assertThat(new SchemeFalse().getType().isBool(), equalTo(true));
+        assertThat(new SchemeFalse().getType().isSymbol(), equalTo(true));
+        assertThat(new SchemeNil().getType().isSymbol(), equalTo(true));
+        assertThat(schemeStringObj.getType().isNumber(), equalTo(false));
+    }
 }
@@ -0,0 +1,84 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinDo}.
+ */
+public class SchemeBuiltinDoTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testDoLoopsUntilTestIsMet() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            assertThat(execute(executionEngine, "(do ((i 0 (+ i 1)) (acc 0 (+ acc i))) ((eq? i 1000000) acc))"),
+                    equalTo(new SchemeInteger(1783293664)));
+        }
+    }
+
+    @Test
+    public void testVariableWithoutStepKeepsItsValue() throws SchemeError {
+        assertThat(execute(ExecutionEngine.ANALYZED, "(do ((i 0 (+ i 1)) (k 5)) ((eq? i 3) (* i k)))"), equalTo(new
+                SchemeInteger(15)));
+    }
+
+    @Test
+    public void testCommandsAreExecutedBeforeEveryStep() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+
+        execute(ExecutionEngine.ANALYZED, "(do ((i 0 (+ i 1))) ((eq? i 1) 'done) (car i))");
+    }
+
+    @Test
+    public void testCommandsAreSkippedOnceTestIsMet() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            assertThat(execute(executionEngine, "(do ((i 0 (+ i 1))) ((eq? i 0) i) (car i))"), equalTo(new
+                    SchemeInteger(0)));
+        }
+    }
+
+    @Test
+    public void testDoWithoutResultExpressionsReturnsVoid() throws SchemeError {
+        assertThat(execute(ExecutionEngine.ANALYZED, "(do ((i 0 (+ i 1))) ((eq? i 3)))"), equalTo(new SchemeVoid()));
+    }
+
+    @Test
+    public void testInvalidVariableSpecificationIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(do): bad syntax, not a variable specification: '(i)");
+
+        execute(ExecutionEngine.ANALYZED, "(do ((i)) ((eq? i 3)))");
+    }
+
+    private SchemeObject execute(ExecutionEngine executionEngine, String input) throws SchemeError {
+        return SchemeExecutor.withEngine(executionEngine).execute(JSchemeTestUtils.read(input), GlobalEnvironment
+                .getInstance());
+    }
+}
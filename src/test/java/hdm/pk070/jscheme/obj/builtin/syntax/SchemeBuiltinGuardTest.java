@@ -0,0 +1,121 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.FuelExhaustedError;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.error.SchemeRaise;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.bool.SchemeTrue;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinGuard}.
+ */
+public class SchemeBuiltinGuardTest {
+
+    private SchemeExecutor schemeExecutor;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.schemeExecutor = SchemeExecutor.getInstance();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testReturnResultOfBody() throws SchemeError {
+        assertThat(execute("(guard (e (#t 'caught)) (define x 1) (+ x 1))"), equalTo(new SchemeInteger(2)));
+    }
+
+    @Test
+    public void testRaisedObjectIsCaughtOnAllEngines() throws SchemeError {
+        execute("(define (safe-car x) (guard (e ((eq? e 'oops) 'raised) (else 'failed)) (if (eq? x 0) (raise " +
+                "'oops) (car x))))");
+
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            schemeExecutor = SchemeExecutor.withEngine(executionEngine);
+
+            assertThat(execute("(safe-car 0)"), equalTo(new SchemeSymbol("raised")));
+            assertThat(execute("(safe-car 1)"), equalTo(new SchemeSymbol("failed")));
+            assertThat(execute("(safe-car '(1 2))"), equalTo(new SchemeInteger(1)));
+        }
+    }
+
+    @Test
+    public void testClauseMayPassTestResultToReceiver() throws SchemeError {
+        assertThat(execute("(guard (e ((cons? e) => (lambda (t) (car e)))) (raise '(1 2)))"), equalTo(new
+                SchemeInteger(1)));
+    }
+
+    @Test
+    public void testClauseWithoutExpressionsReturnsTestResult() throws SchemeError {
+        assertThat(execute("(guard (e ((cons? e))) (raise '(1 2)))"), equalTo(new SchemeTrue()));
+    }
+
+    @Test
+    public void testClauseWithSeveralExpressionsReturnsLastResult() throws SchemeError {
+        assertThat(execute("(guard (e (#t 1 2 (+ e 1))) (raise 41))"), equalTo(new SchemeInteger(42)));
+    }
+
+    @Test
+    public void testObjectIsRaisedToOuterGuardIfNoClauseApplies() throws SchemeError {
+        assertThat(execute("(guard (e ((eq? e 'outer) 'outer-caught)) (guard (e ((eq? e 'inner) 'inner-caught)) " +
+                "(raise 'outer)))"), equalTo(new SchemeSymbol("outer-caught")));
+    }
+
+    @Test
+    public void testUncaughtObjectLeavesGuard() throws SchemeError {
+        expectedException.expect(SchemeRaise.class);
+        expectedException.expectMessage("(raise): uncaught exception: oops");
+
+        execute("(guard (e ((eq? e 'other) 'caught)) (raise 'oops))");
+    }
+
+    @Test
+    public void testExceededBudgetIsNotCaught() throws SchemeError {
+        schemeExecutor.setFuel(100);
+        execute("(define (loop n) (loop (+ n 1)))");
+
+        expectedException.expect(FuelExhaustedError.class);
+        execute("(guard (e (#t 'caught)) (loop 0))");
+    }
+
+    @Test
+    public void testThrowErrorIfVariableIsMissing() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(guard): bad syntax, missing variable and clauses");
+
+        execute("(guard () 1)");
+    }
+
+    @Test
+    public void testThrowErrorIfElseIsNotLastClause() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(guard): bad syntax, 'else' must be the last clause");
+
+        execute("(guard (e (else 1) (#t 2)) 3)");
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return schemeExecutor.execute(JSchemeTestUtils.read(input), GlobalEnvironment.getInstance());
+    }
+}
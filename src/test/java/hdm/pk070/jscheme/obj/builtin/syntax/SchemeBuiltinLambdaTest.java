@@ -7,6 +7,7 @@ import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
 import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
 import hdm.pk070.jscheme.obj.custom.SchemeCustomUserFunction;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -77,4 +78,19 @@ public class SchemeBuiltinLambdaTest {
         assertThat("Custom function does not have expected body list!", ((SchemeCustomUserFunction) result)
                 .getFunctionBodyList(), equalTo(bodyList));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testApplyCreatesNewClosureOnEveryEvaluation() throws SchemeError {
+        SchemeCons paramList = (new SchemeCons(new SchemeSymbol("x"), new SchemeNil()));
+        SchemeCons bodyList = new SchemeCons(new SchemeSymbol("x"), new SchemeNil());
+        SchemeCons lambdaArgumentList = new SchemeCons(paramList, bodyList);
+
+        SchemeObject firstClosure = this.builtinLambda.apply(lambdaArgumentList, LocalEnvironment.withSize(1));
+        SchemeObject secondClosure = this.builtinLambda.apply(lambdaArgumentList, LocalEnvironment.withSize(1));
+
+        assertThat(firstClosure, not(sameInstance(secondClosure)));
+        assertThat(((SchemeCustomUserFunction) firstClosure).getHomeEnvironment(), not(sameInstance((
+                (SchemeCustomUserFunction) secondClosure).getHomeEnvironment())));
+        assertThat(((SchemeCustomUserFunction) firstClosure).getParamCount(), equalTo(1));
+    }
+}
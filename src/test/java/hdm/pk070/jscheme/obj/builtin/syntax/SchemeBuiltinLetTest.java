@@ -0,0 +1,109 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinLet}.
+ */
+public class SchemeBuiltinLetTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testLetBindsVariablesForBody() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            assertThat(execute(executionEngine, "(let ((x 1) (y 2)) (+ x y))"), equalTo(new SchemeInteger(3)));
+        }
+    }
+
+    @Test
+    public void testInitialValuesAreEvaluatedOutsideOfLet() throws SchemeError {
+        execute(ExecutionEngine.ANALYZED, "(define x 10)");
+
+        assertThat(execute(ExecutionEngine.ANALYZED, "(let ((x 1) (y x)) y)"), equalTo(new SchemeInteger(10)));
+    }
+
+    @Test
+    public void testNamedLetLoopsInConstantStackSpace() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            assertThat(execute(executionEngine, "(let loop ((i 1000000) (acc 0)) (if (eq? i 0) acc (loop (- i 1) " +
+                    "(+ acc 1))))"), equalTo(new SchemeInteger(1000000)));
+        }
+    }
+
+    @Test
+    public void testNamedLetInsideFunctionSeesParameters() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            execute(executionEngine, "(define (sum-to n) (let loop ((i n) (acc 0)) (if (eq? i 0) acc (loop (- i 1)" +
+                    " (+ acc i)))))");
+
+            assertThat(execute(executionEngine, "(sum-to 100)"), equalTo(new SchemeInteger(5050)));
+        }
+    }
+
+    @Test
+    public void testClosuresCreatedByLoopKeepTheirIteration() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            execute(executionEngine, "(define thunks (let loop ((i 3) (acc '())) (if (eq? i 0) acc (loop (- i 1) " +
+                    "(cons (lambda () i) acc)))))");
+
+            assertThat(execute(executionEngine, "((car thunks))"), equalTo(new SchemeInteger(1)));
+            assertThat(execute(executionEngine, "((car (cdr (cdr thunks))))"), equalTo(new SchemeInteger(3)));
+        }
+    }
+
+    @Test
+    public void testLoopCanBeCalledAfterLetHasReturned() throws SchemeError {
+        for (ExecutionEngine executionEngine : ExecutionEngine.values()) {
+            execute(executionEngine, "(define step (let loop ((n 0)) (if (eq? n 0) loop n)))");
+
+            assertThat(execute(executionEngine, "(step 7)"), equalTo(new SchemeInteger(7)));
+        }
+    }
+
+    @Test
+    public void testInvalidBindingIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(let): bad syntax, not an identifier and expression for a binding in: '(x)");
+
+        execute(ExecutionEngine.ANALYZED, "(let ((x)) x)");
+    }
+
+    @Test
+    public void testMissingBodyIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(let): bad syntax, missing body");
+
+        execute(ExecutionEngine.ANALYZED, "(let ((x 1)))");
+    }
+
+    private SchemeObject execute(ExecutionEngine executionEngine, String input) throws SchemeError {
+        return SchemeExecutor.withEngine(executionEngine).execute(JSchemeTestUtils.read(input), GlobalEnvironment
+                .getInstance());
+    }
+}
@@ -0,0 +1,129 @@
+package hdm.pk070.jscheme.obj.builtin.syntax;
+
+import hdm.pk070.jscheme.analyze.ExecutionEngine;
+import hdm.pk070.jscheme.analyze.SchemeExecutor;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.JitCompiler;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeVoid;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeBuiltinSet}.
+ */
+public class SchemeBuiltinSetTest {
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private int originalThreshold;
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.originalThreshold = JitCompiler.getCompileThreshold();
+    }
+
+    @After
+    public void tearDown() {
+        JitCompiler.setCompileThreshold(originalThreshold);
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testSetAssignsGlobalVariable() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define x 1)");
+
+            assertThat(engine.getEngineName(), execute(engine, "(set! x (+ x 1))"), equalTo(new SchemeVoid()));
+            assertThat(engine.getEngineName(), execute(engine, "x"), equalTo(new SchemeInteger(2)));
+        }
+    }
+
+    @Test
+    public void testSetOfUndefinedVariableThrowsError() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(set!): cannot set undefined variable undefined-variable");
+
+        execute(ExecutionEngine.ANALYZED, "(set! undefined-variable 1)");
+    }
+
+    @Test
+    public void testSetWithoutValueThrowsError() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(set!): bad syntax (requires exactly 2 arguments)");
+
+        execute(ExecutionEngine.TREE_WALKER, "(set! x)");
+    }
+
+    @Test
+    public void testSetOfNonSymbolThrowsError() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(set!): bad syntax (not an identifier: 1)");
+
+        execute(ExecutionEngine.ANALYZED, "(set! 1 2)");
+    }
+
+    @Test
+    public void testClosuresShareAssignedVariable() throws SchemeError {
+        JitCompiler.setCompileThreshold(2);
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define (make-counter) (let ((n 0)) (lambda () (set! n (+ n 1)) n)))");
+            execute(engine, "(define counter (make-counter))");
+            for (int i = 1; i <= 5; i++) {
+                assertThat(engine.getEngineName(), execute(engine, "(counter)"), equalTo(new SchemeInteger(i)));
+            }
+            assertThat(engine.getEngineName(), execute(engine, "((make-counter))"), equalTo(new SchemeInteger(1)));
+        }
+    }
+
+    @Test
+    public void testClosureSeesAssignmentAfterItsCreation() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define (f x) (let ((get (lambda () x))) (set! x (* x 10)) (get)))");
+
+            assertThat(engine.getEngineName(), execute(engine, "(f 4)"), equalTo(new SchemeInteger(40)));
+        }
+    }
+
+    @Test
+    public void testLoopIterationsKeepTheirOwnAssignedVariable() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define thunks (let loop ((i 2) (acc '())) (if (eq? i 0) acc (loop (- i 1) (cons " +
+                    "(lambda () (set! i (+ i 10)) i) acc)))))");
+
+            assertThat(engine.getEngineName(), execute(engine, "((car thunks))"), equalTo(new SchemeInteger(11)));
+            assertThat(engine.getEngineName(), execute(engine, "((car thunks))"), equalTo(new SchemeInteger(21)));
+            assertThat(engine.getEngineName(), execute(engine, "((car (cdr thunks)))"), equalTo(new SchemeInteger
+                    (12)));
+        }
+    }
+
+    @Test
+    public void testSetAccumulatesWithinLoop() throws SchemeError {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            execute(engine, "(define (collect n) (let ((acc '())) (do ((i 0 (+ i 1))) ((eq? i n) acc) (set! acc " +
+                    "(cons i acc)))))");
+
+            assertThat(engine.getEngineName(), execute(engine, "(collect 2)"), equalTo(new SchemeCons(new
+                    SchemeInteger(1), new SchemeCons(new SchemeInteger(0), new SchemeNil()))));
+        }
+    }
+
+    private SchemeObject execute(ExecutionEngine engine, String input) throws SchemeError {
+        return SchemeExecutor.withEngine(engine).execute(JSchemeTestUtils.read(input), GlobalEnvironment
+                .getInstance());
+    }
+}
@@ -8,7 +8,8 @@ import org.junit.runners.Suite;
  */
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({SchemeBuiltinDefineTest.class, SchemeBuiltinIfTest.class, SchemeBuiltinLambdaTest.class,
-        SchemeBuiltinQuoteTest.class})
+@Suite.SuiteClasses({SchemeBuiltinDefineTest.class, SchemeBuiltinDoTest.class, SchemeBuiltinIfTest.class,
+        SchemeBuiltinLambdaTest.class, SchemeBuiltinLetTest.class, SchemeBuiltinQuoteTest.class,
+        SchemeBuiltinGuardTest.class, SchemeBuiltinSetTest.class})
 public class SchemeBuiltinSyntaxTestSuite {
 }
@@ -0,0 +1,83 @@
+package hdm.pk070.jscheme.obj.custom;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeCons;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeNil;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.LocalEnvironment;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link FunctionTemplateCache}.
+ */
+public class FunctionTemplateCacheTest {
+
+    private FunctionTemplateCache functionTemplateCache;
+    private SchemeCons parameterList;
+    private SchemeCons bodyList;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() {
+        this.functionTemplateCache = FunctionTemplateCache.getInstance();
+        this.parameterList = new SchemeCons(new SchemeSymbol("x"), new SchemeNil());
+        this.bodyList = new SchemeCons(new SchemeInteger(42), new SchemeNil());
+    }
+
+    @Test
+    public void testSameSourceYieldsSameTemplate() throws SchemeError {
+        SchemeCons source = new SchemeCons(parameterList, bodyList);
+
+        SchemeCustomUserFunction template = functionTemplateCache.templateFor(source, "f", parameterList, bodyList);
+
+        assertThat(functionTemplateCache.templateFor(source, "f", parameterList, bodyList), sameInstance(template));
+        assertThat(template.getParamCount(), equalTo(1));
+    }
+
+    @Test
+    public void testTemplatesAreLookedUpByIdentity() throws SchemeError {
+        SchemeCons source = new SchemeCons(parameterList, bodyList);
+        SchemeCons equalSource = new SchemeCons(parameterList, bodyList);
+
+        assertThat(functionTemplateCache.templateFor(source, "f", parameterList, bodyList), not(sameInstance
+                (functionTemplateCache.templateFor(equalSource, "f", parameterList, bodyList))));
+    }
+
+    @Test
+    public void testClosuresOfTemplateHaveOwnHomeEnvironment() throws SchemeError {
+        SchemeCons source = new SchemeCons(parameterList, bodyList);
+        SchemeCustomUserFunction template = functionTemplateCache.templateFor(source, "f", parameterList, bodyList);
+        LocalEnvironment homeEnvironment = LocalEnvironment.withSize(1);
+
+        SchemeCustomUserFunction closure = template.bindTo(homeEnvironment);
+
+        assertThat(closure, not(sameInstance(template)));
+        assertThat(closure.getHomeEnvironment(), sameInstance(homeEnvironment));
+        assertThat(closure.getParamCount(), equalTo(1));
+    }
+
+    @Test
+    public void testInvalidFunctionIsNotCached() throws SchemeError {
+        SchemeCons invalidParameterList = new SchemeCons(new SchemeInteger(1), new SchemeNil());
+        SchemeCons source = new SchemeCons(invalidParameterList, bodyList);
+        try {
+            functionTemplateCache.templateFor(source, "f", invalidParameterList, bodyList);
+        } catch (SchemeError ignored) {
+        }
+
+        // Preparing fails once more instead of returning a broken template
+        expectedException.expect(SchemeError.class);
+        functionTemplateCache.templateFor(source, "f", invalidParameterList, bodyList);
+    }
+}
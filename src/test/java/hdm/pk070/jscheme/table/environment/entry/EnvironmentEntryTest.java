@@ -5,6 +5,9 @@ import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 import static org.hamcrest.Matchers.*;
 
@@ -45,4 +48,34 @@ public class EnvironmentEntryTest {
         assertThat("hash codes must not be equal!", environmentEntryB.hashCode(), not(equalTo(environmentEntryC
                 .hashCode())));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testRedefinitionListenerIsNotifiedOnce() {
+        List<EnvironmentEntry> notifiedEntries = new ArrayList<>();
+        RedefinitionListener redefinitionListener = notifiedEntries::add;
+        environmentEntryA.addRedefinitionListener(redefinitionListener);
+
+        environmentEntryA.setValue(new SchemeInteger(1));
+        environmentEntryA.setValue(new SchemeInteger(2));
+
+        assertThat("listener must be notified exactly once!", notifiedEntries, contains(environmentEntryA));
+    }
+
+    @Test
+    public void testEntryIsStableUntilValueIsReplaced() {
+        assertThat("entry must be stable!", environmentEntryA.isStable(), equalTo(true));
+
+        environmentEntryA.setValue(new SchemeInteger(1));
+
+        assertThat("entry must not be stable!", environmentEntryA.isStable(), equalTo(false));
+    }
+
+    @Test
+    public void testFillingInMissingValueKeepsEntryStable() {
+        EnvironmentEntry placeholderEntry = EnvironmentEntry.create(new SchemeSymbol("baz"), null);
+
+        placeholderEntry.setValue(new SchemeInteger(1));
+
+        assertThat("entry must be stable!", placeholderEntry.isStable(), equalTo(true));
+    }
+}
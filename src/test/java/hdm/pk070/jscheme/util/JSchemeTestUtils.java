@@ -0,0 +1,61 @@
+package hdm.pk070.jscheme.util;
+
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.reader.SchemeReader;
+import hdm.pk070.jscheme.setup.JSchemeSetup;
+import hdm.pk070.jscheme.table.ResizableTable;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.exception.ReflectionUtilsException;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+
+/**
+ * Helpers for tests which need to read and run whole JScheme expressions.
+ */
+public final class JSchemeTestUtils {
+
+    private JSchemeTestUtils() {
+    }
+
+    public static void registerBuiltins() throws SchemeError {
+        JSchemeSetup.registerBuiltins();
+    }
+
+    /**
+     * Read a single expression from a string.
+     *
+     * @param input
+     *         The expression in textual form.
+     * @return The reader's output.
+     * @throws SchemeError
+     *         If the input cannot be read.
+     */
+    public static SchemeObject read(String input) throws SchemeError {
+        ByteArrayInputStream inputStream = new ByteArrayInputStream(input.getBytes());
+        SchemeReader schemeReader = SchemeReader.withInputStream(inputStream);
+        schemeReader.switchInputStream(inputStream);
+        return schemeReader.read();
+    }
+
+    /**
+     * Remove all bindings from {@link GlobalEnvironment}, since it is a singleton shared by all tests.
+     */
+    public static void resetGlobalEnvironment() {
+        GlobalEnvironment globalEnvironment = GlobalEnvironment.getInstance();
+        setTableField(globalEnvironment, "entries", new Object[511]);
+        setTableField(globalEnvironment, "currentTableSize", 511);
+        setTableField(globalEnvironment, "currentFillSize", 0);
+    }
+
+    private static void setTableField(GlobalEnvironment globalEnvironment, String fieldName, Object value) {
+        try {
+            Field field = ResizableTable.class.getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(globalEnvironment, value);
+        } catch (NoSuchFieldException | IllegalAccessException e) {
+            throw new ReflectionUtilsException(String.format("Unable to reset field %s", fieldName));
+        }
+    }
+}
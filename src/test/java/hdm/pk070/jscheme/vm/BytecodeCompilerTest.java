@@ -0,0 +1,58 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.analyze.node.LambdaNode;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link BytecodeCompiler}.
+ */
+public class BytecodeCompilerTest {
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testParameterIsLoadedFromSlot() throws SchemeError {
+        CompiledCode compiledCode = compileLambdaBody("(lambda (x y) y)");
+
+        assertThat(compiledCode.getInstructions(), equalTo(new int[]{Opcode.LOAD_LOCAL, 0, 1, 0, Opcode.RETURN}));
+    }
+
+    @Test
+    public void testIfIsCompiledToJumps() throws SchemeError {
+        CompiledCode compiledCode = compileLambdaBody("(lambda (x) (if x 1 2))");
+
+        assertThat(compiledCode.getInstructions(), equalTo(new int[]{Opcode.LOAD_LOCAL, 0, 0, 0, Opcode
+                .JUMP_IF_FALSE, 10, Opcode.CONST, 1, Opcode.JUMP, 12, Opcode.CONST, 2, Opcode.RETURN}));
+    }
+
+    @Test
+    public void testCallInTailPositionBecomesTailCall() throws SchemeError {
+        CompiledCode compiledCode = compileLambdaBody("(lambda (x) (f x))");
+
+        assertThat(compiledCode.getInstructions(), equalTo(new int[]{Opcode.LOAD_GLOBAL, 0, Opcode.APPLY_SYNTAX,
+                1, 12, Opcode.LOAD_LOCAL, 0, 0, 2, Opcode.TAIL_CALL, 1, 3, Opcode.RETURN}));
+    }
+
+    private CompiledCode compileLambdaBody(String input) throws SchemeError {
+        LambdaNode lambdaNode = (LambdaNode) SchemeAnalyzer.getInstance().analyze(JSchemeTestUtils.read(input),
+                GlobalEnvironment.getInstance());
+        return BytecodeCompiler.getInstance().compile(lambdaNode.getPreparedFunction().getAnalyzedBody());
+    }
+}
@@ -0,0 +1,176 @@
+package hdm.pk070.jscheme.vm;
+
+import hdm.pk070.jscheme.analyze.SchemeAnalyzer;
+import hdm.pk070.jscheme.error.SchemeError;
+import hdm.pk070.jscheme.jit.JitCompiler;
+import hdm.pk070.jscheme.obj.SchemeObject;
+import hdm.pk070.jscheme.obj.builtin.simple.SchemeSymbol;
+import hdm.pk070.jscheme.obj.builtin.simple.number.exact.SchemeInteger;
+import hdm.pk070.jscheme.table.environment.GlobalEnvironment;
+import hdm.pk070.jscheme.util.JSchemeTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * A test class for {@link SchemeVirtualMachine}.
+ */
+public class SchemeVirtualMachineTest {
+
+    private SchemeVirtualMachine virtualMachine;
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws SchemeError {
+        JSchemeTestUtils.registerBuiltins();
+        this.virtualMachine = SchemeVirtualMachine.create();
+    }
+
+    @After
+    public void tearDown() {
+        JSchemeTestUtils.resetGlobalEnvironment();
+    }
+
+    @Test
+    public void testRecursiveFunction() throws SchemeError {
+        execute("(define (fact n) (if (eq? n 0) 1 (* n (fact (- n 1)))))");
+
+        assertThat(execute("(fact 10)"), equalTo(new SchemeInteger(3628800)));
+    }
+
+    @Test
+    public void testClosureKeepsHomeEnvironment() throws SchemeError {
+        execute("(define (make-adder n) (lambda (x) (+ x n)))");
+
+        assertThat(execute("((make-adder 10) 5)"), equalTo(new SchemeInteger(15)));
+    }
+
+    @Test
+    public void testInternalDefinition() throws SchemeError {
+        execute("(define (f x) (define y (* x 2)) (+ x y))");
+
+        assertThat(execute("(f 3)"), equalTo(new SchemeInteger(9)));
+    }
+
+    @Test
+    public void testTailCallsRunInConstantStackSpace() throws SchemeError {
+        execute("(define (count-down n) (if (eq? n 0) 'done (count-down (- n 1))))");
+
+        assertThat(execute("(count-down 100000)"), equalTo(new SchemeSymbol("done")));
+    }
+
+    @Test
+    public void testSelfTailCallsLoopWithinCurrentEnvironment() throws SchemeError {
+        // Keep the body interpreted, so the loop is run by the virtual machine
+        int originalThreshold = JitCompiler.getCompileThreshold();
+        JitCompiler.setCompileThreshold(0);
+        try {
+            execute("(define (collect n acc) (if (eq? n 0) acc (collect (- n 1) (cons (lambda () n) acc))))");
+
+            assertThat(execute("((car (collect 100000 '())))"), equalTo(new SchemeInteger(1)));
+            assertThat(execute("((car (cdr (collect 3 '()))))"), equalTo(new SchemeInteger(2)));
+        } finally {
+            JitCompiler.setCompileThreshold(originalThreshold);
+        }
+    }
+
+    @Test
+    public void testSelfTailCallsWithHeapFrames() throws SchemeError {
+        virtualMachine = SchemeVirtualMachine.withHeapFrames(100);
+        execute("(define (count n acc) (if (eq? n 0) acc (count (- n 1) (+ acc 1))))");
+
+        assertThat(execute("(count 100000 0)"), equalTo(new SchemeInteger(100000)));
+    }
+
+    @Test
+    public void testSyntaxBoundToOtherNameGetsUnevaluatedArguments() throws SchemeError {
+        execute("(define choose if)");
+        execute("(define (f x) (choose x 1 undefined-variable))");
+
+        assertThat(execute("(f 1)"), equalTo(new SchemeInteger(1)));
+    }
+
+    @Test
+    public void testArityMismatchIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(eval): arity mismatch, expected number of arguments does not match the " +
+                "given number [expected: 1, more given!]");
+
+        execute("(define (f x) x)");
+        execute("(f 1 2)");
+    }
+
+    @Test
+    public void testApplyingNonProcedureIsReported() throws SchemeError {
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("application: not a procedure [expected: procedure that can be applied to" +
+                " arguments, given: 1]");
+
+        execute("(1 2)");
+    }
+
+    @Test
+    public void testOperandStackIsClearedAfterError() throws SchemeError {
+        execute("(define (f x) (+ 1 (g x)))");
+        try {
+            execute("(f 1)");
+        } catch (SchemeError ignored) {
+        }
+
+        assertThat(execute("(+ 1 2)"), equalTo(new SchemeInteger(3)));
+    }
+
+    @Test
+    public void testDeepNonTailRecursionWithHeapFrames() throws SchemeError {
+        virtualMachine = SchemeVirtualMachine.withHeapFrames(1000000);
+        execute("(define (build n) (if (eq? n 0) '() (cons n (build (- n 1)))))");
+        execute("(define (length l acc) (if (cons? l) (length (cdr l) (+ acc 1)) acc))");
+
+        assertThat(execute("(length (build 100000) 0)"), equalTo(new SchemeInteger(100000)));
+    }
+
+    @Test
+    public void testHeapFramesReturnResultsOfBuiltinsInTailPosition() throws SchemeError {
+        virtualMachine = SchemeVirtualMachine.withHeapFrames(1000000);
+        execute("(define (sum n) (if (eq? n 0) 0 (+ n (sum (- n 1)))))");
+
+        assertThat(execute("(sum 100000)"), equalTo(new SchemeInteger(705082704)));
+    }
+
+    @Test
+    public void testExceedingFrameLimitIsReported() throws SchemeError {
+        virtualMachine = SchemeVirtualMachine.withHeapFrames(100);
+        execute("(define (sum n) (if (eq? n 0) 0 (+ n (sum (- n 1)))))");
+
+        // 100 nested calls, from (sum 99) down to (sum 0)
+        assertThat(execute("(sum 99)"), equalTo(new SchemeInteger(4950)));
+
+        expectedException.expect(SchemeError.class);
+        expectedException.expectMessage("(vm): recursion depth exceeds the limit of 100 frames");
+        execute("(sum 100)");
+    }
+
+    @Test
+    public void testFrameStackIsClearedAfterError() throws SchemeError {
+        virtualMachine = SchemeVirtualMachine.withHeapFrames(100);
+        execute("(define (sum n) (if (eq? n 0) 0 (+ n (sum (- n 1)))))");
+        try {
+            execute("(sum 1000)");
+        } catch (SchemeError ignored) {
+        }
+
+        assertThat(execute("(sum 99)"), equalTo(new SchemeInteger(4950)));
+    }
+
+    private SchemeObject execute(String input) throws SchemeError {
+        return virtualMachine.execute(SchemeAnalyzer.getInstance().analyze(JSchemeTestUtils.read(input),
+                GlobalEnvironment.getInstance()), GlobalEnvironment.getInstance());
+    }
+}
@@ -0,0 +1,13 @@
+package hdm.pk070.jscheme.vm;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * A test suite collecting all test classes dealing with bytecode compilation and execution.
+ */
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({BytecodeCompilerTest.class, SchemeVirtualMachineTest.class})
+public class SchemeVmTestSuite {
+}